@@ -0,0 +1,150 @@
+package com.oscity.map;
+
+import org.bukkit.entity.Player;
+import org.bukkit.map.MapCanvas;
+import org.bukkit.map.MapCursorCollection;
+import org.bukkit.map.MapFont;
+import org.bukkit.map.MapRenderer;
+import org.bukkit.map.MapView;
+import org.bukkit.map.MinecraftFont;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one map render callback: the anonymous renderers the room
+ * managers used (repaint all 16,384 pixels plus the text on every call)
+ * vs RasterRenderer, which returns at once when nothing changed and
+ * otherwise copies only the pixels that differ.
+ *
+ * The content is the TLB entry map. The canvas is a plain byte array with
+ * MapCanvas.drawText's pixel-by-pixel text drawing, so what is measured is
+ * the renderer's own work, not the server's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapRenderBenchmark {
+
+    private static final byte BG     = MapRaster.color(10, 20, 40);
+    private static final byte ACCENT = MapRaster.color(30, 80, 150);
+
+    private ArrayCanvas canvas;
+    private MapRenderer legacy;
+    private RasterRenderer raster;
+    private MapRaster entryA, entryB;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        canvas = new ArrayCanvas();
+        legacy = legacyTlbRenderer("0x7", "0x3");
+        entryA = tlbEntry("0x7", "0x3");
+        entryB = tlbEntry("0x7", "0x4");
+        raster = new RasterRenderer();
+        raster.show(entryA);
+        raster.render(null, canvas, null);
+    }
+
+    /** Before: every callback repaints the whole map. */
+    @Benchmark
+    public void legacyRender(Blackhole bh) {
+        legacy.render(null, canvas, null);
+        bh.consume(canvas.pixels);
+    }
+
+    /** After, the common case: the map has not changed since the last render. */
+    @Benchmark
+    public void rasterRenderUnchanged(Blackhole bh) {
+        raster.render(null, canvas, null);
+        bh.consume(canvas.pixels);
+    }
+
+    /** After, on an update: one line of text changed, then one render. */
+    @Benchmark
+    public void rasterRenderAfterChange(Blackhole bh) {
+        flip = !flip;
+        raster.show(flip ? entryB : entryA);
+        raster.render(null, canvas, null);
+        bh.consume(canvas.pixels);
+    }
+
+    /** One-off cost of drawing the content, paid once per update instead of per render. */
+    @Benchmark
+    public MapRaster rasterize() {
+        return tlbEntry("0x7", "0x3");
+    }
+
+    private static MapRaster tlbEntry(String vpn, String pfn) {
+        return new MapRaster()
+            .fill(BG)
+            .fillRows(0, 1, ACCENT)
+            .fillRows(126, 127, ACCENT)
+            .drawText(3,  20, "= TLB Entry =")
+            .drawText(3,  46, "VPN: " + vpn)
+            .drawText(3,  64, "PFN: " + pfn)
+            .drawText(3,  82, vpn + " -> " + pfn);
+    }
+
+    /** The renderer TLBRoomManager.buildTLBEntryMap used to add. */
+    private static MapRenderer legacyTlbRenderer(String vpn, String pfn) {
+        return new MapRenderer(false) {
+            @Override
+            public void render(MapView mapView, MapCanvas canvas, Player p) {
+                for (int x = 0; x < 128; x++)
+                    for (int y = 0; y < 128; y++)
+                        canvas.setPixel(x, y, BG);
+                for (int x = 0; x < 128; x++) {
+                    canvas.setPixel(x, 0,   ACCENT);
+                    canvas.setPixel(x, 1,   ACCENT);
+                    canvas.setPixel(x, 126, ACCENT);
+                    canvas.setPixel(x, 127, ACCENT);
+                }
+                canvas.drawText(3,  20, MinecraftFont.Font, "= TLB Entry =");
+                canvas.drawText(3,  46, MinecraftFont.Font, "VPN: " + vpn);
+                canvas.drawText(3,  64, MinecraftFont.Font, "PFN: " + pfn);
+                canvas.drawText(3,  82, MinecraftFont.Font, vpn + " -> " + pfn);
+            }
+        };
+    }
+
+    /** Byte-array MapCanvas; drawText works pixel by pixel like the server's. */
+    static final class ArrayCanvas implements MapCanvas {
+        final byte[] pixels = new byte[128 * 128];
+
+        @Override
+        public void setPixel(int x, int y, byte color) {
+            if (x >= 0 && x < 128 && y >= 0 && y < 128) pixels[y * 128 + x] = color;
+        }
+
+        @Override
+        public byte getPixel(int x, int y) {
+            return pixels[y * 128 + x];
+        }
+
+        @Override
+        public void drawText(int x, int y, MapFont font, String text) {
+            for (int i = 0; i < text.length(); i++) {
+                MapFont.CharacterSprite sprite = font.getChar(text.charAt(i));
+                for (int r = 0; r < font.getHeight(); r++) {
+                    for (int c = 0; c < sprite.getWidth(); c++) {
+                        if (sprite.get(r, c)) setPixel(x + c, y + r, MapRaster.TEXT);
+                    }
+                }
+                x += sprite.getWidth() + 1;
+            }
+        }
+
+        @Override public MapView getMapView() { return null; }
+        @Override public MapCursorCollection getCursors() { return null; }
+        @Override public void setCursors(MapCursorCollection cursors) { }
+        @Override public void setPixelColor(int x, int y, Color color) { }
+        @Override public Color getPixelColor(int x, int y) { return null; }
+        @Override public Color getBasePixelColor(int x, int y) { return null; }
+        @Override public byte getBasePixel(int x, int y) { return 0; }
+        @Override public void drawImage(int x, int y, Image image) { }
+    }
+}
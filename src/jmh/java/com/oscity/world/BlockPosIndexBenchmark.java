@@ -0,0 +1,107 @@
+package com.oscity.world;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Button dispatch: BlockPosIndex lookup vs the linear scan over every
+ * configured button that ChoiceButtonHandler and TeleportManager used to do.
+ *
+ * Buttons are the choiceButtons and tpButtons from config.yml. {@code copies}
+ * repeats that layout 1000 blocks apart to model a larger map (4 copies is
+ * a bit over 200 buttons). Each press batch is half hits, half misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BlockPosIndexBenchmark {
+
+    private static final int PRESSES = 1024;
+
+    @Param({"1", "4"})
+    public int copies;
+
+    private BlockPosIndex index;
+    /** Button coordinates for the linear scan: {world, x, y, z} per row. */
+    private int[][] buttons;
+    private int[][] presses;
+
+    @Setup
+    public void setup() {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(new InputStreamReader(
+                BlockPosIndexBenchmark.class.getResourceAsStream("/config.yml"), StandardCharsets.UTF_8));
+        List<int[]> configured = new ArrayList<>();
+        List<String> worldNames = new ArrayList<>();
+        readButtons(config.getConfigurationSection("choiceButtons"), configured, worldNames);
+        readButtons(config.getConfigurationSection("tpButtons"), configured, worldNames);
+
+        index = new BlockPosIndex(configured.size() * copies);
+        List<int[]> all = new ArrayList<>();
+        for (int c = 0; c < copies; c++) {
+            for (int[] b : configured) {
+                int[] copy = { b[0], b[1] + c * 1000, b[2], b[3] };
+                if (index.get(copy[0], copy[1], copy[2], copy[3]) == BlockPosIndex.NONE) {
+                    index.put(copy[0], copy[1], copy[2], copy[3], all.size());
+                    all.add(copy);
+                }
+            }
+        }
+        buttons = all.toArray(new int[0][]);
+
+        Random random = new Random(42);
+        presses = new int[PRESSES][];
+        for (int i = 0; i < PRESSES; i++) {
+            int[] b = buttons[random.nextInt(buttons.length)];
+            // Odd presses land one block off: a miss, as most interactions are
+            presses[i] = (i & 1) == 0 ? b : new int[] { b[0], b[1], b[2] + 1, b[3] };
+        }
+    }
+
+    private static void readButtons(ConfigurationSection sec, List<int[]> out, List<String> worldNames) {
+        if (sec == null) return;
+        for (String key : sec.getKeys(false)) {
+            ConfigurationSection btn = sec.getConfigurationSection(key);
+            if (btn == null || btn.getString("world") == null) continue;
+            String world = btn.getString("world");
+            int worldId = worldNames.indexOf(world);
+            if (worldId < 0) {
+                worldId = worldNames.size();
+                worldNames.add(world);
+            }
+            out.add(new int[] { worldId, btn.getInt("x"), btn.getInt("y"), btn.getInt("z") });
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRESSES)
+    public void indexLookup(Blackhole bh) {
+        for (int[] p : presses) {
+            bh.consume(index.get(p[0], p[1], p[2], p[3]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRESSES)
+    public void linearScan(Blackhole bh) {
+        for (int[] p : presses) {
+            int found = BlockPosIndex.NONE;
+            for (int i = 0; i < buttons.length; i++) {
+                int[] b = buttons[i];
+                if (b[0] == p[0] && b[1] == p[1] && b[2] == p[2] && b[3] == p[3]) {
+                    found = i;
+                    break;
+                }
+            }
+            bh.consume(found);
+        }
+    }
+}
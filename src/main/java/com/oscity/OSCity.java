@@ -8,9 +8,13 @@ import com.oscity.core.KernelGuardian;
 import com.oscity.core.RoomChangeListener;
 import com.oscity.gamification.AchievementManager;
 import com.oscity.gamification.ProgressTracker;
+import com.oscity.map.ImageAssets;
+import com.oscity.map.MapComposer;
+import com.oscity.map.MapViewPool;
 import com.oscity.mechanics.CalculatorListener;
 import com.oscity.mechanics.ChoiceButtonHandler;
 import com.oscity.mechanics.HintSystem;
+import com.oscity.mechanics.RoutePrefetcher;
 import com.oscity.mechanics.RoomDisplayManager;
 import com.oscity.mechanics.JourneyMapManager;
 import com.oscity.mechanics.PageTableManager;
@@ -19,26 +23,51 @@ import com.oscity.mechanics.RAMRoomManager;
 import com.oscity.mechanics.SwapClockManager;
 import com.oscity.mechanics.TeleportManager;
 import com.oscity.mechanics.TLBRoomManager;
+import com.oscity.persistence.H2StudySink;
+import com.oscity.persistence.MemoryStudySink;
+import com.oscity.persistence.PlayerDAO;
 import com.oscity.persistence.SQLiteStudyDatabase;
+import com.oscity.persistence.SQLiteStudySink;
+import com.oscity.persistence.StudySink;
 import com.oscity.quiz.QuizManager;
 import com.oscity.session.JourneyTracker;
+import com.oscity.session.PhaseTelemetry;
+import com.oscity.session.PlayerStateStore;
 import com.oscity.session.SessionManager;
+import com.oscity.world.DoorController;
+import com.oscity.world.FixtureRegistry;
+import com.oscity.world.InstanceManager;
 import com.oscity.world.LocationRegistry;
+import com.oscity.world.PlayerRoomTracker;
 import com.oscity.world.RoomRegistry;
+import com.oscity.world.SignWriter;
 import com.oscity.world.StructureManager;
+import com.oscity.world.WorldAliases;
 import com.oscity.world.WorldManager;
 
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+
 public class OSCity extends JavaPlugin {
 
     private ConfigManager configManager;
     private WorldManager worldManager;
+    private WorldAliases worldAliases;
+    private InstanceManager instanceManager;
     private RoomRegistry roomRegistry;
+    private PlayerRoomTracker playerRoomTracker;
     private StructureManager structureManager;
     private LocationRegistry locationRegistry;
+    private FixtureRegistry fixtureRegistry;
+    private SignWriter signWriter;
+    private MapViewPool mapViewPool;
+    private MapComposer mapComposer;
+    private ImageAssets imageAssets;
+    private DoorController doorController;
     private RoomDisplayManager roomDisplayManager;
     private TeleportManager teleportManager;
+    private RoutePrefetcher routePrefetcher;
     private KernelGuardian kernelGuardian;
     private GuardianInteractionHandler guardianHandler;
     private RoomChangeListener roomChangeListener;
@@ -51,6 +80,8 @@ public class OSCity extends JavaPlugin {
     private SessionManager sessionManager;
     private JourneyTracker journeyTracker;
     private ProgressTracker progressTracker;
+    private PhaseTelemetry phaseTelemetry;
+    private PlayerStateStore playerStateStore;
 
     // Game systems
     private HintSystem hintSystem;
@@ -67,6 +98,9 @@ public class OSCity extends JavaPlugin {
     // Gamification
     private AchievementManager achievementManager;
 
+    // User study telemetry
+    private StudySink studySink;
+
     @Override
     public void onEnable() {
         saveDefaultConfig();
@@ -82,23 +116,41 @@ public class OSCity extends JavaPlugin {
         getLogger().info("Initializing user study database...");
         SQLiteStudyDatabase.initializeDatabase();
         SQLiteStudyDatabase.testConnection();
-        getLogger().info("✓ User study database ready");
+        studySink = createStudySink();
+        getLogger().info("✓ User study database ready (backend: " + studySink.getName() + ")");
 
         // World & room infrastructure
         configManager = new ConfigManager(this);
 
         worldManager = new WorldManager(this);
         worldManager.initialize();
+        worldAliases = new WorldAliases();
 
         roomRegistry = new RoomRegistry(this);
         roomRegistry.loadFromConfig();
+        playerRoomTracker = new PlayerRoomTracker(roomRegistry);
 
-        structureManager = new StructureManager(this, worldManager, roomRegistry);
-        structureManager.initialize();
-
-        locationRegistry = new LocationRegistry(this);
+        locationRegistry = new LocationRegistry(this, worldAliases);
         locationRegistry.loadFromConfig();
 
+        fixtureRegistry = new FixtureRegistry(this, worldAliases);
+        fixtureRegistry.reload();
+
+        signWriter = new SignWriter(this);
+        signWriter.register();
+        mapViewPool = new MapViewPool(this);
+        mapViewPool.load();
+        mapComposer = new MapComposer(this, getConfig().getInt("maps.composerThreads", 2));
+        imageAssets = new ImageAssets(this);
+        doorController = new DoorController(this, fixtureRegistry);
+        // Snapshots every room, so it needs the rooms and the sign writer
+        structureManager = new StructureManager(this, worldManager, roomRegistry, signWriter);
+        structureManager.initialize();
+        // Instances get their own guardian NPC, so the guardian exists before them
+        kernelGuardian = new KernelGuardian(this);
+        instanceManager = new InstanceManager(this, worldManager, worldAliases, roomRegistry, signWriter, doorController,
+            structureManager, kernelGuardian);
+
         // Content systems (load YAML files)
         dialogueManager = new DialogueManager(this);
         dialogueManager.load();
@@ -110,61 +162,72 @@ public class OSCity extends JavaPlugin {
         // Session & journey tracking
         sessionManager = new SessionManager();
         journeyTracker = new JourneyTracker();
-        progressTracker = new ProgressTracker();
+        phaseTelemetry = new PhaseTelemetry(this, journeyTracker, studySink);
+        phaseTelemetry.start(getConfig().getLong("studyData.phaseFlushSeconds", 5L) * 20L);
+        PlayerDAO.start(getConfig().getLong("playerState.flushIntervalMs", 2000L));
+        playerStateStore = new PlayerStateStore(this, journeyTracker);
+        playerStateStore.start(getConfig().getLong("playerState.snapshotTicks", 20L));
+        progressTracker = new ProgressTracker(this);
 
         // Game systems
-        hintSystem = new HintSystem(sessionManager, dialogueManager, journeyTracker, configManager);
-        quizManager = new QuizManager(this, configManager, sessionManager, roomRegistry, questionBank, journeyTracker);
+        hintSystem = new HintSystem(sessionManager, dialogueManager, journeyTracker, configManager, studySink);
+        quizManager = new QuizManager(this, configManager, sessionManager, roomRegistry, questionBank, journeyTracker, studySink);
         quizManager.register();
 
         // Room display
         if (configManager.isRoomDisplayEnabled()) {
             int interval = configManager.getRoomDisplayInterval();
             boolean clear = getConfig().getBoolean("roomDisplay.clearWhenOutside", true);
-            roomDisplayManager = new RoomDisplayManager(this, roomRegistry, interval, clear);
+            roomDisplayManager = new RoomDisplayManager(this, playerRoomTracker, interval, clear);
             roomDisplayManager.start();
         }
 
         // Teleport buttons
         boolean debugClicks = configManager.isDebugMode();
-        teleportManager = new TeleportManager(this, locationRegistry, journeyTracker, debugClicks);
+        teleportManager = new TeleportManager(this, locationRegistry, worldAliases, journeyTracker, debugClicks);
         teleportManager.register();
 
+        // Warm the chunks of each player's next teleport destinations
+        if (getConfig().getBoolean("prefetch.enabled", true)) {
+            routePrefetcher = new RoutePrefetcher(this, roomRegistry, locationRegistry, journeyTracker,
+                getConfig().getInt("prefetch.radius", 1));
+            routePrefetcher.register();
+        }
+
         // Swap clock (must be before ChoiceButtonHandler and RoomChangeListener)
-        swapClockManager = new SwapClockManager(this, journeyTracker, dialogueManager);
+        swapClockManager = new SwapClockManager(this, fixtureRegistry, signWriter, journeyTracker, dialogueManager);
 
         // Journey map (must be before ChoiceButtonHandler, CalculatorListener, and mode handlers)
-        journeyMapManager = new JourneyMapManager(this, journeyTracker);
+        journeyMapManager = new JourneyMapManager(this, fixtureRegistry, journeyTracker, mapComposer);
 
         // Calculator (must be before ChoiceButtonHandler; needs journeyMapManager)
-        calculatorListener = new CalculatorListener(this, journeyTracker, journeyMapManager, questionBank, dialogueManager);
+        calculatorListener = new CalculatorListener(this, fixtureRegistry, signWriter, worldAliases, journeyTracker, journeyMapManager, questionBank, dialogueManager, mapComposer);
         calculatorListener.register();
 
         // TLB room
-        tlbRoomManager = new TLBRoomManager(this, journeyTracker);
+        tlbRoomManager = new TLBRoomManager(this, fixtureRegistry, signWriter, mapViewPool, mapComposer, journeyTracker);
 
         // Page Table manager
-        pageTableManager = new PageTableManager(this, journeyTracker);
+        pageTableManager = new PageTableManager(this, fixtureRegistry, mapViewPool, mapComposer, journeyTracker);
 
         // RAM room
-        ramRoomManager = new RAMRoomManager(this, journeyTracker);
+        ramRoomManager = new RAMRoomManager(this, fixtureRegistry, signWriter, journeyTracker);
 
         // Disk room
-        diskRoomManager = new DiskRoomManager(this, journeyTracker);
+        diskRoomManager = new DiskRoomManager(this, fixtureRegistry, journeyTracker);
 
         // Choice buttons
         choiceButtonHandler = new ChoiceButtonHandler(this, journeyTracker, dialogueManager, questionBank, progressTracker, locationRegistry, calculatorListener, swapClockManager, journeyMapManager, pageTableManager);
         choiceButtonHandler.register();
 
         // Achievement manager
-        achievementManager = new AchievementManager(sessionManager, configManager);
+        achievementManager = new AchievementManager(sessionManager, configManager, studySink);
 
         // Register commands
         getCommand("progress").setExecutor(new com.oscity.commands.ProgressCommand(achievementManager));
+        getCommand("oscity").setExecutor(new com.oscity.commands.OSCityCommand(this, studySink, fixtureRegistry, doorController, instanceManager, structureManager, mapViewPool, imageAssets));
 
         // NPC / Guardian
-        kernelGuardian = new KernelGuardian(this);
-
         guardianHandler = new GuardianInteractionHandler(
             this, configManager, kernelGuardian,
             dialogueManager, hintSystem, journeyTracker
@@ -173,14 +236,17 @@ public class OSCity extends JavaPlugin {
         choiceButtonHandler.setGuardianHandler(guardianHandler);
 
         roomChangeListener = new RoomChangeListener(
-            this, kernelGuardian, roomRegistry, locationRegistry,
+            this, kernelGuardian, roomRegistry, playerRoomTracker, locationRegistry,
             dialogueManager, journeyTracker, calculatorListener,
-            progressTracker, choiceButtonHandler, swapClockManager,
+            progressTracker, playerStateStore, choiceButtonHandler, doorController, swapClockManager,
             tlbRoomManager, pageTableManager, ramRoomManager, diskRoomManager,
             journeyMapManager, quizManager
         );
         getServer().getPluginManager().registerEvents(roomChangeListener, this);
 
+        // Per-player copies of the world (instances.enabled in config.yml)
+        instanceManager.start();
+
         getLogger().info("OSCity enabled!");
     }
 
@@ -189,12 +255,89 @@ public class OSCity extends JavaPlugin {
         if (kernelGuardian != null) {
             kernelGuardian.destroy();
         }
+        if (doorController != null) {
+            doorController.closeAll();
+        }
+        if (routePrefetcher != null) {
+            routePrefetcher.shutdown();
+        }
+        if (instanceManager != null) {
+            instanceManager.shutdown();
+        }
+        // Sign writes queued this tick would otherwise never reach the world
+        if (signWriter != null) {
+            signWriter.flush();
+        }
+        if (mapViewPool != null) {
+            mapViewPool.save();
+        }
+        if (mapComposer != null) {
+            mapComposer.shutdown();
+        }
+        // Flush any study events still waiting in the write queue
+        if (phaseTelemetry != null) {
+            phaseTelemetry.shutdown();
+        }
+        if (playerStateStore != null) {
+            playerStateStore.shutdown();
+        }
+        PlayerDAO.shutdown();
+        if (studySink != null) {
+            studySink.shutdown();
+        }
+        SQLiteStudyDatabase.shutdown();
         getLogger().info("OSCity disabled!");
     }
 
+    /**
+     * Build the study sink selected by studyData.backend (sqlite, h2 or memory).
+     * The SQLite database is always initialised, since journey completions
+     * live there whichever backend receives telemetry.
+     */
+    private StudySink createStudySink() {
+        String backend = getConfig().getString("studyData.backend", "sqlite").toLowerCase();
+        int capacity = getConfig().getInt("studyData.queueCapacity", 8192);
+        long flushIntervalMs = getConfig().getLong("studyData.flushIntervalMs", 250L);
+        int maxBatch = getConfig().getInt("studyData.maxBatchRows", 256);
+
+        switch (backend) {
+            case "memory":
+                return new MemoryStudySink();
+            case "h2":
+                try {
+                    return new H2StudySink(new File(getDataFolder(), "study_h2"), capacity, flushIntervalMs, maxBatch);
+                } catch (Exception e) {
+                    getLogger().severe("Could not start H2 study backend, falling back to SQLite: " + e.getMessage());
+                }
+                break;
+            case "sqlite":
+                break;
+            default:
+                getLogger().warning("Unknown studyData.backend '" + backend + "', using sqlite");
+        }
+
+        if (getConfig().getBoolean("studyData.journal", true)) {
+            SQLiteStudyDatabase.startWriteQueue(new File(getDataFolder(), "journal"),
+                capacity, flushIntervalMs, maxBatch);
+        } else {
+            SQLiteStudyDatabase.startWriteQueue(capacity, flushIntervalMs, maxBatch);
+        }
+        return new SQLiteStudySink();
+    }
+
     // Getters
     public ConfigManager getConfigManager()     { return configManager; }
     public RoomRegistry getRoomRegistry()       { return roomRegistry; }
+    public FixtureRegistry getFixtureRegistry() { return fixtureRegistry; }
+    public WorldAliases getWorldAliases()       { return worldAliases; }
+    public InstanceManager getInstanceManager() { return instanceManager; }
+    public StructureManager getStructureManager() { return structureManager; }
+    public SignWriter getSignWriter()           { return signWriter; }
+    public MapViewPool getMapViewPool()         { return mapViewPool; }
+    public MapComposer getMapComposer()         { return mapComposer; }
+    public ImageAssets getImageAssets()         { return imageAssets; }
+    public DoorController getDoorController()   { return doorController; }
+    public PlayerRoomTracker getPlayerRoomTracker() { return playerRoomTracker; }
     public LocationRegistry getLocationRegistry() { return locationRegistry; }
     public KernelGuardian getKernelGuardian()   { return kernelGuardian; }
     public DialogueManager getDialogueManager() { return dialogueManager; }
@@ -203,4 +346,5 @@ public class OSCity extends JavaPlugin {
     public SessionManager getSessionManager()   { return sessionManager; }
     public QuizManager getQuizManager()         { return quizManager; }
     public AchievementManager getAchievementManager() { return achievementManager; }
+    public StudySink getStudySink()             { return studySink; }
 }
@@ -0,0 +1,329 @@
+package com.oscity.commands;
+
+import com.oscity.map.ImageAssets;
+import com.oscity.map.MapRaster;
+import com.oscity.map.MapViewPool;
+import com.oscity.map.RasterRenderer;
+import com.oscity.persistence.PhaseTransitionDAO;
+import com.oscity.persistence.SQLiteStudyDatabase;
+import com.oscity.persistence.StudyDataExporter;
+import com.oscity.persistence.StudySink;
+import com.oscity.world.DoorController;
+import com.oscity.world.FixtureRegistry;
+import com.oscity.world.InstanceManager;
+import com.oscity.world.RoomRegistry;
+import com.oscity.world.StructureManager;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.MapMeta;
+import org.bukkit.map.MapView;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Admin command for running the user study: /oscity <subcommand>
+ *
+ *   /oscity export [csv|ndjson] [gzip] [incremental]
+ *   /oscity rebuild-rollups
+ *   /oscity sink
+ *   /oscity dwell [phase|room]
+ *   /oscity fixtures [reload]
+ *   /oscity instances [group <player> <group>]
+ *   /oscity reset <room|all>
+ *   /oscity image <asset> [columns] [rows] [dither]
+ */
+public class OSCityCommand implements CommandExecutor {
+    private final JavaPlugin plugin;
+    private final StudySink studySink;
+    private final FixtureRegistry fixtures;
+    private final DoorController doors;
+    private final InstanceManager instances;
+    private final StructureManager structures;
+    private final MapViewPool mapViews;
+    private final ImageAssets assets;
+
+    public OSCityCommand(JavaPlugin plugin, StudySink studySink, FixtureRegistry fixtures,
+                         DoorController doors, InstanceManager instances,
+                         StructureManager structures, MapViewPool mapViews,
+                         ImageAssets assets) {
+        this.plugin = plugin;
+        this.studySink = studySink;
+        this.fixtures = fixtures;
+        this.doors = doors;
+        this.instances = instances;
+        this.structures = structures;
+        this.mapViews = mapViews;
+        this.assets = assets;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 0) {
+            return false;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "export":
+                export(sender, args);
+                return true;
+            case "rebuild-rollups":
+                rebuildRollups(sender);
+                return true;
+            case "dwell":
+                dwell(sender, args.length > 1 ? args[1].toLowerCase() : "phase");
+                return true;
+            case "sink":
+                sender.sendMessage("§7Study backend " + studySink.describe());
+                return true;
+            case "fixtures":
+                fixtures(sender, args.length > 1 && args[1].equalsIgnoreCase("reload"));
+                return true;
+            case "instances":
+                instances(sender, args);
+                return true;
+            case "reset":
+                reset(sender, args);
+                return true;
+            case "image":
+                image(sender, args);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // ── /oscity export ────────────────────────────────────────────────────────
+
+    private void export(CommandSender sender, String[] args) {
+        StudyDataExporter.Format format = StudyDataExporter.Format.CSV;
+        boolean gzip = false;
+        boolean incremental = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i].toLowerCase()) {
+                case "csv":         format = StudyDataExporter.Format.CSV; break;
+                case "ndjson":      format = StudyDataExporter.Format.NDJSON; break;
+                case "gzip":        gzip = true; break;
+                case "incremental": incremental = true; break;
+                default:
+                    sender.sendMessage("§cUnknown export option: " + args[i]);
+                    return;
+            }
+        }
+
+        File folder = new File(plugin.getDataFolder(), "exports");
+        sender.sendMessage("§7Exporting study data (" + format.extension
+            + (gzip ? ", gzip" : "") + (incremental ? ", incremental" : "") + ")...");
+
+        StudyDataExporter.exportAsync(folder.getPath(), format, gzip, incremental,
+            new StudyDataExporter.ProgressListener() {
+                private int lastPercent = -1;
+
+                @Override
+                public void onProgress(String table, long rowsDone, long rowsTotal) {
+                    int percent = rowsTotal == 0 ? 100 : (int) (rowsDone * 100 / rowsTotal);
+                    // Report every 10% per table, not every callback
+                    if (percent / 10 == lastPercent / 10 && percent != 100) return;
+                    lastPercent = percent == 100 ? -1 : percent;
+                    tell(sender, "§7  " + table + ": " + rowsDone + "/" + rowsTotal + " (" + percent + "%)");
+                }
+
+                @Override
+                public void onComplete(StudyDataExporter.Result result) {
+                    tell(sender, "§aExport complete: " + result + " → " + folder.getPath());
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    tell(sender, "§cExport failed: " + e.getMessage());
+                }
+            });
+    }
+
+    // ── /oscity rebuild-rollups ───────────────────────────────────────────────
+
+    private void rebuildRollups(CommandSender sender) {
+        sender.sendMessage("§7Rebuilding study summary rollups from raw tables...");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                SQLiteStudyDatabase.rebuildRollups();
+                tell(sender, "§aRollups rebuilt.");
+            } catch (Exception e) {
+                tell(sender, "§cRollup rebuild failed: " + e.getMessage());
+            }
+        });
+    }
+
+    // ── /oscity dwell ─────────────────────────────────────────────────────────
+
+    private void dwell(CommandSender sender, String by) {
+        if (!by.equals("phase") && !by.equals("room")) {
+            sender.sendMessage("§cUsage: /oscity dwell [phase|room]");
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                List<PhaseTransitionDAO.DwellStats> stats = by.equals("room")
+                    ? PhaseTransitionDAO.dwellByRoom()
+                    : PhaseTransitionDAO.dwellByPhase();
+                StringBuilder out = new StringBuilder("§6Dwell time per " + by + " (median / p95):");
+                for (PhaseTransitionDAO.DwellStats s : stats) {
+                    out.append("\n§7  ").append(s);
+                }
+                if (stats.isEmpty()) out.append("\n§7  no transitions recorded yet");
+                tell(sender, out.toString());
+            } catch (Exception e) {
+                tell(sender, "§cDwell query failed: " + e.getMessage());
+            }
+        });
+    }
+
+    // ── /oscity fixtures ──────────────────────────────────────────────────────
+
+    private void fixtures(CommandSender sender, boolean reload) {
+        if (reload) {
+            // Re-read config.yml; the new fixture table replaces the old one in a single swap
+            plugin.reloadConfig();
+            int skipped = fixtures.reload();
+            sender.sendMessage("§aReloaded " + fixtures.size() + " fixtures"
+                + (skipped > 0 ? " §e(" + skipped + " skipped, see console)" : "") + ".");
+            return;
+        }
+        sender.sendMessage("§7" + fixtures.size() + " fixtures loaded (signs, chests, doors, redstone).");
+        sender.sendMessage("§7" + doors.describe());
+    }
+
+    // ── /oscity instances ─────────────────────────────────────────────────────
+
+    private void instances(CommandSender sender, String[] args) {
+        if (args.length == 1) {
+            sender.sendMessage("§7" + instances.describe());
+            for (InstanceManager.Instance instance : instances.getInstances()) {
+                sender.sendMessage("§7  " + instance.worldName + ": " + instance.getState()
+                    + (instance.getGroup() != null ? " group=" + instance.getGroup() : "")
+                    + " players=" + instance.getMembers().size());
+            }
+            return;
+        }
+        if (args.length != 4 || !args[1].equalsIgnoreCase("group")) {
+            sender.sendMessage("§cUsage: /oscity instances [group <player> <group>]");
+            return;
+        }
+        if (!instances.isEnabled()) {
+            sender.sendMessage("§cInstances are disabled (instances.enabled in config.yml).");
+            return;
+        }
+        Player player = Bukkit.getPlayerExact(args[2]);
+        if (player == null) {
+            sender.sendMessage("§cNo online player named " + args[2]);
+            return;
+        }
+        instances.assign(player, args[3]);
+        sender.sendMessage("§aMoved " + player.getName() + " to group " + args[3] + ".");
+    }
+
+    // ── /oscity reset ─────────────────────────────────────────────────────────
+
+    private void reset(CommandSender sender, String[] args) {
+        if (args.length != 2) {
+            sender.sendMessage("§cUsage: /oscity reset <room|all>");
+            return;
+        }
+        // A player resets their own copy of the city; the console resets the configured world
+        World world = sender instanceof Player player
+            ? player.getWorld()
+            : structures.getWorldManager().getGameWorld();
+        if (args[1].equalsIgnoreCase("all")) {
+            for (RoomRegistry.Room room : structures.getRoomRegistry().getRooms()) {
+                structures.reset(room.key, world);
+            }
+            sender.sendMessage("§7Resetting every room in " + world.getName() + "...");
+            return;
+        }
+        if (!structures.reset(args[1], world)) {
+            sender.sendMessage("§cNo snapshot for room '" + args[1] + "'.");
+            return;
+        }
+        sender.sendMessage("§7Resetting " + args[1] + " in " + world.getName()
+            + " (" + structures.getPendingResetCount() + " resets queued)...");
+    }
+
+    // ── /oscity image ─────────────────────────────────────────────────────────
+
+    /** Give the sender an asset from assets/ as map items, one per tile, for placing in item frames. */
+    private void image(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("§cOnly players can take image maps.");
+            return;
+        }
+        if (args.length < 2 || args.length > 5) {
+            sender.sendMessage("§cUsage: /oscity image <asset> [columns] [rows] [dither]");
+            return;
+        }
+        String name = args[1].toLowerCase();
+        // Also keeps the name usable as a map slot key and out of other folders
+        if (!name.matches("[a-z0-9_]+") || !assets.exists(name)) {
+            sender.sendMessage("§cNo asset named '" + args[1] + "' in assets/.");
+            return;
+        }
+        int columns, rows;
+        try {
+            columns = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+            rows = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        } catch (NumberFormatException e) {
+            sender.sendMessage("§cColumns and rows must be numbers.");
+            return;
+        }
+        if (columns < 1 || rows < 1 || columns * rows > 36) {
+            sender.sendMessage("§cColumns × rows must be between 1 and 36.");
+            return;
+        }
+        boolean dither = args.length > 4 && args[4].equalsIgnoreCase("dither");
+
+        // Decode and scale off the main thread; hand out maps only once every tile exists
+        sender.sendMessage("§7Loading " + name + "...");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<MapRaster> tiles = assets.get(name, columns, rows, dither);
+            Bukkit.getScheduler().runTask(plugin, () -> giveImage(player, name, columns, rows, dither, tiles));
+        });
+    }
+
+    private void giveImage(Player player, String name, int columns, int rows, boolean dither, List<MapRaster> tiles) {
+        if (!player.isOnline()) return;
+        if (tiles.size() != columns * rows) {
+            player.sendMessage("§cCould not load " + name + ".png; see the server log.");
+            return;
+        }
+
+        // Same views for the same asset and layout every time, shared by everyone
+        String layout = name + "-" + columns + "x" + rows + (dither ? "d" : "");
+        for (int i = 0; i < tiles.size(); i++) {
+            MapView view = mapViews.acquire("img-" + layout + "-" + i, "assets", player.getWorld());
+            RasterRenderer.attach(view).show(tiles.get(i));
+
+            ItemStack item = new ItemStack(Material.FILLED_MAP);
+            MapMeta meta = (MapMeta) item.getItemMeta();
+            if (meta != null) {
+                meta.setMapView(view);
+                meta.displayName(Component.text("§b" + name + " §7(" + (i % columns + 1) + "," + (i / columns + 1) + ")"));
+                item.setItemMeta(meta);
+            }
+            player.getInventory().addItem(item);
+        }
+        player.sendMessage("§aGave you " + name + " as " + columns + "x" + rows + " maps"
+            + (dither ? " (dithered)" : "") + ". Place them left to right, top to bottom.");
+    }
+
+    /** Callbacks arrive on background threads; messages go out on the main thread. */
+    private void tell(CommandSender sender, String message) {
+        Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(message));
+    }
+}
@@ -194,9 +194,10 @@ public class ConfigManager {
     }
 
     /**
-     * Get room display interval in ticks
+     * Get room display reconciliation interval in ticks
+     * (bars update on room change; this is only the safety net)
      */
     public int getRoomDisplayInterval() {
-        return config.getInt("roomDisplay.intervalTicks", 10);
+        return config.getInt("roomDisplay.intervalTicks", 100);
     }
 }
\ No newline at end of file
@@ -45,7 +45,7 @@ public class GuardianInteractionHandler implements Listener {
 
     @EventHandler
     public void onNPCRightClick(NPCRightClickEvent event) {
-        if (!event.getNPC().equals(guardian.getNPC())) return;
+        if (!guardian.isGuardian(event.getNPC())) return;
         showMainMenu(event.getClicker());
     }
 
@@ -7,6 +7,7 @@ import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -14,11 +15,17 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class KernelGuardian {
 
     private final JavaPlugin plugin;
     private NPC npc;
+    private String name;
     private Location currentLocation;
+    /** One guardian per instance world, so the main one never leaves the template world. */
+    private final Map<World, NPC> copies = new HashMap<>();
     private BukkitTask lookAtPlayerTask;
 
     public KernelGuardian(JavaPlugin plugin) {
@@ -29,48 +36,56 @@ public class KernelGuardian {
         if (npc != null) {
             npc.destroy();
         }
+        this.name = name;
+
+        npc = create(location);
+        currentLocation = location.clone();
+
+        startLookingAtPlayer();
+        
+        plugin.getLogger().info("Kernel Guardian spawned at " + 
+            location.getBlockX() + ", " + 
+            location.getBlockY() + ", " + 
+            location.getBlockZ());
+    }
 
+    /**
+     * Create, equip and spawn one guardian NPC at {@code location}
+     */
+    private NPC create(Location location) {
         // Create NPC
-        npc = CitizensAPI.getNPCRegistry().createNPC(
+        NPC created = CitizensAPI.getNPCRegistry().createNPC(
             org.bukkit.entity.EntityType.PLAYER, 
             name
         );
         
         // Give book
-        Equipment equipment = npc.getOrAddTrait(Equipment.class);
+        Equipment equipment = created.getOrAddTrait(Equipment.class);
         equipment.set(Equipment.EquipmentSlot.HAND, new ItemStack(Material.BOOK));
 
         // Spawn
-        npc.spawn(location);
-        npc.setProtected(true);
-        
-        currentLocation = location.clone();
+        created.spawn(location);
+        created.setProtected(true);
 
         // Then set skin
-        setComputerSkin();
+        setComputerSkin(created);
         
         // Set glowing after entity is spawned
         Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            if (npc != null && npc.isSpawned()) {
-                org.bukkit.entity.Entity entity = npc.getEntity();
+            if (created.isSpawned()) {
+                org.bukkit.entity.Entity entity = created.getEntity();
                 if (entity != null) {
                     entity.setGlowing(true);
                 }
             }
         }, 5L);
-        
-        startLookingAtPlayer();
-        
-        plugin.getLogger().info("Kernel Guardian spawned at " + 
-            location.getBlockX() + ", " + 
-            location.getBlockY() + ", " + 
-            location.getBlockZ());
+        return created;
     }
 
     /**
     * Apply computer monitor skin to the NPC
     */
-    private void setComputerSkin() {
+    private void setComputerSkin(NPC npc) {
         try {
             net.citizensnpcs.trait.SkinTrait skinTrait = npc.getOrAddTrait(net.citizensnpcs.trait.SkinTrait.class);
             
@@ -97,26 +112,36 @@ public class KernelGuardian {
         }
 
         lookAtPlayerTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            if (npc == null || !npc.isSpawned()) return;
+            lookAtPlayer(npc);
+            for (NPC copy : copies.values()) {
+                lookAtPlayer(copy);
+            }
+        }, 0L, 10L); // Every 0.5 seconds
+    }
 
-            Entity npcEntity = npc.getEntity();
-            if (npcEntity == null) return;
+    /**
+     * Turn one NPC towards a player in its own world
+     */
+    private void lookAtPlayer(NPC npc) {
+        if (npc == null || !npc.isSpawned()) return;
 
-            Player player = Bukkit.getOnlinePlayers().stream().findFirst().orElse(null);
-            if (player == null) return;
+        Entity npcEntity = npc.getEntity();
+        if (npcEntity == null) return;
 
-            // Make NPC look at player
-            Location npcLoc = npcEntity.getLocation();
-            Location playerLoc = player.getEyeLocation();
-            Vector direction = playerLoc.toVector().subtract(npcLoc.toVector());
-            Location lookAt = npcLoc.setDirection(direction);
-            npcEntity.teleport(lookAt);
-            
-        }, 0L, 10L); // Every 0.5 seconds
+        Player player = npcEntity.getWorld().getPlayers().stream().findFirst().orElse(null);
+        if (player == null) return;
+
+        // Make NPC look at player
+        Location npcLoc = npcEntity.getLocation();
+        Location playerLoc = player.getEyeLocation();
+        Vector direction = playerLoc.toVector().subtract(npcLoc.toVector());
+        Location lookAt = npcLoc.setDirection(direction);
+        npcEntity.teleport(lookAt);
     }
 
     /**
-     * Teleport NPC to a specific location
+     * Teleport NPC to a specific location. A location in another world (an
+     * instance copy) moves that world's own guardian, spawning it on first use.
      */
     public void moveTo(Location location) {
         if (npc == null || !npc.isSpawned()) {
@@ -129,10 +154,31 @@ public class KernelGuardian {
             return;
         }
 
+        World world = location.getWorld();
+        if (world != null && currentLocation != null && !world.equals(currentLocation.getWorld())) {
+            NPC copy = copies.get(world);
+            if (copy == null) {
+                copies.put(world, create(location));
+            } else {
+                copy.teleport(location, org.bukkit.event.player.PlayerTeleportEvent.TeleportCause.PLUGIN);
+            }
+            return;
+        }
+
         npc.teleport(location, org.bukkit.event.player.PlayerTeleportEvent.TeleportCause.PLUGIN);
         currentLocation = location.clone();
     }
 
+    /**
+     * Remove the guardian of a world that is about to be unloaded
+     */
+    public void forgetWorld(World world) {
+        NPC copy = copies.remove(world);
+        if (copy != null) {
+            copy.destroy();
+        }
+    }
+
     /**
      * Make the NPC say something to the player
      */
@@ -150,6 +196,13 @@ public class KernelGuardian {
         return npc != null && npc.isSpawned();
     }
 
+    /**
+     * True if {@code other} is the guardian or one of its instance copies
+     */
+    public boolean isGuardian(NPC other) {
+        return other != null && (other.equals(npc) || copies.containsValue(other));
+    }
+
     /**
      * Get the NPC object
      */
@@ -173,6 +226,11 @@ public class KernelGuardian {
             lookAtPlayerTask = null;
         }
         
+        for (NPC copy : copies.values()) {
+            copy.destroy();
+        }
+        copies.clear();
+
         if (npc != null) {
             npc.destroy();
             npc = null;
@@ -16,13 +16,19 @@ import com.oscity.mechanics.SwapClockManager;
 import com.oscity.mechanics.TLBRoomManager;
 import com.oscity.quiz.QuizManager;
 import com.oscity.session.JourneyTracker;
+import com.oscity.session.PlayerStateStore;
+import com.oscity.world.DoorController;
 import com.oscity.world.LocationRegistry;
+import com.oscity.world.PlayerRoomChangeEvent;
+import com.oscity.world.PlayerRoomTracker;
 import com.oscity.world.RoomRegistry;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
@@ -35,12 +41,15 @@ public class RoomChangeListener implements Listener {
     private final OSCity plugin;
     private final KernelGuardian guardian;
     private final RoomRegistry roomRegistry;
+    private final PlayerRoomTracker roomTracker;
     private final LocationRegistry locationRegistry;
     private final DialogueManager dialogueManager;
     private final JourneyTracker journeyTracker;
     private final CalculatorListener calculatorListener;
     private final ProgressTracker progressTracker;
+    private final PlayerStateStore playerStateStore;
     private final ChoiceButtonHandler choiceButtonHandler;
+    private final DoorController doors;
     private final SwapClockManager swapClockManager;
     private final TLBRoomManager tlbRoomManager;
     private final PageTableManager pageTableManager;
@@ -49,15 +58,17 @@ public class RoomChangeListener implements Listener {
     private final JourneyMapManager journeyMapManager;
     private final QuizManager quizManager;
 
-    private String currentRoomTitle = null;
     private boolean guardianSpawned = false;
 
     public RoomChangeListener(OSCity plugin, KernelGuardian guardian,
-                               RoomRegistry roomRegistry, LocationRegistry locationRegistry,
+                               RoomRegistry roomRegistry, PlayerRoomTracker roomTracker,
+                               LocationRegistry locationRegistry,
                                DialogueManager dialogueManager, JourneyTracker journeyTracker,
                                CalculatorListener calculatorListener,
                                ProgressTracker progressTracker,
+                               PlayerStateStore playerStateStore,
                                ChoiceButtonHandler choiceButtonHandler,
+                               DoorController doors,
                                SwapClockManager swapClockManager,
                                TLBRoomManager tlbRoomManager,
                                PageTableManager pageTableManager,
@@ -68,12 +79,15 @@ public class RoomChangeListener implements Listener {
         this.plugin = plugin;
         this.guardian = guardian;
         this.roomRegistry = roomRegistry;
+        this.roomTracker = roomTracker;
         this.locationRegistry = locationRegistry;
         this.dialogueManager = dialogueManager;
         this.journeyTracker = journeyTracker;
         this.calculatorListener = calculatorListener;
         this.progressTracker = progressTracker;
+        this.playerStateStore = playerStateStore;
         this.choiceButtonHandler = choiceButtonHandler;
+        this.doors = doors;
         this.swapClockManager = swapClockManager;
         this.tlbRoomManager = tlbRoomManager;
         this.pageTableManager = pageTableManager;
@@ -89,7 +103,25 @@ public class RoomChangeListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         progressTracker.unloadPlayer(player.getUniqueId());
+        playerStateStore.save(player);
         quizManager.dropSession(player);
+        roomTracker.remove(player);
+    }
+
+    /**
+     * Runs on a login thread, not the main thread — preload journey completions
+     * here so the join itself never waits on SQLite.
+     * MONITOR so we only load for logins no other plugin has denied.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            progressTracker.discardPreload(event.getUniqueId());
+            playerStateStore.discardPreload(event.getUniqueId());
+            return;
+        }
+        progressTracker.preload(event.getUniqueId());
+        playerStateStore.preload(event.getUniqueId());
     }
 
     @EventHandler
@@ -97,17 +129,25 @@ public class RoomChangeListener implements Listener {
         progressTracker.loadPlayer(event.getPlayer().getUniqueId());
         Player player = event.getPlayer();
         
+        // Mid-journey players keep their saved location and phase instead of starting over
+        playerStateStore.restore(player, resumed -> startJoinFlow(player, resumed));
+    }
+
+    /** Spawn or resume a joining player once their saved state is in place. */
+    private void startJoinFlow(Player player, boolean resumed) {
         // Force spawn at initial terminal (override Bukkit's saved location)
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            Location initialSpawn = locationRegistry.get("initialSpawn");
-            if (initialSpawn != null) {
-                player.teleport(initialSpawn);
-            }
-        }, 5L);
+        if (!resumed) {
+            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                Location initialSpawn = locationRegistry.get("initialSpawn", player.getWorld());
+                if (initialSpawn != null) {
+                    player.teleportAsync(initialSpawn);
+                }
+            }, 5L);
+        }
         
         Bukkit.getScheduler().runTaskLater(plugin, () -> {
             if (!guardianSpawned) {
-                Location spawnLoc = locationRegistry.get("initialSpawn");
+                Location spawnLoc = locationRegistry.get("initialSpawn", player.getWorld());
                 if (spawnLoc != null) {
                     spawnLoc.add(3, 0, 0);
                     guardian.spawn(spawnLoc, "§6Kernel Guardian");
@@ -123,6 +163,11 @@ public class RoomChangeListener implements Listener {
                 moveGuardianToPlayer(player);
             }
 
+            if (resumed) {
+                player.sendMessage(plugin.getConfigManager().getMessage("guardian.journey_resumed"));
+                return;
+            }
+
             // Speak initial terminal dialogue
             journeyTracker.setPhase(player, "terminal_spawn");
             Bukkit.getScheduler().runTaskLater(plugin, () ->
@@ -141,21 +186,27 @@ public class RoomChangeListener implements Listener {
             return;
         }
 
-        if (!guardian.isSpawned()) return;
+        // Fires PlayerRoomChangeEvent when this player crosses into another room
+        roomTracker.update(event.getPlayer(), event.getTo());
+    }
 
-        RoomRegistry.Room newRoom = roomRegistry.getRoomAt(event.getTo());
-        String newTitle = newRoom != null ? newRoom.title : null;
+    @EventHandler
+    public void onPlayerRoomChange(PlayerRoomChangeEvent event) {
+        Player player = event.getPlayer();
+        RoomRegistry.Room newRoom = event.getTo();
+        journeyTracker.setRoom(player, newRoom != null ? newRoom.key : null);
+
+        if (!guardian.isSpawned()) return;
 
-        // Only act when entering a new room
-        if (newTitle != null && !newTitle.equals(currentRoomTitle)) {
-            currentRoomTitle = newTitle;
-            Player player = event.getPlayer();
+        // Only act when entering a room with a different title (the TLB Room spans several regions)
+        if (newRoom != null && event.isTitleChange()) {
+            String newTitle = newRoom.title;
 
             // Move guardian to room NPC position
             Bukkit.getScheduler().runTaskLater(plugin, () -> {
                 if (guardian.isSpawned()) {
                     if (newRoom.npcPosition != null) {
-                        guardian.moveTo(newRoom.npcPosition);
+                        guardian.moveTo(plugin.getWorldAliases().rebase(newRoom.npcPosition, player.getWorld()));
                     } else {
                         guardian.moveTo(player.getLocation().clone().add(3, 0, 0));
                     }
@@ -166,11 +217,6 @@ public class RoomChangeListener implements Listener {
             Bukkit.getScheduler().runTaskLater(plugin, () ->
                 onRoomEntered(player, newTitle), 10L);
         }
-
-        // Leaving a room
-        if (newTitle == null && currentRoomTitle != null) {
-            currentRoomTitle = null;
-        }
     }
 
     // ── Dialogue helpers ──────────────────────────────────────────────────────
@@ -242,7 +288,7 @@ public class RoomChangeListener implements Listener {
                 // Only re-speak page_directory instructions on each entry.
                 speakIfLearner(player, "rooms.page_table_library.page_directory", vars);
                 journeyTracker.setPhase(player, "page_directory");
-                choiceButtonHandler.closeDoor("tlbToPt");
+                doors.close("tlbToPt", player.getWorld());
                 break;
 
             case "Page Table Library - Page Table 1":
@@ -254,8 +300,8 @@ public class RoomChangeListener implements Listener {
             case "Permission Chamber":
                 journeyTracker.setPhase(player, "permission_decision");
                 speakIfLearner(player, "rooms.permission_chamber.at_spawn", vars);
-                choiceButtonHandler.initPermissionChamberSigns();
-                choiceButtonHandler.closeDoor("toPageFaultCorridor");
+                choiceButtonHandler.initPermissionChamberSigns(player.getWorld());
+                doors.close("toPageFaultCorridor", player.getWorld());
                 
                 // Update journey map with PTE info (PTE map stays in inventory)
                 journeyMapManager.updateMapAfterPTE(player);
@@ -264,7 +310,7 @@ public class RoomChangeListener implements Listener {
             case "Page Fault Corridor":
                 journeyTracker.setPhase(player, "page_fault_corridor");
                 speakIfLearner(player, "rooms.page_fault_corridor.at_enter", vars);
-                choiceButtonHandler.closeDoor("toPageFaultCorridor");
+                doors.close("toPageFaultCorridor", player.getWorld());
                 break;
 
             case "Lazy Allocation Room":
@@ -274,20 +320,20 @@ public class RoomChangeListener implements Listener {
             case "COW Room":
                 journeyTracker.setPhase(player, "cow_decision");
                 speakIfLearner(player, "rooms.cow_room.at_spawn", vars);
-                choiceButtonHandler.clearCowToRamSign();
+                choiceButtonHandler.clearCowToRamSign(player.getWorld());
                 break;
 
             case "Lazy Loading Room":
                 if ("calculator_from_lazy_loading".equals(phase) || "calculator_from_lazy_loading_done".equals(phase)) {
                     // Returning from Calculator Room — page index already calculated
                     journeyTracker.setPhase(player, "lazy_loading_returned");
-                    choiceButtonHandler.setLoadingSign("Go to Disk", "", "", "");
+                    choiceButtonHandler.setLoadingSign(player.getWorld(), "Go to Disk", "", "", "");
                     // Page index was set by calculator, just show dialogue
                     speakIfLearner(player, "rooms.lazy_loading_room.after_calculator", vars);
                 } else {
                     journeyTracker.setPhase(player, "lazy_loading_entered");
                     speakIfLearner(player, "rooms.lazy_loading_room.at_enter", vars);
-                    choiceButtonHandler.setLoadingSign("Go to Calculator", "Room", "", "");
+                    choiceButtonHandler.setLoadingSign(player.getWorld(), "Go to Calculator", "Room", "", "");
                     // Reveal page size on map
                     journeyTracker.setVar(player, "pageSize", "0x10");
                     journeyMapManager.updateMap(player);
@@ -328,11 +374,11 @@ public class RoomChangeListener implements Listener {
             case "terminal_journey_chosen":
             case "terminal_spawn":
                 journeyTracker.setPhase(player, "tlb_spawn");
-                choiceButtonHandler.resetHitDecisionSign();
-                choiceButtonHandler.closeDoor("toPageFaultCorridor");
-                choiceButtonHandler.closeDoor("toLazyLoading");
-                choiceButtonHandler.closeDoor("toLazyAllocation");
-                calculatorListener.clearHopper();
+                choiceButtonHandler.resetHitDecisionSign(player.getWorld());
+                doors.close("toPageFaultCorridor", player.getWorld());
+                doors.close("toLazyLoading", player.getWorld());
+                doors.close("toLazyAllocation", player.getWorld());
+                calculatorListener.clearHopper(player.getWorld());
                 speakIfLearner(player, "rooms.tlb_room.at_spawn", vars);
                 tlbRoomManager.populate(player);
                 break;
@@ -421,14 +467,14 @@ public class RoomChangeListener implements Listener {
         if ("page_fault_corridor".equals(phase) || "lazy_alloc_decision".equals(phase)) {
             journeyTracker.setPhase(player, "lazy_alloc_decision");
             speakIfLearner(player, "rooms.lazy_allocation_room.at_enter", vars);
-            choiceButtonHandler.setLazyAllocDecisionSigns();
+            choiceButtonHandler.setLazyAllocDecisionSigns(player.getWorld());
         } else if ("lazy_alloc_cow".equals(phase)) {
             // Player re-entered room after allocating but before making the COW decision
             speakIfLearner(player, "rooms.lazy_allocation_room.second_visit", vars);
-            choiceButtonHandler.setLazyAllocCowSigns();
+            choiceButtonHandler.setLazyAllocCowSigns(player.getWorld());
         } else if ("lazy_alloc_before_tp".equals(phase)) {
             // Player re-entered after pressing COW — restore "Go to COW room" sign silently
-            choiceButtonHandler.setLazyAllocBeforeTpSign();
+            choiceButtonHandler.setLazyAllocBeforeTpSign(player.getWorld());
         }
     }
 
@@ -464,54 +510,54 @@ public class RoomChangeListener implements Listener {
 
         switch (phase) {
             case "ram_tlb_hit_access":
-                choiceButtonHandler.setRamMixSign("CONFIRM", "PROCESS", "MAPPED", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "CONFIRM", "PROCESS", "MAPPED", "");
                 speakIfLearner(player, "rooms.ram_room.found_frame", vars);
                 break;
             case "ram_tlb_miss_access":
-                choiceButtonHandler.setRamMixSign("CONFIRM", "PROCESS", "MAPPED", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "CONFIRM", "PROCESS", "MAPPED", "");
                 speakIfLearner(player, "rooms.ram_room.found_frame_from_pt", vars);
                 break;
             case "ram_after_cow":
                 // Pure COW only
-                choiceButtonHandler.setRamMixSign("RETRY", "INSTRUCTION", "", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "RETRY", "INSTRUCTION", "", "");
                 speakIfLearner(player, "rooms.ram_room.after_cow_pure", vars);
                 break;
             case "ram_after_cow_alloc":
                 // LAZY_ALLOCATION first RAM visit: RAM full, needs swap
-                choiceButtonHandler.setRamMixSign("CONTINUE", "", "", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "CONTINUE", "", "", "");
                 speakIfLearner(player, "rooms.ram_room.ram_full_need_swap", vars);
                 break;
             case "ram_disk_lazy_loading":
-                choiceButtonHandler.setRamMixSign("Go to Swap", "District", "", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "Go to Swap", "District", "", "");
                 speakIfLearner(player, "rooms.ram_room.ram_full_need_swap", vars);
                 break;
             case "ram_disk_swap":
                 journeyTracker.setVar(player, "pfn", "0x2");
-                choiceButtonHandler.setRamMixSign("PUT BOOK", "IN FRAME", "", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "PUT BOOK", "IN FRAME", "", "");
                 speakIfLearner(player, "rooms.ram_room.from_disk_swap_out", vars);
                 break;
             case "ram_book_placed_swapped":
-                choiceButtonHandler.setRamMixSign("RETRY", "INSTRUCTION", "", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "RETRY", "INSTRUCTION", "", "");
                 speakIfLearner(player, "rooms.ram_room.retry_instruction_page_fault", vars);
                 break;
             case "ram_book_placed_pure_cow":
-                choiceButtonHandler.setRamMixSign("RETRY", "INSTRUCTION", "", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "RETRY", "INSTRUCTION", "", "");
                 speakIfLearner(player, "rooms.ram_room.retry_instruction_cow", vars);
                 break;
             case "ram_after_swap_lazy_loading":
-                choiceButtonHandler.setRamMixSign("PUT BOOK", "IN FRAME", "", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "PUT BOOK", "IN FRAME", "", "");
                 speakIfLearner(player, "rooms.ram_room.after_swap_for_lazy_loading", vars);
                 break;
             case "ram_book_placed_lazy_loading":
-                choiceButtonHandler.setRamMixSign("RETRY", "INSTRUCTION", "", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "RETRY", "INSTRUCTION", "", "");
                 speakIfLearner(player, "rooms.ram_room.retry_instruction_page_fault", vars);
                 break;
             case "ram_after_swap_lazy_alloc":
-                choiceButtonHandler.setRamMixSign("RETRY", "INSTRUCTION", "", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "RETRY", "INSTRUCTION", "", "");
                 speakIfLearner(player, "rooms.ram_room.after_swap_for_lazy_alloc", vars);
                 break;
             case "ram_book_placed_lazy_allocation":
-                choiceButtonHandler.setRamMixSign("RETRY", "INSTRUCTION", "", "");
+                choiceButtonHandler.setRamMixSign(player.getWorld(), "RETRY", "INSTRUCTION", "", "");
                 speakIfLearner(player, "rooms.ram_room.retry_instruction_page_fault", vars);
                 break;
             case "swap_entered":
@@ -520,7 +566,7 @@ public class RoomChangeListener implements Listener {
                 String swapDialogue = JourneyManager.dialogueAfterSwapInRam(swapJ);
                 if (swapPhase != null) {
                     journeyTracker.setPhase(player, swapPhase);
-                    choiceButtonHandler.setRamMixSign("RETRY", "INSTRUCTION", "", "");
+                    choiceButtonHandler.setRamMixSign(player.getWorld(), "RETRY", "INSTRUCTION", "", "");
                     speakIfLearner(player, swapDialogue, vars);
                 }
                 break;
@@ -528,16 +574,16 @@ public class RoomChangeListener implements Listener {
                 Journey swapJourney = journeyTracker.getJourney(player);
                 if (swapJourney == Journey.LAZY_LOADING) {
                     journeyTracker.setPhase(player, "ram_after_swap_lazy_loading");
-                    choiceButtonHandler.setRamMixSign("PUT BOOK", "IN FRAME", "", "");
+                    choiceButtonHandler.setRamMixSign(player.getWorld(), "PUT BOOK", "IN FRAME", "", "");
                     speakIfLearner(player, "rooms.ram_room.after_swap_for_lazy_loading", journeyTracker.getVars(player));
                 } else if (swapJourney == Journey.LAZY_ALLOCATION) {
                     ramRoomManager.placeBookInFrameChest(player, 7);
                     journeyTracker.setPhase(player, "ram_after_swap_lazy_alloc");
                     ramRoomManager.updateZeroFrameSignOnly(player);
-                    choiceButtonHandler.setRamMixSign("RETRY", "INSTRUCTION", "", "");
+                    choiceButtonHandler.setRamMixSign(player.getWorld(), "RETRY", "INSTRUCTION", "", "");
                     speakIfLearner(player, "rooms.ram_room.after_swap_for_lazy_alloc", journeyTracker.getVars(player));
                 } else {
-                    choiceButtonHandler.setRamMixSign("PUT BOOK", "IN CHEST", "", "");
+                    choiceButtonHandler.setRamMixSign(player.getWorld(), "PUT BOOK", "IN CHEST", "", "");
                 }
                 break;
         }
@@ -547,12 +593,13 @@ public class RoomChangeListener implements Listener {
 
     private void moveGuardianToPlayer(Player player) {
         Location loc = player.getLocation();
-        RoomRegistry.Room room = roomRegistry.getRoomAt(loc);
+        // Record the room without firing an entry event: the join flow handles the first room itself
+        RoomRegistry.Room room = roomTracker.set(player, loc);
         if (room != null) {
-            currentRoomTitle = room.title;
+            journeyTracker.setRoom(player, room.key);
             if (guardian.isSpawned()) {
                 guardian.moveTo(room.npcPosition != null
-                    ? room.npcPosition
+                    ? plugin.getWorldAliases().rebase(room.npcPosition, player.getWorld())
                     : loc.clone().add(3, 0, 0));
             }
         }
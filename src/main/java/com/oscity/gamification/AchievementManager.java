@@ -3,7 +3,7 @@ package com.oscity.gamification;
 import com.oscity.config.ConfigManager;
 import com.oscity.session.SessionManager;
 import com.oscity.session.SessionStats;
-import com.oscity.persistence.SQLiteStudyDatabase;
+import com.oscity.persistence.StudySink;
 import org.bukkit.entity.Player;
 
 import java.util.HashMap;
@@ -21,11 +21,13 @@ public class AchievementManager {
     private static final Logger log = Logger.getLogger("OSCity");
     private final SessionManager sessionManager;
     private final ConfigManager configManager;
+    private final StudySink studySink;
     private final Map<String, Set<String>> unlockedAchievements = new HashMap<>();
 
-    public AchievementManager(SessionManager sessionManager, ConfigManager configManager) {
+    public AchievementManager(SessionManager sessionManager, ConfigManager configManager, StudySink studySink) {
         this.sessionManager = sessionManager;
         this.configManager  = configManager;
+        this.studySink      = studySink;
     }
     
     /** Call when journey STARTS */
@@ -92,7 +94,7 @@ public class AchievementManager {
     /** Call on wrong answer */
     public void onWrongAnswer(Player player, String context) {
         sessionManager.getStats().onWrongAnswer();
-        SQLiteStudyDatabase.logWrongAnswer(sessionManager.getSessionId(), context);
+        studySink.logWrongAnswer(sessionManager.getSessionId(), context);
         player.sendMessage(configManager.getMessage("feedback.wrong_streak_reset"));
     }
     
@@ -130,7 +132,7 @@ public class AchievementManager {
         if (!sessionUnlocked.contains(achievementName)) {
             sessionUnlocked.add(achievementName);
             log.info("[Achievement] UNLOCKED: " + achievementName + " | player=" + player.getName());
-            SQLiteStudyDatabase.logAchievement(sessionId, achievementName);
+            studySink.logAchievement(sessionId, achievementName);
             player.sendMessage(configManager.getMessage("feedback.achievement_unlock", "{name}", achievementName));
         } else {
             log.info("[Achievement] already unlocked: " + achievementName + " | player=" + player.getName());
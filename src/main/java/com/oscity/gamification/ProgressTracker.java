@@ -2,9 +2,12 @@ package com.oscity.gamification;
 
 import com.oscity.persistence.JourneyDAO;
 import com.oscity.journey.Journey;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Tracks which journeys each player has completed.
@@ -13,38 +16,128 @@ import java.util.*;
  *   - Journey #1 (LUCKY) is always available.
  *   - Journey N unlocks only after journey N-1 is marked complete.
  *   - Completion is persisted to SQLite via JourneyDAO so it survives restarts.
- *   - An in-memory cache (loaded on player join) keeps queries off the hot path.
+ *   - An in-memory cache keeps queries off the hot path. It is filled from
+ *     AsyncPlayerPreLoginEvent (off the main thread) and picked up on join;
+ *     if that preload is missing, the join falls back to an async load.
  */
 public class ProgressTracker {
 
-    /** In-memory cache: uuid → set of completed journeys. */
+    /** Preloaded data older than this is assumed to belong to a login that never completed. */
+    private static final long STAGED_TTL_MS = 60_000;
+
+    /** Completion set loaded during pre-login, waiting for the player's join. */
+    private static class Staged {
+        final Set<Journey> journeys;
+        final long loadedAt = System.currentTimeMillis();
+
+        Staged(Set<Journey> journeys) {
+            this.journeys = journeys;
+        }
+    }
+
+    private final JavaPlugin plugin;
+
+    /** In-memory cache: uuid → set of completed journeys (main thread only). */
     private final Map<UUID, Set<Journey>> completed = new HashMap<>();
 
-    // ── Called on player join ─────────────────────────────────────────────────
+    /** Pre-login results, written from the async login thread and consumed on join. */
+    private final Map<UUID, Staged> staged = new ConcurrentHashMap<>();
+
+    /** Players whose data is still being loaded by the async fallback (main thread only). */
+    private final Set<UUID> loading = new HashSet<>();
+
+    /** Work held back until a player's fallback load finishes (main thread only). */
+    private final Map<UUID, List<Runnable>> afterLoad = new HashMap<>();
+
+    public ProgressTracker(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    // ── Called on login / join ────────────────────────────────────────────────
 
     /**
-     * Load this player's completion data from SQLite into the cache.
-     * Call this as early as possible (e.g. PlayerJoinEvent).
+     * Load this player's completion data from SQLite into the staging map.
+     * Runs on the AsyncPlayerPreLoginEvent thread, so it may block.
+     */
+    public void preload(UUID uuid) {
+        staged.put(uuid, new Staged(JourneyDAO.loadCompleted(uuid)));
+    }
+
+    /** Drop a preload for a login that was denied after we staged it. */
+    public void discardPreload(UUID uuid) {
+        staged.remove(uuid);
+    }
+
+    /**
+     * Move this player's completion data into the cache. Never blocks:
+     * uses the pre-login result if there is one, otherwise starts an async
+     * load and marks the player as loading until it finishes.
+     * Call from PlayerJoinEvent.
      */
     public void loadPlayer(UUID uuid) {
-        completed.put(uuid, JourneyDAO.loadCompleted(uuid));
+        long now = System.currentTimeMillis();
+        staged.values().removeIf(s -> now - s.loadedAt > STAGED_TTL_MS);
+
+        Staged preloaded = staged.remove(uuid);
+        if (preloaded != null) {
+            mergeLoaded(uuid, preloaded.journeys);
+            return;
+        }
+
+        loading.add(uuid);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            Set<Journey> journeys = JourneyDAO.loadCompleted(uuid);
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                // Player may have quit while we were loading
+                if (!loading.remove(uuid)) return;
+                mergeLoaded(uuid, journeys);
+                List<Runnable> held = afterLoad.remove(uuid);
+                if (held != null) held.forEach(Runnable::run);
+            });
+        });
     }
 
     /** Remove cached data when a player leaves to avoid memory leaks. */
     public void unloadPlayer(UUID uuid) {
         completed.remove(uuid);
+        staged.remove(uuid);
+        loading.remove(uuid);
+        afterLoad.remove(uuid);
+    }
+
+    /** True while the async fallback load for this player has not finished yet. */
+    public boolean isLoading(UUID uuid) {
+        return loading.contains(uuid);
+    }
+
+    /**
+     * Run {@code task} now, or once this player's fallback load finishes if
+     * it is still running. Dropped if the player quits first.
+     */
+    public void whenLoaded(UUID uuid, Runnable task) {
+        if (!loading.contains(uuid)) {
+            task.run();
+            return;
+        }
+        afterLoad.computeIfAbsent(uuid, k -> new ArrayList<>()).add(task);
+    }
+
+    /** Keep anything marked complete while loading, in addition to what the DB returned. */
+    private void mergeLoaded(UUID uuid, Set<Journey> journeys) {
+        completed.computeIfAbsent(uuid, k -> EnumSet.noneOf(Journey.class)).addAll(journeys);
     }
 
     // ── Completion ────────────────────────────────────────────────────────────
 
     /**
      * Mark a journey as complete for this player.
-     * Updates both the in-memory cache and the SQLite DB.
+     * Updates the in-memory cache now and the SQLite DB on an async task,
+     * so the main thread never waits on the study database writer.
      */
     public void markComplete(Player player, Journey journey) {
         UUID uuid = player.getUniqueId();
         completed.computeIfAbsent(uuid, k -> EnumSet.noneOf(Journey.class)).add(journey);
-        JourneyDAO.markComplete(uuid, journey);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> JourneyDAO.markComplete(uuid, journey));
     }
 
     public boolean isComplete(Player player, Journey journey) {
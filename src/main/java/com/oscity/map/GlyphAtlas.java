@@ -0,0 +1,83 @@
+package com.oscity.map;
+
+import org.bukkit.map.MapFont;
+import org.bukkit.map.MinecraftFont;
+
+import java.util.Arrays;
+
+/**
+ * MinecraftFont's characters as ready-made pixel spans, one set per scale.
+ *
+ * A glyph is the list of horizontal runs of set pixels in its sprite,
+ * already blown up to the scale, so drawing it is a few row fills instead
+ * of a get() per font pixel (times scale² at larger sizes). A scale's
+ * glyphs are built together the first time that scale is used. Thread-safe.
+ */
+final class GlyphAtlas {
+
+    /** Largest scale kept in the atlas; larger ones are built but not kept. */
+    static final int MAX_SCALE = 4;
+    /** Advance of a character the font has no sprite for, at scale 1 (as MapRaster always drew it). */
+    static final int MISSING_ADVANCE = 4;
+    /** MinecraftFont's sprites cover chars below this. */
+    private static final int CHARS = 256;
+
+    private static final Glyph[][] ATLAS = new Glyph[MAX_SCALE + 1][];
+
+    private GlyphAtlas() {}
+
+    /**
+     * One character at one scale: its {@link #spans} as (dy, dx, length)
+     * triples relative to the glyph's top-left corner, and how far it moves
+     * the pen (sprite width plus one pixel of spacing, scaled).
+     */
+    static final class Glyph {
+        final int[] spans;
+        final int advance;
+
+        private Glyph(int[] spans, int advance) {
+            this.spans = spans;
+            this.advance = advance;
+        }
+    }
+
+    /** The glyph for {@code c} at {@code scale}, or null if the font cannot draw it. */
+    static Glyph get(char c, int scale) {
+        if (c >= CHARS) return build(c, scale);
+        Glyph[] glyphs = scale <= MAX_SCALE ? glyphs(scale) : null;
+        return glyphs != null ? glyphs[c] : build(c, scale);
+    }
+
+    private static synchronized Glyph[] glyphs(int scale) {
+        Glyph[] glyphs = ATLAS[scale];
+        if (glyphs == null) {
+            glyphs = new Glyph[CHARS];
+            for (char c = 0; c < CHARS; c++) glyphs[c] = build(c, scale);
+            ATLAS[scale] = glyphs;
+        }
+        return glyphs;
+    }
+
+    private static Glyph build(char c, int scale) {
+        MapFont.CharacterSprite sprite = MinecraftFont.Font.getChar(c);
+        if (sprite == null) return null;
+
+        // Each row's runs of set pixels, repeated for every scaled row
+        int[] spans = new int[sprite.getHeight() * sprite.getWidth() * 3 * scale];
+        int n = 0;
+        for (int row = 0; row < sprite.getHeight(); row++) {
+            int col = 0;
+            while (col < sprite.getWidth()) {
+                if (!sprite.get(row, col)) { col++; continue; }
+                int start = col;
+                while (col < sprite.getWidth() && sprite.get(row, col)) col++;
+                for (int sy = 0; sy < scale; sy++) {
+                    spans[n++] = row * scale + sy;
+                    spans[n++] = start * scale;
+                    spans[n++] = (col - start) * scale;
+                }
+            }
+        }
+        return new Glyph(Arrays.copyOf(spans, n), (sprite.getWidth() + 1) * scale);
+    }
+}
@@ -0,0 +1,210 @@
+package com.oscity.map;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Turns the PNGs in assets/ (page_table, disk_table, lazy_loading, ...)
+ * into map images.
+ *
+ * An asset is scaled to fit a grid of {@code columns × rows} maps with
+ * its aspect ratio kept, and the margin is left transparent. Each pixel
+ * goes through {@link MapColors}, optionally with Floyd–Steinberg
+ * dithering, which suits photos and gradients better than flat diagrams.
+ * The result, one {@link MapRaster} per map in row-major order, is cached,
+ * so showing an asset again is only the array copy in
+ * {@link RasterRenderer#show}. Do not draw on the cached rasters; copy one
+ * first ({@link MapRaster#copyFrom}).
+ *
+ * A file in the plugin folder's assets/ overrides the copy in the jar, so
+ * builders can swap an image without a rebuild. Loading decodes and scales
+ * the PNG, so call {@link #get} from a {@link MapComposer} job or an async
+ * task rather than the main thread. Thread-safe.
+ */
+public class ImageAssets {
+
+    private final JavaPlugin plugin;
+    private final File folder;
+    /** "name:columns:rows:dither" → tiles. */
+    private final Map<String, List<MapRaster>> cache = new ConcurrentHashMap<>();
+
+    public ImageAssets(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "assets");
+    }
+
+    /**
+     * The tiles of asset {@code name} (without .png), loading and converting
+     * it on first use. Empty if the asset does not exist or cannot be read;
+     * failures are not cached, so a fixed PNG is picked up on the next call.
+     */
+    public List<MapRaster> get(String name, int columns, int rows, boolean dither) {
+        String key = name + ":" + columns + ":" + rows + ":" + dither;
+        List<MapRaster> tiles = cache.get(key);
+        if (tiles != null) return tiles;
+        tiles = load(name, Math.max(1, columns), Math.max(1, rows), dither);
+        if (!tiles.isEmpty()) {
+            List<MapRaster> raced = cache.putIfAbsent(key, tiles);
+            if (raced != null) return raced;
+        }
+        return tiles;
+    }
+
+    /** True if asset {@code name} exists, in the plugin folder or the jar. */
+    public boolean exists(String name) {
+        if (new File(folder, name + ".png").isFile()) return true;
+        try (InputStream in = plugin.getResource("assets/" + name + ".png")) {
+            return in != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public int cachedCount() {
+        return cache.size();
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    // ── Loading ───────────────────────────────────────────────────────────────
+
+    private List<MapRaster> load(String name, int columns, int rows, boolean dither) {
+        BufferedImage source;
+        try {
+            source = read(name);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "[Assets] Could not read " + name + ".png", e);
+            return List.of();
+        }
+        if (source == null) {
+            plugin.getLogger().warning("[Assets] No asset named " + name + ".png");
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        int width = columns * MapRaster.SIZE;
+        int height = rows * MapRaster.SIZE;
+        int[] argb = fit(source, width, height).getRGB(0, 0, width, height, null, 0, width);
+        byte[] palette = dither ? ditherToPalette(argb, width, height) : toPalette(argb);
+
+        List<MapRaster> tiles = new ArrayList<>(columns * rows);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                MapRaster tile = new MapRaster();
+                for (int y = 0; y < MapRaster.SIZE; y++) {
+                    System.arraycopy(palette, (row * MapRaster.SIZE + y) * width + col * MapRaster.SIZE,
+                        tile.pixels, y * MapRaster.SIZE, MapRaster.SIZE);
+                }
+                tiles.add(tile);
+            }
+        }
+        plugin.getLogger().info("[Assets] " + name + ".png → " + columns + "x" + rows + " maps"
+            + (dither ? " (dithered)" : "") + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return Collections.unmodifiableList(tiles);
+    }
+
+    private BufferedImage read(String name) throws IOException {
+        File override = new File(folder, name + ".png");
+        if (override.isFile()) return ImageIO.read(override);
+        try (InputStream in = plugin.getResource("assets/" + name + ".png")) {
+            return in == null ? null : ImageIO.read(in);
+        }
+    }
+
+    /**
+     * Scale {@code source} to fit {@code width × height}, centred, on a
+     * transparent background. Large downscales halve the image step by step
+     * first, since one bilinear pass from 1920 px to 128 px skips most pixels.
+     */
+    private static BufferedImage fit(BufferedImage source, int width, int height) {
+        double scale = Math.min((double) width / source.getWidth(), (double) height / source.getHeight());
+        int w = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int h = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage image = source;
+        while (image.getWidth() / 2 >= w && image.getHeight() / 2 >= h) {
+            image = draw(image, image.getWidth() / 2, image.getHeight() / 2, image.getWidth() / 2,
+                image.getHeight() / 2, 0, 0);
+        }
+        return draw(image, width, height, w, h, (width - w) / 2, (height - h) / 2);
+    }
+
+    private static BufferedImage draw(BufferedImage image, int canvasW, int canvasH, int w, int h, int x, int y) {
+        BufferedImage out = new BufferedImage(canvasW, canvasH, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(image, x, y, w, h, null);
+        g.dispose();
+        return out;
+    }
+
+    // ── Palette conversion ────────────────────────────────────────────────────
+
+    private static byte[] toPalette(int[] argb) {
+        byte[] out = new byte[argb.length];
+        for (int i = 0; i < argb.length; i++) {
+            out[i] = argb[i] >>> 24 < 128 ? MapColors.TRANSPARENT : MapColors.match(argb[i]);
+        }
+        return out;
+    }
+
+    /** Floyd–Steinberg: each pixel's rounding error is spread over the pixels right and below it. */
+    private static byte[] ditherToPalette(int[] argb, int width, int height) {
+        byte[] out = new byte[argb.length];
+        // Error carried into the current and next row, per channel
+        int[][] cur = new int[3][width + 2];
+        int[][] next = new int[3][width + 2];
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                int p = argb[i];
+                if (p >>> 24 < 128) {
+                    out[i] = MapColors.TRANSPARENT;
+                    continue;
+                }
+                int r = clamp((p >> 16 & 0xFF) + cur[0][x + 1] / 16);
+                int g = clamp((p >> 8 & 0xFF) + cur[1][x + 1] / 16);
+                int b = clamp((p & 0xFF) + cur[2][x + 1] / 16);
+                byte color = MapColors.match(r, g, b);
+                out[i] = color;
+
+                int shown = MapColors.rgb(color);
+                if (shown < 0) continue;
+                int[] error = {r - (shown >> 16 & 0xFF), g - (shown >> 8 & 0xFF), b - (shown & 0xFF)};
+                for (int c = 0; c < 3; c++) {
+                    cur[c][x + 2]  += error[c] * 7;
+                    next[c][x]     += error[c] * 3;
+                    next[c][x + 1] += error[c] * 5;
+                    next[c][x + 2] += error[c];
+                }
+            }
+            int[][] swap = cur;
+            cur = next;
+            next = swap;
+            for (int[] channel : next) Arrays.fill(channel, 0);
+        }
+        return out;
+    }
+
+    private static int clamp(int v) {
+        return v < 0 ? 0 : Math.min(255, v);
+    }
+}
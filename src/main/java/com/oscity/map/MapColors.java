@@ -0,0 +1,74 @@
+package com.oscity.map;
+
+import org.bukkit.map.MapPalette;
+
+import java.awt.Color;
+
+/**
+ * RGB to map palette conversion through a lookup table.
+ *
+ * MapPalette.matchColor searches the whole palette for the nearest colour
+ * on every call. Here that search runs once for each 15-bit colour (5 bits
+ * per channel, 32,768 entries) the first time this class is used, and
+ * every later conversion is a single array read. Dropping the low 3 bits
+ * of each channel is finer than the palette's own spacing, so the result
+ * matches matchColor except at the odd boundary between two near colours.
+ *
+ * Byte 0 is the transparent palette entry. All methods are thread-safe.
+ */
+public final class MapColors {
+
+    public static final byte TRANSPARENT = 0;
+
+    /** 15-bit RGB (r5 << 10 | g5 << 5 | b5) → palette byte. */
+    private static final byte[] LUT = new byte[1 << 15];
+    /** Palette byte (as 0–255) → 0xRRGGBB, for dithering error; -1 where the byte is unused. */
+    private static final int[] RGB = new int[256];
+
+    static {
+        buildLut();
+        buildRgb();
+    }
+
+    private MapColors() {}
+
+    /** Palette byte for an RGB colour; channels are 0–255. */
+    public static byte match(int r, int g, int b) {
+        return LUT[(r >> 3) << 10 | (g >> 3) << 5 | (b >> 3)];
+    }
+
+    /** Palette byte for a packed 0xRRGGBB (any alpha bits are ignored). */
+    public static byte match(int rgb) {
+        return LUT[(rgb >> 9 & 0x7C00) | (rgb >> 6 & 0x03E0) | (rgb >> 3 & 0x001F)];
+    }
+
+    /** 0xRRGGBB shown for a palette byte, or -1 for transparent and unused bytes. */
+    public static int rgb(byte color) {
+        return RGB[color & 0xFF];
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void buildLut() {
+        for (int i = 0; i < LUT.length; i++) {
+            // Centre of the 8×8×8 cell, so rounding is even in both directions
+            int r = (i >> 10 & 0x1F) << 3 | 4;
+            int g = (i >> 5 & 0x1F) << 3 | 4;
+            int b = (i & 0x1F) << 3 | 4;
+            LUT[i] = MapPalette.matchColor(new Color(r, g, b));
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void buildRgb() {
+        for (int i = 0; i < RGB.length; i++) {
+            RGB[i] = -1;
+            if (i < 4) continue; // transparent entries
+            try {
+                Color c = MapPalette.getColor((byte) i);
+                if (c.getAlpha() == 255) RGB[i] = c.getRGB() & 0xFFFFFF;
+            } catch (IndexOutOfBoundsException e) {
+                // Past the end of this version's palette
+            }
+        }
+    }
+}
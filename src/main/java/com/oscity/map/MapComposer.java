@@ -0,0 +1,76 @@
+package com.oscity.map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Draws map images on worker threads and hands them to the main thread.
+ *
+ * A job is a {@code Supplier<MapRaster>} that works only from data
+ * captured on the main thread beforehand (strings, a copy of the player's
+ * vars) and never touches the world or the player. Once it finishes, the
+ * finished raster is passed to {@link RasterRenderer#show} on the main
+ * thread at the next tick. So a room entry that fills nine TLB maps or four
+ * PTE maps only queues nine or four jobs on the tick thread.
+ *
+ * If a map is composed again before an earlier job for it has been shown,
+ * only the newest result is shown.
+ */
+public class MapComposer {
+
+    private final JavaPlugin plugin;
+    private final ExecutorService workers;
+    /** Newest ticket per renderer; older results are dropped. Main thread only. */
+    private final Map<RasterRenderer, Long> latest = new HashMap<>();
+    private long nextTicket;
+
+    public MapComposer(JavaPlugin plugin, int threads) {
+        this.plugin = plugin;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "OSCity-MapComposer-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Compose {@code job} off the main thread and show the result on {@code target}. Call from the main thread. */
+    public void compose(RasterRenderer target, Supplier<MapRaster> job) {
+        long ticket = ++nextTicket;
+        latest.put(target, ticket);
+        CompletableFuture.supplyAsync(job, workers).whenComplete((raster, error) -> {
+            if (!plugin.isEnabled()) return;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                Long newest = latest.get(target);
+                if (newest == null || newest != ticket) return;
+                latest.remove(target);
+                if (error != null) {
+                    plugin.getLogger().log(Level.WARNING, "[MapComposer] Map composition failed", error);
+                    return;
+                }
+                target.show(raster);
+            });
+        });
+    }
+
+    /** Stop the workers; anything still being composed is dropped (call from onDisable). */
+    public void shutdown() {
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        latest.clear();
+    }
+}
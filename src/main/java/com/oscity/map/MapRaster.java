@@ -0,0 +1,101 @@
+package com.oscity.map;
+
+import org.bukkit.map.MapPalette;
+import org.bukkit.map.MinecraftFont;
+
+import java.util.Arrays;
+
+/**
+ * A 128×128 map image held as palette bytes, drawn once and then handed to
+ * a {@link RasterRenderer}.
+ *
+ * The drawing calls mirror the MapCanvas ones the room managers used
+ * (fill, pixel, text with MinecraftFont), so a map's content is built here
+ * a single time instead of on every render callback. Text is drawn the way
+ * MapCanvas.drawText draws it, in {@link #TEXT} unless a colour is given;
+ * colour codes are not interpreted and characters the font lacks are
+ * skipped.
+ */
+public final class MapRaster {
+
+    public static final int SIZE = 128;
+
+    /** MapCanvas.drawText's default text colour. */
+    @SuppressWarnings("deprecation")
+    public static final byte TEXT = MapPalette.DARK_GRAY;
+
+    final byte[] pixels = new byte[SIZE * SIZE];
+
+    /** Nearest map palette entry for an RGB colour (a {@link MapColors} table lookup). */
+    public static byte color(int r, int g, int b) {
+        return MapColors.match(r, g, b);
+    }
+
+    public MapRaster fill(byte color) {
+        Arrays.fill(pixels, color);
+        return this;
+    }
+
+    /** Fill rows {@code y0} to {@code y1} inclusive, full width. */
+    public MapRaster fillRows(int y0, int y1, byte color) {
+        Arrays.fill(pixels, Math.max(0, y0) * SIZE, (Math.min(SIZE - 1, y1) + 1) * SIZE, color);
+        return this;
+    }
+
+    public void setPixel(int x, int y, byte color) {
+        if (x >= 0 && x < SIZE && y >= 0 && y < SIZE) pixels[y * SIZE + x] = color;
+    }
+
+    public byte getPixel(int x, int y) {
+        return pixels[y * SIZE + x];
+    }
+
+    /** Replace this image with {@code other}'s; one array copy, e.g. to draw text over an asset. */
+    public MapRaster copyFrom(MapRaster other) {
+        System.arraycopy(other.pixels, 0, pixels, 0, pixels.length);
+        return this;
+    }
+
+    public MapRaster drawText(int x, int y, String text) {
+        return drawText(x, y, text, TEXT, 1);
+    }
+
+    /**
+     * Draw {@code text} with its top-left corner at (x, y), each font pixel
+     * blown up to a scale×scale block. A newline starts a new line at x.
+     * The text is laid out from the {@link GlyphAtlas} once and then cached
+     * (see {@link TextLayout}), so drawing it again only fills pixel spans.
+     */
+    public MapRaster drawText(int x, int y, String text, byte color, int scale) {
+        if (text == null || text.isEmpty()) return this;
+        TextLayout.of(text, scale).draw(pixels, x, y, color);
+        return this;
+    }
+
+    /** Pixel width of {@code text} in MinecraftFont at scale 1. */
+    public static int textWidth(String text) {
+        return textWidth(text, 1);
+    }
+
+    /** Pixel width of {@code text} in MinecraftFont at {@code scale} (widest line if it has several). */
+    public static int textWidth(String text, int scale) {
+        if (text == null || text.isEmpty()) return 0;
+        return TextLayout.of(text, scale).width;
+    }
+
+    /** Replace characters MinecraftFont cannot draw with '?'. */
+    public static String safe(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            sb.append(MinecraftFont.Font.getChar(c) != null ? c : '?');
+        }
+        return sb.toString();
+    }
+
+    /** True if both rasters hold the same image. */
+    public boolean sameAs(MapRaster other) {
+        return other != null && Arrays.equals(pixels, other.pixels);
+    }
+}
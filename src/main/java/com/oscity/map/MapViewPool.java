@@ -0,0 +1,112 @@
+package com.oscity.map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.map.MapView;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Hands out one MapView per logical map slot, reusing it every time that
+ * slot is drawn again.
+ *
+ * Bukkit.createMap allocates a map ID (and a map_N.dat in the world
+ * folder) for good, so creating a view on every populate leaks one per
+ * call. Here a slot such as {@code "tlb3"} together with its owner (a
+ * player UUID, or an instance world name) always gets the same view; its
+ * {@link RasterRenderer} is reused with it, so drawing the same content
+ * again costs nothing.
+ *
+ * Slot names must not contain dots (they are YAML keys).
+ *
+ * Slot-to-ID assignments are kept in map-views.yml in the plugin folder,
+ * so after a restart the same slots pick up the same IDs instead of
+ * allocating new ones.
+ *
+ * Main thread only.
+ */
+public class MapViewPool {
+
+    private final JavaPlugin plugin;
+    private final File file;
+    /** "slot@owner" → map ID, as persisted. */
+    private final Map<String, Integer> ids = new HashMap<>();
+    /** "slot@owner" → view, once looked up this session. */
+    private final Map<String, MapView> views = new HashMap<>();
+    private boolean saveQueued;
+
+    public MapViewPool(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "map-views.yml");
+    }
+
+    public void load() {
+        ids.clear();
+        views.clear();
+        if (!file.exists()) return;
+        ConfigurationSection slots = YamlConfiguration.loadConfiguration(file).getConfigurationSection("slots");
+        if (slots == null) return;
+        for (String key : slots.getKeys(false)) {
+            ids.put(key, slots.getInt(key));
+        }
+        plugin.getLogger().info("[MapViews] " + ids.size() + " map slots restored from map-views.yml");
+    }
+
+    /**
+     * The view for {@code slot} owned by {@code owner}, created in
+     * {@code world} the first time the slot is ever used.
+     */
+    @SuppressWarnings("deprecation")
+    public MapView acquire(String slot, String owner, World world) {
+        String key = slot + "@" + owner;
+        MapView view = views.get(key);
+        if (view != null) return view;
+
+        Integer id = ids.get(key);
+        if (id != null) view = Bukkit.getMap(id);
+        if (view == null) {
+            view = Bukkit.createMap(world);
+            ids.put(key, view.getId());
+            queueSave();
+        }
+        view.setScale(MapView.Scale.CLOSEST);
+        view.setTrackingPosition(false);
+        view.setUnlimitedTracking(false);
+        views.put(key, view);
+        return view;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    // ── Persistence ───────────────────────────────────────────────────────────
+
+    /** Save once at the end of this tick, however many slots were assigned in it. */
+    private void queueSave() {
+        if (saveQueued) return;
+        saveQueued = true;
+        Bukkit.getScheduler().runTask(plugin, this::save);
+    }
+
+    /** Write map-views.yml now (also called from onDisable). */
+    public void save() {
+        saveQueued = false;
+        YamlConfiguration out = new YamlConfiguration();
+        for (Map.Entry<String, Integer> e : ids.entrySet()) {
+            out.set("slots." + e.getKey(), e.getValue());
+        }
+        try {
+            out.save(file);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not save map-views.yml", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.oscity.map;
+
+import org.bukkit.entity.Player;
+import org.bukkit.map.MapCanvas;
+import org.bukkit.map.MapRenderer;
+import org.bukkit.map.MapView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Shows a {@link MapRaster} on a map.
+ *
+ * The server calls a renderer over and over for as long as the map is
+ * held or framed. This one copies pixels to the canvas only after
+ * {@link #show} was given a different image, and then only the pixels that
+ * differ from what the canvas already has; every other call returns
+ * straight away. It is not contextual, so the canvas (and what was last
+ * drawn on it) is shared by every viewer.
+ */
+public class RasterRenderer extends MapRenderer {
+
+    /** The image to show, and what the canvas currently holds. */
+    private final byte[] wanted = new byte[MapRaster.SIZE * MapRaster.SIZE];
+    private final byte[] drawn = new byte[MapRaster.SIZE * MapRaster.SIZE];
+    private volatile boolean dirty;
+    /** False until the first blit, when the canvas content is unknown. */
+    private boolean primed;
+
+    public RasterRenderer() {
+        super(false);
+    }
+
+    /**
+     * The view's RasterRenderer, replacing any other renderers on it the
+     * first time. Reuse it across updates to the same map.
+     */
+    public static RasterRenderer attach(MapView view) {
+        for (MapRenderer renderer : view.getRenderers()) {
+            if (renderer instanceof RasterRenderer raster) return raster;
+        }
+        for (MapRenderer renderer : new ArrayList<>(view.getRenderers())) {
+            view.removeRenderer(renderer);
+        }
+        RasterRenderer raster = new RasterRenderer();
+        view.addRenderer(raster);
+        return raster;
+    }
+
+    /** Show {@code raster} from the next render on. Does nothing if it is already showing. */
+    public synchronized void show(MapRaster raster) {
+        if (Arrays.equals(wanted, raster.pixels) && (dirty || primed)) return;
+        System.arraycopy(raster.pixels, 0, wanted, 0, wanted.length);
+        dirty = true;
+    }
+
+    @Override
+    public void render(MapView map, MapCanvas canvas, Player player) {
+        if (!dirty) return;
+        synchronized (this) {
+            dirty = false;
+            for (int i = 0; i < wanted.length; i++) {
+                byte color = wanted[i];
+                if (primed && drawn[i] == color) continue;
+                canvas.setPixel(i & (MapRaster.SIZE - 1), i >> 7, color);
+                drawn[i] = color;
+            }
+            primed = true;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.oscity.map;
+
+import org.bukkit.map.MinecraftFont;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A string laid out once in MinecraftFont: every pixel span of every
+ * glyph, already placed relative to the text's top-left corner.
+ *
+ * The maps keep drawing the same strings ("= TLB Entry =", "VPN: ",
+ * "PFN: ", the calculator's hex and binary lines), so layouts are kept in
+ * a small LRU cache keyed by text and scale. Drawing a cached layout is
+ * then one Arrays.fill per span, with no font lookups or width
+ * measurement. Centering needs only {@link #width}, so it is not part of
+ * the key. Thread-safe.
+ */
+final class TextLayout {
+
+    private static final int CACHE_SIZE = 512;
+
+    private static final Map<String, TextLayout> CACHE = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TextLayout> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /** (dy, dx, length) triples relative to the top-left corner. */
+    private final int[] spans;
+    /** Widest line in pixels, without the spacing after its last character. */
+    final int width;
+
+    private TextLayout(int[] spans, int width) {
+        this.spans = spans;
+        this.width = width;
+    }
+
+    /** The layout of {@code text} at {@code scale}, from the cache when it was laid out recently. */
+    static TextLayout of(String text, int scale) {
+        String key = scale + ":" + text;
+        synchronized (CACHE) {
+            TextLayout layout = CACHE.get(key);
+            if (layout != null) return layout;
+        }
+        TextLayout layout = layOut(text, scale);
+        synchronized (CACHE) {
+            CACHE.put(key, layout);
+        }
+        return layout;
+    }
+
+    /** Same placement as MapCanvas.drawText: a newline starts a new line at x, unknown characters leave a gap. */
+    private static TextLayout layOut(String text, int scale) {
+        int[] spans = new int[64];
+        int n = 0;
+        int x = 0, y = 0, width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                width = Math.max(width, x - scale);
+                x = 0;
+                y += (MinecraftFont.Font.getHeight() + 1) * scale;
+                continue;
+            }
+            GlyphAtlas.Glyph glyph = GlyphAtlas.get(c, scale);
+            if (glyph == null) {
+                x += GlyphAtlas.MISSING_ADVANCE * scale;
+                continue;
+            }
+            if (n + glyph.spans.length > spans.length) {
+                spans = Arrays.copyOf(spans, Math.max(spans.length * 2, n + glyph.spans.length));
+            }
+            for (int s = 0; s < glyph.spans.length; s += 3) {
+                spans[n++] = y + glyph.spans[s];
+                spans[n++] = x + glyph.spans[s + 1];
+                spans[n++] = glyph.spans[s + 2];
+            }
+            x += glyph.advance;
+        }
+        width = Math.max(0, Math.max(width, x - scale));
+        return new TextLayout(Arrays.copyOf(spans, n), width);
+    }
+
+    /** Fill this layout's spans into a 128×128 palette buffer at (x, y), clipped to the map. */
+    void draw(byte[] pixels, int x, int y, byte color) {
+        int size = MapRaster.SIZE;
+        for (int s = 0; s < spans.length; s += 3) {
+            int row = y + spans[s];
+            if (row < 0 || row >= size) continue;
+            int from = Math.max(0, x + spans[s + 1]);
+            int to = Math.min(size, x + spans[s + 1] + spans[s + 2]);
+            if (from < to) Arrays.fill(pixels, row * size + from, row * size + to, color);
+        }
+    }
+}
@@ -2,16 +2,21 @@ package com.oscity.mechanics;
 
 import com.oscity.content.DialogueManager;
 import com.oscity.content.QuestionBank;
+import com.oscity.map.MapComposer;
+import com.oscity.map.MapRaster;
+import com.oscity.map.RasterRenderer;
 import com.oscity.session.JourneyTracker;
+import com.oscity.world.FixtureRegistry;
+import com.oscity.world.SignWriter;
+import com.oscity.world.WorldAliases;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.Tag;
 import org.bukkit.block.Block;
-import org.bukkit.block.Sign;
-import org.bukkit.block.sign.Side;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.ItemFrame;
@@ -23,12 +28,6 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.MapMeta;
-import org.bukkit.map.MapCanvas;
-import org.bukkit.map.MapFont;
-import org.bukkit.map.MinecraftFont;
-import org.bukkit.map.MapPalette;
-import java.awt.Color;
-import org.bukkit.map.MapRenderer;
 import org.bukkit.map.MapView;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.inventory.meta.BookMeta;
@@ -59,10 +58,14 @@ public class CalculatorListener implements Listener {
     private static final Logger log = Logger.getLogger("OSCity");
 
     private final JavaPlugin plugin;
+    private final FixtureRegistry fixtures;
+    private final SignWriter signs;
+    private final WorldAliases aliases;
     private final JourneyTracker tracker;
     private final JourneyMapManager journeyMapManager;
     private final QuestionBank questionBank;
     private final DialogueManager dialogueManager;
+    private final MapComposer composer;
 
     private Location hopperLocation;
     private final List<Location> instrFrames = new ArrayList<>();
@@ -84,17 +87,24 @@ public class CalculatorListener implements Listener {
 
     /** Cached MapView per frame location so we reuse the same map ID across updates. */
     private final Map<Location, MapView> frameMapViews = new HashMap<>();
+    /** Frame map colours. */
+    private static final byte BG = MapRaster.color(30, 30, 50);    // dark navy
+    private static final byte FG = MapRaster.color(255, 255, 255); // white
 
     // ── Constructor ───────────────────────────────────────────────────────────
 
-    public CalculatorListener(JavaPlugin plugin, JourneyTracker tracker,
+    public CalculatorListener(JavaPlugin plugin, FixtureRegistry fixtures, SignWriter signs, WorldAliases aliases, JourneyTracker tracker,
                               JourneyMapManager journeyMapManager, QuestionBank questionBank,
-                              DialogueManager dialogueManager) {
+                              DialogueManager dialogueManager, MapComposer composer) {
         this.plugin          = plugin;
+        this.fixtures        = fixtures;
+        this.signs           = signs;
+        this.aliases         = aliases;
         this.tracker         = tracker;
         this.journeyMapManager = journeyMapManager;
         this.questionBank    = questionBank;
         this.dialogueManager = dialogueManager;
+        this.composer        = composer;
         loadConfig();
     }
 
@@ -113,14 +123,11 @@ public class CalculatorListener implements Listener {
                 hopperSec.getInt("x"), hopperSec.getInt("y"), hopperSec.getInt("z"));
         }
 
-        ConfigurationSection frames = plugin.getConfig().getConfigurationSection("signs.calculatorRoom");
-        if (frames != null) {
-            for (int i = 1; i <= 6; i++) {
-                ConfigurationSection instr = frames.getConfigurationSection("instructionsFrame" + i);
-                if (instr != null) instrFrames.add(locFrom(instr));
-                ConfigurationSection calc = frames.getConfigurationSection("calculationFrame" + i);
-                if (calc != null) calcFrames.add(locFrom(calc));
-            }
+        for (int i = 1; i <= 6; i++) {
+            FixtureRegistry.Fixture instr = fixtures.get("signs.calculatorRoom.instructionsFrame" + i);
+            if (instr != null) instrFrames.add(instr.toLocation());
+            FixtureRegistry.Fixture calc = fixtures.get("signs.calculatorRoom.calculationFrame" + i);
+            if (calc != null) calcFrames.add(calc.toLocation());
         }
 
         pageOffsetBits = plugin.getConfig().getInt("calculator.pageOffsetBits", 4);
@@ -129,11 +136,6 @@ public class CalculatorListener implements Listener {
             + "pageOffsetBits=" + pageOffsetBits);
     }
 
-    private Location locFrom(ConfigurationSection sec) {
-        World world = Bukkit.getWorld(sec.getString("world", "OSCityWorld"));
-        return new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-    }
-
     // ── Called by RoomChangeListener on room entry ────────────────────────────
 
     /**
@@ -143,8 +145,8 @@ public class CalculatorListener implements Listener {
     public void onCalculatorRoomEntered(Player player, String phase) {
         log.info("[Calc] " + player.getName() + " entered Calculator Room | phase=" + phase
             + " | va=" + tracker.getVar(player, "va"));
-        updateInstructionFrames(phase);
-        setCalcAwaiting();
+        updateInstructionFrames(player.getWorld(), phase);
+        setCalcAwaiting(player.getWorld());
         calculating.remove(player.getUniqueId());
         hasCalculated.remove(player.getUniqueId());
         pendingCalcVerify.remove(player.getUniqueId());
@@ -152,9 +154,9 @@ public class CalculatorListener implements Listener {
     }
 
     /** Called at journey start to remove any book left over from a previous run. */
-    public void clearHopper() {
+    public void clearHopper(World world) {
         if (hopperLocation == null) return;
-        Block block = hopperLocation.getBlock();
+        Block block = aliases.rebase(hopperLocation, world).getBlock();
         if (block.getState() instanceof org.bukkit.block.Hopper hopper) {
             hopper.getInventory().clear();
         }
@@ -194,7 +196,7 @@ public class CalculatorListener implements Listener {
             log.info("[Calc] Skip result | value=" + value
                 + (isPageIndex ? " (pageIndex)" : " (vpn=" + (value >> pageOffsetBits)
                     + " offset=" + (value & ((1L << pageOffsetBits) - 1)) + ")"));
-            showResult(va, value, isPageIndex);
+            showResult(player.getWorld(), va, value, isPageIndex);
             journeyMapManager.updateMapAfterCalculator(player);
             wasSkipped.put(player.getUniqueId(), true);
             if (isPageIndex) {
@@ -211,7 +213,7 @@ public class CalculatorListener implements Listener {
                 askHexQuestion(player, va, value);
             }
         } catch (NumberFormatException e) {
-            setCalcError(va);
+            setCalcError(player.getWorld(), va);
             player.sendMessage(((com.oscity.OSCity) plugin).getConfigManager().getMessage("errors.calculator.parse_error_va", "{va}", va));
         }
     }
@@ -341,7 +343,7 @@ public class CalculatorListener implements Listener {
         String hopperPhase = tracker.getPhase(player);
         if ("calculator_from_tlb_done".equals(hopperPhase) || "calculator_from_lazy_loading_done".equals(hopperPhase)) return;
 
-        Block block = hopperLocation.getBlock();
+        Block block = aliases.rebase(hopperLocation, player.getWorld()).getBlock();
         if (!(block.getState() instanceof org.bukkit.block.Hopper)) return;
         org.bukkit.block.Hopper hopper = (org.bukkit.block.Hopper) block.getState();
 
@@ -381,7 +383,7 @@ public class CalculatorListener implements Listener {
 
     private void startCalculation(Player player, String input, String phase) {
         calculating.put(player.getUniqueId(), true);
-        setCalcCalculating();
+        setCalcCalculating(player.getWorld());
         player.sendMessage(((com.oscity.OSCity) plugin).getConfigManager().getMessage("feedback.calculator_processing", "{input}", input));
 
         Bukkit.getScheduler().runTaskLater(plugin, () -> {
@@ -393,7 +395,7 @@ public class CalculatorListener implements Listener {
                     + " | input=" + input + " | value=" + value
                     + (pageIdx ? " (pageIndex)" : " (vpn=" + (value >> pageOffsetBits)
                         + " offset=" + (value & ((1L << pageOffsetBits) - 1)) + ")"));
-                showResult(input, value, pageIdx);
+                showResult(player.getWorld(), input, value, pageIdx);
                 // Only update VPN and offset, NOT PFN (PFN comes from TLB or page table)
                 journeyMapManager.updateMapAfterCalculator(player);
 
@@ -414,7 +416,7 @@ public class CalculatorListener implements Listener {
                 }
             } catch (NumberFormatException e) {
                 log.warning("[Calc] " + player.getName() + " parse error | phase=" + phase + " | input=" + input);
-                setCalcError(input);
+                setCalcError(player.getWorld(), input);
                 player.sendMessage(((com.oscity.OSCity) plugin).getConfigManager().getMessage("errors.calculator.parse_error", "{input}", input));
             }
         }, 100L); // 5 seconds = 100 ticks
@@ -470,70 +472,75 @@ public class CalculatorListener implements Listener {
 
     // ── Instruction signs ─────────────────────────────────────────────────────
 
-    private void updateInstructionFrames(String phase) {
+    private void updateInstructionFrames(World world, String phase) {
         if (instrFrames.size() < 6) return;
+        List<Location> frames = framesIn(instrFrames, world);
         if ("calculator_from_tlb".equals(phase) || "calculator_from_tlb_done".equals(phase)) {
             // Visit 1: hex → binary guide; output shows binary split into VPN + offset
-            setFrame(instrFrames.get(0), "= HOW TO USE =", " CALCULATOR ", "", "HEX->VPN+OFFSET");
-            setFrame(instrFrames.get(1), "   STEP 1:   ", "Write your hex", "VA in the book", "from chest");
-            setFrame(instrFrames.get(2), "   STEP 2:   ", "Place the book", "in the hopper", "");
-            setFrame(instrFrames.get(3), "The result", "will be shown", "over the hopper", "");
-            setFrame(instrFrames.get(4), "First 4 bits:", "= your VPN", "", "");
-            setFrame(instrFrames.get(5), "Last 4 bits:", "= your offset", "", "");
+            setFrame(frames.get(0), "= HOW TO USE =", " CALCULATOR ", "", "HEX->VPN+OFFSET");
+            setFrame(frames.get(1), "   STEP 1:   ", "Write your hex", "VA in the book", "from chest");
+            setFrame(frames.get(2), "   STEP 2:   ", "Place the book", "in the hopper", "");
+            setFrame(frames.get(3), "The result", "will be shown", "over the hopper", "");
+            setFrame(frames.get(4), "First 4 bits:", "= your VPN", "", "");
+            setFrame(frames.get(5), "Last 4 bits:", "= your offset", "", "");
         } else {
             // Visit 2: Page Index formula + usage reminder
-            setFrame(instrFrames.get(0), "= HOW TO USE =", " PAGE INDEX ", "", "CALCULATOR");
-            setFrame(instrFrames.get(1), "   STEP 1:   ", "Write hex OR", "binary", "in a book");
-            setFrame(instrFrames.get(2), "   STEP 2:   ", "Place book in", "the hopper", "");
-            setFrame(instrFrames.get(3), " IMPORTANT!  ", "Use ONE form:", " all HEX  OR", " all BINARY");
-            setFrame(instrFrames.get(4), "  FORMULA:   ", "PAGE INDEX" , "= OFFSET / PAGE SIZE","");
-            setFrame(instrFrames.get(5), "   TIP:      ", "Convert hex->", "binary first,", "then calculate");
+            setFrame(frames.get(0), "= HOW TO USE =", " PAGE INDEX ", "", "CALCULATOR");
+            setFrame(frames.get(1), "   STEP 1:   ", "Write hex OR", "binary", "in a book");
+            setFrame(frames.get(2), "   STEP 2:   ", "Place book in", "the hopper", "");
+            setFrame(frames.get(3), " IMPORTANT!  ", "Use ONE form:", " all HEX  OR", " all BINARY");
+            setFrame(frames.get(4), "  FORMULA:   ", "PAGE INDEX" , "= OFFSET / PAGE SIZE","");
+            setFrame(frames.get(5), "   TIP:      ", "Convert hex->", "binary first,", "then calculate");
         }
     }
 
     // ── Calculation display states ────────────────────────────────────────────
 
-    private void setCalcAwaiting() {
+    private void setCalcAwaiting(World world) {
         if (calcFrames.size() < 6) return;
+        List<Location> frames = framesIn(calcFrames, world);
         // Layout: 3 wide × 2 tall
         //  [STEP 1 guide] [AWAITING  ←large] [STEP 2 guide]
         //  [STEP 3 guide] [INPUT...  ←large] [result note ]
-        setFrameCentered(calcFrames.get(0), "[ STEP 1 ]", "Get the book", "from the chest", "on your left");
-        setFrameLarge(   calcFrames.get(1), "AWAITING", "", "", "");
-        setFrameCentered(calcFrames.get(2), "[ STEP 2 ]", "Write your", "hex VA in", "the book");
-        setFrameCentered(calcFrames.get(3), "[ STEP 3 ]", "Place book", "in hopper", "above this");
-        setFrameLarge(   calcFrames.get(4), "INPUT...", "", "", "");
-        setFrameCentered(calcFrames.get(5), "[ RESULT ]", "Will appear", "on this wall", "");
+        setFrameCentered(frames.get(0), "[ STEP 1 ]", "Get the book", "from the chest", "on your left");
+        setFrameLarge(   frames.get(1), "AWAITING", "", "", "");
+        setFrameCentered(frames.get(2), "[ STEP 2 ]", "Write your", "hex VA in", "the book");
+        setFrameCentered(frames.get(3), "[ STEP 3 ]", "Place book", "in hopper", "above this");
+        setFrameLarge(   frames.get(4), "INPUT...", "", "", "");
+        setFrameCentered(frames.get(5), "[ RESULT ]", "Will appear", "on this wall", "");
     }
 
-    private void setCalcCalculating() {
+    private void setCalcCalculating(World world) {
         if (calcFrames.size() < 6) return;
-        clearFrame(calcFrames.get(0));
-        setFrameLarge(   calcFrames.get(1), "WORKING", "", "", "");
-        clearFrame(calcFrames.get(2));
-        setFrameCentered(calcFrames.get(3), "", "Please wait", "5 seconds...", "");
-        setFrameLarge(   calcFrames.get(4), "WAIT...", "", "", "");
-        clearFrame(calcFrames.get(5));
+        List<Location> frames = framesIn(calcFrames, world);
+        clearFrame(frames.get(0));
+        setFrameLarge(   frames.get(1), "WORKING", "", "", "");
+        clearFrame(frames.get(2));
+        setFrameCentered(frames.get(3), "", "Please wait", "5 seconds...", "");
+        setFrameLarge(   frames.get(4), "WAIT...", "", "", "");
+        clearFrame(frames.get(5));
     }
 
-    private void setCalcError(String input) {
+    private void setCalcError(World world, String input) {
         if (calcFrames.size() < 6) return;
-        setFrame(calcFrames.get(0), "=== ERROR ===", "Bad input:",
+        List<Location> frames = framesIn(calcFrames, world);
+        setFrame(frames.get(0), "=== ERROR ===", "Bad input:",
             shorten(input, 13), "Try again");
-        for (int i = 1; i < calcFrames.size(); i++) clearFrame(calcFrames.get(i));
+        for (int i = 1; i < frames.size(); i++) clearFrame(frames.get(i));
     }
 
-    private void showResult(String input, long value, boolean isPageIndex) {
+    private void showResult(World world, String input, long value, boolean isPageIndex) {
         if (calcFrames.size() < 6) return;
+        List<Location> frames = framesIn(calcFrames, world);
 
         if (isPageIndex) {
             String hexVal = "0x" + Long.toHexString(value).toUpperCase();
-            setFrame(calcFrames.get(0), "== RESULT ==", "Input: " + shorten(input, 11), "", "");
-            setFrame(calcFrames.get(1), "PAGE INDEX:", String.valueOf(value), hexVal, "");
-            setFrame(calcFrames.get(2), "Added to log!", "", "", "");
-            clearFrame(calcFrames.get(3));
-            clearFrame(calcFrames.get(4));
-            clearFrame(calcFrames.get(5));
+            setFrame(frames.get(0), "== RESULT ==", "Input: " + shorten(input, 11), "", "");
+            setFrame(frames.get(1), "PAGE INDEX:", String.valueOf(value), hexVal, "");
+            setFrame(frames.get(2), "Added to log!", "", "", "");
+            clearFrame(frames.get(3));
+            clearFrame(frames.get(4));
+            clearFrame(frames.get(5));
         } else {
             int totalBits = pageOffsetBits * 2;
             String binary = formatNibbles(value, totalBits);
@@ -544,17 +551,25 @@ public class CalculatorListener implements Listener {
             String vpnHex = "0x" + Long.toHexString(vpn).toUpperCase();
             String offHex = "0x" + Long.toHexString(off).toUpperCase();
 
-            setFrame(calcFrames.get(0), "== RESULT ==", "VA: " + shorten(input, 11), "", "");
-            setFrame(calcFrames.get(1), "Binary:", binary, "", "");
-            setFrame(calcFrames.get(2), "VPN: " + vpnBin, "= " + vpn + "  " + vpnHex, "", "");
-            setFrame(calcFrames.get(3), "Offset: " + offBin, "= " + off + "  " + offHex, "", "");
-            setFrame(calcFrames.get(4), "Added to log!", "", "", "");
-            clearFrame(calcFrames.get(5));
+            setFrame(frames.get(0), "== RESULT ==", "VA: " + shorten(input, 11), "", "");
+            setFrame(frames.get(1), "Binary:", binary, "", "");
+            setFrame(frames.get(2), "VPN: " + vpnBin, "= " + vpn + "  " + vpnHex, "", "");
+            setFrame(frames.get(3), "Offset: " + offBin, "= " + off + "  " + offHex, "", "");
+            setFrame(frames.get(4), "Added to log!", "", "", "");
+            clearFrame(frames.get(5));
         }
     }
 
     // ── Frame helper — supports both wall signs and item frames ───────────────
 
+    /** Frame locations rebased into the player's instance. */
+    private List<Location> framesIn(List<Location> frames, World world) {
+        if (frames.isEmpty() || world == null || world.equals(frames.get(0).getWorld())) return frames;
+        List<Location> rebased = new ArrayList<>(frames.size());
+        for (Location loc : frames) rebased.add(aliases.rebase(loc, world));
+        return rebased;
+    }
+
     /** Centred, normal-scale text. */
     private void setFrameCentered(Location loc, String l1, String l2, String l3, String l4) {
         setFrame(loc, l1, l2, l3, l4, true, 1);
@@ -581,13 +596,8 @@ public class CalculatorListener implements Listener {
                           boolean centered, int scale) {
         // 1. Try sign block (no scaling support for signs)
         Block block = loc.getBlock();
-        if (block.getState() instanceof Sign) {
-            Sign sign = (Sign) block.getState();
-            sign.getSide(Side.FRONT).line(0, Component.text(l1, NamedTextColor.BLACK));
-            sign.getSide(Side.FRONT).line(1, Component.text(l2, NamedTextColor.BLACK));
-            sign.getSide(Side.FRONT).line(2, Component.text(l3, NamedTextColor.BLACK));
-            sign.getSide(Side.FRONT).line(3, Component.text(l4, NamedTextColor.BLACK));
-            sign.update(true);
+        if (Tag.ALL_SIGNS.isTagged(block.getType())) {
+            signs.write(block, NamedTextColor.BLACK, l1, l2, l3, l4);
             return;
         }
 
@@ -643,49 +653,8 @@ public class CalculatorListener implements Listener {
             frameMapViews.put(key, view);
         }
 
-        view.getRenderers().clear();
-        final String tl1 = l1, tl2 = l2, tl3 = l3, tl4 = l4;
-        final boolean tc = centered;
-        final int ts = scale;
-        final byte bg = MapPalette.matchColor(new Color(30, 30, 50));   // dark navy
-        final byte fg = MapPalette.matchColor(new Color(255, 255, 255)); // white
-        view.addRenderer(new MapRenderer(false) {
-            @Override
-            public void render(MapView mapView, MapCanvas canvas, Player player) {
-                // Dark background
-                for (int px = 0; px < 128; px++)
-                    for (int py = 0; py < 128; py++)
-                        canvas.setPixel(px, py, bg);
-
-                String[] lines = {tl1, tl2, tl3, tl4};
-                int nonEmpty = 0;
-                for (String l : lines) if (!l.trim().isEmpty()) nonEmpty++;
-
-                if (ts > 1) {
-                    // 2× scaled pixel rendering for large centred text
-                    int lineSpacing = 8 * ts + 2;
-                    int y = tc ? Math.max(4, (128 - nonEmpty * lineSpacing) / 2) : 4;
-                    for (String line : lines) {
-                        if (!line.trim().isEmpty()) {
-                            int x = tc ? Math.max(2, (128 - textWidth(line) * ts) / 2) : 4;
-                            drawScaledText(canvas, x, y, line, ts, fg);
-                            y += lineSpacing;
-                        }
-                    }
-                } else {
-                    // Normal-size text
-                    final int lineSpacing = tc ? 18 : 14;
-                    int y = tc ? Math.max(8, (128 - nonEmpty * lineSpacing) / 2) : 8;
-                    for (String line : lines) {
-                        if (!line.trim().isEmpty()) {
-                            int x = tc ? Math.max(2, (128 - textWidth(line)) / 2) : 4;
-                            canvas.drawText(x, y, MinecraftFont.Font, line);
-                            y += lineSpacing;
-                        }
-                    }
-                }
-            }
-        });
+        // Drawn on a composer thread; skips the canvas if this frame already shows the same text
+        composer.compose(RasterRenderer.attach(view), () -> drawFrame(l1, l2, l3, l4, centered, scale));
 
         // Put the map item into the frame
         ItemStack mapItem = new ItemStack(Material.FILLED_MAP);
@@ -695,6 +664,40 @@ public class CalculatorListener implements Listener {
         frame.setItem(mapItem, false);
     }
 
+    /** One frame's text image; pure, so it can run on a composer thread. */
+    private static MapRaster drawFrame(String l1, String l2, String l3, String l4, boolean centered, int scale) {
+        String[] lines = {l1, l2, l3, l4};
+        int nonEmpty = 0;
+        for (String l : lines) if (!l.trim().isEmpty()) nonEmpty++;
+
+        // Dark background
+        MapRaster raster = new MapRaster().fill(BG);
+        if (scale > 1) {
+            // 2× scaled pixel rendering for large centred text
+            int lineSpacing = 8 * scale + 2;
+            int y = centered ? Math.max(4, (128 - nonEmpty * lineSpacing) / 2) : 4;
+            for (String line : lines) {
+                if (!line.trim().isEmpty()) {
+                    int x = centered ? Math.max(2, (128 - MapRaster.textWidth(line, scale)) / 2) : 4;
+                    raster.drawText(x, y, line, FG, scale);
+                    y += lineSpacing;
+                }
+            }
+        } else {
+            // Normal-size text
+            final int lineSpacing = centered ? 18 : 14;
+            int y = centered ? Math.max(8, (128 - nonEmpty * lineSpacing) / 2) : 8;
+            for (String line : lines) {
+                if (!line.trim().isEmpty()) {
+                    int x = centered ? Math.max(2, (128 - MapRaster.textWidth(line)) / 2) : 4;
+                    raster.drawText(x, y, line);
+                    y += lineSpacing;
+                }
+            }
+        }
+        return raster;
+    }
+
     private void clearFrame(Location loc) { setFrame(loc, "", "", "", ""); }
 
     // ── Text formatting helpers ───────────────────────────────────────────────
@@ -718,44 +721,4 @@ public class CalculatorListener implements Listener {
     private String shorten(String s, int max) {
         return s.length() > max ? s.substring(0, max) : s;
     }
-
-    /** Returns the pixel width of a string rendered with MinecraftFont. */
-    private int textWidth(String s) {
-        if (s == null || s.isEmpty()) return 0;
-        int w = 0;
-        for (char c : s.toCharArray()) {
-            MapFont.CharacterSprite cs = MinecraftFont.Font.getChar(c);
-            if (cs != null) w += cs.getWidth() + 1;
-        }
-        return Math.max(0, w - 1);
-    }
-
-    /**
-     * Draws text onto a MapCanvas at (startX, startY) with each font pixel
-     * blown up to a scale×scale block — giving visually larger text.
-     */
-    @SuppressWarnings("deprecation")
-    private void drawScaledText(MapCanvas canvas, int startX, int startY,
-                                String text, int scale, byte color) {
-        int x = startX;
-        for (char c : text.toCharArray()) {
-            MapFont.CharacterSprite cs = MinecraftFont.Font.getChar(c);
-            if (cs == null) { x += 4 * scale; continue; }
-            for (int row = 0; row < cs.getHeight(); row++) {
-                for (int col = 0; col < cs.getWidth(); col++) {
-                    if (cs.get(row, col)) {
-                        for (int sy = 0; sy < scale; sy++) {
-                            for (int sx = 0; sx < scale; sx++) {
-                                int px = x + col * scale + sx;
-                                int py = startY + row * scale + sy;
-                                if (px >= 0 && px < 128 && py >= 0 && py < 128)
-                                    canvas.setPixel(px, py, color);
-                            }
-                        }
-                    }
-                }
-            }
-            x += (cs.getWidth() + 1) * scale;
-        }
-    }
 }
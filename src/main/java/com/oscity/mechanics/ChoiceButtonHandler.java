@@ -6,10 +6,14 @@ import com.oscity.content.QuestionBank;
 import com.oscity.core.GuardianInteractionHandler;
 import com.oscity.gamification.ProgressTracker;
 import com.oscity.mode.PlayerMode;
-import com.oscity.persistence.SQLiteStudyDatabase;
 import com.oscity.journey.Journey;
 import com.oscity.journey.JourneyManager;
 import com.oscity.session.JourneyTracker;
+import com.oscity.world.BlockPosIndex;
+import com.oscity.world.DoorController;
+import com.oscity.world.FixtureRegistry;
+import com.oscity.world.SignWriter;
+import com.oscity.world.WorldAliases;
 import com.oscity.world.LocationRegistry;
 import io.papermc.paper.event.player.AsyncChatEvent;
 import net.kyori.adventure.text.Component;
@@ -20,9 +24,6 @@ import org.bukkit.World;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.Chest;
-import org.bukkit.block.Sign;
-import org.bukkit.block.sign.Side;
-import org.bukkit.block.data.Openable;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.entity.Player;
@@ -36,6 +37,7 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -63,6 +65,10 @@ import java.util.UUID;
 public class ChoiceButtonHandler implements Listener {
 
     private final OSCity plugin;
+    private final FixtureRegistry fixtures;
+    private final SignWriter signs;
+    private final DoorController doors;
+    private final WorldAliases aliases;
     private final JourneyTracker tracker;
     private final DialogueManager dialogue;
     private final QuestionBank questionBank;
@@ -78,8 +84,9 @@ public class ChoiceButtonHandler implements Listener {
         this.guardianHandler = handler;
     }
 
-    // Map: button location → config key name
-    private final Map<Location, String> buttons = new HashMap<>();
+    // Button block → index into buttonKeys (config key name)
+    private final BlockPosIndex buttons = new BlockPosIndex(64);
+    private final List<String> buttonKeys = new ArrayList<>();
 
     // Per-player pending state: waiting for quiz answer
     private final Map<UUID, PendingQuiz> pendingQuiz = new HashMap<>();
@@ -118,6 +125,10 @@ public class ChoiceButtonHandler implements Listener {
                                JourneyMapManager journeyMapManager,
                                PageTableManager pageTableManager) {
         this.plugin = plugin;
+        this.fixtures = plugin.getFixtureRegistry();
+        this.signs = plugin.getSignWriter();
+        this.doors = plugin.getDoorController();
+        this.aliases = plugin.getWorldAliases();
         this.tracker = tracker;
         this.dialogue = dialogue;
         this.questionBank = questionBank;
@@ -139,6 +150,7 @@ public class ChoiceButtonHandler implements Listener {
 
     private void loadButtons() {
         buttons.clear();
+        buttonKeys.clear();
 
         // Load choiceButtons
         ConfigurationSection sec = plugin.getConfig().getConfigurationSection("choiceButtons");
@@ -152,8 +164,7 @@ public class ChoiceButtonHandler implements Listener {
                 if (worldName == null) continue;
                 World world = Bukkit.getWorld(worldName);
                 if (world == null) continue;
-                Location loc = new Location(world, btn.getInt("x"), btn.getInt("y"), btn.getInt("z"));
-                buttons.put(loc, key);
+                registerButton(world, btn.getInt("x"), btn.getInt("y"), btn.getInt("z"), key);
             }
         }
 
@@ -202,8 +213,7 @@ public class ChoiceButtonHandler implements Listener {
         if (worldName == null) return;
         World world = Bukkit.getWorld(worldName);
         if (world == null) return;
-        Location loc = new Location(world, btn.getInt("x"), btn.getInt("y"), btn.getInt("z"));
-        buttons.put(loc, smartKey);
+        registerButton(world, btn.getInt("x"), btn.getInt("y"), btn.getInt("z"), smartKey);
     }
 
     private void registerFromDoorOpen(String key) {
@@ -216,8 +226,18 @@ public class ChoiceButtonHandler implements Listener {
         if (worldName == null) return;
         World world = Bukkit.getWorld(worldName);
         if (world == null) return;
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        buttons.put(loc, key);
+        registerButton(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"), key);
+    }
+
+    /** Later registrations for the same block replace earlier ones. */
+    private void registerButton(World world, int x, int y, int z, String key) {
+        int existing = buttons.get(world, x, y, z);
+        if (existing != BlockPosIndex.NONE) {
+            buttonKeys.set(existing, key);
+            return;
+        }
+        buttons.put(world, x, y, z, buttonKeys.size());
+        buttonKeys.add(key);
     }
 
     // ── Button press ─────────────────────────────────────────────────────────
@@ -232,9 +252,11 @@ public class ChoiceButtonHandler implements Listener {
         String blockTypeName = event.getClickedBlock().getType().name();
         if (!blockTypeName.endsWith("_BUTTON") && !blockTypeName.equals("LEVER")) return;
 
-        Location clicked = event.getClickedBlock().getLocation();
-        String buttonKey = findButton(clicked);
-        if (buttonKey == null) return;
+        // Buttons are registered against the template world; instances share them
+        Block clicked = event.getClickedBlock();
+        int buttonId = buttons.get(aliases.templateOf(clicked.getWorld()), clicked.getX(), clicked.getY(), clicked.getZ());
+        if (buttonId == BlockPosIndex.NONE) return;
+        String buttonKey = buttonKeys.get(buttonId);
 
         // Prevent TeleportManager from also handling this button
         event.setCancelled(true);
@@ -414,7 +436,7 @@ public class ChoiceButtonHandler implements Listener {
                             return;
                         }
                     }
-                    openDoor("tlbToPt");
+                    doors.open("tlbToPt", player.getWorld());
                 }
                 break;
             default:
@@ -531,7 +553,7 @@ public class ChoiceButtonHandler implements Listener {
                                     tracker.setVar(player, "pteInSwap", "0");
                                     pageTableManager.updatePteMap(player);
                                     tracker.setPhase(player, "ram_book_placed_swapped");
-                                    updateSign("ramRoom.mixSign", "RETRY", "INSTRUCTION", "", "");
+                                    updateSign(player.getWorld(), "ramRoom.mixSign", "RETRY", "INSTRUCTION", "", "");
                                     Bukkit.getScheduler().runTaskLater(plugin, () -> {
                                         String pfn = tracker.getVar(player, "pfn");
                                         String vpn = tracker.getVar(player, "vpn");
@@ -550,7 +572,7 @@ public class ChoiceButtonHandler implements Listener {
                                     tracker.setVar(player, "pteInSwap", "0");
                                     pageTableManager.updatePteMap(player);
                                     tracker.setPhase(player, "ram_book_placed_lazy_loading");
-                                    updateSign("ramRoom.mixSign", "RETRY", "INSTRUCTION", "", "");
+                                    updateSign(player.getWorld(), "ramRoom.mixSign", "RETRY", "INSTRUCTION", "", "");
                                     Bukkit.getScheduler().runTaskLater(plugin, () -> {
                                         String pfn = tracker.getVar(player, "pfn");
                                         String vpn = tracker.getVar(player, "vpn");
@@ -626,14 +648,10 @@ public class ChoiceButtonHandler implements Listener {
         if (!(event.getInventory().getHolder() instanceof org.bukkit.block.Chest chest)) return;
 
         Location chestLoc = chest.getLocation();
-        Location learnerChestLoc = getLearnerChestLocation();
-        if (learnerChestLoc == null) return;
+        FixtureRegistry.Fixture learnerChest = fixtures.get("chests.learnerChest", chestLoc.getWorld());
+        if (learnerChest == null) return;
 
-        if (chestLoc.getBlockX() == learnerChestLoc.getBlockX()
-                && chestLoc.getBlockY() == learnerChestLoc.getBlockY()
-                && chestLoc.getBlockZ() == learnerChestLoc.getBlockZ()
-                && chestLoc.getWorld() != null
-                && chestLoc.getWorld().equals(learnerChestLoc.getWorld())) {
+        if (learnerChest.isAt(chestLoc)) {
 
             String phase = tracker.getPhase(player);
             if (!"terminal_journey_chosen".equals(phase)) {
@@ -725,120 +743,45 @@ public class ChoiceButtonHandler implements Listener {
     }
 
     private boolean isDiskRoomChest(Location chestLoc) {
-        ConfigurationSection diskSec = plugin.getConfig().getConfigurationSection("chests.diskRoom");
-        if (diskSec == null) return false;
-        for (String key : diskSec.getKeys(false)) {
-            ConfigurationSection cs = diskSec.getConfigurationSection(key);
-            if (cs == null) continue;
-            String worldName = cs.getString("world");
-            if (worldName == null) continue;
-            World w = Bukkit.getWorld(worldName);
-            if (w == null) continue;
-            if (chestLoc.getWorld() != null && chestLoc.getWorld().equals(w)
-                    && chestLoc.getBlockX() == cs.getInt("x")
-                    && chestLoc.getBlockY() == cs.getInt("y")
-                    && chestLoc.getBlockZ() == cs.getInt("z")) {
-                return true;
-            }
-        }
-        return false;
+        return isAnyFixtureAt(fixtures.children("chests.diskRoom", chestLoc.getWorld()), chestLoc);
     }
 
     private boolean isPageTableChest(Location chestLoc) {
         for (String floorKey : new String[]{"pageTable1", "pageTable2", "pageTable3"}) {
-            ConfigurationSection floor = plugin.getConfig().getConfigurationSection("chests." + floorKey);
-            if (floor == null) continue;
-            for (String chestKey : floor.getKeys(false)) {
-                ConfigurationSection cs = floor.getConfigurationSection(chestKey);
-                if (cs == null) continue;
-                String worldName = cs.getString("world");
-                if (worldName == null) continue;
-                World w = Bukkit.getWorld(worldName);
-                if (w == null) continue;
-                if (chestLoc.getWorld() != null && chestLoc.getWorld().equals(w)
-                        && chestLoc.getBlockX() == cs.getInt("x")
-                        && chestLoc.getBlockY() == cs.getInt("y")
-                        && chestLoc.getBlockZ() == cs.getInt("z")) {
-                    return true;
-                }
-            }
+            if (isAnyFixtureAt(fixtures.children("chests." + floorKey, chestLoc.getWorld()), chestLoc)) return true;
         }
         return false;
     }
 
-    private Location getLearnerChestLocation() {
-        ConfigurationSection sec = plugin.getConfig().getConfigurationSection("chests.learnerChest");
-        if (sec == null) return null;
-        String worldName = sec.getString("world");
-        if (worldName == null) return null;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return null;
-        return new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
+    private static boolean isAnyFixtureAt(List<FixtureRegistry.Fixture> candidates, Location loc) {
+        for (FixtureRegistry.Fixture fixture : candidates) {
+            if (fixture.isAt(loc)) return true;
+        }
+        return false;
     }
 
     /**
      * Check if a chest location is one of the RAM room chests.
      */
     private boolean isRAMRoomChest(Location chestLoc) {
-        ConfigurationSection ramSec = plugin.getConfig().getConfigurationSection("chests.ramRoom");
-        if (ramSec == null) return false;
-
-        for (String key : ramSec.getKeys(false)) {
-            ConfigurationSection chestSec = ramSec.getConfigurationSection(key);
-            if (chestSec != null) {
-                String worldName = chestSec.getString("world");
-                if (worldName == null) continue;
-                World world = Bukkit.getWorld(worldName);
-                if (world == null) continue;
-
-                int chestX = chestSec.getInt("x");
-                int chestY = chestSec.getInt("y");
-                int chestZ = chestSec.getInt("z");
-
-                if (chestLoc.getWorld() != null && chestLoc.getWorld().equals(world)
-                        && chestLoc.getBlockX() == chestX
-                        && chestLoc.getBlockY() == chestY
-                        && chestLoc.getBlockZ() == chestZ) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return isAnyFixtureAt(fixtures.children("chests.ramRoom", chestLoc.getWorld()), chestLoc);
     }
 
     /**
      * Check if a chest location is the zero frame chest in RAM room.
      */
     private boolean isZeroFrameChest(Location chestLoc) {
-        ConfigurationSection chestSec = plugin.getConfig().getConfigurationSection("chests.ramRoom.zeroChest");
-        if (chestSec == null) {
+        FixtureRegistry.Fixture zeroChest = fixtures.get("chests.ramRoom.zeroChest", chestLoc.getWorld());
+        if (zeroChest == null) {
             plugin.getLogger().warning("[RAMChest] isZeroFrameChest: No config for chests.ramRoom.zeroChest");
             return false;
         }
 
-        String worldName = chestSec.getString("world");
-        if (worldName == null) {
-            plugin.getLogger().warning("[RAMChest] isZeroFrameChest: No world in config");
-            return false;
-        }
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) {
-            plugin.getLogger().warning("[RAMChest] isZeroFrameChest: World not found: " + worldName);
-            return false;
-        }
-
-        int chestX = chestSec.getInt("x");
-        int chestY = chestSec.getInt("y");
-        int chestZ = chestSec.getInt("z");
-        
-        plugin.getLogger().info("[RAMChest] isZeroFrameChest: Config at " + chestX + "," + chestY + "," + chestZ 
+        plugin.getLogger().info("[RAMChest] isZeroFrameChest: Config at " + zeroChest.x + "," + zeroChest.y + "," + zeroChest.z
             + ", Checking " + chestLoc.getBlockX() + "," + chestLoc.getBlockY() + "," + chestLoc.getBlockZ());
 
-        boolean matches = chestLoc.getWorld() != null && chestLoc.getWorld().equals(world)
-                && chestLoc.getBlockX() == chestX
-                && chestLoc.getBlockY() == chestY
-                && chestLoc.getBlockZ() == chestZ;
-        
+        boolean matches = zeroChest.isAt(chestLoc);
+
         plugin.getLogger().info("[RAMChest] isZeroFrameChest: matches=" + matches);
         return matches;
     }
@@ -847,23 +790,13 @@ public class ChoiceButtonHandler implements Listener {
      * Check if chest 0x6 (chest7) contains a book.
      */
     private boolean isBookInChest7(Player player) {
-        ConfigurationSection chestSec = plugin.getConfig().getConfigurationSection("chests.ramRoom.chest7");
-        if (chestSec == null) {
+        FixtureRegistry.Fixture fixture = fixtures.get("chests.ramRoom.chest7", player.getWorld());
+        if (fixture == null) {
             plugin.getLogger().warning("[RAMChest] isBookInChest7: No config for chests.ramRoom.chest7");
             return false;
         }
 
-        String worldName = chestSec.getString("world");
-        if (worldName == null) return false;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return false;
-
-        int chestX = chestSec.getInt("x");
-        int chestY = chestSec.getInt("y");
-        int chestZ = chestSec.getInt("z");
-        
-        Location chestLoc = new Location(world, chestX, chestY, chestZ);
-        Block block = chestLoc.getBlock();
+        Block block = fixture.getBlock();
         
         if (block.getState() instanceof org.bukkit.block.Chest chest) {
             for (org.bukkit.inventory.ItemStack item : chest.getInventory().getContents()) {
@@ -882,23 +815,13 @@ public class ChoiceButtonHandler implements Listener {
      * Returns empty string if no book or no content.
      */
     private String getBookContentFromChest7(Player player) {
-        ConfigurationSection chestSec = plugin.getConfig().getConfigurationSection("chests.ramRoom.chest7");
-        if (chestSec == null) {
+        FixtureRegistry.Fixture fixture = fixtures.get("chests.ramRoom.chest7", player.getWorld());
+        if (fixture == null) {
             plugin.getLogger().warning("[RAMChest] getBookContentFromChest7: No config for chests.ramRoom.chest7");
             return "";
         }
 
-        String worldName = chestSec.getString("world");
-        if (worldName == null) return "";
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return "";
-
-        int chestX = chestSec.getInt("x");
-        int chestY = chestSec.getInt("y");
-        int chestZ = chestSec.getInt("z");
-        
-        Location chestLoc = new Location(world, chestX, chestY, chestZ);
-        Block block = chestLoc.getBlock();
+        Block block = fixture.getBlock();
         
         if (block.getState() instanceof org.bukkit.block.Chest chest) {
             for (org.bukkit.inventory.ItemStack item : chest.getInventory().getContents()) {
@@ -923,30 +846,14 @@ public class ChoiceButtonHandler implements Listener {
      * Returns true if book is present (player hasn't taken it OR has put it back).
      * Returns false if chest is empty (player took the book out).
      */
-    private boolean isBookInZeroFrameChest() {
-        ConfigurationSection chestSec = plugin.getConfig().getConfigurationSection("chests.ramRoom.zeroChest");
-        if (chestSec == null) {
+    private boolean isBookInZeroFrameChest(Player player) {
+        FixtureRegistry.Fixture fixture = fixtures.get("chests.ramRoom.zeroChest", player.getWorld());
+        if (fixture == null) {
             plugin.getLogger().warning("[RAMChest] isBookInZeroFrameChest: No config for chests.ramRoom.zeroChest");
             return false;
         }
 
-        String worldName = chestSec.getString("world");
-        if (worldName == null) {
-            plugin.getLogger().warning("[RAMChest] isBookInZeroFrameChest: No world in config");
-            return false;
-        }
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) {
-            plugin.getLogger().warning("[RAMChest] isBookInZeroFrameChest: World not found: " + worldName);
-            return false;
-        }
-
-        int chestX = chestSec.getInt("x");
-        int chestY = chestSec.getInt("y");
-        int chestZ = chestSec.getInt("z");
-        
-        Location chestLoc = new Location(world, chestX, chestY, chestZ);
-        Block block = chestLoc.getBlock();
+        Block block = fixture.getBlock();
         
         if (block.getState() instanceof org.bukkit.block.Chest chest) {
             // Check if any slot in the chest has a book
@@ -1014,7 +921,7 @@ public class ChoiceButtonHandler implements Listener {
                         player.sendMessage(plugin.getConfigManager().getMessage("errors.tlb_room.reconsider"));
                         return;
                     }
-                    SQLiteStudyDatabase.logWrongAnswer(
+                    plugin.getStudySink().logWrongAnswer(
                         tracker.getVar(player, "sessionId"),
                         tracker.getPhase(player)
                     );
@@ -1139,7 +1046,7 @@ public class ChoiceButtonHandler implements Listener {
                 String nextPhase = JourneyManager.nextPhaseAfterRamConfirm(journey);
                 String[] sign = JourneyManager.ramSignAfterConfirm(journey);
                 tracker.setPhase(player, nextPhase);
-                updateSign("ramRoom.mixSign", sign[0], sign[1], sign[2], sign[3]);
+                updateSign(player.getWorld(), "ramRoom.mixSign", sign[0], sign[1], sign[2], sign[3]);
                 player.sendMessage(plugin.getConfigManager().getMessage("system.tlb_updated",
                     "{vpn}", tracker.getVar(player, "vpn"), "{pfn}", tracker.getVar(player, "pfn")));
                 speakIfLearner(player, "rooms.ram_room.after_confirm", tracker.getVars(player));
@@ -1165,7 +1072,7 @@ public class ChoiceButtonHandler implements Listener {
             case "ram_book_placed_pure_cow":
                 // Pure COW: book was placed correctly → success
                 tracker.setPhase(player, "ram_before_finish");
-                updateSign("ramRoom.mixSign", "FINISH", "", "", "");
+                updateSign(player.getWorld(), "ramRoom.mixSign", "FINISH", "", "", "");
                 Bukkit.getScheduler().runTaskLater(plugin, () ->
                     dialogue.speak(player, "rooms.ram_room.instruction_succeeded", tracker.getVars(player)), 5L);
                 break;
@@ -1193,7 +1100,7 @@ public class ChoiceButtonHandler implements Listener {
             case "ram_book_placed_swapped":
                 // SWAPPED_OUT: book placed → success
                 tracker.setPhase(player, "ram_before_finish");
-                updateSign("ramRoom.mixSign", "FINISH", "", "", "");
+                updateSign(player.getWorld(), "ramRoom.mixSign", "FINISH", "", "", "");
                 Bukkit.getScheduler().runTaskLater(plugin, () ->
                     dialogue.speak(player, "rooms.ram_room.instruction_succeeded", tracker.getVars(player)), 5L);
                 break;
@@ -1230,7 +1137,7 @@ public class ChoiceButtonHandler implements Listener {
                     journeyMapManager.updateMap(player);
 
                     tracker.setPhase(player, "ram_before_finish");
-                    updateSign("ramRoom.mixSign", "FINISH", "", "", "");
+                    updateSign(player.getWorld(), "ramRoom.mixSign", "FINISH", "", "", "");
                 } else if (mixJourney == Journey.LAZY_ALLOCATION) {
                     // LAZY_ALLOCATION: Book not placed or content wrong
                     plugin.getLogger().info("[RamMix] swap_after_eviction: LAZY_ALLOCATION book not ready");
@@ -1254,7 +1161,7 @@ public class ChoiceButtonHandler implements Listener {
                     pageTableManager.updatePteMap(player);
                     
                     tracker.setPhase(player, "ram_before_finish");
-                    updateSign("ramRoom.mixSign", "FINISH", "", "", "");
+                    updateSign(player.getWorld(), "ramRoom.mixSign", "FINISH", "", "", "");
                 } else {
                     plugin.getLogger().info("[RamMix] swap_after_eviction: bookPlaced=false, showing warning");
                     player.sendMessage(plugin.getConfigManager().getMessage("errors.ram.place_disk_file"));
@@ -1270,7 +1177,7 @@ public class ChoiceButtonHandler implements Listener {
             case "ram_book_placed_lazy_allocation":
                 // LAZY_ALLOCATION: book was placed correctly → success
                 tracker.setPhase(player, "ram_before_finish");
-                updateSign("ramRoom.mixSign", "FINISH", "", "", "");
+                updateSign(player.getWorld(), "ramRoom.mixSign", "FINISH", "", "", "");
                 Bukkit.getScheduler().runTaskLater(plugin, () ->
                     dialogue.speak(player, "rooms.ram_room.instruction_succeeded", tracker.getVars(player)), 5L);
                 break;
@@ -1284,7 +1191,7 @@ public class ChoiceButtonHandler implements Listener {
             case "ram_book_placed_lazy_loading":
                 // LAZY_LOADING: book was placed correctly → success
                 tracker.setPhase(player, "ram_before_finish");
-                updateSign("ramRoom.mixSign", "FINISH", "", "", "");
+                updateSign(player.getWorld(), "ramRoom.mixSign", "FINISH", "", "", "");
                 Bukkit.getScheduler().runTaskLater(plugin, () ->
                     dialogue.speak(player, "rooms.ram_room.instruction_succeeded", tracker.getVars(player)), 5L);
                 break;
@@ -1325,7 +1232,7 @@ public class ChoiceButtonHandler implements Listener {
                 } else if ("segfault".equals(decision)) {
                     progress.markComplete(player, Journey.PERMISSION_VIOLATION);
                     tracker.setPhase(player, "segfault_end");
-                    updateSign("perChamber.sign6", "Finish", "", "", "");
+                    updateSign(player.getWorld(), "perChamber.sign6", "Finish", "", "", "");
                 } else if ("protection_fault".equals(decision)) {
                     teleportPlayer(player, "cowRoom");
                 } else {
@@ -1444,7 +1351,7 @@ public class ChoiceButtonHandler implements Listener {
             case "toPageFaultCorridor":
                 if ("page_fault_type".equals(phase)
                         && (journey == Journey.LAZY_ALLOCATION || journey == Journey.LAZY_LOADING)) {
-                    openDoor("toPageFaultCorridor");
+                    doors.open("toPageFaultCorridor", player.getWorld());
                 } else {
                     player.sendMessage(plugin.getConfigManager().getMessage("errors.permission.wrong_door"));
                 }
@@ -1452,7 +1359,7 @@ public class ChoiceButtonHandler implements Listener {
 
             case "toLazyLoading":
                 if (journey == Journey.LAZY_LOADING) {
-                    openDoor("toLazyLoading");
+                    doors.open("toLazyLoading", player.getWorld());
                 } else {
                     player.sendMessage(plugin.getConfigManager().getMessage("errors.permission.wrong_door"));
                 }
@@ -1460,7 +1367,7 @@ public class ChoiceButtonHandler implements Listener {
 
             case "toLazyAllocation":
                 if (journey == Journey.LAZY_ALLOCATION) {
-                    openDoor("toLazyAllocation");
+                    doors.open("toLazyAllocation", player.getWorld());
                 } else {
                     player.sendMessage(plugin.getConfigManager().getMessage("errors.permission.wrong_door"));
                 }
@@ -1595,6 +1502,11 @@ public class ChoiceButtonHandler implements Listener {
     }
 
     private void showJourneyList(Player player) {
+        // Without the completion data the ✔ marks would be missing; list them once it arrives
+        if (progress.isLoading(player.getUniqueId())) {
+            progress.whenLoaded(player.getUniqueId(), () -> showJourneyList(player));
+            return;
+        }
         boolean quizDone = tracker.hasCompletedQuiz(player);
         Map<Journey, Integer> wrongCounts = tracker.getQuizWrongCounts(player);
         int maxWrong = quizDone
@@ -1668,19 +1580,15 @@ public class ChoiceButtonHandler implements Listener {
 
         player.getInventory().clear();
         journeyMapManager.giveInitialMap(player, "learnerChest");
-        refillCalculatorChest();
+        refillCalculatorChest(player.getWorld());
     }
 
-    private void refillCalculatorChest() {
-        ConfigurationSection sec = plugin.getConfig().getConfigurationSection("chests.calculatorChest");
-        if (sec == null) { plugin.getLogger().warning("[Calculator] No config at chests.calculatorChest"); return; }
-        String worldName = sec.getString("world", "");
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) { plugin.getLogger().warning("[Calculator] World '" + worldName + "' not found"); return; }
-        int x = sec.getInt("x"), y = sec.getInt("y"), z = sec.getInt("z");
-        Block block = new Location(world, x, y, z).getBlock();
+    private void refillCalculatorChest(World world) {
+        FixtureRegistry.Fixture fixture = fixtures.get("chests.calculatorChest", world);
+        if (fixture == null) { plugin.getLogger().warning("[Calculator] No config at chests.calculatorChest"); return; }
+        Block block = fixture.getBlock();
         if (!(block.getState() instanceof Chest chest)) {
-            plugin.getLogger().warning("[Calculator] No chest at chests.calculatorChest " + x + "," + y + "," + z + " (found: " + block.getType() + ")");
+            plugin.getLogger().warning("[Calculator] No chest at chests.calculatorChest " + fixture.x + "," + fixture.y + "," + fixture.z + " (found: " + block.getType() + ")");
             return;
         }
         Inventory inv = chest.getInventory();
@@ -1738,6 +1646,12 @@ public class ChoiceButtonHandler implements Listener {
         // Teleport to initial terminal
         teleportPlayer(player, "initialSpawn");
 
+        // Fresh instance for the next journey if the player has theirs to themselves,
+        // otherwise put the rooms back in place unless someone else is still playing here
+        if (!plugin.getInstanceManager().journeyEnded(player) && player.getWorld().getPlayers().size() <= 1) {
+            plugin.getStructureManager().resetUnoccupied(player.getWorld());
+        }
+
         // Speak return dialogue; returning players get a short welcome-back, first-timers get full intro
         Bukkit.getScheduler().runTaskLater(plugin, () -> {
             String returnPath = quizDone
@@ -1790,7 +1704,7 @@ public class ChoiceButtonHandler implements Listener {
                 // Lucky (TLB Hit): reveal PFN on map, update sign, speak result
                 tracker.setPhase(player, "tlb_hit_quiz_done");
                 journeyMapManager.updateMap(player);
-                updateSign("tlb.hitDecision", "Go to RAM", "", "", "");
+                updateSign(player.getWorld(), "tlb.hitDecision", "Go to RAM", "", "", "");
                 dialogue.speak(player, "rooms.tlb_room.after_hit_quiz_lucky", tracker.getVars(player));
             } else {
                 // TLB Miss: speak result, then chain to miss_door quiz
@@ -1958,7 +1872,7 @@ public class ChoiceButtonHandler implements Listener {
 
         if (!correct) {
             plugin.getAchievementManager().onWrongAnswer(player, "permission_chamber");
-            SQLiteStudyDatabase.logWrongAnswer(vars.getOrDefault("sessionId", "?"), "permission_chamber");
+            plugin.getStudySink().logWrongAnswer(vars.getOrDefault("sessionId", "?"), "permission_chamber");
             player.sendMessage(permissionIncorrectFeedback(action));
             return;
         }
@@ -1973,29 +1887,29 @@ public class ChoiceButtonHandler implements Listener {
                 dialogue.speak(player, "feedback.allow_access_correct", vars);
                 dialogue.speak(player, "rooms.permission_chamber.allow_access_proceed", vars);
                 tracker.setVar(player, "permDecision", "allow_access");
-                clearPermChoiceSigns();
-                updateSign("perChamber.sign6", "Go to RAM", "", "", "");
+                clearPermChoiceSigns(player.getWorld());
+                updateSign(player.getWorld(), "perChamber.sign6", "Go to RAM", "", "", "");
                 break;
             case "page_fault":
                 tracker.setPhase(player, "page_fault_type");
-                updateSign("perChamber.sign1", "Lazy Allocation", "", "", "");
-                updateSign("perChamber.sign2", "Lazy Loading", "", "", "");
-                updateSign("perChamber.sign3", "Swapped out", "", "", "");
-                updateSign("perChamber.sign4", "", "", "", "");
-                updateSign("perChamber.sign5", "Which type of", "page fault?", "", "");
+                updateSign(player.getWorld(), "perChamber.sign1", "Lazy Allocation", "", "", "");
+                updateSign(player.getWorld(), "perChamber.sign2", "Lazy Loading", "", "", "");
+                updateSign(player.getWorld(), "perChamber.sign3", "Swapped out", "", "", "");
+                updateSign(player.getWorld(), "perChamber.sign4", "", "", "", "");
+                updateSign(player.getWorld(), "perChamber.sign5", "Which type of", "page fault?", "", "");
                 dialogue.speak(player, "rooms.permission_chamber.page_fault_subtype_prompt", vars);
                 break;
             case "segfault":
                 dialogue.speak(player, "feedback.segfault_correct", vars);
                 tracker.setVar(player, "permDecision", "segfault");
-                clearPermChoiceSigns();
-                updateSign("perChamber.sign6", "Terminate", "process and", "finish", "");
+                clearPermChoiceSigns(player.getWorld());
+                updateSign(player.getWorld(), "perChamber.sign6", "Terminate", "process and", "finish", "");
                 break;
             case "protection_fault":
                 dialogue.speak(player, "feedback.protection_fault_correct", vars);
                 tracker.setVar(player, "permDecision", "protection_fault");
-                clearPermChoiceSigns();
-                updateSign("perChamber.sign6", "Go to COW", "room", "", "");
+                clearPermChoiceSigns(player.getWorld());
+                updateSign(player.getWorld(), "perChamber.sign6", "Go to COW", "room", "", "");
                 break;
         }
     }
@@ -2028,7 +1942,7 @@ public class ChoiceButtonHandler implements Listener {
 
         if (!correct) {
             plugin.getAchievementManager().onWrongAnswer(player, "page_fault_type");
-            SQLiteStudyDatabase.logWrongAnswer(vars.getOrDefault("sessionId", "?"), "permission_chamber_pft");
+            plugin.getStudySink().logWrongAnswer(vars.getOrDefault("sessionId", "?"), "permission_chamber_pft");
             player.sendMessage(pageFaultTypeIncorrectFeedback(action));
             return;
         }
@@ -2039,17 +1953,17 @@ public class ChoiceButtonHandler implements Listener {
         switch (expected) {
             case "lazy_allocation":
                 dialogue.speak(player, "feedback.lazy_allocation_correct", vars);
-                clearPermSubtypeSigns();
+                clearPermSubtypeSigns(player.getWorld());
                 break;
             case "lazy_loading":
                 dialogue.speak(player, "feedback.lazy_loading_correct", vars);
-                clearPermSubtypeSigns();
+                clearPermSubtypeSigns(player.getWorld());
                 break;
             case "swapped_out":
                 dialogue.speak(player, "rooms.permission_chamber.proceed_to_disk", vars);
                 tracker.setVar(player, "pageFaultSubtype", "swapped_out");
-                clearPermSubtypeSigns();
-                updateSign("perChamber.sign6", "Go to Disk", "", "", "");
+                clearPermSubtypeSigns(player.getWorld());
+                updateSign(player.getWorld(), "perChamber.sign6", "Go to Disk", "", "", "");
                 break;
         }
     }
@@ -2095,12 +2009,12 @@ public class ChoiceButtonHandler implements Listener {
             // Transition directly to COW decision (no RAM visit)
             tracker.setPhase(player, "lazy_alloc_cow");
             // Hide allocation signs; show COW decision signs (mixSign stays blank — no "Go to RAM")
-            updateSign("lazyAllocation.allocateSign", "", "", "", "");
-            updateSign("lazyAllocation.swapSign", "", "", "", "");
-            setLazyAllocCowSigns();
+            updateSign(player.getWorld(), "lazyAllocation.allocateSign", "", "", "", "");
+            updateSign(player.getWorld(), "lazyAllocation.swapSign", "", "", "", "");
+            setLazyAllocCowSigns(player.getWorld());
         } else {
             plugin.getAchievementManager().onWrongAnswer(player, "lazy_allocation");
-            SQLiteStudyDatabase.logWrongAnswer(vars.getOrDefault("sessionId", "?"), "lazy_allocation_room");
+            plugin.getStudySink().logWrongAnswer(vars.getOrDefault("sessionId", "?"), "lazy_allocation_room");
             dialogue.speak(player, "rooms.lazy_allocation_room.allocate_incorrect", vars);
         }
     }
@@ -2111,13 +2025,13 @@ public class ChoiceButtonHandler implements Listener {
             dialogue.speak(player, "rooms.lazy_allocation_room.second_visit_correct", vars);
             tracker.setPhase(player, "lazy_alloc_before_tp");
             // Hide COW-decision signs; show "Go to COW room" (btnLazyAlloc now TPs to COW)
-            updateSign("lazyAllocation.cowSign", "", "", "", "");
-            updateSign("lazyAllocation.doNothingSign", "", "", "", "");
-            updateSign("lazyAllocation.writeSign", "", "", "", "");
-            updateSign("lazyAllocation.mixSign", "Go to COW room", "", "", "");
+            updateSign(player.getWorld(), "lazyAllocation.cowSign", "", "", "", "");
+            updateSign(player.getWorld(), "lazyAllocation.doNothingSign", "", "", "", "");
+            updateSign(player.getWorld(), "lazyAllocation.writeSign", "", "", "", "");
+            updateSign(player.getWorld(), "lazyAllocation.mixSign", "Go to COW room", "", "", "");
         } else {
             plugin.getAchievementManager().onWrongAnswer(player, "lazy_allocation_cow");
-            SQLiteStudyDatabase.logWrongAnswer(vars.getOrDefault("sessionId", "?"), "lazy_allocation_cow");
+            plugin.getStudySink().logWrongAnswer(vars.getOrDefault("sessionId", "?"), "lazy_allocation_cow");
             dialogue.speak(player, "rooms.lazy_allocation_room.second_visit_incorrect", vars);
         }
     }
@@ -2146,7 +2060,7 @@ public class ChoiceButtonHandler implements Listener {
             dialogue.speak(player, "rooms.cow_room.allocate_copy_correct", vars);
             tracker.setPhase(player, "cow_decision_after");
             // Reveal the "Go to RAM" sign in the COW room
-            updateSign("cow.toRam", "Go to RAM", "", "", "");
+            updateSign(player.getWorld(), "cow.toRam", "Go to RAM", "", "", "");
 
             // Update the PTE map with new PFN and WRITE values
             // For LAZY_ALLOCATION: Don't update PTE map here - PFN will be updated after swap
@@ -2155,7 +2069,7 @@ public class ChoiceButtonHandler implements Listener {
             }
         } else {
             plugin.getAchievementManager().onWrongAnswer(player, "cow_room");
-            SQLiteStudyDatabase.logWrongAnswer(vars.getOrDefault("sessionId", "?"), "cow_room");
+            plugin.getStudySink().logWrongAnswer(vars.getOrDefault("sessionId", "?"), "cow_room");
             dialogue.speak(player, "rooms.cow_room.terminate_incorrect", vars);
         }
     }
@@ -2163,76 +2077,76 @@ public class ChoiceButtonHandler implements Listener {
     // ── Public sign update methods (called by RoomChangeListener) ─────────────
 
     /** Set the RAM room mixSign text. */
-    public void setRamMixSign(String l1, String l2, String l3, String l4) {
+    public void setRamMixSign(World world, String l1, String l2, String l3, String l4) {
         plugin.getLogger().info("[ChoiceButton] setRamMixSign called: '" + l1 + "', '" + l2 + "', '" + l3 + "', '" + l4 + "'");
-        updateSign("ramRoom.mixSign", l1, l2, l3, l4);
+        updateSign(world, "ramRoom.mixSign", l1, l2, l3, l4);
     }
 
     /** Clear round-1 choice signs (1-5) after a correct round-1 decision. */
-    private void clearPermChoiceSigns() {
-        updateSign("perChamber.sign1", "", "", "", "");
-        updateSign("perChamber.sign2", "", "", "", "");
-        updateSign("perChamber.sign3", "", "", "", "");
-        updateSign("perChamber.sign4", "", "", "", "");
-        updateSign("perChamber.sign5", "", "", "", "");
+    private void clearPermChoiceSigns(World world) {
+        updateSign(world, "perChamber.sign1", "", "", "", "");
+        updateSign(world, "perChamber.sign2", "", "", "", "");
+        updateSign(world, "perChamber.sign3", "", "", "", "");
+        updateSign(world, "perChamber.sign4", "", "", "", "");
+        updateSign(world, "perChamber.sign5", "", "", "", "");
     }
 
     /** Clear round-2 subtype signs (1-3, 5) after a correct page fault type decision. */
-    private void clearPermSubtypeSigns() {
-        updateSign("perChamber.sign1", "", "", "", "");
-        updateSign("perChamber.sign2", "", "", "", "");
-        updateSign("perChamber.sign3", "", "", "", "");
-        updateSign("perChamber.sign5", "", "", "", "");
+    private void clearPermSubtypeSigns(World world) {
+        updateSign(world, "perChamber.sign1", "", "", "", "");
+        updateSign(world, "perChamber.sign2", "", "", "", "");
+        updateSign(world, "perChamber.sign3", "", "", "", "");
+        updateSign(world, "perChamber.sign5", "", "", "", "");
     }
 
     /** Initialise all Permission Chamber signs to their default (round-1) state. */
-    public void initPermissionChamberSigns() {
-        updateSign("perChamber.sign1", "Allow Access", "", "", "");
-        updateSign("perChamber.sign2", "Page Fault", "", "", "");
-        updateSign("perChamber.sign3", "Segmentation", "Fault", "", "");
-        updateSign("perChamber.sign4", "Permission", "Fault", "", "");
-        updateSign("perChamber.sign5", "Make Your", "Decision", "", "");
-        updateSign("perChamber.sign6", "", "", "", "");
+    public void initPermissionChamberSigns(World world) {
+        updateSign(world, "perChamber.sign1", "Allow Access", "", "", "");
+        updateSign(world, "perChamber.sign2", "Page Fault", "", "", "");
+        updateSign(world, "perChamber.sign3", "Segmentation", "Fault", "", "");
+        updateSign(world, "perChamber.sign4", "Permission", "Fault", "", "");
+        updateSign(world, "perChamber.sign5", "Make Your", "Decision", "", "");
+        updateSign(world, "perChamber.sign6", "", "", "", "");
     }
 
     /** Clear the COW room "Go to RAM" sign (called on room entry). */
-    public void clearCowToRamSign() {
-        updateSign("cow.toRam", "", "", "", "");
+    public void clearCowToRamSign(World world) {
+        updateSign(world, "cow.toRam", "", "", "", "");
     }
 
     /** Reset the TLB hit/miss decision sign back to "HIT" at the start of each journey. */
-    public void resetHitDecisionSign() {
-        updateSign("tlb.hitDecision", "HIT", "", "", "");
+    public void resetHitDecisionSign(World world) {
+        updateSign(world, "tlb.hitDecision", "HIT", "", "", "");
     }
 
     /** Show Lazy Allocation Room first-visit signs (Allocate / Swap from Disk). */
-    public void setLazyAllocDecisionSigns() {
-        updateSign("lazyAllocation.allocateSign", "Allocate", "", "", "");
-        updateSign("lazyAllocation.swapSign", "Swap from", "Disk", "", "");
-        updateSign("lazyAllocation.mixSign", "", "", "", "");
-        updateSign("lazyAllocation.cowSign", "", "", "", "");
-        updateSign("lazyAllocation.doNothingSign", "", "", "", "");
-        updateSign("lazyAllocation.writeSign", "", "", "", "");
+    public void setLazyAllocDecisionSigns(World world) {
+        updateSign(world, "lazyAllocation.allocateSign", "Allocate", "", "", "");
+        updateSign(world, "lazyAllocation.swapSign", "Swap from", "Disk", "", "");
+        updateSign(world, "lazyAllocation.mixSign", "", "", "", "");
+        updateSign(world, "lazyAllocation.cowSign", "", "", "", "");
+        updateSign(world, "lazyAllocation.doNothingSign", "", "", "", "");
+        updateSign(world, "lazyAllocation.writeSign", "", "", "", "");
     }
 
     /** Show Lazy Allocation Room second-visit signs (COW / Deny / Do nothing). */
-    public void setLazyAllocCowSigns() {
-        updateSign("lazyAllocation.allocateSign", "", "", "", "");
-        updateSign("lazyAllocation.swapSign", "", "", "", "");
-        updateSign("lazyAllocation.mixSign", "Deny the write", "", "", "");
-        updateSign("lazyAllocation.cowSign", "Do COW", "", "", "");
-        updateSign("lazyAllocation.doNothingSign", "Do nothing", "", "", "");
-        updateSign("lazyAllocation.writeSign", "Process wants", "to write. What", "do you do?", "");
+    public void setLazyAllocCowSigns(World world) {
+        updateSign(world, "lazyAllocation.allocateSign", "", "", "", "");
+        updateSign(world, "lazyAllocation.swapSign", "", "", "", "");
+        updateSign(world, "lazyAllocation.mixSign", "Deny the write", "", "", "");
+        updateSign(world, "lazyAllocation.cowSign", "Do COW", "", "", "");
+        updateSign(world, "lazyAllocation.doNothingSign", "Do nothing", "", "", "");
+        updateSign(world, "lazyAllocation.writeSign", "Process wants", "to write. What", "do you do?", "");
     }
 
     /** Restore the "Go to COW room" sign after player re-enters in lazy_alloc_before_tp phase. */
-    public void setLazyAllocBeforeTpSign() {
-        updateSign("lazyAllocation.mixSign", "Go to COW room", "", "", "");
+    public void setLazyAllocBeforeTpSign(World world) {
+        updateSign(world, "lazyAllocation.mixSign", "Go to COW room", "", "", "");
     }
 
     /** Set the Lazy Loading Room mixSign (Go to Calculator Room / Go to Disk). */
-    public void setLoadingSign(String l1, String l2, String l3, String l4) {
-        updateSign("lazyLoading.mixSign", l1, l2, l3, l4);
+    public void setLoadingSign(World world, String l1, String l2, String l3, String l4) {
+        updateSign(world, "lazyLoading.mixSign", l1, l2, l3, l4);
     }
 
     // ── Dialogue helpers ──────────────────────────────────────────────────────
@@ -2286,88 +2200,13 @@ public class ChoiceButtonHandler implements Listener {
      * Update the text on a wall sign at the location given by config path
      * {@code signs.<configPath>}. Silently warns if the sign block isn't placed yet.
      */
-    private void updateSign(String configPath, String l1, String l2, String l3, String l4) {
-        ConfigurationSection section =
-            plugin.getConfig().getConfigurationSection("signs." + configPath);
-        if (section == null) {
+    private void updateSign(World world, String configPath, String l1, String l2, String l3, String l4) {
+        FixtureRegistry.Fixture fixture = fixtures.get("signs." + configPath, world);
+        if (fixture == null) {
             plugin.getLogger().warning("[Signs] No config entry for signs." + configPath);
             return;
         }
-        String worldName = section.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Location loc = new Location(world,
-            section.getInt("x"), section.getInt("y"), section.getInt("z"));
-        Block block = loc.getBlock();
-
-        if (!(block.getState() instanceof Sign sign)) {
-            plugin.getLogger().warning("[Signs] No sign block at signs." + configPath
-                + " (" + block.getType() + " at "
-                + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ() + ")");
-            return;
-        }
-
-        sign.getSide(Side.FRONT).line(0, Component.text(l1));
-        sign.getSide(Side.FRONT).line(1, Component.text(l2));
-        sign.getSide(Side.FRONT).line(2, Component.text(l3));
-        sign.getSide(Side.FRONT).line(3, Component.text(l4));
-        sign.update(true);
-    }
-
-    /**
-     * Opens the door block(s) at the location given by config path {@code doors.<doorKey>}.
-     * Sets both the bottom and top halves open so the player can walk through.
-     */
-    private void openDoor(String doorKey) {
-        ConfigurationSection sec = plugin.getConfig().getConfigurationSection("doors." + doorKey);
-        if (sec == null) {
-            plugin.getLogger().warning("[DoorOpen] No config for doors." + doorKey);
-            return;
-        }
-        String worldName = sec.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Block bottom = world.getBlockAt(sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        if (bottom.getBlockData() instanceof Openable openable) {
-            openable.setOpen(true);
-            bottom.setBlockData(openable);
-            // Top half of the door
-            Block top = world.getBlockAt(sec.getInt("x"), sec.getInt("y") + 1, sec.getInt("z"));
-            if (top.getBlockData() instanceof Openable topOpenable) {
-                topOpenable.setOpen(true);
-                top.setBlockData(topOpenable);
-            }
-            plugin.getLogger().info("[DoorOpen] Opened door: " + doorKey);
-            // Auto-close after 10 seconds
-            Bukkit.getScheduler().runTaskLater(plugin, () -> closeDoor(doorKey), 200L);
-        } else {
-            plugin.getLogger().warning("[DoorOpen] Block at doors." + doorKey + " is not a door (" + bottom.getType() + ")");
-        }
-    }
-
-    /** Closes the door block(s) at the location given by config path {@code doors.<doorKey>}. */
-    public void closeDoor(String doorKey) {
-        ConfigurationSection sec = plugin.getConfig().getConfigurationSection("doors." + doorKey);
-        if (sec == null) return;
-        String worldName = sec.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Block bottom = world.getBlockAt(sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        if (bottom.getBlockData() instanceof Openable openable) {
-            openable.setOpen(false);
-            bottom.setBlockData(openable);
-            Block top = world.getBlockAt(sec.getInt("x"), sec.getInt("y") + 1, sec.getInt("z"));
-            if (top.getBlockData() instanceof Openable topOpenable) {
-                topOpenable.setOpen(false);
-                top.setBlockData(topOpenable);
-            }
-        }
+        signs.write(fixture.getBlock(), l1, l2, l3, l4);
     }
 
     // ── Pressure plate handler ────────────────────────────────────────────────
@@ -2385,14 +2224,14 @@ public class ChoiceButtonHandler implements Listener {
     /** Teleport a player to a named location from LocationRegistry. */
     private void teleportPlayer(Player player, String destination) {
         plugin.getLogger().info("[CalcContinue] Teleporting to: " + destination);
-        Location dest = locationRegistry.get(destination);
+        Location dest = locationRegistry.get(destination, player.getWorld());
         if (dest == null) {
             plugin.getLogger().warning("[CalcContinue] TP destination not found: " + destination);
             player.sendMessage("§c[Error] Destination '" + destination + "' not found!");
             return;
         }
         plugin.getLogger().info("[CalcContinue] Destination found at: " + dest.getBlockX() + "," + dest.getBlockY() + "," + dest.getBlockZ());
-        player.teleport(dest);
+        player.teleportAsync(dest);
     }
 
     // ── Utility ───────────────────────────────────────────────────────────────
@@ -2405,17 +2244,4 @@ public class ChoiceButtonHandler implements Listener {
             return 0;
         }
     }
-
-    private String findButton(Location clicked) {
-        for (Map.Entry<Location, String> entry : buttons.entrySet()) {
-            Location loc = entry.getKey();
-            if (loc.getWorld() != null && loc.getWorld().equals(clicked.getWorld())
-                    && loc.getBlockX() == clicked.getBlockX()
-                    && loc.getBlockY() == clicked.getBlockY()
-                    && loc.getBlockZ() == clicked.getBlockZ()) {
-                return entry.getValue();
-            }
-        }
-        return null;
-    }
 }
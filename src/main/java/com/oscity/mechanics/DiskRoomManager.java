@@ -2,14 +2,13 @@ package com.oscity.mechanics;
 
 import com.oscity.journey.Journey;
 import com.oscity.session.JourneyTracker;
+import com.oscity.world.FixtureRegistry;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.Chest;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -35,12 +34,14 @@ import java.util.List;
 public class DiskRoomManager {
 
     private final JavaPlugin plugin;
+    private final FixtureRegistry fixtures;
     private final JourneyTracker tracker;
 
     private static final String[] FILE_BLOCKS = {"A", "B", "C", "D", "E", "F", "G", "H", "I"};
 
-    public DiskRoomManager(JavaPlugin plugin, JourneyTracker tracker) {
+    public DiskRoomManager(JavaPlugin plugin, FixtureRegistry fixtures, JourneyTracker tracker) {
         this.plugin  = plugin;
+        this.fixtures = fixtures;
         this.tracker = tracker;
     }
 
@@ -56,19 +57,20 @@ public class DiskRoomManager {
 
         String fileVar  = tracker.getVar(player, "file");
         String diskBlock = tracker.getVar(player, "diskBlock");
+        World world = player.getWorld();
 
         // Clear all chests first
         for (String block : FILE_BLOCKS) {
-            clearChestConfig("chests.diskRoom.chest" + block);
+            clearChestConfig(world, "chests.diskRoom.chest" + block);
         }
-        clearChestConfig("chests.diskRoom.swapChest0");
-        clearChestConfig("chests.diskRoom.swapChest1");
+        clearChestConfig(world, "chests.diskRoom.swapChest0");
+        clearChestConfig(world, "chests.diskRoom.swapChest1");
 
         // Place books in each chest based on block
         for (String block : FILE_BLOCKS) {
             List<ItemStack> books = getBooksForBlock(block, fileVar, diskBlock);
             for (ItemStack book : books) {
-                placeInChest("chests.diskRoom.chest" + block, book);
+                placeInChest(world, "chests.diskRoom.chest" + block, book);
             }
         }
 
@@ -76,10 +78,10 @@ public class DiskRoomManager {
         ItemStack swap0 = (journey == Journey.SWAPPED_OUT)
             ? buildSwapSlot0Book()
             : buildGenericSwapBook();
-        placeInChest("chests.diskRoom.swapChest0", swap0);
+        placeInChest(world, "chests.diskRoom.swapChest0", swap0);
 
         // Swap slot 1
-        placeInChest("chests.diskRoom.swapChest1", buildSwapSlot1Book());
+        placeInChest(world, "chests.diskRoom.swapChest1", buildSwapSlot1Book());
     }
 
     /**
@@ -148,16 +150,10 @@ public class DiskRoomManager {
     /**
      * Clears a chest by config path.
      */
-    private void clearChestConfig(String configPath) {
-        ConfigurationSection sec = plugin.getConfig().getConfigurationSection(configPath);
-        if (sec == null) return;
-        String worldName = sec.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        Block block = loc.getBlock();
+    private void clearChestConfig(World world, String configPath) {
+        FixtureRegistry.Fixture fixture = fixtures.get(configPath, world);
+        if (fixture == null) return;
+        Block block = fixture.getBlock();
 
         if (!(block.getState() instanceof Chest chest)) {
             return;
@@ -289,19 +285,13 @@ public class DiskRoomManager {
         return -1; // No available slot
     }
 
-    private void placeInChest(String configPath, ItemStack item) {
-        ConfigurationSection sec = plugin.getConfig().getConfigurationSection(configPath);
-        if (sec == null) {
+    private void placeInChest(World world, String configPath, ItemStack item) {
+        FixtureRegistry.Fixture fixture = fixtures.get(configPath, world);
+        if (fixture == null) {
             plugin.getLogger().warning("[DiskRoom] No config at " + configPath);
             return;
         }
-        String worldName = sec.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        Block block = loc.getBlock();
+        Block block = fixture.getBlock();
 
         if (!(block.getState() instanceof Chest chest)) {
             plugin.getLogger().warning("[DiskRoom] No chest at " + configPath
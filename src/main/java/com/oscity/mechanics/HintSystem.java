@@ -1,7 +1,7 @@
 package com.oscity.mechanics;
 
 import com.oscity.content.DialogueManager;
-import com.oscity.persistence.SQLiteStudyDatabase;
+import com.oscity.persistence.StudySink;
 import com.oscity.session.JourneyTracker;
 import com.oscity.session.SessionManager;
 import org.bukkit.entity.Player;
@@ -26,6 +26,7 @@ public class HintSystem {
     private final DialogueManager dialogueManager;
     private final JourneyTracker journeyTracker;
     private final com.oscity.config.ConfigManager configManager;
+    private final StudySink studySink;
 
     /** Tracks how many hints each player has requested for phases with multiple hints. */
     private final Map<UUID, Integer> calcHintCounter = new HashMap<>();
@@ -33,11 +34,13 @@ public class HintSystem {
     public HintSystem(SessionManager sessionManager,
                       DialogueManager dialogueManager,
                       JourneyTracker journeyTracker,
-                      com.oscity.config.ConfigManager configManager) {
+                      com.oscity.config.ConfigManager configManager,
+                      StudySink studySink) {
         this.sessionManager = sessionManager;
         this.dialogueManager = dialogueManager;
         this.journeyTracker = journeyTracker;
         this.configManager = configManager;
+        this.studySink = studySink;
     }
 
     /**
@@ -68,7 +71,7 @@ public class HintSystem {
         }
 
         sessionManager.recordHintUsed();
-        SQLiteStudyDatabase.logHintUsed(sessionManager.getSessionId(), phase);
+        studySink.logHintUsed(sessionManager.getSessionId(), phase);
         
         // Track for Quick Learner achievement
         sessionManager.getStats().onHintUsed();
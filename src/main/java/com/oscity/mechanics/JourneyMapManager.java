@@ -1,10 +1,13 @@
 package com.oscity.mechanics;
 
+import com.oscity.map.MapComposer;
+import com.oscity.map.MapRaster;
+import com.oscity.map.RasterRenderer;
 import com.oscity.mode.PlayerMode;
 import com.oscity.session.JourneyTracker;
+import com.oscity.world.FixtureRegistry;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -12,20 +15,15 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.MapMeta;
-import org.bukkit.map.MapCanvas;
-import org.bukkit.map.MapPalette;
-import org.bukkit.map.MapRenderer;
 import org.bukkit.map.MapView;
-import org.bukkit.map.MinecraftFont;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.awt.Color;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Creates and manages the journey map item that players carry throughout their run.
@@ -39,14 +37,21 @@ import java.util.UUID;
 public class JourneyMapManager {
 
     private final JavaPlugin plugin;
+    private final FixtureRegistry fixtures;
     private final JourneyTracker tracker;
+    private final MapComposer composer;
+
+    private static final byte BG     = MapRaster.color(10, 20, 40);   // dark navy
+    private static final byte ACCENT = MapRaster.color(30, 80, 150);  // steel blue
 
     // One MapView per player so each render is independent
     private final Map<UUID, MapView> playerMapViews = new HashMap<>();
 
-    public JourneyMapManager(JavaPlugin plugin, JourneyTracker tracker) {
+    public JourneyMapManager(JavaPlugin plugin, FixtureRegistry fixtures, JourneyTracker tracker, MapComposer composer) {
         this.plugin  = plugin;
+        this.fixtures = fixtures;
         this.tracker = tracker;
+        this.composer = composer;
     }
 
     // ── Public API ────────────────────────────────────────────────────────────
@@ -62,8 +67,9 @@ public class JourneyMapManager {
     public void giveInitialMap(Player player, String chestConfigKey) {
         boolean isLearner = tracker.getMode(player) == PlayerMode.LEARNER;
         MapView view = getOrCreateView(player);
-        rerender(view, buildLines(tracker.getVars(player), false, !isLearner));
-        placeInChest(buildMapItem(view), chestConfigKey);
+        Map<String, String> vars = new HashMap<>(tracker.getVars(player));
+        rerender(view, () -> buildLines(vars, false, !isLearner));
+        placeInChest(player.getWorld(), buildMapItem(view), chestConfigKey);
     }
 
     /**
@@ -75,7 +81,8 @@ public class JourneyMapManager {
         boolean isLearner = tracker.getMode(player) == PlayerMode.LEARNER;
         MapView view = playerMapViews.get(player.getUniqueId());
         if (view == null) return;
-        rerender(view, buildLines(tracker.getVars(player), true, !isLearner));
+        Map<String, String> vars = new HashMap<>(tracker.getVars(player));
+        rerender(view, () -> buildLines(vars, true, !isLearner));
     }
 
     /**
@@ -86,7 +93,8 @@ public class JourneyMapManager {
         boolean isLearner = tracker.getMode(player) == PlayerMode.LEARNER;
         MapView view = playerMapViews.get(player.getUniqueId());
         if (view == null) return;
-        rerender(view, buildLinesAfterCalculator(tracker.getVars(player), !isLearner));
+        Map<String, String> vars = new HashMap<>(tracker.getVars(player));
+        rerender(view, () -> buildLinesAfterCalculator(vars, !isLearner));
     }
 
     /**
@@ -100,13 +108,14 @@ public class JourneyMapManager {
     // ── Content builder ───────────────────────────────────────────────────────
 
     /**
-     * Builds the text lines for the map.
+     * Builds the text lines for the map. Runs on a composer thread, so it
+     * only reads {@code vars} (a copy taken on the main thread).
      *
      * @param vars the player's current journey vars
      * @param showDiscoveries if true, show VPN/offset/PFN/file/slot (when not "?")
      * @param showJourneyName if true, show the journey name on the map
      */
-    private List<String> buildLines(Map<String, String> vars, boolean showDiscoveries, boolean showJourneyName) {
+    private static List<String> buildLines(Map<String, String> vars, boolean showDiscoveries, boolean showJourneyName) {
         List<String> lines = new ArrayList<>();
 
         lines.add("= OSCity Journey Map =");
@@ -174,7 +183,7 @@ public class JourneyMapManager {
      * Builds map lines after calculator - shows VPN and offset only (no PFN).
      * PFN is revealed later from TLB hit or page table walk.
      */
-    private List<String> buildLinesAfterCalculator(Map<String, String> vars, boolean showJourneyName) {
+    private static List<String> buildLinesAfterCalculator(Map<String, String> vars, boolean showJourneyName) {
         List<String> lines = new ArrayList<>();
 
         lines.add("= OSCity Journey Map =");
@@ -237,40 +246,31 @@ public class JourneyMapManager {
 
     // ── Rendering ─────────────────────────────────────────────────────────────
 
-    @SuppressWarnings("deprecation")
-    private void rerender(MapView view, List<String> lines) {
-        view.getRenderers().clear();
-
-        final byte bg     = MapPalette.matchColor(new Color(10, 20, 40));   // dark navy
-        final byte accent = MapPalette.matchColor(new Color(30, 80, 150));  // steel blue
-
-        view.addRenderer(new MapRenderer(false) {
-            @Override
-            public void render(MapView mapView, MapCanvas canvas, Player player) {
-                // Background
-                for (int x = 0; x < 128; x++)
-                    for (int y = 0; y < 128; y++)
-                        canvas.setPixel(x, y, bg);
-
-                // Thin top and bottom accent bars
-                for (int x = 0; x < 128; x++) {
-                    canvas.setPixel(x, 0,   accent);
-                    canvas.setPixel(x, 1,   accent);
-                    canvas.setPixel(x, 126, accent);
-                    canvas.setPixel(x, 127, accent);
-                }
-
-                // Text lines - optimized spacing to fit more content
-                int y = 2;
-                for (String line : lines) {
-                    if (y > 124) break;  // Extended to use full height
-                    if (!line.isEmpty()) {
-                        canvas.drawText(2, y, MinecraftFont.Font, line);
-                    }
-                    y += 10;  // Reduced from 11 to fit more lines
-                }
+    /**
+     * Build the lines and draw them on a composer thread, then show them;
+     * an unchanged map is left alone.
+     */
+    private void rerender(MapView view, Supplier<List<String>> lines) {
+        composer.compose(RasterRenderer.attach(view), () -> draw(lines.get()));
+    }
+
+    private static MapRaster draw(List<String> lines) {
+        MapRaster raster = new MapRaster()
+            .fill(BG)
+            // Thin top and bottom accent bars
+            .fillRows(0, 1, ACCENT)
+            .fillRows(126, 127, ACCENT);
+
+        // Text lines - optimized spacing to fit more content
+        int y = 2;
+        for (String line : lines) {
+            if (y > 124) break;  // Extended to use full height
+            if (!line.isEmpty()) {
+                raster.drawText(2, y, line);
             }
-        });
+            y += 10;  // Reduced from 11 to fit more lines
+        }
+        return raster;
     }
 
     // ── Map item ──────────────────────────────────────────────────────────────
@@ -288,20 +288,13 @@ public class JourneyMapManager {
 
     // ── Chest placement ───────────────────────────────────────────────────────
 
-    private void placeInChest(ItemStack mapItem, String chestKey) {
-        ConfigurationSection sec = plugin.getConfig()
-            .getConfigurationSection("chests." + chestKey);
-        if (sec == null) {
+    private void placeInChest(World world, ItemStack mapItem, String chestKey) {
+        FixtureRegistry.Fixture fixture = fixtures.get("chests." + chestKey, world);
+        if (fixture == null) {
             plugin.getLogger().warning("[JourneyMap] No config at chests." + chestKey);
             return;
         }
-        String worldName = sec.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        Block block = loc.getBlock();
+        Block block = fixture.getBlock();
 
         if (!(block.getState() instanceof org.bukkit.block.Chest chest)) {
             plugin.getLogger().warning("[JourneyMap] No chest block at chests." + chestKey
@@ -331,7 +324,7 @@ public class JourneyMapManager {
     }
 
     /** Wrap {@code text} into lines of at most {@code maxLen} chars. */
-    private List<String> wrap(String text, int maxLen) {
+    private static List<String> wrap(String text, int maxLen) {
         List<String> result = new ArrayList<>();
         if (text == null || text.isEmpty()) { result.add("?"); return result; }
         while (text.length() > maxLen) {
@@ -345,20 +338,12 @@ public class JourneyMapManager {
     }
 
     /** Truncate string to {@code max} characters. */
-    private String cap(String s, int max) {
+    private static String cap(String s, int max) {
         return s != null && s.length() > max ? s.substring(0, max) : (s != null ? s : "");
     }
 
-    /**
-     * Replace characters not supported by MinecraftFont with '?'
-     * to avoid IllegalArgumentException from canvas.drawText().
-     */
-    private String safe(String s) {
-        if (s == null) return "";
-        StringBuilder sb = new StringBuilder(s.length());
-        for (char c : s.toCharArray()) {
-            sb.append(MinecraftFont.Font.getChar(c) != null ? c : '?');
-        }
-        return sb.toString();
+    /** Replace characters not supported by MinecraftFont with '?'. */
+    private static String safe(String s) {
+        return MapRaster.safe(s);
     }
 }
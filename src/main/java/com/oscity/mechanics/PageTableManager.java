@@ -1,27 +1,23 @@
 package com.oscity.mechanics;
 
 import com.oscity.journey.Journey;
+import com.oscity.map.MapComposer;
+import com.oscity.map.MapRaster;
+import com.oscity.map.MapViewPool;
+import com.oscity.map.RasterRenderer;
 import com.oscity.session.JourneyTracker;
+import com.oscity.world.FixtureRegistry;
 import net.kyori.adventure.text.Component;
-import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.Chest;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.MapMeta;
-import org.bukkit.map.MapCanvas;
-import org.bukkit.map.MapPalette;
-import org.bukkit.map.MapRenderer;
 import org.bukkit.map.MapView;
-import org.bukkit.map.MinecraftFont;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -42,11 +38,23 @@ import java.util.Random;
 public class PageTableManager {
 
     private final JavaPlugin plugin;
+    private final FixtureRegistry fixtures;
     private final JourneyTracker tracker;
+    private final MapViewPool mapViews;
+    private final MapComposer composer;
 
-    public PageTableManager(JavaPlugin plugin, JourneyTracker tracker) {
+    /** PTE map colours: background, and the top bar for the correct / a fake entry. */
+    private static final byte BG      = MapRaster.color(10, 20, 40);
+    private static final byte CORRECT = MapRaster.color(30, 150, 80);
+    private static final byte FAKE    = MapRaster.color(150, 30, 30);
+
+    public PageTableManager(JavaPlugin plugin, FixtureRegistry fixtures, MapViewPool mapViews, MapComposer composer,
+                            JourneyTracker tracker) {
         this.plugin = plugin;
+        this.fixtures = fixtures;
         this.tracker = tracker;
+        this.mapViews = mapViews;
+        this.composer = composer;
     }
 
     // ── Public API ────────────────────────────────────────────────────────────
@@ -121,7 +129,7 @@ public class PageTableManager {
                     String pteData = buildPteDataWithPFN(player, journey, floorNum, correctChestIndex, true, newPfn);
                     plugin.getLogger().info("[PageTable] New PTE data (PFN only update): " + pteData);
 
-                    ItemStack newPteMap = buildPteMapItem(floorNum, correctChestIndex, pteData, true);
+                    ItemStack newPteMap = buildPteMapItem(player, floorNum, correctChestIndex, pteData, true);
                     player.getInventory().setItem(i, newPteMap);
                     plugin.getLogger().info("[PageTable] PTE map PFN updated to " + newPfn);
                     break;
@@ -154,7 +162,7 @@ public class PageTableManager {
                     String pteData = buildPteData(player, journey, floorNum, correctChestIndex, true);
                     plugin.getLogger().info("[PageTable] New PTE data: " + pteData);
 
-                    ItemStack newPteMap = buildPteMapItem(floorNum, correctChestIndex, pteData, true);
+                    ItemStack newPteMap = buildPteMapItem(player, floorNum, correctChestIndex, pteData, true);
                     player.getInventory().setItem(i, newPteMap);
                     plugin.getLogger().info("[PageTable] PTE map updated!");
                     break;
@@ -406,22 +414,15 @@ public class PageTableManager {
     @SuppressWarnings("deprecation")
     private void placePteMap(Player player, int floorNum, int chestIdx, String pteData, boolean isCorrect) {
         String configKey = "chests.pageTable" + floorNum + ".chest" + chestIdx;
-        ConfigurationSection sec = plugin.getConfig().getConfigurationSection(configKey);
-        if (sec == null) {
+        FixtureRegistry.Fixture fixture = fixtures.get(configKey, player.getWorld());
+        if (fixture == null) {
             plugin.getLogger().warning("[PageTable] No config for " + configKey);
             return;
         }
-
-        String worldName = sec.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        Block block = loc.getBlock();
+        Block block = fixture.getBlock();
 
         plugin.getLogger().info("[PageTable] placePteMap floor=" + floorNum + " chest=" + chestIdx
-            + " at (" + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ() + ") block=" + block.getType());
+            + " at (" + fixture.x + "," + fixture.y + "," + fixture.z + ") block=" + block.getType());
 
         if (!(block.getState() instanceof Chest chest)) {
             plugin.getLogger().warning("[PageTable] No chest at " + configKey
@@ -431,52 +432,14 @@ public class PageTableManager {
 
         Inventory inv = chest.getInventory();
         inv.clear();
-        inv.setItem(13, buildPteMapItem(floorNum, chestIdx, pteData, isCorrect));
+        inv.setItem(13, buildPteMapItem(player, floorNum, chestIdx, pteData, isCorrect));
     }
 
-    @SuppressWarnings("deprecation")
-    private ItemStack buildPteMapItem(int floorNum, int chestIdx, String pteData, boolean isCorrect) {
-        MapView view = Bukkit.createMap(Bukkit.getWorlds().get(0));
-        view.setScale(MapView.Scale.CLOSEST);
-        view.setTrackingPosition(false);
-        view.setUnlimitedTracking(false);
-        view.getRenderers().clear();
-
-        final byte bg = MapPalette.matchColor(new Color(10, 20, 40));
-        final byte accent = isCorrect
-            ? MapPalette.matchColor(new Color(30, 150, 80))  // green for correct
-            : MapPalette.matchColor(new Color(150, 30, 30)); // red for fake
-
-        // Split PTE data into lines
-        String[] lines = pteData.split("\n");
-
-        view.addRenderer(new MapRenderer(false) {
-            @Override
-            public void render(MapView mapView, MapCanvas canvas, Player player) {
-                // Background
-                for (int x = 0; x < 128; x++)
-                    for (int y = 0; y < 128; y++)
-                        canvas.setPixel(x, y, bg);
-
-                // Accent bar at top
-                for (int x = 0; x < 128; x++) {
-                    canvas.setPixel(x, 0, accent);
-                    canvas.setPixel(x, 1, accent);
-                }
-
-                // Title - smaller font, tighter spacing
-                String title = "PT" + floorNum + " Chest" + chestIdx;
-                canvas.drawText(2, 2, MinecraftFont.Font, title);
-
-                // PTE data lines - reduced spacing to fit more content
-                int y = 14;
-                for (String line : lines) {
-                    if (y > 124) break;
-                    canvas.drawText(2, y, MinecraftFont.Font, safe(line));
-                    y += 10;  // Reduced from 12 to fit more lines
-                }
-            }
-        });
+    private ItemStack buildPteMapItem(Player player, int floorNum, int chestIdx, String pteData, boolean isCorrect) {
+        // One map ID per floor chest per player; PTE updates redraw the map the player already holds
+        MapView view = mapViews.acquire("pte" + floorNum + "-" + chestIdx, player.getUniqueId().toString(),
+            player.getWorld());
+        composer.compose(RasterRenderer.attach(view), () -> drawPte(floorNum, chestIdx, pteData, isCorrect));
 
         ItemStack item = new ItemStack(Material.FILLED_MAP);
         MapMeta meta = (MapMeta) item.getItemMeta();
@@ -488,6 +451,25 @@ public class PageTableManager {
         return item;
     }
 
+    /** The PTE map image; pure, so it can run on a composer thread. */
+    private static MapRaster drawPte(int floorNum, int chestIdx, String pteData, boolean isCorrect) {
+        MapRaster raster = new MapRaster()
+            .fill(BG)
+            // Accent bar at top
+            .fillRows(0, 1, isCorrect ? CORRECT : FAKE)
+            // Title - smaller font, tighter spacing
+            .drawText(2, 2, "PT" + floorNum + " Chest" + chestIdx);
+
+        // PTE data lines - reduced spacing to fit more content
+        int y = 14;
+        for (String line : pteData.split("\n")) {
+            if (y > 124) break;
+            raster.drawText(2, y, safe(line));
+            y += 10;  // Reduced from 12 to fit more lines
+        }
+        return raster;
+    }
+
     // ── Helpers ───────────────────────────────────────────────────────────────
 
     private int parseVpnHex(String vpnHex) {
@@ -498,12 +480,7 @@ public class PageTableManager {
         }
     }
 
-    private String safe(String s) {
-        if (s == null) return "";
-        StringBuilder sb = new StringBuilder(s.length());
-        for (char c : s.toCharArray()) {
-            sb.append(MinecraftFont.Font.getChar(c) != null ? c : '?');
-        }
-        return sb.toString();
+    private static String safe(String s) {
+        return MapRaster.safe(s);
     }
 }
@@ -2,16 +2,14 @@ package com.oscity.mechanics;
 
 import com.oscity.journey.Journey;
 import com.oscity.session.JourneyTracker;
+import com.oscity.world.FixtureRegistry;
+import com.oscity.world.SignWriter;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.Chest;
-import org.bukkit.block.Sign;
-import org.bukkit.block.sign.Side;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -29,10 +27,14 @@ import java.util.List;
 public class RAMRoomManager {
 
     private final JavaPlugin plugin;
+    private final FixtureRegistry fixtures;
+    private final SignWriter signs;
     private final JourneyTracker tracker;
 
-    public RAMRoomManager(JavaPlugin plugin, JourneyTracker tracker) {
+    public RAMRoomManager(JavaPlugin plugin, FixtureRegistry fixtures, SignWriter signs, JourneyTracker tracker) {
         this.plugin = plugin;
+        this.fixtures = fixtures;
+        this.signs = signs;
         this.tracker = tracker;
     }
 
@@ -49,11 +51,11 @@ public class RAMRoomManager {
 
         // Update frames 0-7
         for (int i = 0; i < 8; i++) {
-            updateFrameSign(i + 1, states[i], journey);
+            updateFrameSign(player.getWorld(), i + 1, states[i], journey);
         }
 
         // Update zero frame (frame 9)
-        updateZeroFrameSign(states[8]);
+        updateZeroFrameSign(player.getWorld(), states[8]);
     }
 
     /**
@@ -69,7 +71,7 @@ public class RAMRoomManager {
         FrameState[] states = getFrameStates(journey, phase);
 
         // Update only zero frame (frame 9)
-        updateZeroFrameSign(states[8]);
+        updateZeroFrameSign(player.getWorld(), states[8]);
     }
 
     /**
@@ -291,60 +293,55 @@ public class RAMRoomManager {
 
     // ── Sign update helpers ───────────────────────────────────────────────────
 
-    private void updateFrameSign(int frameNum, FrameState state, Journey journey) {
-        ConfigurationSection sec = plugin.getConfig()
-            .getConfigurationSection("signs.ramRoom.frame" + frameNum);
-        if (sec == null) {
+    private void updateFrameSign(World world, int frameNum, FrameState state, Journey journey) {
+        FixtureRegistry.Fixture sign = fixtures.get("signs.ramRoom.frame" + frameNum, world);
+        if (sign == null) {
             plugin.getLogger().warning("[RAMRoom] No config for signs.ramRoom.frame" + frameNum);
             return;
         }
 
-        updateSign(sec, "Frame " + state.pfn + ":", state.process, state.status, "");
+        updateSign(sign, "Frame " + state.pfn + ":", state.process, state.status, "");
 
-        ConfigurationSection chestSec = plugin.getConfig()
-            .getConfigurationSection("chests.ramRoom.chest" + frameNum);
+        FixtureRegistry.Fixture chest = fixtures.get("chests.ramRoom.chest" + frameNum, world);
         if ("FREE".equals(state.process)) {
-            clearChest(chestSec);
+            clearChest(chest);
         } else {
-            placeBookInChest(chestSec, buildRamFrameBook(state, journey));
+            placeBookInChest(chest, buildRamFrameBook(state, journey));
         }
     }
 
-    private void updateZeroFrameSign(FrameState state) {
+    private void updateZeroFrameSign(World world, FrameState state) {
         // Update zeroFrame1 sign (top at y=-58) - Frame label and process name
-        ConfigurationSection sec1 = plugin.getConfig()
-            .getConfigurationSection("signs.ramRoom.zeroFrame1");
-        if (sec1 != null) {
-            updateSign(sec1, "Frame " + state.pfn + ":", state.process, "", "");
+        FixtureRegistry.Fixture sign1 = fixtures.get("signs.ramRoom.zeroFrame1", world);
+        if (sign1 != null) {
+            updateSign(sign1, "Frame " + state.pfn + ":", state.process, "", "");
         } else {
             plugin.getLogger().warning("[RAMRoom] No config for signs.ramRoom.zeroFrame1");
         }
 
         // Update zeroFrame2 sign (bottom at y=-59) - Status text
         // Split long status text across multiple lines to fit on wall sign
-        ConfigurationSection sec2 = plugin.getConfig()
-            .getConfigurationSection("signs.ramRoom.zeroFrame2");
-        if (sec2 != null) {
+        FixtureRegistry.Fixture sign2 = fixtures.get("signs.ramRoom.zeroFrame2", world);
+        if (sign2 != null) {
             String status = state.status;
 
             // Split status like "(shared by Process 2, 4)" across 2 lines
             if (status != null && status.startsWith("(shared by")) {
                 // Extract the part after "(shared by " and split across lines
                 String sharedPart = status.substring("(shared by ".length());
-                updateSign(sec2, "(shared by", sharedPart, "", "");
+                updateSign(sign2, "(shared by", sharedPart, "", "");
             } else {
-                updateSign(sec2, status, "", "", "");
+                updateSign(sign2, status, "", "", "");
             }
         } else {
             plugin.getLogger().warning("[RAMRoom] No config for signs.ramRoom.zeroFrame2");
         }
 
-        ConfigurationSection chestSec = plugin.getConfig()
-            .getConfigurationSection("chests.ramRoom.zeroChest");
+        FixtureRegistry.Fixture chest = fixtures.get("chests.ramRoom.zeroChest", world);
         if ("FREE".equals(state.process)) {
-            clearChest(chestSec);
+            clearChest(chest);
         } else {
-            placeBookInChest(chestSec, buildZeroFrameBook());
+            placeBookInChest(chest, buildZeroFrameBook());
         }
     }
 
@@ -361,14 +358,13 @@ public class RAMRoomManager {
             return;
         }
 
-        ConfigurationSection chestSec = plugin.getConfig()
-            .getConfigurationSection("chests.ramRoom.chest" + frameNum);
-        if (chestSec == null) {
+        FixtureRegistry.Fixture chest = fixtures.get("chests.ramRoom.chest" + frameNum, player.getWorld());
+        if (chest == null) {
             plugin.getLogger().warning("[RAMRoom] placeBookInFrameChest: No config for chest" + frameNum);
             return;
         }
 
-        placeBookInChest(chestSec, buildProcess5WritableBook());
+        placeBookInChest(chest, buildProcess5WritableBook());
     }
 
     private ItemStack buildProcess5WritableBook() {
@@ -391,29 +387,18 @@ public class RAMRoomManager {
         return book;
     }
 
-    private void placeBookInChest(ConfigurationSection sec, ItemStack book) {
-        if (sec == null) {
-            plugin.getLogger().warning("[RAMRoom] placeBookInChest: sec is null");
+    private void placeBookInChest(FixtureRegistry.Fixture fixture, ItemStack book) {
+        if (fixture == null) {
+            plugin.getLogger().warning("[RAMRoom] placeBookInChest: no chest config");
             return;
         }
         if (book == null || book.getType() == Material.AIR) {
             return;
         }
-        String worldName = sec.getString("world");
-        if (worldName == null) {
-            plugin.getLogger().warning("[RAMRoom] placeBookInChest: No world in config");
-            return;
-        }
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) {
-            plugin.getLogger().warning("[RAMRoom] placeBookInChest: World not found: " + worldName);
-            return;
-        }
 
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        Block block = loc.getBlock();
+        Block block = fixture.getBlock();
         if (!(block.getState() instanceof Chest chest)) {
-            plugin.getLogger().warning("[RAMRoom] placeBookInChest: No chest at config path (found: " + block.getType() + ")");
+            plugin.getLogger().warning("[RAMRoom] placeBookInChest: No chest at " + fixture.path + " (found: " + block.getType() + ")");
             return;
         }
 
@@ -491,44 +476,16 @@ public class RAMRoomManager {
         return book;
     }
 
-    private void clearChest(ConfigurationSection sec) {
-        if (sec == null) return;
-        String worldName = sec.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        Block block = loc.getBlock();
+    private void clearChest(FixtureRegistry.Fixture fixture) {
+        if (fixture == null) return;
+        Block block = fixture.getBlock();
         if (block.getState() instanceof Chest chest) {
             chest.getInventory().clear();
         }
     }
 
-    private void updateSign(ConfigurationSection sec, String line1, String line2, String line3, String line4) {
-        String worldName = sec.getString("world");
-        if (worldName == null) {
-            plugin.getLogger().warning("[RAMRoom] updateSign: No world in config for " + sec.getCurrentPath());
-            return;
-        }
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) {
-            plugin.getLogger().warning("[RAMRoom] updateSign: World not found: " + worldName);
-            return;
-        }
-
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        Block block = loc.getBlock();
-        if (!(block.getState() instanceof Sign sign)) {
-            plugin.getLogger().warning("[RAMRoom] updateSign: No sign at " + sec.getCurrentPath() + " (found: " + block.getType() + ")");
-            return;
-        }
-
-        sign.getSide(Side.FRONT).line(0, Component.text(line1));
-        sign.getSide(Side.FRONT).line(1, Component.text(line2));
-        sign.getSide(Side.FRONT).line(2, Component.text(line3));
-        sign.getSide(Side.FRONT).line(3, Component.text(line4));
-        sign.update(true);
+    private void updateSign(FixtureRegistry.Fixture fixture, String line1, String line2, String line3, String line4) {
+        signs.write(fixture.getBlock(), line1, line2, line3, line4);
     }
 
     // ── Inner class ───────────────────────────────────────────────────────────
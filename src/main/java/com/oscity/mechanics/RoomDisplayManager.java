@@ -1,80 +1,110 @@
 package com.oscity.mechanics;
 
+import com.oscity.world.PlayerRoomChangeEvent;
+import com.oscity.world.PlayerRoomTracker;
 import com.oscity.world.RoomRegistry;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
-public class RoomDisplayManager {
+/**
+ * Shows the current room's title as a bossbar.
+ *
+ * Bars are updated from {@link PlayerRoomChangeEvent}, so nothing runs
+ * while players stand still. There is one shared BossBar per room title;
+ * a player is simply shown the bar for their room. The repeating task is
+ * only a slow safety net that re-checks every player's room (catching
+ * teleports and joins, which are not moves) and fixes any bar that drifted.
+ */
+public class RoomDisplayManager implements Listener {
 
     private final JavaPlugin plugin;
-    private final RoomRegistry roomRegistry;
-    private final int intervalTicks;
+    private final PlayerRoomTracker roomTracker;
+    private final int reconcileTicks;
     private final boolean clearWhenOutside;
 
-    private final Map<UUID, BossBar> bars = new HashMap<>();
-    private final Map<UUID, String> lastRoom = new HashMap<>();
+    /** One bar per room title, shared by everyone in that room. */
+    private final Map<String, BossBar> barsByTitle = new HashMap<>();
+    /** Title of the bar each player is currently shown. */
+    private final Map<UUID, String> shown = new HashMap<>();
 
-    public RoomDisplayManager(JavaPlugin plugin, RoomRegistry roomRegistry, int intervalTicks, boolean clearWhenOutside) {
+    public RoomDisplayManager(JavaPlugin plugin, PlayerRoomTracker roomTracker, int reconcileTicks, boolean clearWhenOutside) {
         this.plugin = plugin;
-        this.roomRegistry = roomRegistry;
-        this.intervalTicks = intervalTicks;
+        this.roomTracker = roomTracker;
+        this.reconcileTicks = reconcileTicks;
         this.clearWhenOutside = clearWhenOutside;
     }
 
     public void start() {
-        Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            for (Player p : Bukkit.getOnlinePlayers()) {
-                UUID id = p.getUniqueId();
-                String roomTitle = roomRegistry.getRoomTitleAt(p.getLocation());
-                String prev = lastRoom.get(id);
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        Bukkit.getScheduler().runTaskTimer(plugin, this::reconcile, reconcileTicks, reconcileTicks);
+    }
 
-                if (roomTitle == null) {
-                    if (clearWhenOutside && prev != null) {
-                        BossBar bar = bars.remove(id);
-                        if (bar != null) p.hideBossBar(bar);
-                        lastRoom.remove(id);
-                    }
-                    continue;
-                }
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRoomChange(PlayerRoomChangeEvent event) {
+        if (event.isTitleChange()) {
+            show(event.getPlayer(), event.getToTitle());
+        }
+    }
 
-                // Create bossbar if missing
-                BossBar bar = bars.get(id);
-                if (bar == null) {
-                    bar = BossBar.bossBar(
-                            Component.text(roomTitle, NamedTextColor.AQUA),
-                            1.0f,
-                            BossBar.Color.BLUE,
-                            BossBar.Overlay.PROGRESS
-                    );
-                    bars.put(id, bar);
-                    p.showBossBar(bar);
-                }
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        String title = shown.remove(player.getUniqueId());
+        if (title != null) player.hideBossBar(barsByTitle.get(title));
+    }
 
-                // Update only if changed (less flicker)
-                if (!roomTitle.equals(prev)) {
-                    bar.name(Component.text(roomTitle, NamedTextColor.AQUA));
-                    lastRoom.put(id, roomTitle);
-                }
-            }
-        }, 0L, intervalTicks);
+    /** Safety net: refresh each player's room and make their bar match it. */
+    private void reconcile() {
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            // Fires PlayerRoomChangeEvent (and so show()) if the room changed without a move
+            roomTracker.update(p, p.getLocation());
+            RoomRegistry.Room room = roomTracker.getRoom(p);
+            show(p, room != null ? room.title : null);
+        }
+    }
 
-        // Clean up when players leave
-        Bukkit.getPluginManager().registerEvents(new org.bukkit.event.Listener() {
-            @org.bukkit.event.EventHandler
-            public void onQuit(org.bukkit.event.player.PlayerQuitEvent e) {
-                UUID id = e.getPlayer().getUniqueId();
-                BossBar bar = bars.remove(id);
-                if (bar != null) e.getPlayer().hideBossBar(bar);
-                lastRoom.remove(id);
+    private void show(Player player, String roomTitle) {
+        UUID id = player.getUniqueId();
+        String current = shown.get(id);
+
+        if (roomTitle == null) {
+            // Outside every room: either clear, or keep showing the last room
+            if (clearWhenOutside && current != null) {
+                player.hideBossBar(barsByTitle.get(current));
+                shown.remove(id);
             }
-        }, plugin);
+            return;
+        }
+        if (roomTitle.equals(current)) return;
+
+        if (current != null) player.hideBossBar(barsByTitle.get(current));
+        player.showBossBar(barFor(roomTitle));
+        shown.put(id, roomTitle);
+    }
+
+    private BossBar barFor(String roomTitle) {
+        BossBar bar = barsByTitle.get(roomTitle);
+        if (bar == null) {
+            bar = BossBar.bossBar(
+                    Component.text(roomTitle, NamedTextColor.AQUA),
+                    1.0f,
+                    BossBar.Color.BLUE,
+                    BossBar.Overlay.PROGRESS
+            );
+            barsByTitle.put(roomTitle, bar);
+        }
+        return bar;
     }
 }
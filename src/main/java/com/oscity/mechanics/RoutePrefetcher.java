@@ -0,0 +1,268 @@
+package com.oscity.mechanics;
+
+import com.oscity.journey.Journey;
+import com.oscity.session.JourneyTracker;
+import com.oscity.world.LocationRegistry;
+import com.oscity.world.PlayerRoomChangeEvent;
+import com.oscity.world.RoomRegistry;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Loads the chunks around a player's likely next teleport destinations
+ * before they press the button, so the teleport lands in a warm chunk.
+ *
+ * The next destinations come from two places:
+ *   - the tpButtons graph: every button inside the player's current room
+ *     is an edge to its destination;
+ *   - the player's phase, for the teleports ChoiceButtonHandler makes in
+ *     code (see {@link #NEXT_BY_PHASE}), narrowed by their journey.
+ *
+ * Each destination's chunks are loaded with getChunkAtAsync and then held
+ * with a plugin chunk ticket. Tickets are counted per chunk, since several
+ * players may be heading to the same room; a chunk's ticket is removed
+ * when no player's route includes it any more. The route is recomputed on
+ * every room change, so a player who has moved on releases what they no
+ * longer need.
+ *
+ * Main thread only.
+ */
+public class RoutePrefetcher implements Listener {
+
+    /**
+     * Destinations ChoiceButtonHandler teleports to from each phase.
+     * Keep in step with the teleportPlayer calls there.
+     */
+    private static final Map<String, List<String>> NEXT_BY_PHASE = new HashMap<>();
+    static {
+        NEXT_BY_PHASE.put("terminal_spawn",                     List.of("tlbSpawn"));
+        NEXT_BY_PHASE.put("terminal_path_select",               List.of("tlbSpawn"));
+        NEXT_BY_PHASE.put("terminal_journey_chosen",            List.of("tlbSpawn"));
+        NEXT_BY_PHASE.put("tlb_hit_quiz_done",                  List.of("ramRoom"));
+        NEXT_BY_PHASE.put("calculator_from_tlb_done",           List.of("tlbSpawn"));
+        NEXT_BY_PHASE.put("calculator_from_lazy_loading_done",  List.of("lazyLoadingRoom"));
+        NEXT_BY_PHASE.put("lazy_loading_entered",               List.of("calculatorRoom"));
+        NEXT_BY_PHASE.put("lazy_loading_returned",              List.of("diskRoom"));
+        NEXT_BY_PHASE.put("acquired_pte",                       List.of("permissionChamber"));
+        NEXT_BY_PHASE.put("permission_decision",                List.of("ramRoom", "cowRoom"));
+        NEXT_BY_PHASE.put("page_fault_type",                    List.of("diskRoom"));
+        NEXT_BY_PHASE.put("segfault_end",                       List.of("endTerminal"));
+        NEXT_BY_PHASE.put("lazy_alloc_cow",                     List.of("cowRoom"));
+        NEXT_BY_PHASE.put("lazy_alloc_before_tp",               List.of("cowRoom"));
+        NEXT_BY_PHASE.put("cow_decision_after",                 List.of("ramRoom"));
+        NEXT_BY_PHASE.put("disk_swap_retrieval_after_book",     List.of("ramRoom"));
+        NEXT_BY_PHASE.put("disk_lazy_loading_after_book",       List.of("ramRoom"));
+        NEXT_BY_PHASE.put("ram_disk_lazy_loading",              List.of("swapDistrict"));
+        NEXT_BY_PHASE.put("ram_after_cow_alloc",                List.of("swapDistrict"));
+        NEXT_BY_PHASE.put("swap_after_eviction",                List.of("ramRoom"));
+        NEXT_BY_PHASE.put("ram_before_finish",                  List.of("endTerminal"));
+        NEXT_BY_PHASE.put("ram_finish",                         List.of("endTerminal"));
+        NEXT_BY_PHASE.put("end_terminal",                       List.of("initialSpawn"));
+    }
+
+    private final JavaPlugin plugin;
+    private final LocationRegistry locationRegistry;
+    private final JourneyTracker journeyTracker;
+    private final int radius;
+
+    /** Room key → destinations of the tpButtons inside it. */
+    private final Map<String, Set<String>> nextByRoom = new HashMap<>();
+    /** Chunks each player's route currently holds. */
+    private final Map<UUID, Held> held = new HashMap<>();
+    /** World → chunk key → number of players whose route includes it. */
+    private final Map<World, Map<Long, Integer>> refs = new HashMap<>();
+
+    private static final class Held {
+        final World world;
+        final Set<Long> chunks = new HashSet<>();
+
+        Held(World world) {
+            this.world = world;
+        }
+    }
+
+    public RoutePrefetcher(JavaPlugin plugin, RoomRegistry roomRegistry, LocationRegistry locationRegistry,
+                           JourneyTracker journeyTracker, int radius) {
+        this.plugin = plugin;
+        this.locationRegistry = locationRegistry;
+        this.journeyTracker = journeyTracker;
+        this.radius = Math.max(0, radius);
+        loadButtonGraph(roomRegistry);
+    }
+
+    public void register() {
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    /** Build room → destination edges from the tpButtons section. */
+    private void loadButtonGraph(RoomRegistry roomRegistry) {
+        ConfigurationSection tpButtons = plugin.getConfig().getConfigurationSection("tpButtons");
+        if (tpButtons == null) return;
+
+        int edges = 0;
+        for (String key : tpButtons.getKeys(false)) {
+            ConfigurationSection btn = tpButtons.getConfigurationSection(key);
+            if (btn == null) continue;
+            World world = Bukkit.getWorld(btn.getString("world", ""));
+            String destination = btn.getString("destination");
+            if (world == null || destination == null) continue;
+
+            RoomRegistry.Room room = roomRegistry.getRoomAt(world, btn.getInt("x"), btn.getInt("y"), btn.getInt("z"));
+            if (room == null) continue;
+            if (nextByRoom.computeIfAbsent(room.key, k -> new LinkedHashSet<>()).add(destination)) edges++;
+        }
+        plugin.getLogger().info("[Prefetch] " + edges + " teleport edges across " + nextByRoom.size() + " rooms");
+    }
+
+    // ── Events ────────────────────────────────────────────────────────────────
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRoomChange(PlayerRoomChangeEvent event) {
+        // MONITOR: RoomChangeListener has already advanced the phase for this room
+        RoomRegistry.Room room = event.getTo();
+        refresh(event.getPlayer(), room != null ? room.key : null);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        // New and resumed players are teleported a few ticks after joining
+        refresh(event.getPlayer(), null);
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        Held route = held.remove(event.getPlayer().getUniqueId());
+        if (route != null) {
+            for (long chunk : route.chunks) release(route.world, chunk);
+        }
+    }
+
+    // ── Route ─────────────────────────────────────────────────────────────────
+
+    /** Recompute the player's likely next destinations and hold exactly their chunks. */
+    public void refresh(Player player, String roomKey) {
+        World world = player.getWorld();
+        Set<Long> wanted = new HashSet<>();
+        for (String destination : nextDestinations(player, roomKey)) {
+            Location loc = locationRegistry.get(destination, world);
+            if (loc == null) continue;
+            int cx = loc.getBlockX() >> 4;
+            int cz = loc.getBlockZ() >> 4;
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    wanted.add(chunkKey(cx + dx, cz + dz));
+                }
+            }
+        }
+
+        Held route = held.get(player.getUniqueId());
+        if (route != null && !route.world.equals(world)) {
+            // Moved to another instance: nothing held in the old world is on the route
+            for (long chunk : route.chunks) release(route.world, chunk);
+            route = null;
+        }
+        if (route == null) {
+            if (wanted.isEmpty()) {
+                held.remove(player.getUniqueId());
+                return;
+            }
+            route = new Held(world);
+            held.put(player.getUniqueId(), route);
+        }
+
+        for (Iterator<Long> it = route.chunks.iterator(); it.hasNext(); ) {
+            long chunk = it.next();
+            if (wanted.contains(chunk)) continue;
+            it.remove();
+            release(world, chunk);
+        }
+        for (long chunk : wanted) {
+            if (route.chunks.add(chunk)) acquire(world, chunk);
+        }
+    }
+
+    private Set<String> nextDestinations(Player player, String roomKey) {
+        Set<String> next = new LinkedHashSet<>();
+        String phase = journeyTracker.getPhase(player);
+        if (phase == null) {
+            next.add("initialSpawn");
+        } else {
+            List<String> byPhase = NEXT_BY_PHASE.get(phase);
+            if (byPhase != null) next.addAll(byPhase);
+        }
+        if (roomKey != null) {
+            Set<String> byRoom = nextByRoom.get(roomKey);
+            if (byRoom != null) next.addAll(byRoom);
+        }
+
+        // The permission chamber fans out to every exit; the journey decides which one is used
+        Journey journey = journeyTracker.getJourney(player);
+        if (journey != null && journey.pageFaultType == null) {
+            if (!journey.involvesCow()) next.remove("cowRoom");
+            if (!journey.involvesSwap()) next.remove("diskRoom");
+        }
+        return next;
+    }
+
+    // ── Chunk tickets ─────────────────────────────────────────────────────────
+
+    private void acquire(World world, long chunk) {
+        Map<Long, Integer> counts = refs.computeIfAbsent(world, w -> new HashMap<>());
+        if (counts.merge(chunk, 1, Integer::sum) > 1) return;
+
+        int cx = (int) (chunk >> 32);
+        int cz = (int) chunk;
+        world.getChunkAtAsync(cx, cz).thenAccept(loaded -> {
+            // Still wanted once the load finished? (runs on the main thread)
+            Map<Long, Integer> now = refs.get(world);
+            if (now != null && now.containsKey(chunk)) {
+                world.addPluginChunkTicket(cx, cz, plugin);
+            }
+        });
+    }
+
+    private void release(World world, long chunk) {
+        Map<Long, Integer> counts = refs.get(world);
+        if (counts == null) return;
+        Integer count = counts.get(chunk);
+        if (count == null) return;
+        if (count > 1) {
+            counts.put(chunk, count - 1);
+            return;
+        }
+        counts.remove(chunk);
+        if (counts.isEmpty()) refs.remove(world);
+        world.removePluginChunkTicket((int) (chunk >> 32), (int) chunk, plugin);
+    }
+
+    /** Drop every ticket this plugin holds (call from onDisable). */
+    public void shutdown() {
+        for (World world : refs.keySet()) {
+            world.removePluginChunkTickets(plugin);
+        }
+        refs.clear();
+        held.clear();
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -4,16 +4,13 @@ import com.oscity.OSCity;
 import com.oscity.content.DialogueManager;
 import com.oscity.mode.PlayerMode;
 import com.oscity.session.JourneyTracker;
-import net.kyori.adventure.text.Component;
+import com.oscity.world.FixtureRegistry;
+import com.oscity.world.SignWriter;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.Block;
-import org.bukkit.block.Sign;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.Lightable;
-import org.bukkit.block.sign.Side;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import java.util.HashMap;
 import java.util.Map;
@@ -34,6 +31,8 @@ import java.util.UUID;
 public class SwapClockManager {
 
     private final OSCity plugin;
+    private final FixtureRegistry fixtures;
+    private final SignWriter signs;
     private final JourneyTracker tracker;
     private final DialogueManager dialogue;
 
@@ -52,8 +51,11 @@ public class SwapClockManager {
         }
     }
 
-    public SwapClockManager(OSCity plugin, JourneyTracker tracker, DialogueManager dialogue) {
+    public SwapClockManager(OSCity plugin, FixtureRegistry fixtures, SignWriter signs,
+                            JourneyTracker tracker, DialogueManager dialogue) {
         this.plugin   = plugin;
+        this.fixtures = fixtures;
+        this.signs    = signs;
         this.tracker  = tracker;
         this.dialogue = dialogue;
     }
@@ -85,12 +87,12 @@ public class SwapClockManager {
                 String pfnHex = "0x" + Integer.toHexString(i).toUpperCase();
                 if (i == victimFrame) {
                     // Victim frame: torch OFF, sign shows VICTIM
-                    setTorchLit(i, false);
-                    updateFrameSign(i, pfnHex, "VICTIM!", "Press the", "button!");
+                    setTorchLit(player.getWorld(), i, false);
+                    updateFrameSign(player.getWorld(), i, pfnHex, "VICTIM!", "Press the", "button!");
                 } else {
                     // Other frames: torch ON (were recently accessed)
-                    setTorchLit(i, true);
-                    updateFrameSign(i, pfnHex, "USE_BIT=1 (ON)", "", "");
+                    setTorchLit(player.getWorld(), i, true);
+                    updateFrameSign(player.getWorld(), i, pfnHex, "USE_BIT=1 (ON)", "", "");
                 }
             }
             state.roundTwoStarted = true;
@@ -98,13 +100,13 @@ public class SwapClockManager {
         } else {
             // Round 1: Light all 6 torches (USE BIT = ON)
             for (int i = 1; i <= 6; i++) {
-                setTorchLit(i, true);
+                setTorchLit(player.getWorld(), i, true);
             }
 
             // Set each frame sign: PFN label + "USE BIT: ON"
             for (int i = 1; i <= 6; i++) {
                 String pfnHex = "0x" + Integer.toHexString(i).toUpperCase();
-                updateFrameSign(i, pfnHex, "USE_BIT=1 (ON)", "", "");
+                updateFrameSign(player.getWorld(), i, pfnHex, "USE_BIT=1 (ON)", "", "");
             }
         }
     }
@@ -124,7 +126,7 @@ public class SwapClockManager {
         if ("swap_victim_found".equals(tracker.getPhase(player)) && state != null && frameNum == state.victimFrameNum) {
             // Player pressed victim button again - complete swap
             states.remove(player.getUniqueId());
-            updateFrameSign(frameNum, pfnHex, "Swapped out", "to disk", "");
+            updateFrameSign(player.getWorld(), frameNum, pfnHex, "Swapped out", "to disk", "");
             tracker.setPhase(player, "swap_after_eviction");
             player.sendMessage(plugin.getConfigManager().getMessage("clock.evicted_to_swap", "{pfn}", pfnHex));
             player.sendMessage(plugin.getConfigManager().getMessage("system.frame_swapped_out",
@@ -141,13 +143,13 @@ public class SwapClockManager {
         
         if (state == null) return false;
 
-        if (isTorchLit(frameNum)) {
+        if (isTorchLit(player.getWorld(), frameNum)) {
             // ── USE BIT is ON ─────────────────────────────────────────────────
             if (state.roundTwoStarted) {
                 // Round 2: frame was recently used → not the victim
                 // Turn off torch to show player checked this frame
-                setTorchLit(frameNum, false);
-                updateFrameSign(frameNum, pfnHex, "USE_BIT=0 (OFF)", "(checked)", "");
+                setTorchLit(player.getWorld(), frameNum, false);
+                updateFrameSign(player.getWorld(), frameNum, pfnHex, "USE_BIT=0 (OFF)", "(checked)", "");
                 player.sendMessage(plugin.getConfigManager().getMessage("clock.recently_accessed", "{pfn}", pfnHex));
             } else {
                 // Round 1: flip USE BIT OFF (give second chance)
@@ -156,8 +158,8 @@ public class SwapClockManager {
                     player.sendMessage(plugin.getConfigManager().getMessage("clock.wrong_order", "{pfn}", expectedHex));
                     return true;
                 }
-                setTorchLit(frameNum, false);
-                updateFrameSign(frameNum, pfnHex, "USE_BIT=0 (OFF)", "(2nd chance)", "");
+                setTorchLit(player.getWorld(), frameNum, false);
+                updateFrameSign(player.getWorld(), frameNum, pfnHex, "USE_BIT=0 (OFF)", "(2nd chance)", "");
                 player.sendMessage(plugin.getConfigManager().getMessage("clock.use_bit_flipped", "{pfn}", pfnHex));
                 state.nextExpectedFrame++;
                 state.pressedCount++;
@@ -173,9 +175,9 @@ public class SwapClockManager {
                         for (int i = 1; i <= 6; i++) {
                             if (i != state.victimFrameNum) {
                                 plugin.getLogger().info("[SwapClock] Re-lighting torch " + i);
-                                setTorchLit(i, true);
+                                setTorchLit(player.getWorld(), i, true);
                                 String h = "0x" + Integer.toHexString(i).toUpperCase();
-                                updateFrameSign(i, h, "USE_BIT=1 (ON)", "", "");
+                                updateFrameSign(player.getWorld(), i, h, "USE_BIT=1 (ON)", "", "");
                             } else {
                                 plugin.getLogger().info("[SwapClock] Keeping torch " + i + " OFF (victim)");
                             }
@@ -197,7 +199,7 @@ public class SwapClockManager {
                 }
             } else if (frameNum == state.victimFrameNum) {
                 // Round 2, victim found! (First press - state is kept for second press)
-                updateFrameSign(frameNum, pfnHex, "VICTIM!", "Press the", "button again!");
+                updateFrameSign(player.getWorld(), frameNum, pfnHex, "VICTIM!", "Press the", "button again!");
                 tracker.setPhase(player, "swap_victim_found");
                 player.sendMessage(plugin.getConfigManager().getMessage("system.victim_confirmed", "{pfn}", pfnHex));
                 if (tracker.getMode(player) != PlayerMode.ADVENTURER)
@@ -216,21 +218,21 @@ public class SwapClockManager {
 
     // ── Torch helpers ─────────────────────────────────────────────────────────
 
-    private boolean isTorchLit(int frameNum) {
-        Location loc = getRedstoneLocation(frameNum);
-        if (loc == null) return false;
-        BlockData data = loc.getBlock().getBlockData();
+    private boolean isTorchLit(World world, int frameNum) {
+        FixtureRegistry.Fixture torch = getRedstone(world, frameNum);
+        if (torch == null) return false;
+        BlockData data = torch.getBlock().getBlockData();
         return data instanceof Lightable && ((Lightable) data).isLit();
     }
 
-    private void setTorchLit(int frameNum, boolean lit) {
-        Location loc = getRedstoneLocation(frameNum);
-        if (loc == null) {
+    private void setTorchLit(World world, int frameNum, boolean lit) {
+        FixtureRegistry.Fixture torch = getRedstone(world, frameNum);
+        if (torch == null) {
             plugin.getLogger().warning("[SwapClock] setTorchLit: No location for redstone" + frameNum);
             return;
         }
-        Block block = loc.getBlock();
-        plugin.getLogger().info("[SwapClock] setTorchLit: Frame " + frameNum + " at " + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ() + " - Block: " + block.getType() + " - Setting lit: " + lit);
+        Block block = torch.getBlock();
+        plugin.getLogger().info("[SwapClock] setTorchLit: Frame " + frameNum + " at " + torch.x + "," + torch.y + "," + torch.z + " - Block: " + block.getType() + " - Setting lit: " + lit);
         BlockData data = block.getBlockData();
         if (data instanceof Lightable lightable) {
             lightable.setLit(lit);
@@ -242,48 +244,23 @@ public class SwapClockManager {
         }
     }
 
-    private Location getRedstoneLocation(int frameNum) {
-        ConfigurationSection sec = plugin.getConfig()
-            .getConfigurationSection("redstone.redstone" + frameNum);
-        if (sec == null) {
+    private FixtureRegistry.Fixture getRedstone(World world, int frameNum) {
+        FixtureRegistry.Fixture torch = fixtures.get("redstone.redstone" + frameNum, world);
+        if (torch == null) {
             plugin.getLogger().warning("[SwapClock] No config for redstone.redstone" + frameNum);
-            return null;
         }
-        String worldName = sec.getString("world");
-        if (worldName == null) return null;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return null;
-        return new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
+        return torch;
     }
 
     // ── Sign helpers ──────────────────────────────────────────────────────────
 
-    private void updateFrameSign(int frameNum, String l1, String l2, String l3, String l4) {
-        ConfigurationSection sec = plugin.getConfig()
-            .getConfigurationSection("signs.swapDistrict.frame" + frameNum);
-        if (sec == null) {
+    private void updateFrameSign(World world, int frameNum, String l1, String l2, String l3, String l4) {
+        FixtureRegistry.Fixture fixture = fixtures.get("signs.swapDistrict.frame" + frameNum, world);
+        if (fixture == null) {
             plugin.getLogger().warning("[SwapClock] No sign config for swapDistrict.frame" + frameNum);
             return;
         }
-        String worldName = sec.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        Block block = loc.getBlock();
-
-        if (!(block.getState() instanceof Sign sign)) {
-            plugin.getLogger().warning("[SwapClock] No sign block at swapDistrict.frame" + frameNum
-                + " (" + block.getType() + ")");
-            return;
-        }
-
-        sign.getSide(Side.FRONT).line(0, Component.text(l1));
-        sign.getSide(Side.FRONT).line(1, Component.text(l2));
-        sign.getSide(Side.FRONT).line(2, Component.text(l3));
-        sign.getSide(Side.FRONT).line(3, Component.text(l4));
-        sign.update(true);
+        signs.write(fixture.getBlock(), l1, l2, l3, l4);
     }
 
     // ── Utilities ─────────────────────────────────────────────────────────────
@@ -1,29 +1,25 @@
 package com.oscity.mechanics;
 
 import com.oscity.journey.Journey;
+import com.oscity.map.MapComposer;
+import com.oscity.map.MapRaster;
+import com.oscity.map.MapViewPool;
+import com.oscity.map.RasterRenderer;
 import com.oscity.session.JourneyTracker;
+import com.oscity.world.FixtureRegistry;
+import com.oscity.world.SignWriter;
 import net.kyori.adventure.text.Component;
-import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.Chest;
-import org.bukkit.block.Sign;
-import org.bukkit.block.sign.Side;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.MapMeta;
-import org.bukkit.map.MapCanvas;
-import org.bukkit.map.MapPalette;
-import org.bukkit.map.MapRenderer;
 import org.bukkit.map.MapView;
-import org.bukkit.map.MinecraftFont;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -45,7 +41,15 @@ import java.util.Random;
 public class TLBRoomManager {
 
     private final JavaPlugin plugin;
+    private final FixtureRegistry fixtures;
+    private final SignWriter signs;
     private final JourneyTracker tracker;
+    private final MapViewPool mapViews;
+    private final MapComposer composer;
+
+    /** TLB entry map colours. */
+    private static final byte BG     = MapRaster.color(10, 20, 40);
+    private static final byte ACCENT = MapRaster.color(30, 80, 150);
 
     /** All 16 possible 4-bit VPN values in hex. */
     private static final String[] ALL_VPNS = {
@@ -53,9 +57,14 @@ public class TLBRoomManager {
         "0x8","0x9","0xA","0xB","0xC","0xD","0xE","0xF"
     };
 
-    public TLBRoomManager(JavaPlugin plugin, JourneyTracker tracker) {
+    public TLBRoomManager(JavaPlugin plugin, FixtureRegistry fixtures, SignWriter signs, MapViewPool mapViews,
+                          MapComposer composer, JourneyTracker tracker) {
         this.plugin  = plugin;
+        this.fixtures = fixtures;
+        this.signs = signs;
         this.tracker = tracker;
+        this.mapViews = mapViews;
+        this.composer = composer;
     }
 
     // ── Public API ────────────────────────────────────────────────────────────
@@ -97,7 +106,7 @@ public class TLBRoomManager {
                 entryPfn = fakePfnFor(entryVpn);
             }
             plugin.getLogger().info("[TLBRoom] Slot " + i + ": VPN=" + entryVpn + " PFN=" + entryPfn);
-            updateTLBSign(i, entryVpn);
+            updateTLBSign(player.getWorld(), i, entryVpn);
             placeTLBChestMap(i, entryVpn, entryPfn, player);
         }
     }
@@ -142,36 +151,18 @@ public class TLBRoomManager {
 
     // ── Sign update ───────────────────────────────────────────────────────────
 
-    private void updateTLBSign(int slotNum, String vpnHex) {
-        ConfigurationSection sec = plugin.getConfig()
-            .getConfigurationSection("signs.tlb.vpn" + slotNum);
-        if (sec == null) {
+    private void updateTLBSign(World world, int slotNum, String vpnHex) {
+        FixtureRegistry.Fixture fixture = fixtures.get("signs.tlb.vpn" + slotNum, world);
+        if (fixture == null) {
             plugin.getLogger().warning("[TLBRoom] No config for signs.tlb.vpn" + slotNum);
             return;
         }
-        String worldName = sec.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        Block block = loc.getBlock();
+        Block block = fixture.getBlock();
 
         plugin.getLogger().info("[TLBRoom] updateTLBSign slot=" + slotNum + " at ("
-            + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ() + ") block=" + block.getType());
-
-        if (!(block.getState() instanceof Sign sign)) {
-            plugin.getLogger().warning("[TLBRoom] No sign at signs.tlb.vpn" + slotNum
-                + " (" + block.getType() + ")");
-            return;
-        }
+            + fixture.x + "," + fixture.y + "," + fixture.z + ") block=" + block.getType());
 
-        String vpnBin = hexToBinary(vpnHex);
-        sign.getSide(Side.FRONT).line(0, Component.text("VPN: " + vpnBin));
-        sign.getSide(Side.FRONT).line(1, Component.text(""));
-        sign.getSide(Side.FRONT).line(2, Component.text(""));
-        sign.getSide(Side.FRONT).line(3, Component.text(""));
-        sign.update(true);
+        signs.write(block, "VPN: " + hexToBinary(vpnHex), "", "", "");
     }
 
     /** Convert hex string (e.g. "0x2") to 4-bit binary string. */
@@ -187,22 +178,15 @@ public class TLBRoomManager {
     // ── Chest map placement ───────────────────────────────────────────────────
 
     private void placeTLBChestMap(int slotNum, String vpnHex, String pfnHex, Player player) {
-        ConfigurationSection sec = plugin.getConfig()
-            .getConfigurationSection("chests.tlb.chest" + slotNum);
-        if (sec == null) {
+        FixtureRegistry.Fixture fixture = fixtures.get("chests.tlb.chest" + slotNum, player.getWorld());
+        if (fixture == null) {
             plugin.getLogger().warning("[TLBRoom] No config for chests.tlb.chest" + slotNum);
             return;
         }
-        String worldName = sec.getString("world");
-        if (worldName == null) return;
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) return;
-
-        Location loc = new Location(world, sec.getInt("x"), sec.getInt("y"), sec.getInt("z"));
-        Block block = loc.getBlock();
+        Block block = fixture.getBlock();
 
         plugin.getLogger().info("[TLBRoom] placeTLBChestMap slot=" + slotNum + " at ("
-            + loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ() + ") block=" + block.getType());
+            + fixture.x + "," + fixture.y + "," + fixture.z + ") block=" + block.getType());
 
         if (!(block.getState() instanceof Chest chest)) {
             plugin.getLogger().warning("[TLBRoom] No chest at chests.tlb.chest" + slotNum
@@ -217,42 +201,12 @@ public class TLBRoomManager {
 
     // ── Map item rendering ────────────────────────────────────────────────────
 
-    @SuppressWarnings("deprecation")
     private ItemStack buildTLBEntryMap(int slotNum, String vpnHex, String pfnHex, Player player) {
-        MapView view = Bukkit.createMap(player.getWorld());
-        view.setScale(MapView.Scale.CLOSEST);
-        view.setTrackingPosition(false);
-        view.setUnlimitedTracking(false);
-        view.getRenderers().clear();
-
-        final byte bg     = MapPalette.matchColor(new Color(10, 20, 40));
-        final byte accent = MapPalette.matchColor(new Color(30, 80, 150));
-        final String vpn  = safe(vpnHex);
-        final String pfn  = safe(pfnHex);
-
-        view.addRenderer(new MapRenderer(false) {
-            @Override
-            public void render(MapView mapView, MapCanvas canvas, Player p) {
-                // Background
-                for (int x = 0; x < 128; x++)
-                    for (int y = 0; y < 128; y++)
-                        canvas.setPixel(x, y, bg);
-
-                // Accent bars
-                for (int x = 0; x < 128; x++) {
-                    canvas.setPixel(x, 0,   accent);
-                    canvas.setPixel(x, 1,   accent);
-                    canvas.setPixel(x, 126, accent);
-                    canvas.setPixel(x, 127, accent);
-                }
-
-                // Content
-                canvas.drawText(3,  20, MinecraftFont.Font, "= TLB Entry =");
-                canvas.drawText(3,  46, MinecraftFont.Font, "VPN: " + vpn);
-                canvas.drawText(3,  64, MinecraftFont.Font, "PFN: " + pfn);
-                canvas.drawText(3,  82, MinecraftFont.Font, vpn + " -> " + pfn);
-            }
-        });
+        // Same map ID for this slot every time this player enters the room
+        MapView view = mapViews.acquire("tlb" + slotNum, player.getUniqueId().toString(), player.getWorld());
+
+        // Drawn once on a composer thread; the renderer only copies it to the canvas
+        composer.compose(RasterRenderer.attach(view), () -> drawTLBEntry(vpnHex, pfnHex));
 
         ItemStack item = new ItemStack(Material.FILLED_MAP);
         MapMeta meta = (MapMeta) item.getItemMeta();
@@ -264,15 +218,17 @@ public class TLBRoomManager {
         return item;
     }
 
-    // ── Helpers ───────────────────────────────────────────────────────────────
-
-    /** Replace characters unsupported by MinecraftFont with '?'. */
-    private String safe(String s) {
-        if (s == null) return "";
-        StringBuilder sb = new StringBuilder(s.length());
-        for (char c : s.toCharArray()) {
-            sb.append(MinecraftFont.Font.getChar(c) != null ? c : '?');
-        }
-        return sb.toString();
+    /** The TLB entry image; pure, so it can run on a composer thread. */
+    private static MapRaster drawTLBEntry(String vpnHex, String pfnHex) {
+        String vpn = MapRaster.safe(vpnHex);
+        String pfn = MapRaster.safe(pfnHex);
+        return new MapRaster()
+            .fill(BG)
+            .fillRows(0, 1, ACCENT)
+            .fillRows(126, 127, ACCENT)
+            .drawText(3,  20, "= TLB Entry =")
+            .drawText(3,  46, "VPN: " + vpn)
+            .drawText(3,  64, "PFN: " + pfn)
+            .drawText(3,  82, vpn + " -> " + pfn);
     }
 }
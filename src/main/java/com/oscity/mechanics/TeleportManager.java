@@ -1,7 +1,9 @@
 package com.oscity.mechanics;
 
 import com.oscity.session.JourneyTracker;
+import com.oscity.world.BlockPosIndex;
 import com.oscity.world.LocationRegistry;
+import com.oscity.world.WorldAliases;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
@@ -9,6 +11,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -16,18 +19,20 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TeleportManager implements Listener {
 
     private final JavaPlugin plugin;
     private final LocationRegistry locationRegistry;
+    private final WorldAliases aliases;
     private final JourneyTracker journeyTracker;
     private final boolean debugClicks; //TO BE DELETED: set to true to see what you click, until you're done with locations
 
-    // Map: button location → button data
-    private final Map<Location, TeleportButton> buttons = new HashMap<>();
+    // Button block → index into buttonData
+    private final BlockPosIndex buttons = new BlockPosIndex(64);
+    private final List<TeleportButton> buttonData = new ArrayList<>();
 
     private static class TeleportButton {
         String key;
@@ -41,9 +46,11 @@ public class TeleportManager implements Listener {
         }
     }
 
-    public TeleportManager(JavaPlugin plugin, LocationRegistry locationRegistry, JourneyTracker journeyTracker, boolean debugClicks) {
+    public TeleportManager(JavaPlugin plugin, LocationRegistry locationRegistry, WorldAliases aliases,
+                           JourneyTracker journeyTracker, boolean debugClicks) {
         this.plugin = plugin;
         this.locationRegistry = locationRegistry;
+        this.aliases = aliases;
         this.journeyTracker = journeyTracker;
         this.debugClicks = debugClicks;
         loadButtons();
@@ -54,6 +61,7 @@ public class TeleportManager implements Listener {
      */
     private void loadButtons() {
         buttons.clear();
+        buttonData.clear();
         
         ConfigurationSection tpButtons = plugin.getConfig().getConfigurationSection("tpButtons");
         if (tpButtons == null) {
@@ -81,7 +89,6 @@ public class TeleportManager implements Listener {
             int x = btn.getInt("x");
             int y = btn.getInt("y");
             int z = btn.getInt("z");
-            Location buttonLoc = new Location(world, x, y, z);
             
             // Get destination and message
             String destination = btn.getString("destination");
@@ -92,8 +99,15 @@ public class TeleportManager implements Listener {
             
             String message = btn.getString("message", "&aTeleported!");
             
-            // Store button data
-            buttons.put(buttonLoc, new TeleportButton(key, destination, message));
+            // Store button data (a later entry for the same block replaces the earlier one)
+            TeleportButton data = new TeleportButton(key, destination, message);
+            int existing = buttons.get(world, x, y, z);
+            if (existing != BlockPosIndex.NONE) {
+                buttonData.set(existing, data);
+            } else {
+                buttons.put(world, x, y, z, buttonData.size());
+                buttonData.add(data);
+            }
         }
         
         plugin.getLogger().info("Loaded " + buttons.size() + " teleport buttons from config.yml");
@@ -104,29 +118,20 @@ public class TeleportManager implements Listener {
         plugin.getLogger().info("TeleportManager registered.");
     }
 
-    private boolean sameBlock(Location a, Location b) {
-        return a != null && b != null
-                && a.getWorld() != null && b.getWorld() != null
-                && a.getWorld().equals(b.getWorld())
-                && a.getBlockX() == b.getBlockX()
-                && a.getBlockY() == b.getBlockY()
-                && a.getBlockZ() == b.getBlockZ();
-    }
-
     @EventHandler(ignoreCancelled = true)
     public void onPress(PlayerInteractEvent e) {
         if (e.getClickedBlock() == null) return;
 
-        Location clicked = e.getClickedBlock().getLocation();
-        Material type = e.getClickedBlock().getType();
+        Block clicked = e.getClickedBlock();
+        Material type = clicked.getType();
 
         // DEBUG TO BE DELETED: always tell you what you clicked (until you're done with locations)
         if (debugClicks) {
             e.getPlayer().sendMessage(Component.text(
                     "Clicked: " + type + " at " +
-                            clicked.getBlockX() + ", " + 
-                            clicked.getBlockY() + ", " + 
-                            clicked.getBlockZ(),
+                            clicked.getX() + ", " + 
+                            clicked.getY() + ", " + 
+                            clicked.getZ(),
                     NamedTextColor.YELLOW
             ));
         }
@@ -134,41 +139,38 @@ public class TeleportManager implements Listener {
         // Only handle buttons
         if (!type.name().endsWith("_BUTTON")) return;
         
-        // Check if this button is registered
-        for (Map.Entry<Location, TeleportButton> entry : buttons.entrySet()) {
-            if (sameBlock(clicked, entry.getKey())) {
-                TeleportButton button = entry.getValue();
-                Player player = e.getPlayer();
-
-                // Phase gate: block going to Calculator if already completed
-                if ("tlbToCalculator".equals(button.key)) {
-                    String phase = journeyTracker.getPhase(player);
-                    if (!"tlb_spawn".equals(phase)) {
-                        player.sendMessage("§cYou've already visited the Calculator Room. Make a hit or miss decision.");
-                        return;
-                    }
-                }
-
-                // Get destination location
-                Location destination = locationRegistry.get(button.destination);
-                if (destination == null) {
-                    e.getPlayer().sendMessage(Component.text(
-                        "§c[Error] Destination '" + button.destination + "' not found!", 
-                        NamedTextColor.RED
-                    ));
-                    return;
-                }
-                
-                // Teleport player
-                e.getPlayer().teleport(destination);
-                
-                // Send message (with color code support)
-                Component message = LegacyComponentSerializer.legacyAmpersand()
-                    .deserialize(button.message);
-                e.getPlayer().sendMessage(message);
-                
+        // Check if this button is registered (against the template world; instances share its buttons)
+        int buttonId = buttons.get(aliases.templateOf(clicked.getWorld()), clicked.getX(), clicked.getY(), clicked.getZ());
+        if (buttonId == BlockPosIndex.NONE) return;
+
+        TeleportButton button = buttonData.get(buttonId);
+        Player player = e.getPlayer();
+
+        // Phase gate: block going to Calculator if already completed
+        if ("tlbToCalculator".equals(button.key)) {
+            String phase = journeyTracker.getPhase(player);
+            if (!"tlb_spawn".equals(phase)) {
+                player.sendMessage("§cYou've already visited the Calculator Room. Make a hit or miss decision.");
                 return;
             }
         }
+
+        // Get destination location, in the player's own instance
+        Location destination = locationRegistry.get(button.destination, player.getWorld());
+        if (destination == null) {
+            e.getPlayer().sendMessage(Component.text(
+                "§c[Error] Destination '" + button.destination + "' not found!", 
+                NamedTextColor.RED
+            ));
+            return;
+        }
+        
+        // Teleport player (RoutePrefetcher has usually loaded the destination already)
+        e.getPlayer().teleportAsync(destination);
+        
+        // Send message (with color code support)
+        Component message = LegacyComponentSerializer.legacyAmpersand()
+            .deserialize(button.message);
+        e.getPlayer().sendMessage(message);
     }
 }
@@ -0,0 +1,220 @@
+package com.oscity.persistence;
+
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Study sink backed by an embedded H2 database (plugins/OSCity/study_h2.mv.db).
+ *
+ * Same tables and the same batching as the SQLite backend: events are
+ * queued by the main thread and committed in batches by a StudyWriteQueue
+ * writer, through one shared connection with cached prepared statements.
+ * Rollups, the journal and exports are SQLite-only.
+ *
+ * The H2 driver is loaded through plugin.yml's libraries section.
+ */
+public class H2StudySink implements StudySink {
+
+    private final StudyConnectionManager db;
+    private final StudySessionCounters counters;
+    private final StudyWriteQueue queue;
+
+    public H2StudySink(File databaseFile, int capacity, long flushIntervalMs, int maxBatch) throws SQLException {
+        try {
+            Class.forName("org.h2.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("H2 driver not on the classpath", e);
+        }
+        String url = "jdbc:h2:" + databaseFile.getAbsolutePath();
+        this.db = StudyConnectionManager.get(url);
+        this.counters = StudySessionCounters.forDatabase(url);
+        initializeTables();
+
+        this.queue = new StudyWriteQueue("StudyH2", this::writeBatch, capacity, flushIntervalMs, maxBatch);
+        queue.start();
+        System.out.println("[StudyDB] H2 sink ready: " + url);
+    }
+
+    private void initializeTables() throws SQLException {
+        db.execute(c -> {
+            try (Statement stmt = c.connection().createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS sessions (" +
+                        "session_id VARCHAR(64) PRIMARY KEY," +
+                        "mode VARCHAR(32) NOT NULL," +
+                        "start_time TIMESTAMP NOT NULL," +
+                        "end_time TIMESTAMP," +
+                        "duration_seconds BIGINT" +
+                        ")");
+                stmt.execute("CREATE TABLE IF NOT EXISTS study_achievements (" +
+                        "id BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                        "session_id VARCHAR(64) NOT NULL," +
+                        "achievement_name VARCHAR(255) NOT NULL," +
+                        "timestamp TIMESTAMP NOT NULL" +
+                        ")");
+                stmt.execute("CREATE TABLE IF NOT EXISTS study_interactions (" +
+                        "id BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                        "session_id VARCHAR(64) NOT NULL," +
+                        "event_type VARCHAR(32) NOT NULL," +
+                        "room VARCHAR(255)," +
+                        "timestamp TIMESTAMP NOT NULL" +
+                        ")");
+                stmt.execute("CREATE TABLE IF NOT EXISTS phase_transitions (" +
+                        "id BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                        "session_id VARCHAR(64) NOT NULL," +
+                        "from_phase VARCHAR(255)," +
+                        "to_phase VARCHAR(255)," +
+                        "room VARCHAR(255)," +
+                        "transitioned_at TIMESTAMP NOT NULL," +
+                        "dwell_ms BIGINT NOT NULL" +
+                        ")");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_h2_achievements_session ON study_achievements(session_id)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_h2_interactions_session ON study_interactions(session_id)");
+            }
+            counters.warm(c.connection());
+        });
+    }
+
+    @Override
+    public String getName() {
+        return "h2";
+    }
+
+    // ── Logging (main thread, enqueue only) ──────────────────────────────────
+
+    @Override
+    public void startSession(String sessionId, String mode, LocalDateTime startTime) {
+        counters.onSessionStart(sessionId);
+        queue.offer(new StudyEvent(StudyEvent.Type.SESSION_START, sessionId, mode, toMillis(startTime)));
+    }
+
+    @Override
+    public void endSession(String sessionId, LocalDateTime endTime) {
+        queue.offer(new StudyEvent(StudyEvent.Type.SESSION_END, sessionId, null, toMillis(endTime)));
+    }
+
+    @Override
+    public void logAchievement(String sessionId, String achievementName) {
+        counters.onAchievement(sessionId);
+        queue.offer(new StudyEvent(StudyEvent.Type.ACHIEVEMENT, sessionId, achievementName,
+                System.currentTimeMillis()));
+    }
+
+    @Override
+    public void logHintUsed(String sessionId, String room) {
+        counters.onHintUsed(sessionId);
+        queue.offer(new StudyEvent(StudyEvent.Type.HINT_USED, sessionId, room, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void logWrongAnswer(String sessionId, String room) {
+        counters.onWrongAnswer(sessionId);
+        queue.offer(new StudyEvent(StudyEvent.Type.WRONG_ANSWER, sessionId, room, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void logPhaseTransition(String sessionId, String fromPhase, String toPhase, String room,
+                                   long at, long dwellMillis) {
+        queue.offer(StudyEvent.phase(sessionId, fromPhase, toPhase, room, at, dwellMillis));
+    }
+
+    @Override
+    public StudyDataLogger.SessionSummary getSessionSummary(String sessionId) {
+        StudyDataLogger.SessionSummary summary = counters.getSummary(sessionId);
+        if (summary != null) return summary;
+        return StudyDataLogger.querySessionSummary(db, sessionId);
+    }
+
+    @Override
+    public String describe() {
+        return "h2: " + queue.describe();
+    }
+
+    @Override
+    public void shutdown() {
+        queue.shutdown(10_000);
+        System.out.println("[StudyDB] H2 write queue stopped: " + queue.describe());
+        db.close();
+    }
+
+    // ── Batch writer (writer thread) ──────────────────────────────────────────
+
+    private void writeBatch(List<StudyEvent> batch) throws SQLException {
+        db.inTransaction(c -> {
+            PreparedStatement start = c.prepare(
+                    "INSERT INTO sessions (session_id, mode, start_time) SELECT ?, ?, ? " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM sessions WHERE session_id = ?)");
+            PreparedStatement end = c.prepare(
+                    "UPDATE sessions SET end_time = ?, " +
+                    "duration_seconds = DATEDIFF('SECOND', start_time, ?) WHERE session_id = ?");
+            PreparedStatement achievement = c.prepare(
+                    "INSERT INTO study_achievements (session_id, achievement_name, timestamp) VALUES (?, ?, ?)");
+            PreparedStatement interaction = c.prepare(
+                    "INSERT INTO study_interactions (session_id, event_type, room, timestamp) VALUES (?, ?, ?, ?)");
+            PreparedStatement phase = c.prepare(
+                    "INSERT INTO phase_transitions (session_id, from_phase, to_phase, room, transitioned_at, dwell_ms) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)");
+
+            int ends = 0, achievements = 0, interactions = 0, phases = 0;
+            for (StudyEvent e : batch) {
+                Timestamp time = new Timestamp(e.timestamp);
+                switch (e.type) {
+                    case SESSION_START:
+                        start.setString(1, e.sessionId);
+                        start.setString(2, e.value);
+                        start.setTimestamp(3, time);
+                        start.setString(4, e.sessionId);
+                        // Executed one by one so a start and its duplicate in one batch insert once
+                        start.executeUpdate();
+                        break;
+                    case SESSION_END:
+                        end.setTimestamp(1, time);
+                        end.setTimestamp(2, time);
+                        end.setString(3, e.sessionId);
+                        end.addBatch();
+                        ends++;
+                        break;
+                    case ACHIEVEMENT:
+                        achievement.setString(1, e.sessionId);
+                        achievement.setString(2, e.value);
+                        achievement.setTimestamp(3, time);
+                        achievement.addBatch();
+                        achievements++;
+                        break;
+                    case HINT_USED:
+                    case WRONG_ANSWER:
+                        interaction.setString(1, e.sessionId);
+                        interaction.setString(2, e.type.name());
+                        interaction.setString(3, e.value);
+                        interaction.setTimestamp(4, time);
+                        interaction.addBatch();
+                        interactions++;
+                        break;
+                    case PHASE_TRANSITION:
+                        phase.setString(1, e.sessionId);
+                        phase.setString(2, e.fromPhase);
+                        phase.setString(3, e.value);
+                        phase.setString(4, e.room);
+                        phase.setTimestamp(5, time);
+                        phase.setLong(6, e.dwellMillis);
+                        phase.addBatch();
+                        phases++;
+                        break;
+                }
+            }
+            if (interactions > 0) interaction.executeBatch();
+            if (achievements > 0) achievement.executeBatch();
+            if (phases > 0) phase.executeBatch();
+            if (ends > 0) end.executeBatch();
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -18,8 +18,8 @@ import java.util.UUID;
  */
 public class JourneyDAO {
 
-    // Use same database as SQLiteStudyDatabase
-    private static final String DB_PATH = "jdbc:sqlite:plugins/OSCity/study_data.db";
+    // Same database (and same pooled connection) as SQLiteStudyDatabase
+    private static final StudyConnectionManager DB = StudyConnectionManager.study();
 
     // ── Called once at startup (from SQLiteStudyDatabase.initializeDatabase) ─
 
@@ -31,10 +31,13 @@ public class JourneyDAO {
                 "completed_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
                 "PRIMARY KEY (player_uuid, journey_number)" +
                 ")";
-        try (Connection conn = DriverManager.getConnection(DB_PATH);
-             Statement stmt = conn.createStatement()) {
-            System.out.println("[JourneyDAO] Connection established");
-            stmt.execute(sql);
+        try {
+            DB.execute(db -> {
+                System.out.println("[JourneyDAO] Connection established");
+                try (Statement stmt = db.connection().createStatement()) {
+                    stmt.execute(sql);
+                }
+            });
             System.out.println("[JourneyDAO] Table created successfully");
         } catch (SQLException e) {
             System.err.println("[JourneyDAO] Failed to create table: " + e.getMessage());
@@ -47,14 +50,17 @@ public class JourneyDAO {
     /**
      * Record a journey as completed for this player.
      * INSERT OR IGNORE ensures no error if already present.
+     * May block on the writer lock: call from an async task.
      */
     public static void markComplete(UUID playerUuid, Journey journey) {
         String sql = "INSERT OR IGNORE INTO journey_completions (player_uuid, journey_number) VALUES (?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_PATH);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, playerUuid.toString());
-            pstmt.setInt(2, journey.number);
-            pstmt.executeUpdate();
+        try {
+            DB.execute(db -> {
+                PreparedStatement pstmt = db.prepare(sql);
+                pstmt.setString(1, playerUuid.toString());
+                pstmt.setInt(2, journey.number);
+                pstmt.executeUpdate();
+            });
         } catch (SQLException e) {
             System.err.println("[JourneyDAO] Failed to mark complete: " + e.getMessage());
         }
@@ -69,14 +75,17 @@ public class JourneyDAO {
     public static Set<Journey> loadCompleted(UUID playerUuid) {
         Set<Journey> result = EnumSet.noneOf(Journey.class);
         String sql = "SELECT journey_number FROM journey_completions WHERE player_uuid = ?";
-        try (Connection conn = DriverManager.getConnection(DB_PATH);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, playerUuid.toString());
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                Journey j = Journey.fromNumber(rs.getInt("journey_number"));
-                if (j != null) result.add(j);
-            }
+        try {
+            DB.execute(db -> {
+                PreparedStatement pstmt = db.prepare(sql);
+                pstmt.setString(1, playerUuid.toString());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Journey j = Journey.fromNumber(rs.getInt("journey_number"));
+                        if (j != null) result.add(j);
+                    }
+                }
+            });
         } catch (SQLException e) {
             System.err.println("[JourneyDAO] Failed to load completed: " + e.getMessage());
         }
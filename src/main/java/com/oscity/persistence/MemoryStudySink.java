@@ -0,0 +1,79 @@
+package com.oscity.persistence;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Study sink that keeps counts in memory and writes nothing.
+ *
+ * Used as a baseline when comparing backends: the cost measured with this
+ * sink is the cost of the game-side logging calls alone.
+ * Session summaries still work (from in-memory counters) until restart.
+ */
+public class MemoryStudySink implements StudySink {
+
+    private final StudySessionCounters counters = StudySessionCounters.forDatabase("memory:study");
+    private final AtomicLong sessions     = new AtomicLong();
+    private final AtomicLong achievements = new AtomicLong();
+    private final AtomicLong hints        = new AtomicLong();
+    private final AtomicLong wrongAnswers = new AtomicLong();
+    private final AtomicLong transitions  = new AtomicLong();
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public void startSession(String sessionId, String mode, LocalDateTime startTime) {
+        counters.onSessionStart(sessionId);
+        sessions.incrementAndGet();
+    }
+
+    @Override
+    public void endSession(String sessionId, LocalDateTime endTime) {
+        // Nothing to record beyond the start
+    }
+
+    @Override
+    public void logAchievement(String sessionId, String achievementName) {
+        counters.onAchievement(sessionId);
+        achievements.incrementAndGet();
+    }
+
+    @Override
+    public void logHintUsed(String sessionId, String room) {
+        counters.onHintUsed(sessionId);
+        hints.incrementAndGet();
+    }
+
+    @Override
+    public void logWrongAnswer(String sessionId, String room) {
+        counters.onWrongAnswer(sessionId);
+        wrongAnswers.incrementAndGet();
+    }
+
+    @Override
+    public void logPhaseTransition(String sessionId, String fromPhase, String toPhase, String room,
+                                   long at, long dwellMillis) {
+        transitions.incrementAndGet();
+    }
+
+    @Override
+    public StudyDataLogger.SessionSummary getSessionSummary(String sessionId) {
+        StudyDataLogger.SessionSummary summary = counters.getSummary(sessionId);
+        return summary != null ? summary : new StudyDataLogger.SessionSummary();
+    }
+
+    @Override
+    public String describe() {
+        return "memory: sessions=" + sessions.get() + " achievements=" + achievements.get()
+                + " hints=" + hints.get() + " wrongAnswers=" + wrongAnswers.get()
+                + " phaseTransitions=" + transitions.get();
+    }
+
+    @Override
+    public void shutdown() {
+        counters.clear();
+    }
+}
@@ -0,0 +1,104 @@
+package com.oscity.persistence;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persists phase transitions and answers dwell-time questions about them.
+ *
+ * Table: phase_transitions
+ *   session_id       TEXT     — study session the player was in
+ *   from_phase       TEXT     — phase being left
+ *   to_phase         TEXT     — phase entered
+ *   room             TEXT     — room key at the time of the transition (may be NULL)
+ *   transitioned_at  DATETIME — UTC, like the other event tables
+ *   dwell_ms         INTEGER  — time spent in from_phase (monotonic clock)
+ */
+public class PhaseTransitionDAO {
+
+    // Same database (and same pooled connection) as SQLiteStudyDatabase
+    private static final StudyConnectionManager DB = StudyConnectionManager.study();
+
+    /** Used by SQLiteStudyDatabase.writeBatch for queued transitions. */
+    static final String INSERT_SQL = "INSERT INTO phase_transitions " +
+            "(session_id, from_phase, to_phase, room, transitioned_at, dwell_ms) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /** Median and 95th percentile dwell time for one phase or room. */
+    public static class DwellStats {
+        public final String key;
+        public final long transitions;
+        public final long medianMs;
+        public final long p95Ms;
+
+        DwellStats(String key, long transitions, long medianMs, long p95Ms) {
+            this.key         = key;
+            this.transitions = transitions;
+            this.medianMs    = medianMs;
+            this.p95Ms       = p95Ms;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: n=%d median=%.1fs p95=%.1fs",
+                    key, transitions, medianMs / 1000.0, p95Ms / 1000.0);
+        }
+    }
+
+    // ── Called once at startup (from SQLiteStudyDatabase.initializeDatabase) ─
+
+    static void ensureTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS phase_transitions (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "session_id TEXT NOT NULL," +
+                    "from_phase TEXT," +
+                    "to_phase TEXT NOT NULL," +
+                    "room TEXT," +
+                    "transitioned_at DATETIME NOT NULL," +
+                    "dwell_ms INTEGER NOT NULL" +
+                    ")");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_phase_transitions_phase ON phase_transitions(from_phase, dwell_ms)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_phase_transitions_room ON phase_transitions(room, dwell_ms)");
+        }
+    }
+
+    // ── Read ──────────────────────────────────────────────────────────────────
+
+    /** Median and p95 dwell time per phase, slowest median first. */
+    public static List<DwellStats> dwellByPhase() throws SQLException {
+        return dwellBy("from_phase");
+    }
+
+    /** Median and p95 dwell time per room (transitions recorded with no room are skipped). */
+    public static List<DwellStats> dwellByRoom() throws SQLException {
+        return dwellBy("room");
+    }
+
+    /**
+     * Nearest-rank percentiles: rank every dwell within its group, then take
+     * the first value whose rank reaches 50% / 95% of the group size.
+     */
+    private static List<DwellStats> dwellBy(String column) throws SQLException {
+        String sql = "WITH ranked AS (" +
+                "SELECT " + column + " AS k, dwell_ms, " +
+                "ROW_NUMBER() OVER (PARTITION BY " + column + " ORDER BY dwell_ms) AS rn, " +
+                "COUNT(*) OVER (PARTITION BY " + column + ") AS n " +
+                "FROM phase_transitions WHERE " + column + " IS NOT NULL) " +
+                "SELECT k, MAX(n) AS n, " +
+                "MIN(CASE WHEN rn >= 0.50 * n THEN dwell_ms END) AS median_ms, " +
+                "MIN(CASE WHEN rn >= 0.95 * n THEN dwell_ms END) AS p95_ms " +
+                "FROM ranked GROUP BY k ORDER BY median_ms DESC";
+
+        List<DwellStats> result = new ArrayList<>();
+        try (Connection conn = DB.openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                result.add(new DwellStats(rs.getString("k"), rs.getLong("n"),
+                        rs.getLong("median_ms"), rs.getLong("p95_ms")));
+            }
+        }
+        return result;
+    }
+}
@@ -1,4 +1,305 @@
+package com.oscity.persistence;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists each player's journey state (JourneyTracker.PlayerState) so a
+ * player who disconnects, or a server restart, resumes mid-journey.
+ *
+ * Table: player_state
+ *   player_uuid   TEXT PRIMARY KEY
+ *   journey       INTEGER  — Journey.number (0 = none)
+ *   phase         TEXT
+ *   mode          TEXT     — PlayerMode name (NULL = not chosen)
+ *   vars          TEXT     — dialogue vars, encoded with {@link #encodeRows}
+ *   quiz          TEXT     — quiz results, encoded with {@link #encodeRows}
+ *   all_in_order  INTEGER
+ *   updated_at    DATETIME
+ *
+ * Writes are deltas: a {@link Snapshot} carries only the fields whose bit
+ * is set in its mask. {@link #save} merges a delta into the player's
+ * pending one (a later value for a field replaces an earlier one), and a
+ * background thread writes all pending deltas every flush interval, each
+ * as one UPSERT touching only the changed columns.
+ *
+ * {@link #load} is a single primary-key read, overlaid with any delta that
+ * has not been written yet, so a quick rejoin never sees stale state.
+ */
 public class PlayerDAO {
-    //dont know what's this for
-    //Player data access
+
+    // ── Field bits ────────────────────────────────────────────────────────────
+    public static final int JOURNEY      = 1;
+    public static final int PHASE        = 1 << 1;
+    public static final int MODE         = 1 << 2;
+    public static final int VARS         = 1 << 3;
+    public static final int QUIZ         = 1 << 4;
+    public static final int ALL_IN_ORDER = 1 << 5;
+    public static final int ALL_FIELDS   = (1 << 6) - 1;
+
+    /** Column for each bit, in bit order. */
+    private static final String[] COLUMNS = { "journey", "phase", "mode", "vars", "quiz", "all_in_order" };
+
+    /** A full or partial copy of one player's state. Only fields in {@code mask} are meaningful. */
+    public static class Snapshot {
+        public int mask;
+        public int journey;
+        public String phase;
+        public String mode;
+        public String vars;
+        public String quiz;
+        public int allInOrderIndex;
+
+        /** Take every field set in {@code newer}, keeping ours for the rest. */
+        void merge(Snapshot newer) {
+            if ((newer.mask & JOURNEY) != 0)      journey = newer.journey;
+            if ((newer.mask & PHASE) != 0)        phase = newer.phase;
+            if ((newer.mask & MODE) != 0)         mode = newer.mode;
+            if ((newer.mask & VARS) != 0)         vars = newer.vars;
+            if ((newer.mask & QUIZ) != 0)         quiz = newer.quiz;
+            if ((newer.mask & ALL_IN_ORDER) != 0) allInOrderIndex = newer.allInOrderIndex;
+            mask |= newer.mask;
+        }
+    }
+
+    // Same database (and same pooled connection) as SQLiteStudyDatabase
+    private static final StudyConnectionManager DB = StudyConnectionManager.study();
+
+    /** Deltas waiting to be written. Guarded by itself. */
+    private static final Map<UUID, Snapshot> PENDING = new HashMap<>();
+    /** Held while a batch is moved from PENDING to the table, so load() never reads in between. */
+    private static final Object WRITE_LOCK = new Object();
+    /** UPSERT per field mask, built on first use. */
+    private static final String[] UPSERT_SQL = new String[ALL_FIELDS + 1];
+
+    private static ScheduledExecutorService writer;
+
+    // ── Called once at startup (from SQLiteStudyDatabase.initializeDatabase) ─
+
+    static void ensureTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS player_state (" +
+                    "player_uuid TEXT PRIMARY KEY," +
+                    "journey INTEGER NOT NULL DEFAULT 0," +
+                    "phase TEXT," +
+                    "mode TEXT," +
+                    "vars TEXT," +
+                    "quiz TEXT," +
+                    "all_in_order INTEGER NOT NULL DEFAULT 0," +
+                    "updated_at DATETIME DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+    }
+
+    /** Start the background writer. */
+    public static synchronized void start(long flushIntervalMs) {
+        if (writer != null) return;
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "OSCity-PlayerState-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(PlayerDAO::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stop the writer and write everything still pending (call from onDisable). */
+    public static synchronized void shutdown() {
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        flush();
+    }
+
+    // ── Write ─────────────────────────────────────────────────────────────────
+
+    /** Queue a delta for this player, coalescing it with any not yet written. Never blocks on I/O. */
+    public static void save(UUID playerUuid, Snapshot delta) {
+        if (delta.mask == 0) return;
+        synchronized (PENDING) {
+            Snapshot pending = PENDING.get(playerUuid);
+            if (pending == null) {
+                pending = new Snapshot();
+                PENDING.put(playerUuid, pending);
+            }
+            pending.merge(delta);
+        }
+    }
+
+    /** Write every pending delta in one transaction. */
+    static void flush() {
+        synchronized (WRITE_LOCK) {
+            Map<UUID, Snapshot> batch;
+            synchronized (PENDING) {
+                if (PENDING.isEmpty()) return;
+                batch = new HashMap<>(PENDING);
+                PENDING.clear();
+            }
+            try {
+                DB.inTransaction(db -> {
+                    for (Map.Entry<UUID, Snapshot> e : batch.entrySet()) {
+                        upsert(db, e.getKey(), e.getValue());
+                    }
+                });
+            } catch (SQLException e) {
+                System.err.println("[PlayerDAO] Failed to write " + batch.size() + " player states: " + e.getMessage());
+                // Put them back underneath anything newer so the next flush retries
+                synchronized (PENDING) {
+                    for (Map.Entry<UUID, Snapshot> entry : batch.entrySet()) {
+                        Snapshot newer = PENDING.get(entry.getKey());
+                        if (newer != null) entry.getValue().merge(newer);
+                        PENDING.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void upsert(StudyConnectionManager db, UUID playerUuid, Snapshot s) throws SQLException {
+        PreparedStatement ps = db.prepare(upsertSql(s.mask));
+        int i = 1;
+        ps.setString(i++, playerUuid.toString());
+        if ((s.mask & JOURNEY) != 0)      ps.setInt(i++, s.journey);
+        if ((s.mask & PHASE) != 0)        ps.setString(i++, s.phase);
+        if ((s.mask & MODE) != 0)         ps.setString(i++, s.mode);
+        if ((s.mask & VARS) != 0)         ps.setString(i++, s.vars);
+        if ((s.mask & QUIZ) != 0)         ps.setString(i++, s.quiz);
+        if ((s.mask & ALL_IN_ORDER) != 0) ps.setInt(i++, s.allInOrderIndex);
+        ps.executeUpdate();
+    }
+
+    private static String upsertSql(int mask) {
+        String sql = UPSERT_SQL[mask];
+        if (sql != null) return sql;
+
+        StringBuilder columns = new StringBuilder("player_uuid");
+        StringBuilder values = new StringBuilder("?");
+        StringBuilder updates = new StringBuilder();
+        for (int bit = 0; bit < COLUMNS.length; bit++) {
+            if ((mask & (1 << bit)) == 0) continue;
+            columns.append(", ").append(COLUMNS[bit]);
+            values.append(", ?");
+            updates.append(COLUMNS[bit]).append(" = excluded.").append(COLUMNS[bit]).append(", ");
+        }
+        sql = "INSERT INTO player_state (" + columns + ", updated_at) VALUES (" + values + ", CURRENT_TIMESTAMP) " +
+                "ON CONFLICT(player_uuid) DO UPDATE SET " + updates + "updated_at = excluded.updated_at";
+        UPSERT_SQL[mask] = sql;
+        return sql;
+    }
+
+    // ── Read ──────────────────────────────────────────────────────────────────
+
+    /**
+     * Load this player's saved state, or null if there is none.
+     * May block: call from a login thread or an async task.
+     */
+    public static Snapshot load(UUID playerUuid) {
+        String sql = "SELECT journey, phase, mode, vars, quiz, all_in_order FROM player_state WHERE player_uuid = ?";
+        synchronized (WRITE_LOCK) {
+            Snapshot result = null;
+            try {
+                result = DB.query(db -> {
+                    PreparedStatement ps = db.prepare(sql);
+                    ps.setString(1, playerUuid.toString());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) return null;
+                        Snapshot s = new Snapshot();
+                        s.mask = ALL_FIELDS;
+                        s.journey = rs.getInt("journey");
+                        s.phase = rs.getString("phase");
+                        s.mode = rs.getString("mode");
+                        s.vars = rs.getString("vars");
+                        s.quiz = rs.getString("quiz");
+                        s.allInOrderIndex = rs.getInt("all_in_order");
+                        return s;
+                    }
+                });
+            } catch (SQLException e) {
+                System.err.println("[PlayerDAO] Failed to load player state: " + e.getMessage());
+            }
+
+            synchronized (PENDING) {
+                Snapshot pending = PENDING.get(playerUuid);
+                if (pending == null) return result;
+                if (result == null) result = new Snapshot();
+                result.merge(pending);
+            }
+            return result;
+        }
+    }
+
+    // ── Encoding for the vars / quiz columns ──────────────────────────────────
+
+    /**
+     * Encode rows of fields as text: fields separated by tabs, rows by
+     * newlines, with backslash escapes for \, tab and newline. Null fields
+     * are written as a lone \0.
+     */
+    public static String encodeRows(List<String[]> rows) {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < rows.size(); r++) {
+            if (r > 0) sb.append('\n');
+            String[] row = rows.get(r);
+            for (int f = 0; f < row.length; f++) {
+                if (f > 0) sb.append('\t');
+                String field = row[f];
+                if (field == null) {
+                    sb.append("\\0");
+                    continue;
+                }
+                for (int i = 0; i < field.length(); i++) {
+                    char c = field.charAt(i);
+                    switch (c) {
+                        case '\\': sb.append("\\\\"); break;
+                        case '\t': sb.append("\\t"); break;
+                        case '\n': sb.append("\\n"); break;
+                        default:   sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Reverse of {@link #encodeRows}. */
+    public static List<String[]> decodeRows(String text) {
+        List<String[]> rows = new ArrayList<>();
+        if (text == null || text.isEmpty()) return rows;
+        for (String line : text.split("\n", -1)) {
+            String[] fields = line.split("\t", -1);
+            for (int f = 0; f < fields.length; f++) {
+                fields[f] = unescape(fields[f]);
+            }
+            rows.add(fields);
+        }
+        return rows;
+    }
+
+    private static String unescape(String field) {
+        if (field.equals("\\0")) return null;
+        if (field.indexOf('\\') < 0) return field;
+        StringBuilder sb = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 1 < field.length()) {
+                char next = field.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
 }
@@ -1,7 +1,12 @@
 package com.oscity.persistence;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.*;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
@@ -10,22 +15,42 @@ import java.util.*;
  * Extends StudyDataLogger with SQLite utilities and analysis features.
  * 
  * Database location: study_data.db (created automatically in project root)
+ *
+ * The logging methods (startSession, endSession, logAchievement, logHintUsed,
+ * logWrongAnswer) only enqueue an event; a background StudyWriteQueue commits
+ * them in batches so the server thread never waits on SQLite. All writes share
+ * one pooled connection owned by StudyConnectionManager.
  */
 public class SQLiteStudyDatabase {
-    private static final String DB_PATH = "jdbc:sqlite:plugins/OSCity/study_data.db";
+    private static final String DB_PATH = StudyConnectionManager.STUDY_DB_URL;
     private static final String DB_FILE = "study_data.db";
     private static final DateTimeFormatter TIMESTAMP_FORMAT = 
         DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    /** In-memory per-session counts, fed by the logging methods below. */
+    private static final StudySessionCounters COUNTERS = StudySessionCounters.forDatabase(DB_PATH);
+
+    /** Background writer; null until startWriteQueue() is called. */
+    private static volatile StudyWriteQueue writeQueue;
+
     /**
      * Initialize SQLite database with all necessary tables
      */
     public static void initializeDatabase() {
         System.out.println("[StudyDB] Starting database initialization...");
         System.out.println("[StudyDB] DB_PATH: " + DB_PATH);
-        try (Connection conn = DriverManager.getConnection(DB_PATH)) {
-            System.out.println("[StudyDB] Connection established");
-            Statement stmt = conn.createStatement();
+        try {
+            StudyConnectionManager.study().execute(db -> initializeTables(db.connection()));
+            System.out.println("[StudyDB] Database initialized successfully at: " + DB_FILE);
+        } catch (SQLException e) {
+            System.err.println("[StudyDB] Failed to initialize database: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static void initializeTables(Connection conn) throws SQLException {
+        System.out.println("[StudyDB] Connection established");
+        try (Statement stmt = conn.createStatement()) {
 
             // Sessions table - track basic session info
             System.out.println("[StudyDB] Creating sessions table...");
@@ -69,118 +94,333 @@ public class SQLiteStudyDatabase {
                     "ON study_interactions(event_type)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_interactions_room " +
                     "ON study_interactions(room)");
+        }
+        System.out.println("[StudyDB] Statement closed");
 
-            stmt.close();
-            System.out.println("[StudyDB] Statement closed");
+        // Summary rollups (backfilled from the raw tables the first time they are created)
+        System.out.println("[StudyDB] Creating rollup tables...");
+        if (StudyRollups.ensureTables(conn)) {
+            StudyRollups.rebuild(conn);
+        }
 
-            // Journey completion tracking (delegated to JourneyDAO)
-            System.out.println("[StudyDB] Creating journey_completions table...");
-            JourneyDAO.ensureTable();
+        // Session counters for sessions still open from before a restart
+        COUNTERS.warm(conn);
 
-            System.out.println("[StudyDB] Database initialized successfully at: " + DB_FILE);
+        // Incremental export bookkeeping
+        StudyDataExporter.ensureTable(conn);
+
+        // How far the event journal has been drained
+        StudyJournal.ensureTable(conn);
+
+        // Journey completion tracking (delegated to JourneyDAO)
+        System.out.println("[StudyDB] Creating journey_completions table...");
+        JourneyDAO.ensureTable();
+
+        // Phase dwell timing
+        PhaseTransitionDAO.ensureTable(conn);
+
+        // Resumable journey state
+        PlayerDAO.ensureTable(conn);
+    }
+
+    // ── Write-behind queue ───────────────────────────────────────────────────
+
+    /**
+     * Start the background writer. Until this is called (or after shutdown),
+     * the logging methods below fall back to writing synchronously.
+     *
+     * @param capacity        max events waiting before new ones are dropped
+     * @param flushIntervalMs max time an event waits before its batch is committed
+     * @param maxBatch        max events per transaction
+     */
+    public static synchronized void startWriteQueue(int capacity, long flushIntervalMs, int maxBatch) {
+        if (writeQueue != null) return;
+        writeQueue = new StudyWriteQueue("StudyDB", SQLiteStudyDatabase::writeBatch,
+                capacity, flushIntervalMs, maxBatch);
+        writeQueue.start();
+        System.out.println("[StudyDB] Write queue started (capacity=" + capacity
+                + ", flushIntervalMs=" + flushIntervalMs + ", maxBatch=" + maxBatch + ")");
+    }
+
+    /**
+     * Start the background writer backed by the append-only journal in
+     * {@code journalDir}. Events left in the journal by a previous run (crash
+     * or locked database) are replayed into the tables before this returns.
+     * Falls back to the in-memory queue if the journal cannot be opened.
+     */
+    public static synchronized void startWriteQueue(File journalDir, int capacity, long flushIntervalMs, int maxBatch) {
+        if (writeQueue != null) return;
+        StudyJournal journal;
+        try {
+            long cursor = StudyConnectionManager.study().query(db -> StudyJournal.readCursor(db.connection()));
+            journal = StudyJournal.open(journalDir, cursor);
+        } catch (SQLException | IOException e) {
+            System.err.println("[StudyDB] Could not open journal, using in-memory queue: " + e.getMessage());
+            startWriteQueue(capacity, flushIntervalMs, maxBatch);
+            return;
+        }
+
+        StudyWriteQueue queue = new StudyWriteQueue("StudyDB", SQLiteStudyDatabase::writeBatch,
+                journal, SQLiteStudyDatabase::writeJournalCursor, flushIntervalMs, maxBatch);
+        long replayed = queue.replay();
+        if (replayed > 0) {
+            System.out.println("[StudyDB] Replayed " + replayed + " journal events");
+            try {
+                // Replayed events may belong to sessions the counters were warmed for
+                StudyConnectionManager.study().execute(db -> {
+                    COUNTERS.clear();
+                    COUNTERS.warm(db.connection());
+                });
+            } catch (SQLException e) {
+                System.err.println("[StudyDB] Failed to re-warm session counters: " + e.getMessage());
+            }
+        }
+        writeQueue = queue;
+        writeQueue.start();
+        System.out.println("[StudyDB] Journal write queue started (" + journalDir.getPath()
+                + ", flushIntervalMs=" + flushIntervalMs + ", maxBatch=" + maxBatch + ")");
+    }
+
+    /**
+     * Flush everything still queued and stop the writer thread.
+     * Call from onDisable so no events are lost on shutdown.
+     */
+    public static synchronized void shutdown() {
+        StudyDataExporter.shutdown();
+        if (writeQueue != null) {
+            writeQueue.shutdown(10_000);
+            System.out.println("[StudyDB] Write queue stopped: " + writeQueue.describe());
+            writeQueue = null;
+        }
+        // Synchronous writes (no queue) still opened pooled connections
+        StudyConnectionManager.closeAll();
+    }
+
+    /** Number of events waiting to be written (0 if the queue is not running). */
+    public static int getQueueDepth() {
+        StudyWriteQueue q = writeQueue;
+        return q != null ? q.getDepth() : 0;
+    }
+
+    /** Duration of the most recent batch commit in milliseconds. */
+    public static double getLastFlushMillis() {
+        StudyWriteQueue q = writeQueue;
+        return q != null ? q.getLastFlushMillis() : 0;
+    }
+
+    /** Queue metrics (depth, flush latency, drops), or null if the queue is not running. */
+    public static StudyWriteQueue getWriteQueue() {
+        return writeQueue;
+    }
+
+    private static void submit(StudyEvent event) {
+        StudyWriteQueue q = writeQueue;
+        if (q != null) {
+            q.offer(event);
+            return;
+        }
+        try {
+            writeBatch(List.of(event));
         } catch (SQLException e) {
-            System.err.println("[StudyDB] Failed to initialize database: " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("[StudyDB] Failed to write " + event + ": " + e.getMessage());
         }
     }
 
+    // ── Logging front door (enqueue only) ─────────────────────────────────────
+
     /**
      * Record a new session start
      */
     public static void startSession(String sessionId, String mode, LocalDateTime startTime) {
-        String sql = "INSERT INTO sessions (session_id, mode, start_time) VALUES (?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_PATH);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, sessionId);
-            pstmt.setString(2, mode);
-            pstmt.setString(3, startTime.format(TIMESTAMP_FORMAT));
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("[StudyDB] Failed to start session: " + e.getMessage());
-        }
+        COUNTERS.onSessionStart(sessionId);
+        submit(new StudyEvent(StudyEvent.Type.SESSION_START, sessionId, mode,
+                startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
     }
 
     /**
      * Record session end and calculate duration
      */
     public static void endSession(String sessionId, LocalDateTime endTime) {
-        String sql = "UPDATE sessions SET end_time = ?, duration_seconds = " +
-                "CAST((julianday(?) - julianday(start_time)) * 86400 AS INTEGER) " +
-                "WHERE session_id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_PATH);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, endTime.format(TIMESTAMP_FORMAT));
-            pstmt.setString(2, endTime.format(TIMESTAMP_FORMAT));
-            pstmt.setString(3, sessionId);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("[StudyDB] Failed to end session: " + e.getMessage());
-        }
+        submit(new StudyEvent(StudyEvent.Type.SESSION_END, sessionId, null,
+                endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
     }
 
     /**
      * Log an achievement unlock
      */
     public static void logAchievement(String sessionId, String achievementName) {
-        String sql = "INSERT INTO study_achievements (session_id, achievement_name) VALUES (?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_PATH);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, sessionId);
-            pstmt.setString(2, achievementName);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("[StudyDB] Failed to log achievement: " + e.getMessage());
-        }
+        COUNTERS.onAchievement(sessionId);
+        submit(new StudyEvent(StudyEvent.Type.ACHIEVEMENT, sessionId, achievementName,
+                System.currentTimeMillis()));
     }
 
     /**
      * Log a hint usage
      */
     public static void logHintUsed(String sessionId, String room) {
-        String sql = "INSERT INTO study_interactions (session_id, event_type, room) VALUES (?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_PATH);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, sessionId);
-            pstmt.setString(2, "HINT_USED");
-            pstmt.setString(3, room);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("[StudyDB] Failed to log hint: " + e.getMessage());
-        }
+        COUNTERS.onHintUsed(sessionId);
+        submit(new StudyEvent(StudyEvent.Type.HINT_USED, sessionId, room,
+                System.currentTimeMillis()));
     }
 
     /**
      * Log a wrong answer
      */
     public static void logWrongAnswer(String sessionId, String room) {
-        String sql = "INSERT INTO study_interactions (session_id, event_type, room) VALUES (?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_PATH);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, sessionId);
-            pstmt.setString(2, "WRONG_ANSWER");
-            pstmt.setString(3, room);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("[StudyDB] Failed to log wrong answer: " + e.getMessage());
-        }
+        COUNTERS.onWrongAnswer(sessionId);
+        submit(new StudyEvent(StudyEvent.Type.WRONG_ANSWER, sessionId, room,
+                System.currentTimeMillis()));
+    }
+
+    /**
+     * Log a phase transition into phase_transitions, through the journal
+     * like every other study event.
+     */
+    public static void logPhaseTransition(String sessionId, String fromPhase, String toPhase, String room,
+                                          long at, long dwellMillis) {
+        submit(StudyEvent.phase(sessionId, fromPhase, toPhase, room, at, dwellMillis));
+    }
+
+    /**
+     * Achievement, hint and wrong-answer counts for a session.
+     * Answered from memory for any session seen since startup; only sessions
+     * that ended before the last restart fall back to querying the database.
+     */
+    public static StudyDataLogger.SessionSummary getSessionSummary(String sessionId) {
+        StudyDataLogger.SessionSummary summary = COUNTERS.getSummary(sessionId);
+        if (summary != null) return summary;
+        return StudyDataLogger.querySessionSummary(StudyConnectionManager.study(), sessionId);
+    }
+
+    // ── Batch writer (writer thread) ──────────────────────────────────────────
+
+    /**
+     * Write a batch of events in a single transaction.
+     * Session starts go first and session ends last so a session that starts
+     * and ends within one batch is still updated correctly.
+     */
+    static void writeBatch(List<StudyEvent> batch) throws SQLException {
+        String startSQL = "INSERT OR IGNORE INTO sessions (session_id, mode, start_time) VALUES (?, ?, ?)";
+        String endSQL = "UPDATE sessions SET end_time = ?, duration_seconds = " +
+                "CAST((julianday(?) - julianday(start_time)) * 86400 AS INTEGER) " +
+                "WHERE session_id = ?";
+        String achievementSQL = "INSERT INTO study_achievements (session_id, achievement_name, timestamp) VALUES (?, ?, ?)";
+        String interactionSQL = "INSERT INTO study_interactions (session_id, event_type, room, timestamp) VALUES (?, ?, ?, ?)";
+        String phaseSQL = PhaseTransitionDAO.INSERT_SQL;
+
+        StudyConnectionManager.study().inTransaction(db -> {
+            // Summary rollups are maintained in the same transaction as the raw rows
+            StudyRollups.Pending rollups = StudyRollups.capture(db, batch);
+
+            PreparedStatement start = db.prepare(startSQL);
+            PreparedStatement end = db.prepare(endSQL);
+            PreparedStatement achievement = db.prepare(achievementSQL);
+            PreparedStatement interaction = db.prepare(interactionSQL);
+            PreparedStatement phase = db.prepare(phaseSQL);
+            int starts = 0, ends = 0, achievements = 0, interactions = 0, phases = 0;
+            for (StudyEvent e : batch) {
+                switch (e.type) {
+                    case SESSION_START:
+                        start.setString(1, e.sessionId);
+                        start.setString(2, e.value);
+                        start.setString(3, formatLocal(e.timestamp));
+                        start.addBatch();
+                        starts++;
+                        break;
+                    case SESSION_END:
+                        end.setString(1, formatLocal(e.timestamp));
+                        end.setString(2, formatLocal(e.timestamp));
+                        end.setString(3, e.sessionId);
+                        end.addBatch();
+                        ends++;
+                        break;
+                    case ACHIEVEMENT:
+                        achievement.setString(1, e.sessionId);
+                        achievement.setString(2, e.value);
+                        achievement.setString(3, formatUtc(e.timestamp));
+                        achievement.addBatch();
+                        achievements++;
+                        break;
+                    case HINT_USED:
+                    case WRONG_ANSWER:
+                        interaction.setString(1, e.sessionId);
+                        interaction.setString(2, e.type.name());
+                        interaction.setString(3, e.value);
+                        interaction.setString(4, formatUtc(e.timestamp));
+                        interaction.addBatch();
+                        interactions++;
+                        break;
+                    case PHASE_TRANSITION:
+                        phase.setString(1, e.sessionId);
+                        phase.setString(2, e.fromPhase);
+                        phase.setString(3, e.value);
+                        phase.setString(4, e.room);
+                        phase.setString(5, formatUtc(e.timestamp));
+                        phase.setLong(6, e.dwellMillis);
+                        phase.addBatch();
+                        phases++;
+                        break;
+                }
+            }
+            if (starts > 0) start.executeBatch();
+            if (interactions > 0) interaction.executeBatch();
+            if (achievements > 0) achievement.executeBatch();
+            if (phases > 0) phase.executeBatch();
+            if (ends > 0) end.executeBatch();
+
+            StudyRollups.apply(db, rollups);
+
+            // Journal events: advance the drained position in the same transaction
+            long journalEnd = batch.get(batch.size() - 1).journalEnd;
+            if (journalEnd >= 0) StudyJournal.writeCursor(db, journalEnd);
+        });
+    }
+
+    /** Move the journal cursor without a batch (the journal quarantined one). */
+    static void writeJournalCursor(long position) throws SQLException {
+        StudyConnectionManager.study().inTransaction(db -> StudyJournal.writeCursor(db, position));
+    }
+
+    /**
+     * Regenerate the summary rollup tables from the raw tables.
+     * Safe to run while the game is live: it takes the same lock as the writer,
+     * and anything still queued is applied on top of the rebuilt totals.
+     * Blocks on SQLite — call it off the main thread.
+     */
+    public static void rebuildRollups() throws SQLException {
+        long start = System.currentTimeMillis();
+        StudyConnectionManager.study().inTransaction(db -> StudyRollups.rebuild(db.connection()));
+        System.out.println("[StudyDB] Rollups rebuilt in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /** Session times are stored in server-local time (as LocalDateTime.now() produced them). */
+    private static String formatLocal(long epochMillis) {
+        return TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()));
+    }
+
+    /** Event times match SQLite's CURRENT_TIMESTAMP default, which is UTC. */
+    static String formatUtc(long epochMillis) {
+        return TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC));
     }
 
     /**
-     * Get summary statistics for all sessions
+     * Get summary statistics for all sessions.
+     * Reads the rollup tables (one row per room / achievement / mode), not the raw history.
      */
     public static void printStudySummary() {
         System.out.println("\n" + "=".repeat(80));
         System.out.println("USER STUDY SUMMARY REPORT");
         System.out.println("=".repeat(80));
 
-        try (Connection conn = DriverManager.getConnection(DB_PATH)) {
+        // Reports use their own read connection so they don't hold up the writer
+        try (Connection conn = StudyConnectionManager.study().openReadConnection()) {
             // Count sessions
             System.out.println("\n[SESSIONS]");
-            String sessionSQL = "SELECT COUNT(*) as total, " +
-                    "SUM(CASE WHEN mode = 'LEARNER' THEN 1 ELSE 0 END) as learner_mode, " +
-                    "SUM(CASE WHEN mode = 'ADVENTURER' THEN 1 ELSE 0 END) as adventurer_mode, " +
-                    "ROUND(AVG(duration_seconds)/60.0, 1) as avg_duration_minutes " +
-                    "FROM sessions WHERE end_time IS NOT NULL";
+            String sessionSQL = "SELECT COALESCE(SUM(completed), 0) as total, " +
+                    "COALESCE(SUM(CASE WHEN mode = 'LEARNER' THEN completed ELSE 0 END), 0) as learner_mode, " +
+                    "COALESCE(SUM(CASE WHEN mode = 'ADVENTURER' THEN completed ELSE 0 END), 0) as adventurer_mode, " +
+                    "ROUND(SUM(total_duration_seconds) * 1.0 / NULLIF(SUM(completed), 0) / 60.0, 1) as avg_duration_minutes " +
+                    "FROM rollup_session_modes";
 
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(sessionSQL)) {
@@ -194,10 +434,12 @@ public class SQLiteStudyDatabase {
 
             // Achievements summary
             System.out.println("\n[ACHIEVEMENTS]");
-            String achieveSQL = "SELECT COUNT(DISTINCT session_id) as sessions_with_achievements, " +
-                    "COUNT(*) as total_achievements, " +
-                    "COUNT(DISTINCT achievement_name) as unique_achievements " +
-                    "FROM study_achievements";
+            String achieveSQL = "SELECT " +
+                    "(SELECT COALESCE(SUM(value), 0) FROM rollup_counters WHERE name = '" +
+                    StudyRollups.SESSIONS_WITH_ACHIEVEMENTS + "') as sessions_with_achievements, " +
+                    "COALESCE(SUM(unlocks), 0) as total_achievements, " +
+                    "COUNT(*) as unique_achievements " +
+                    "FROM rollup_achievements";
 
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(achieveSQL)) {
@@ -211,10 +453,10 @@ public class SQLiteStudyDatabase {
             // Interactions summary
             System.out.println("\n[PLAYER INTERACTIONS]");
             String interactSQL = "SELECT " +
-                    "SUM(CASE WHEN event_type = 'HINT_USED' THEN 1 ELSE 0 END) as hints_used, " +
-                    "SUM(CASE WHEN event_type = 'WRONG_ANSWER' THEN 1 ELSE 0 END) as wrong_answers, " +
-                    "COUNT(*) as total_interactions " +
-                    "FROM study_interactions";
+                    "COALESCE(SUM(hints), 0) as hints_used, " +
+                    "COALESCE(SUM(wrongs), 0) as wrong_answers, " +
+                    "COALESCE(SUM(hints + wrongs), 0) as total_interactions " +
+                    "FROM rollup_room_interactions";
 
             try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(interactSQL)) {
@@ -227,13 +469,9 @@ public class SQLiteStudyDatabase {
 
             // Per-room analysis
             System.out.println("\n[PROBLEMATIC ROOMS - Where players struggled most]");
-            String roomSQL = "SELECT room, " +
-                    "SUM(CASE WHEN event_type = 'HINT_USED' THEN 1 ELSE 0 END) as hints, " +
-                    "SUM(CASE WHEN event_type = 'WRONG_ANSWER' THEN 1 ELSE 0 END) as wrongs, " +
-                    "COUNT(*) as total " +
-                    "FROM study_interactions " +
-                    "WHERE room IS NOT NULL " +
-                    "GROUP BY room " +
+            String roomSQL = "SELECT room, hints, wrongs, hints + wrongs as total " +
+                    "FROM rollup_room_interactions " +
+                    "WHERE no_room = 0 " +
                     "ORDER BY total DESC";
 
             try (Statement stmt = conn.createStatement();
@@ -255,9 +493,8 @@ public class SQLiteStudyDatabase {
 
             // Top achievements
             System.out.println("\n[TOP ACHIEVEMENTS]");
-            String topSQL = "SELECT achievement_name, COUNT(*) as unlocked_by " +
-                    "FROM study_achievements " +
-                    "GROUP BY achievement_name " +
+            String topSQL = "SELECT achievement_name, unlocks as unlocked_by " +
+                    "FROM rollup_achievements " +
                     "ORDER BY unlocked_by DESC " +
                     "LIMIT 10";
 
@@ -283,70 +520,30 @@ public class SQLiteStudyDatabase {
     }
 
     /**
-     * Export all data to CSV for analysis in spreadsheet
+     * Export all data to CSV for analysis in spreadsheet.
+     * Runs in the background (see StudyDataExporter); returns immediately.
      */
     public static void exportToCSV(String outputFolder) {
         System.out.println("[StudyDB] Exporting data to CSV files...");
-        
-        try (Connection conn = DriverManager.getConnection(DB_PATH)) {
-            // Export sessions
-            exportTableToCSV(conn, "sessions", outputFolder + "/sessions.csv");
-            exportTableToCSV(conn, "study_achievements", outputFolder + "/achievements.csv");
-            exportTableToCSV(conn, "study_interactions", outputFolder + "/interactions.csv");
-            
-            System.out.println("[StudyDB] CSV export complete. Files saved to: " + outputFolder);
-        } catch (SQLException e) {
-            System.err.println("[StudyDB] Failed to export data: " + e.getMessage());
-        }
-    }
-
-    /**
-     * Helper: Export a table to CSV
-     */
-    private static void exportTableToCSV(Connection conn, String tableName, String csvFile) {
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM " + tableName)) {
-
-            java.nio.file.Files.createDirectories(java.nio.file.Paths.get(
-                csvFile.substring(0, csvFile.lastIndexOf('/'))));
-
-            try (java.io.PrintWriter pw = new java.io.PrintWriter(new java.io.FileWriter(csvFile))) {
-                // Write headers
-                ResultSetMetaData rsmd = rs.getMetaData();
-                int columnCount = rsmd.getColumnCount();
-                for (int i = 1; i <= columnCount; i++) {
-                    if (i > 1) pw.print(",");
-                    pw.print(rsmd.getColumnName(i));
-                }
-                pw.println();
-
-                // Write data
-                while (rs.next()) {
-                    for (int i = 1; i <= columnCount; i++) {
-                        if (i > 1) pw.print(",");
-                        Object value = rs.getObject(i);
-                        if (value != null) {
-                            pw.print("\"" + value.toString().replace("\"", "\"\"") + "\"");
-                        }
-                    }
-                    pw.println();
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("[StudyDB] Failed to export " + tableName + ": " + e.getMessage());
-        }
+        StudyDataExporter.exportAsync(outputFolder, StudyDataExporter.Format.CSV, false, false, null)
+            .thenRun(() -> System.out.println("[StudyDB] CSV export complete. Files saved to: " + outputFolder));
     }
 
     /**
      * Delete all study data (use at start of new study session)
      */
     public static void clearDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_PATH)) {
-            Statement stmt = conn.createStatement();
-            stmt.execute("DELETE FROM study_achievements");
-            stmt.execute("DELETE FROM study_interactions");
-            stmt.execute("DELETE FROM sessions");
-            stmt.close();
+        try {
+            StudyConnectionManager.study().inTransaction(db -> {
+                try (Statement stmt = db.connection().createStatement()) {
+                    stmt.execute("DELETE FROM study_achievements");
+                    stmt.execute("DELETE FROM study_interactions");
+                    stmt.execute("DELETE FROM sessions");
+                }
+                StudyRollups.clear(db.connection());
+                StudyDataExporter.clear(db.connection());
+                COUNTERS.clear();
+            });
             System.out.println("[StudyDB] Database cleared successfully");
         } catch (SQLException e) {
             System.err.println("[StudyDB] Failed to clear database: " + e.getMessage());
@@ -357,8 +554,9 @@ public class SQLiteStudyDatabase {
      * Test the database connection
      */
     public static void testConnection() {
-        try (Connection conn = DriverManager.getConnection(DB_PATH)) {
-            if (conn != null) {
+        try {
+            boolean valid = StudyConnectionManager.study().query(db -> db.connection().isValid(5));
+            if (valid) {
                 System.out.println("[StudyDB] ✓ SQLite connection successful");
                 System.out.println("[StudyDB] Database file: " + DB_FILE);
             }
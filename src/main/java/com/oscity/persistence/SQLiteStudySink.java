@@ -0,0 +1,66 @@
+package com.oscity.persistence;
+
+import java.time.LocalDateTime;
+
+/**
+ * Study sink backed by the plugin's SQLite database.
+ *
+ * Delegates to SQLiteStudyDatabase, so events go through its write queue
+ * (and journal, if enabled) and keep the summary rollups up to date.
+ * The queue itself is started and stopped by the plugin, because the same
+ * database also holds journey completions.
+ */
+public class SQLiteStudySink implements StudySink {
+
+    @Override
+    public String getName() {
+        return "sqlite";
+    }
+
+    @Override
+    public void startSession(String sessionId, String mode, LocalDateTime startTime) {
+        SQLiteStudyDatabase.startSession(sessionId, mode, startTime);
+    }
+
+    @Override
+    public void endSession(String sessionId, LocalDateTime endTime) {
+        SQLiteStudyDatabase.endSession(sessionId, endTime);
+    }
+
+    @Override
+    public void logAchievement(String sessionId, String achievementName) {
+        SQLiteStudyDatabase.logAchievement(sessionId, achievementName);
+    }
+
+    @Override
+    public void logHintUsed(String sessionId, String room) {
+        SQLiteStudyDatabase.logHintUsed(sessionId, room);
+    }
+
+    @Override
+    public void logWrongAnswer(String sessionId, String room) {
+        SQLiteStudyDatabase.logWrongAnswer(sessionId, room);
+    }
+
+    @Override
+    public void logPhaseTransition(String sessionId, String fromPhase, String toPhase, String room,
+                                   long at, long dwellMillis) {
+        SQLiteStudyDatabase.logPhaseTransition(sessionId, fromPhase, toPhase, room, at, dwellMillis);
+    }
+
+    @Override
+    public StudyDataLogger.SessionSummary getSessionSummary(String sessionId) {
+        return SQLiteStudyDatabase.getSessionSummary(sessionId);
+    }
+
+    @Override
+    public String describe() {
+        StudyWriteQueue queue = SQLiteStudyDatabase.getWriteQueue();
+        return "sqlite: " + (queue != null ? queue.describe() : "writing synchronously");
+    }
+
+    @Override
+    public void shutdown() {
+        // SQLiteStudyDatabase.shutdown() is called separately in onDisable
+    }
+}
@@ -0,0 +1,200 @@
+package com.oscity.persistence;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Owns the single long-lived JDBC connection to a study database.
+ *
+ * The connection is opened once and kept for the lifetime of the plugin.
+ * For SQLite it is switched to WAL journaling with synchronous=NORMAL, so a
+ * commit is an append to the -wal file instead of a full fsync of the DB.
+ * Prepared statements are cached per SQL string and reused across calls.
+ *
+ * A JDBC connection is not safe for concurrent use, so every access goes
+ * through {@link #execute}, {@link #query} or {@link #inTransaction}, which
+ * hold a lock for the duration of the callback. Statements returned by {@link #prepare} are
+ * owned by the manager — callers must not close them.
+ *
+ * Usage:
+ *   StudyConnectionManager.study().execute(db -> {
+ *       PreparedStatement ps = db.prepare("SELECT ...");
+ *       ...
+ *   });
+ */
+public class StudyConnectionManager {
+
+    /** The plugin's study database (shared by SQLiteStudyDatabase, JourneyDAO and StudyDataLogger). */
+    public static final String STUDY_DB_URL = "jdbc:sqlite:plugins/OSCity/study_data.db";
+
+    private static final Map<String, StudyConnectionManager> INSTANCES = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run(StudyConnectionManager db) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface SqlAction {
+        void run(StudyConnectionManager db) throws SQLException;
+    }
+
+    private final String url;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private Connection connection;
+
+    private StudyConnectionManager(String url) {
+        this.url = url;
+    }
+
+    /** Manager for the plugin's study database. */
+    public static StudyConnectionManager study() {
+        return get(STUDY_DB_URL);
+    }
+
+    /** Manager for an arbitrary JDBC URL (one instance per URL). */
+    public static StudyConnectionManager get(String url) {
+        return INSTANCES.computeIfAbsent(url, StudyConnectionManager::new);
+    }
+
+    /** Close every open connection (call from onDisable, after the write queue has drained). */
+    public static void closeAll() {
+        for (StudyConnectionManager m : INSTANCES.values()) {
+            m.close();
+        }
+    }
+
+    // ── Access ────────────────────────────────────────────────────────────────
+
+    /** Run work against the shared connection while holding its lock, returning its result. */
+    public <T> T query(SqlWork<T> work) throws SQLException {
+        lock.lock();
+        try {
+            return work.run(this);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Run work against the shared connection while holding its lock. */
+    public void execute(SqlAction action) throws SQLException {
+        query(db -> {
+            action.run(db);
+            return null;
+        });
+    }
+
+    /**
+     * Run work in a single transaction. Commits on success, rolls back and
+     * rethrows on failure.
+     */
+    public void inTransaction(SqlAction action) throws SQLException {
+        lock.lock();
+        try {
+            Connection conn = connection();
+            conn.setAutoCommit(false);
+            try {
+                action.run(this);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                for (PreparedStatement ps : statements.values()) {
+                    ps.clearBatch();
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The shared connection. Only valid inside execute/query/inTransaction. */
+    public Connection connection() throws SQLException {
+        if (!lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("StudyConnectionManager used outside execute()");
+        }
+        if (connection == null || connection.isClosed()) {
+            open();
+        }
+        return connection;
+    }
+
+    /** Cached prepared statement for this SQL. Do not close it. */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        Connection conn = connection();
+        PreparedStatement ps = statements.get(sql);
+        if (ps == null || ps.isClosed()) {
+            ps = conn.prepareStatement(sql);
+            statements.put(sql, ps);
+        }
+        return ps;
+    }
+
+    /**
+     * Open a separate, caller-owned connection for long-running reads
+     * (exports, reports). In WAL mode it can read while the shared
+     * connection keeps writing. The caller must close it.
+     */
+    public Connection openReadConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        if (isSQLite()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA busy_timeout=5000");
+            }
+        }
+        return conn;
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────────
+
+    private void open() throws SQLException {
+        statements.clear();
+        connection = DriverManager.getConnection(url);
+        if (isSQLite()) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode=WAL");
+                stmt.execute("PRAGMA synchronous=NORMAL");
+                stmt.execute("PRAGMA busy_timeout=5000");
+            }
+        }
+        System.out.println("[StudyDB] Opened shared connection: " + url);
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            for (PreparedStatement ps : statements.values()) {
+                try { ps.close(); } catch (SQLException ignored) { }
+            }
+            statements.clear();
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    System.err.println("[StudyDB] Failed to close connection: " + e.getMessage());
+                }
+                connection = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    private boolean isSQLite() {
+        return url.startsWith("jdbc:sqlite:");
+    }
+}
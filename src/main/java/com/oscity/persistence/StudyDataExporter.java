@@ -0,0 +1,316 @@
+package com.oscity.persistence;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams study tables to CSV or NDJSON files on a background thread.
+ *
+ * Each table is read through its own read-only connection with a cursor
+ * fetch size, and written through a buffered channel (optionally gzipped),
+ * so memory stays flat and the game keeps running during large exports.
+ *
+ * Incremental exports only write rows whose rowid is above the table's
+ * watermark in export_watermarks, then advance the watermark. Each
+ * incremental run writes new timestamped files rather than appending.
+ * Note that this tracks inserted rows only: a session row exported before
+ * it ended will not be re-exported when its end_time is filled in.
+ */
+public class StudyDataExporter {
+
+    public enum Format {
+        CSV("csv"),
+        NDJSON("ndjson");
+
+        public final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    /** Receives progress callbacks. Called on the export thread. */
+    public interface ProgressListener {
+        void onProgress(String table, long rowsDone, long rowsTotal);
+        void onComplete(Result result);
+        void onError(Exception e);
+    }
+
+    /** What was written by one export run. */
+    public static class Result {
+        public final List<Path> files = new ArrayList<>();
+        public long rows;
+        public long elapsedMs;
+
+        @Override
+        public String toString() {
+            return rows + " rows in " + files.size() + " files (" + elapsedMs + " ms)";
+        }
+    }
+
+    /** Tables exported, and the base file name used for each. */
+    private static final String[][] TABLES = {
+        { "sessions",           "sessions" },
+        { "study_achievements", "achievements" },
+        { "study_interactions", "interactions" },
+    };
+
+    private static final int FETCH_SIZE = 500;
+    private static final int WRITE_BUFFER = 64 * 1024;
+    private static final int PROGRESS_EVERY = 1000;
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "OSCity-StudyExport");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Create the watermark table. Called from SQLiteStudyDatabase.initializeDatabase. */
+    static void ensureTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS export_watermarks (" +
+                    "table_name TEXT PRIMARY KEY," +
+                    "last_rowid INTEGER NOT NULL," +
+                    "exported_at DATETIME DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+    }
+
+    /**
+     * Forget every watermark (used when the raw tables are cleared). Their
+     * rowids start over, so old watermarks would hide every new row.
+     */
+    static void clear(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM export_watermarks");
+        }
+    }
+
+    /**
+     * Queue an export. Returns immediately; the work runs on the export thread.
+     *
+     * @param outputFolder directory to write into (created if missing)
+     * @param format       CSV or NDJSON
+     * @param gzip         compress each file (.gz suffix)
+     * @param incremental  only rows added since the last incremental export
+     * @param listener     progress callbacks (may be null)
+     */
+    public static CompletableFuture<Result> exportAsync(String outputFolder, Format format,
+                                                        boolean gzip, boolean incremental,
+                                                        ProgressListener listener) {
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            try {
+                Result result = export(Paths.get(outputFolder), format, gzip, incremental, listener);
+                if (listener != null) listener.onComplete(result);
+                future.complete(result);
+            } catch (Exception e) {
+                System.err.println("[StudyDB] Export failed: " + e.getMessage());
+                if (listener != null) listener.onError(e);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /** Let a running export finish, then stop the export thread. */
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+        try {
+            EXECUTOR.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ── Export thread ─────────────────────────────────────────────────────────
+
+    private static Result export(Path folder, Format format, boolean gzip, boolean incremental,
+                                 ProgressListener listener) throws SQLException, IOException {
+        long start = System.currentTimeMillis();
+        Files.createDirectories(folder);
+        String suffix = incremental ? "-" + LocalDateTime.now().format(FILE_STAMP) : "";
+        Result result = new Result();
+
+        try (Connection conn = StudyConnectionManager.study().openReadConnection()) {
+            for (String[] table : TABLES) {
+                long fromRowid = incremental ? readWatermark(conn, table[0]) : 0;
+                Path file = folder.resolve(table[1] + suffix + "." + format.extension + (gzip ? ".gz" : ""));
+                long[] stats = exportTable(conn, table[0], fromRowid, file, format, gzip, listener);
+                result.files.add(file);
+                result.rows += stats[0];
+                if (incremental && stats[1] > fromRowid) {
+                    writeWatermark(table[0], stats[1]);
+                }
+            }
+        }
+
+        result.elapsedMs = System.currentTimeMillis() - start;
+        System.out.println("[StudyDB] Export complete: " + result + " → " + folder);
+        return result;
+    }
+
+    /** Stream one table to a file. Returns {rowsWritten, highestRowid}. */
+    private static long[] exportTable(Connection conn, String table, long fromRowid, Path file,
+                                      Format format, boolean gzip, ProgressListener listener)
+            throws SQLException, IOException {
+        long total = 0;
+        try (PreparedStatement count = conn.prepareStatement(
+                "SELECT COUNT(*) FROM " + table + " WHERE rowid > ?")) {
+            count.setLong(1, fromRowid);
+            try (ResultSet rs = count.executeQuery()) {
+                if (rs.next()) total = rs.getLong(1);
+            }
+        }
+
+        long rows = 0;
+        long maxRowid = fromRowid;
+        try (PreparedStatement ps = conn.prepareStatement(
+                     "SELECT rowid AS _export_rowid, * FROM " + table + " WHERE rowid > ? ORDER BY rowid");
+             Writer out = openWriter(file, gzip)) {
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setLong(1, fromRowid);
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData md = rs.getMetaData();
+                int columns = md.getColumnCount();
+                String[] names = new String[columns + 1];
+                for (int i = 2; i <= columns; i++) names[i] = md.getColumnName(i);
+
+                if (format == Format.CSV) writeCsvHeader(out, names, columns);
+
+                while (rs.next()) {
+                    maxRowid = Math.max(maxRowid, rs.getLong(1));
+                    if (format == Format.CSV) {
+                        writeCsvRow(out, rs, columns);
+                    } else {
+                        writeJsonRow(out, rs, names, columns);
+                    }
+                    rows++;
+                    if (listener != null && rows % PROGRESS_EVERY == 0) {
+                        listener.onProgress(table, rows, total);
+                    }
+                }
+            }
+        }
+        if (listener != null) listener.onProgress(table, rows, total);
+        return new long[] { rows, maxRowid };
+    }
+
+    private static Writer openWriter(Path file, boolean gzip) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        OutputStream stream = Channels.newOutputStream(channel);
+        if (gzip) stream = new GZIPOutputStream(stream, WRITE_BUFFER);
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), WRITE_BUFFER);
+    }
+
+    // ── Formats ───────────────────────────────────────────────────────────────
+
+    private static void writeCsvHeader(Writer out, String[] names, int columns) throws IOException {
+        for (int i = 2; i <= columns; i++) {
+            if (i > 2) out.write(',');
+            out.write(names[i]);
+        }
+        out.write('\n');
+    }
+
+    private static void writeCsvRow(Writer out, ResultSet rs, int columns) throws SQLException, IOException {
+        for (int i = 2; i <= columns; i++) {
+            if (i > 2) out.write(',');
+            Object value = rs.getObject(i);
+            if (value != null) {
+                out.write('"');
+                out.write(value.toString().replace("\"", "\"\""));
+                out.write('"');
+            }
+        }
+        out.write('\n');
+    }
+
+    private static void writeJsonRow(Writer out, ResultSet rs, String[] names, int columns)
+            throws SQLException, IOException {
+        out.write('{');
+        for (int i = 2; i <= columns; i++) {
+            if (i > 2) out.write(',');
+            writeJsonString(out, names[i]);
+            out.write(':');
+            Object value = rs.getObject(i);
+            if (value == null) {
+                out.write("null");
+            } else if (value instanceof Number) {
+                out.write(value.toString());
+            } else {
+                writeJsonString(out, value.toString());
+            }
+        }
+        out.write("}\n");
+    }
+
+    private static void writeJsonString(Writer out, String s) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':  out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    // ── Watermarks ────────────────────────────────────────────────────────────
+
+    private static long readWatermark(Connection conn, String table) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT last_rowid FROM export_watermarks WHERE table_name = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /** Watermarks are written through the shared (writer) connection. */
+    private static void writeWatermark(String table, long rowid) throws SQLException {
+        StudyConnectionManager.study().execute(db -> {
+            PreparedStatement ps = db.prepare(
+                    "INSERT INTO export_watermarks (table_name, last_rowid, exported_at) " +
+                    "VALUES (?, ?, CURRENT_TIMESTAMP) " +
+                    "ON CONFLICT(table_name) DO UPDATE SET last_rowid = excluded.last_rowid, " +
+                    "exported_at = excluded.exported_at");
+            ps.setString(1, table);
+            ps.setLong(2, rowid);
+            ps.executeUpdate();
+        });
+    }
+}
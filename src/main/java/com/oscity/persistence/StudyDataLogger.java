@@ -9,14 +9,17 @@ import java.time.LocalDateTime;
  * Works with both SQLite and other JDBC-compatible databases.
  */
 public class StudyDataLogger {
-    private String dbUrl;
+    private final StudyConnectionManager db;
+    private final StudySessionCounters counters;
     private static final String ACHIEVEMENTS_TABLE = "study_achievements";
     private static final String INTERACTIONS_TABLE = "study_interactions";
 
     public StudyDataLogger(String dbPath) {
         // For SQLite: "jdbc:sqlite:study_data.db"
         // For MySQL: "jdbc:mysql://localhost:3306/oscity_study"
-        this.dbUrl = dbPath;
+        // One pooled connection per URL, shared with any other logger on the same DB
+        this.db = StudyConnectionManager.get(dbPath);
+        this.counters = StudySessionCounters.forDatabase(dbPath);
         initializeDatabase();
     }
 
@@ -24,7 +27,7 @@ public class StudyDataLogger {
      * Initialize database tables if they don't exist
      */
     private void initializeDatabase() {
-        try (Connection conn = DriverManager.getConnection(dbUrl)) {
+        try {
             String achievementsSQL = "CREATE TABLE IF NOT EXISTS " + ACHIEVEMENTS_TABLE + " (" +
                     "id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     "session_id TEXT NOT NULL," +
@@ -40,10 +43,13 @@ public class StudyDataLogger {
                     "timestamp DATETIME DEFAULT CURRENT_TIMESTAMP" +
                     ")";
 
-            try (Statement stmt = conn.createStatement()) {
-                stmt.execute(achievementsSQL);
-                stmt.execute(interactionsSQL);
-            }
+            db.execute(c -> {
+                try (Statement stmt = c.connection().createStatement()) {
+                    stmt.execute(achievementsSQL);
+                    stmt.execute(interactionsSQL);
+                }
+                counters.warm(c.connection());
+            });
         } catch (SQLException e) {
             System.err.println("Failed to initialize study database: " + e.getMessage());
         }
@@ -53,12 +59,15 @@ public class StudyDataLogger {
      * Log an achievement unlock
      */
     public void logAchievement(String sessionId, String achievementName) {
+        counters.onAchievement(sessionId);
         String sql = "INSERT INTO " + ACHIEVEMENTS_TABLE + " (session_id, achievement_name) VALUES (?, ?)";
-        try (Connection conn = DriverManager.getConnection(dbUrl);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, sessionId);
-            pstmt.setString(2, achievementName);
-            pstmt.executeUpdate();
+        try {
+            db.execute(c -> {
+                PreparedStatement pstmt = c.prepare(sql);
+                pstmt.setString(1, sessionId);
+                pstmt.setString(2, achievementName);
+                pstmt.executeUpdate();
+            });
         } catch (SQLException e) {
             System.err.println("Failed to log achievement: " + e.getMessage());
         }
@@ -68,6 +77,7 @@ public class StudyDataLogger {
      * Log a hint usage
      */
     public void logHintUsed(String sessionId, String room) {
+        counters.onHintUsed(sessionId);
         logInteraction(sessionId, "HINT_USED", room);
     }
 
@@ -75,6 +85,7 @@ public class StudyDataLogger {
      * Log a wrong answer
      */
     public void logWrongAnswer(String sessionId, String room) {
+        counters.onWrongAnswer(sessionId);
         logInteraction(sessionId, "WRONG_ANSWER", room);
     }
 
@@ -83,21 +94,32 @@ public class StudyDataLogger {
      */
     private void logInteraction(String sessionId, String eventType, String room) {
         String sql = "INSERT INTO " + INTERACTIONS_TABLE + " (session_id, event_type, room) VALUES (?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(dbUrl);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, sessionId);
-            pstmt.setString(2, eventType);
-            pstmt.setString(3, room);
-            pstmt.executeUpdate();
+        try {
+            db.execute(c -> {
+                PreparedStatement pstmt = c.prepare(sql);
+                pstmt.setString(1, sessionId);
+                pstmt.setString(2, eventType);
+                pstmt.setString(3, room);
+                pstmt.executeUpdate();
+            });
         } catch (SQLException e) {
             System.err.println("Failed to log interaction: " + e.getMessage());
         }
     }
 
     /**
-     * Get summary statistics for a session
+     * Get summary statistics for a session.
+     * Served from the in-memory counters; only sessions not seen since
+     * startup fall back to counting rows in the database.
      */
     public SessionSummary getSessionSummary(String sessionId) {
+        SessionSummary summary = counters.getSummary(sessionId);
+        if (summary != null) return summary;
+        return querySessionSummary(db, sessionId);
+    }
+
+    /** Count a session's rows directly (slow path for sessions the counters don't know). */
+    static SessionSummary querySessionSummary(StudyConnectionManager db, String sessionId) {
         SessionSummary summary = new SessionSummary();
 
         String achievementSQL = "SELECT COUNT(*) FROM " + ACHIEVEMENTS_TABLE + " WHERE session_id = ?";
@@ -106,27 +128,17 @@ public class StudyDataLogger {
         String wrongSQL = "SELECT COUNT(*) FROM " + INTERACTIONS_TABLE + 
                           " WHERE session_id = ? AND event_type = 'WRONG_ANSWER'";
 
-        try (Connection conn = DriverManager.getConnection(dbUrl)) {
-            // Count achievements
-            try (PreparedStatement pstmt = conn.prepareStatement(achievementSQL)) {
-                pstmt.setString(1, sessionId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) summary.achievementsUnlocked = rs.getInt(1);
-            }
+        try {
+            db.execute(c -> {
+                // Count achievements
+                summary.achievementsUnlocked = count(c.prepare(achievementSQL), sessionId);
 
-            // Count hints
-            try (PreparedStatement pstmt = conn.prepareStatement(hintSQL)) {
-                pstmt.setString(1, sessionId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) summary.hintsUsed = rs.getInt(1);
-            }
+                // Count hints
+                summary.hintsUsed = count(c.prepare(hintSQL), sessionId);
 
-            // Count wrong answers
-            try (PreparedStatement pstmt = conn.prepareStatement(wrongSQL)) {
-                pstmt.setString(1, sessionId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) summary.wrongAnswers = rs.getInt(1);
-            }
+                // Count wrong answers
+                summary.wrongAnswers = count(c.prepare(wrongSQL), sessionId);
+            });
         } catch (SQLException e) {
             System.err.println("Failed to retrieve session summary: " + e.getMessage());
         }
@@ -134,6 +146,13 @@ public class StudyDataLogger {
         return summary;
     }
 
+    private static int count(PreparedStatement pstmt, String sessionId) throws SQLException {
+        pstmt.setString(1, sessionId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
     /**
      * Simple data class for session summaries
      */
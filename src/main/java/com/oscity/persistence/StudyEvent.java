@@ -0,0 +1,75 @@
+package com.oscity.persistence;
+
+/**
+ * One row-to-be for the study database, captured on the game thread and
+ * written later by the StudyWriteQueue writer thread.
+ *
+ * The timestamp is taken when the event happens (not when it is flushed),
+ * so batching does not shift the recorded times.
+ */
+public final class StudyEvent {
+
+    /** Stored by ordinal in the StudyJournal: only ever append new types. */
+    public enum Type {
+        SESSION_START,
+        SESSION_END,
+        ACHIEVEMENT,
+        HINT_USED,
+        WRONG_ANSWER,
+        PHASE_TRANSITION
+    }
+
+    public final Type type;
+    public final String sessionId;
+    /**
+     * Mode for SESSION_START, achievement name for ACHIEVEMENT, room/phase for
+     * hints and wrong answers, phase entered for PHASE_TRANSITION.
+     */
+    public final String value;
+    /** PHASE_TRANSITION only: the phase being left. */
+    public final String fromPhase;
+    /** PHASE_TRANSITION only: room key at the time of the transition. */
+    public final String room;
+    /** PHASE_TRANSITION only: time spent in fromPhase. */
+    public final long dwellMillis;
+    /** Wall-clock time of the event (epoch millis). */
+    public final long timestamp;
+    /** Position in the StudyJournal, or -1 if the event did not come from the journal. */
+    public final long journalPosition;
+    /** Journal position just after this event's record, or -1 if it did not come from the journal. */
+    public final long journalEnd;
+
+    public StudyEvent(Type type, String sessionId, String value, long timestamp) {
+        this(type, sessionId, value, null, null, 0, timestamp, -1, -1);
+    }
+
+    StudyEvent(Type type, String sessionId, String value, String fromPhase, String room, long dwellMillis,
+               long timestamp, long journalPosition, long journalEnd) {
+        this.type            = type;
+        this.sessionId       = sessionId;
+        this.value           = value;
+        this.fromPhase       = fromPhase;
+        this.room            = room;
+        this.dwellMillis     = dwellMillis;
+        this.timestamp       = timestamp;
+        this.journalPosition = journalPosition;
+        this.journalEnd      = journalEnd;
+    }
+
+    /** A phase transition, as recorded by PhaseTimeline. */
+    public static StudyEvent phase(String sessionId, String fromPhase, String toPhase, String room,
+                                   long timestamp, long dwellMillis) {
+        return new StudyEvent(Type.PHASE_TRANSITION, sessionId, toPhase, fromPhase, room, dwellMillis,
+                timestamp, -1, -1);
+    }
+
+    /** This event as read back from the journal at {@code position} to {@code end}. */
+    StudyEvent at(long position, long end) {
+        return new StudyEvent(type, sessionId, value, fromPhase, room, dwellMillis, timestamp, position, end);
+    }
+
+    @Override
+    public String toString() {
+        return type + "[" + sessionId + (value != null ? ", " + value : "") + "]";
+    }
+}
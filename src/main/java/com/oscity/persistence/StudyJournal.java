@@ -0,0 +1,478 @@
+package com.oscity.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Append-only, memory-mapped journal of study events (plugins/OSCity/journal/).
+ *
+ * Every event is written as a record of one or more 128-byte slots into a
+ * mapped segment file, so logging from the game thread is a copy into a
+ * buffer with no syscall and no SQLite lock. A typical event fits in one
+ * slot; longer strings take as many consecutive slots as they need, so
+ * nothing is truncated. Segments hold {@link #RECORDS_PER_SEGMENT} slots and
+ * are named by their index; a new one is mapped when the current one fills
+ * up. A record never straddles two segments: if it does not fit, the rest
+ * of the segment is written as one padding record.
+ *
+ * Records are addressed by the global position of their first slot
+ * (segment * RECORDS_PER_SEGMENT + slot). The compactor (StudyWriteQueue's
+ * writer thread) reads pending records, commits them to SQLite, and stores
+ * the next position in the journal_cursor table in the same transaction,
+ * so a record is applied to the database exactly once. Segments below the
+ * cursor are deleted.
+ *
+ * On startup the cursor is read back and every record after it is replayed.
+ * The magic number is written last, so a record torn by a crash is treated
+ * as the end of the journal and overwritten by the next append.
+ *
+ * Record layout (byte offsets from the record's first slot):
+ *   0   int    magic            (written last)
+ *   4   byte   type             StudyEvent.Type ordinal + 1, or 0 for padding
+ *   5   byte   unused
+ *   6   short  slots            length of the record in slots
+ *   8   long   position
+ *   16  long   timestamp        (epoch millis)
+ *   24  long   dwell            (phase transitions; 0 otherwise)
+ *   32  strings                 sessionId, value, fromPhase, room: each a
+ *                               short byte length (-1 = null), then UTF-8
+ *
+ * Batches the database keeps rejecting are {@link #quarantine quarantined}:
+ * copied to quarantine/ before they are released, and appended to the
+ * journal again the next time it is opened.
+ */
+public class StudyJournal {
+
+    public static final int RECORD_SIZE = 128;
+    public static final int RECORDS_PER_SEGMENT = 8192;   // 1 MiB segments
+    /** Largest record accepted, in slots (8 KiB). */
+    public static final int MAX_RECORD_SLOTS = 64;
+
+    private static final int MAGIC = 0x4F534A31;           // "OSJ1"
+    private static final int OFF_TYPE = 4;
+    private static final int OFF_SLOTS = 6;
+    private static final int OFF_POSITION = 8;
+    private static final int OFF_TIMESTAMP = 16;
+    private static final int OFF_DWELL = 24;
+    private static final int OFF_STRINGS = 32;
+    private static final byte PADDING = 0;
+
+    private static final String SEGMENT_PREFIX = "study-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String QUARANTINE_SUFFIX = ".records";
+    private static final StudyEvent.Type[] TYPES = StudyEvent.Type.values();
+
+    private final File dir;
+    private final File quarantineDir;
+    /** Open segments by index. Guarded by this. */
+    private final Map<Long, MappedByteBuffer> segments = new TreeMap<>();
+    /** Segments that could not be deleted while mapped (Windows); retried later. */
+    private final List<File> deferredDeletes = new ArrayList<>();
+    /** Segments below this index have been deleted. Compactor thread only. */
+    private long firstLiveSegment;
+
+    /** Next position to append at. Written under this, read lock-free by the compactor. */
+    private volatile long writePosition;
+    /** First position not yet committed to the database. */
+    private volatile long committedPosition;
+
+    private StudyJournal(File dir, long committedPosition) {
+        this.dir = dir;
+        this.quarantineDir = new File(dir, "quarantine");
+        this.committedPosition = committedPosition;
+    }
+
+    /**
+     * Open the journal in {@code dir}, treating everything before
+     * {@code committedPosition} as already in the database. Records after it,
+     * and any quarantined batches, are pending and will be handed out by
+     * {@link #read}.
+     */
+    public static StudyJournal open(File dir, long committedPosition) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create journal directory " + dir);
+        }
+        StudyJournal journal = new StudyJournal(dir, committedPosition);
+        journal.recover();
+        journal.requeueQuarantined();
+        return journal;
+    }
+
+    // ── Cursor (stored in the study database) ─────────────────────────────────
+
+    /** Create the cursor table. Called from SQLiteStudyDatabase.initializeDatabase. */
+    static void ensureTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS journal_cursor (" +
+                    "name TEXT PRIMARY KEY," +
+                    "position INTEGER NOT NULL" +
+                    ")");
+        }
+    }
+
+    /** The committed position stored in the database (0 if the journal was never drained). */
+    static long readCursor(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT position FROM journal_cursor WHERE name = 'study'")) {
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /** Advance the stored cursor. Called inside the batch transaction. */
+    static void writeCursor(StudyConnectionManager db, long position) throws SQLException {
+        PreparedStatement ps = db.prepare(
+                "INSERT INTO journal_cursor (name, position) VALUES ('study', ?) " +
+                "ON CONFLICT(name) DO UPDATE SET position = MAX(position, excluded.position)");
+        ps.setLong(1, position);
+        ps.executeUpdate();
+    }
+
+    // ── Append (game thread) ──────────────────────────────────────────────────
+
+    /**
+     * Append an event. Returns its position. Fails (without writing anything)
+     * only if the mapping fails or the event's strings need more than
+     * {@link #MAX_RECORD_SLOTS} slots.
+     */
+    public synchronized long append(StudyEvent event) throws IOException {
+        byte[] record = encode(event);
+        int slots = record.length / RECORD_SIZE;
+        long position = writePosition;
+
+        int free = RECORDS_PER_SEGMENT - (int) (position % RECORDS_PER_SEGMENT);
+        if (slots > free) {
+            // Pad out this segment so the record starts at the next one
+            MappedByteBuffer buf = segment(position / RECORDS_PER_SEGMENT, true);
+            int base = (int) (position % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+            buf.put(base + OFF_TYPE, PADDING);
+            buf.putShort(base + OFF_SLOTS, (short) free);
+            buf.putLong(base + OFF_POSITION, position);
+            buf.putInt(base, MAGIC);
+            position += free;
+        }
+
+        MappedByteBuffer buf = segment(position / RECORDS_PER_SEGMENT, true);
+        int base = (int) (position % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+        buf.put(base + OFF_TYPE, record, OFF_TYPE, record.length - OFF_TYPE);
+        buf.putLong(base + OFF_POSITION, position);
+        buf.putInt(base, MAGIC);
+
+        writePosition = position + slots;
+        return position;
+    }
+
+    // ── Compactor side (writer thread) ────────────────────────────────────────
+
+    /** Number of slots appended but not yet committed (one per event unless its strings are long). */
+    public long getPending() {
+        return writePosition - committedPosition;
+    }
+
+    public long getWritePosition()     { return writePosition; }
+    public long getCommittedPosition() { return committedPosition; }
+
+    /** The record at {@link #position} cannot be read; nothing before it is pending. */
+    public static class CorruptRecordException extends IOException {
+        public final long position;
+
+        CorruptRecordException(long position, String message) {
+            super(message);
+            this.position = position;
+        }
+    }
+
+    /**
+     * Read up to {@code max} pending events, starting at the committed
+     * position. Each returned event carries its journal position and the
+     * position just after it. Padding at the start is released right away.
+     * A corrupt record ends the batch; if it is the first pending record,
+     * {@link CorruptRecordException} says where it is.
+     */
+    public List<StudyEvent> read(int max) throws IOException {
+        long position = committedPosition;
+        long end = writePosition;
+        List<StudyEvent> events = new ArrayList<>((int) Math.min(max, end - position));
+        while (position < end && events.size() < max) {
+            MappedByteBuffer buf = segment(position / RECORDS_PER_SEGMENT, false);
+            int base = (int) (position % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+            int slots = slotsAt(buf, base, position);
+            StudyEvent event = null;
+            String corrupt = slots < 0 ? "Corrupt journal record at position " + position : null;
+            if (corrupt == null) {
+                try {
+                    event = decode(buf, base, position);
+                } catch (IOException e) {
+                    corrupt = e.getMessage();
+                }
+            }
+            if (corrupt != null) {
+                // Hand out what was read; the bad record is reported once it is first
+                if (events.isEmpty()) throw new CorruptRecordException(position, corrupt);
+                break;
+            }
+
+            if (event != null) {
+                events.add(event.at(position, position + slots));
+            } else if (events.isEmpty()) {
+                release(position + slots);
+            }
+            position += slots;
+        }
+        return events;
+    }
+
+    /** Everything before {@code position} is in the database; drop drained segments. */
+    public void release(long position) {
+        if (position <= committedPosition) return;
+        committedPosition = position;
+        long firstLive = position / RECORDS_PER_SEGMENT;
+        if (firstLive <= firstLiveSegment) return;
+        firstLiveSegment = firstLive;
+        synchronized (this) {
+            segments.keySet().removeIf(index -> index < firstLive);
+            deferredDeletes.removeIf(File::delete);
+        }
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            long index = segmentIndex(file);
+            if (index >= 0 && index < firstLive && !file.delete()) {
+                synchronized (this) {
+                    deferredDeletes.add(file);
+                }
+            }
+        }
+    }
+
+    /** Flush the segment being appended to from the page cache to disk. */
+    public void force() {
+        MappedByteBuffer buf;
+        synchronized (this) {
+            buf = segments.get(Math.max(0, writePosition - 1) / RECORDS_PER_SEGMENT);
+        }
+        if (buf != null) buf.force();
+    }
+
+    /** Force to disk and drop the mappings. Undrained segments stay for the next startup. */
+    public synchronized void close() {
+        for (MappedByteBuffer buf : segments.values()) {
+            buf.force();
+        }
+        segments.clear();
+    }
+
+    // ── Quarantine ────────────────────────────────────────────────────────────
+
+    /**
+     * Copy {@code events} to a file in quarantine/ so they can be released
+     * without being lost, and return it. They are appended to the journal
+     * again the next time it is opened, so the stored cursor must be moved
+     * past them before they are released. Compactor thread only.
+     */
+    public File quarantine(List<StudyEvent> events) throws IOException {
+        if (!quarantineDir.isDirectory() && !quarantineDir.mkdirs()) {
+            throw new IOException("Could not create " + quarantineDir);
+        }
+        String name = String.format("batch-%012d", events.get(0).journalPosition);
+        File tmp = new File(quarantineDir, name + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp))) {
+            for (StudyEvent event : events) {
+                out.write(encode(event));
+            }
+        }
+        File file = new File(quarantineDir, name + QUARANTINE_SUFFIX);
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    /** Append every quarantined batch to the journal again, then delete its file. */
+    private void requeueQuarantined() throws IOException {
+        File[] files = quarantineDir.listFiles((d, name) -> name.endsWith(QUARANTINE_SUFFIX));
+        if (files == null || files.length == 0) return;
+        Arrays.sort(files);
+
+        long requeued = 0;
+        for (File file : files) {
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            int base = 0;
+            while (base + RECORD_SIZE <= data.capacity()) {
+                int slots = data.getShort(base + OFF_SLOTS);
+                if (slots < 1 || base + slots * RECORD_SIZE > data.capacity()) break;
+                StudyEvent event = decode(data, base, -1);
+                if (event != null) {
+                    append(event);
+                    requeued++;
+                }
+                base += slots * RECORD_SIZE;
+            }
+            force();
+            if (!file.delete()) {
+                System.err.println("[StudyDB] Could not delete " + file + "; its events may be replayed twice");
+            }
+        }
+        System.out.println("[StudyDB] Requeued " + requeued + " quarantined journal events");
+    }
+
+    // ── Recovery ──────────────────────────────────────────────────────────────
+
+    private void recover() throws IOException {
+        long first = Long.MAX_VALUE;
+        long last = -1;
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                long index = segmentIndex(file);
+                if (index < 0) continue;
+                if ((index + 1) * RECORDS_PER_SEGMENT <= committedPosition) {
+                    if (!file.delete()) deferredDeletes.add(file);
+                    continue;
+                }
+                first = Math.min(first, index);
+                last = Math.max(last, index);
+            }
+        }
+
+        if (last < 0) {
+            writePosition = committedPosition;
+            firstLiveSegment = committedPosition / RECORDS_PER_SEGMENT;
+            return;
+        }
+
+        // Segments before the cursor's were removed by hand; start at the oldest one left
+        committedPosition = Math.max(committedPosition, first * RECORDS_PER_SEGMENT);
+        firstLiveSegment = first;
+
+        // Scan the newest segment for the first slot without a valid record
+        MappedByteBuffer buf = segment(last, false);
+        long start = last * RECORDS_PER_SEGMENT;
+        int slot = (int) Math.max(0, committedPosition - start);
+        while (slot < RECORDS_PER_SEGMENT) {
+            int slots = slotsAt(buf, slot * RECORD_SIZE, start + slot);
+            if (slots < 0 || slot + slots > RECORDS_PER_SEGMENT) break;
+            slot += slots;
+        }
+        writePosition = start + slot;
+
+        long pending = getPending();
+        if (pending > 0) {
+            System.out.println("[StudyDB] Journal has " + pending + " undrained slots to replay");
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Mapped buffer for a segment. Creates the file only when appending. */
+    private synchronized MappedByteBuffer segment(long index, boolean create) throws IOException {
+        MappedByteBuffer buf = segments.get(index);
+        if (buf != null) return buf;
+
+        File file = new File(dir, String.format("%s%012d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        if (!create && !file.exists()) {
+            throw new IOException("Journal segment missing: " + file.getName());
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping past the end of the file extends it with zeros
+            buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) RECORDS_PER_SEGMENT * RECORD_SIZE);
+        }
+        segments.put(index, buf);
+        return buf;
+    }
+
+    private static long segmentIndex(File file) {
+        String name = file.getName();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) return -1;
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** Length in slots of the record at {@code base}, or -1 if there is no valid record there. */
+    private static int slotsAt(ByteBuffer buf, int base, long position) {
+        int magic = buf.getInt(base);
+        if (magic != MAGIC || buf.getLong(base + OFF_POSITION) != position) return -1;
+        int slots = buf.getShort(base + OFF_SLOTS);
+        return slots >= 1 ? slots : -1;
+    }
+
+    /** The event in the record at {@code base}, or null for padding. Validate it with {@link #slotsAt} first. */
+    private static StudyEvent decode(ByteBuffer buf, int base, long position) throws IOException {
+        int code = buf.get(base + OFF_TYPE);
+        if (code == PADDING) return null;
+        if (code < 1 || code > TYPES.length) {
+            throw new IOException("Unknown journal record type " + code + " at position " + position);
+        }
+        StudyEvent.Type type = TYPES[code - 1];
+        long timestamp = buf.getLong(base + OFF_TIMESTAMP);
+
+        int offset = base + OFF_STRINGS;
+        String[] strings = new String[4];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buf.getShort(offset);
+            strings[i] = getString(buf, offset + 2, length);
+            offset += 2 + Math.max(0, length);
+        }
+        return new StudyEvent(type, strings[0], strings[1], strings[2], strings[3],
+                buf.getLong(base + OFF_DWELL), timestamp, -1, -1);
+    }
+
+    /** The record for {@code event}, whole slots long, with position and magic left zero. */
+    private static byte[] encode(StudyEvent event) throws IOException {
+        byte[][] strings = {utf8(event.sessionId), utf8(event.value), utf8(event.fromPhase), utf8(event.room)};
+        int size = OFF_STRINGS;
+        for (byte[] s : strings) size += 2 + (s != null ? s.length : 0);
+        int slots = (size + RECORD_SIZE - 1) / RECORD_SIZE;
+        if (slots > MAX_RECORD_SLOTS) {
+            throw new IOException(event.type + " event is " + size + " bytes, more than the journal's "
+                    + MAX_RECORD_SLOTS * RECORD_SIZE + "-byte limit");
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(slots * RECORD_SIZE);
+        record.put(OFF_TYPE, (byte) (event.type.ordinal() + 1));
+        record.putShort(OFF_SLOTS, (short) slots);
+        record.putLong(OFF_TIMESTAMP, event.timestamp);
+        record.putLong(OFF_DWELL, event.dwellMillis);
+        int offset = OFF_STRINGS;
+        for (byte[] s : strings) {
+            record.putShort(offset, (short) (s != null ? s.length : -1));
+            if (s != null) record.put(offset + 2, s);
+            offset += 2 + (s != null ? s.length : 0);
+        }
+        return record.array();
+    }
+
+    private static byte[] utf8(String s) {
+        return s != null ? s.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String getString(ByteBuffer buf, int offset, int length) {
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buf.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,262 @@
+package com.oscity.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incrementally maintained aggregates behind the study summary report.
+ *
+ * Tables:
+ *   rollup_room_interactions  room → hints, wrongs   (no_room = 1 holds events with no room)
+ *   rollup_achievements       achievement_name → unlocks
+ *   rollup_session_modes      mode → started, completed, total_duration_seconds
+ *   rollup_counters           name → value   (sessions_with_achievements)
+ *
+ * They are updated inside the same transaction as the raw inserts
+ * (see SQLiteStudyDatabase.writeBatch), so they never drift from the raw
+ * tables. {@link #rebuild} regenerates them from scratch if they do.
+ *
+ * Usage per batch:
+ *   Pending p = StudyRollups.capture(db, batch);   // before raw inserts
+ *   ... insert raw rows ...
+ *   StudyRollups.apply(db, p);                     // after raw inserts
+ */
+class StudyRollups {
+
+    static final String SESSIONS_WITH_ACHIEVEMENTS = "sessions_with_achievements";
+
+    /** Rollup deltas for one batch, plus the pre-batch state needed to compute them. */
+    static class Pending {
+        final Map<String, int[]> rooms = new LinkedHashMap<>();        // room (null = none) → {hints, wrongs}
+        final Map<String, Integer> achievements = new LinkedHashMap<>();
+        final Map<String, Integer> startedModes = new HashMap<>();
+        /** Sessions ending in this batch → {wasAlreadyEnded (0/1), previousDuration}. */
+        final Map<String, long[]> endingSessions = new LinkedHashMap<>();
+        int newSessionsWithAchievements = 0;
+    }
+
+    // ── Schema ────────────────────────────────────────────────────────────────
+
+    /**
+     * Create the rollup tables. Returns true if they did not exist yet, in
+     * which case the caller should {@link #rebuild} them from the raw tables.
+     */
+    static boolean ensureTables(Connection conn) throws SQLException {
+        boolean existed;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'rollup_session_modes'")) {
+            existed = rs.next();
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            // room is '' when no_room = 1, so a room really named '' keeps its own row
+            stmt.execute("CREATE TABLE IF NOT EXISTS rollup_room_interactions (" +
+                    "room TEXT NOT NULL," +
+                    "no_room INTEGER NOT NULL DEFAULT 0," +
+                    "hints INTEGER NOT NULL DEFAULT 0," +
+                    "wrongs INTEGER NOT NULL DEFAULT 0," +
+                    "PRIMARY KEY (no_room, room)" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS rollup_achievements (" +
+                    "achievement_name TEXT PRIMARY KEY," +
+                    "unlocks INTEGER NOT NULL DEFAULT 0" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS rollup_session_modes (" +
+                    "mode TEXT PRIMARY KEY," +
+                    "started INTEGER NOT NULL DEFAULT 0," +
+                    "completed INTEGER NOT NULL DEFAULT 0," +
+                    "total_duration_seconds INTEGER NOT NULL DEFAULT 0" +
+                    ")");
+            stmt.execute("CREATE TABLE IF NOT EXISTS rollup_counters (" +
+                    "name TEXT PRIMARY KEY," +
+                    "value INTEGER NOT NULL DEFAULT 0" +
+                    ")");
+        }
+        return !existed;
+    }
+
+    // ── Incremental maintenance (writer thread, inside the batch transaction) ─
+
+    /** Collect deltas from the batch and read the pre-insert state they depend on. */
+    static Pending capture(StudyConnectionManager db, List<StudyEvent> batch) throws SQLException {
+        Pending p = new Pending();
+        Set<String> startedInBatch = new HashSet<>();
+        Set<String> achievedInBatch = new HashSet<>();
+
+        PreparedStatement sessionExists = db.prepare("SELECT 1 FROM sessions WHERE session_id = ?");
+        PreparedStatement hasAchievement = db.prepare("SELECT 1 FROM study_achievements WHERE session_id = ? LIMIT 1");
+        PreparedStatement sessionEnd = db.prepare("SELECT end_time, duration_seconds FROM sessions WHERE session_id = ?");
+
+        for (StudyEvent e : batch) {
+            switch (e.type) {
+                case HINT_USED:
+                case WRONG_ANSWER: {
+                    int[] counts = p.rooms.computeIfAbsent(e.value, k -> new int[2]);
+                    counts[e.type == StudyEvent.Type.HINT_USED ? 0 : 1]++;
+                    break;
+                }
+                case ACHIEVEMENT:
+                    p.achievements.merge(e.value, 1, Integer::sum);
+                    if (achievedInBatch.add(e.sessionId) && !exists(hasAchievement, e.sessionId)) {
+                        p.newSessionsWithAchievements++;
+                    }
+                    break;
+                case SESSION_START:
+                    // INSERT OR IGNORE keeps the first start only
+                    if (startedInBatch.add(e.sessionId) && !exists(sessionExists, e.sessionId)) {
+                        p.startedModes.merge(e.value, 1, Integer::sum);
+                    }
+                    break;
+                case SESSION_END:
+                    if (!p.endingSessions.containsKey(e.sessionId)) {
+                        p.endingSessions.put(e.sessionId, readEndState(sessionEnd, e.sessionId));
+                    }
+                    break;
+            }
+        }
+        return p;
+    }
+
+    /** Apply the deltas. Call after the raw rows of the batch have been written. */
+    static void apply(StudyConnectionManager db, Pending p) throws SQLException {
+        if (!p.rooms.isEmpty()) {
+            PreparedStatement ps = db.prepare(
+                    "INSERT INTO rollup_room_interactions (room, no_room, hints, wrongs) VALUES (?, ?, ?, ?) " +
+                    "ON CONFLICT(no_room, room) DO UPDATE SET hints = hints + excluded.hints, wrongs = wrongs + excluded.wrongs");
+            for (Map.Entry<String, int[]> e : p.rooms.entrySet()) {
+                ps.setString(1, e.getKey() != null ? e.getKey() : "");
+                ps.setInt(2, e.getKey() == null ? 1 : 0);
+                ps.setInt(3, e.getValue()[0]);
+                ps.setInt(4, e.getValue()[1]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        if (!p.achievements.isEmpty()) {
+            PreparedStatement ps = db.prepare(
+                    "INSERT INTO rollup_achievements (achievement_name, unlocks) VALUES (?, ?) " +
+                    "ON CONFLICT(achievement_name) DO UPDATE SET unlocks = unlocks + excluded.unlocks");
+            for (Map.Entry<String, Integer> e : p.achievements.entrySet()) {
+                ps.setString(1, e.getKey());
+                ps.setInt(2, e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        if (p.newSessionsWithAchievements > 0) {
+            addCounter(db, SESSIONS_WITH_ACHIEVEMENTS, p.newSessionsWithAchievements);
+        }
+
+        PreparedStatement modes = db.prepare(
+                "INSERT INTO rollup_session_modes (mode, started, completed, total_duration_seconds) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT(mode) DO UPDATE SET started = started + excluded.started, " +
+                "completed = completed + excluded.completed, " +
+                "total_duration_seconds = total_duration_seconds + excluded.total_duration_seconds");
+        boolean anyModes = false;
+        for (Map.Entry<String, Integer> e : p.startedModes.entrySet()) {
+            setModeDelta(modes, e.getKey(), e.getValue(), 0, 0);
+            anyModes = true;
+        }
+
+        PreparedStatement ended = db.prepare("SELECT mode, duration_seconds FROM sessions WHERE session_id = ?");
+        for (Map.Entry<String, long[]> e : p.endingSessions.entrySet()) {
+            ended.setString(1, e.getKey());
+            try (ResultSet rs = ended.executeQuery()) {
+                if (!rs.next()) continue;  // end for a session we never saw start
+                long[] before = e.getValue();
+                int newlyCompleted = before[0] == 0 ? 1 : 0;
+                long durationDelta = rs.getLong("duration_seconds") - before[1];
+                setModeDelta(modes, rs.getString("mode"), 0, newlyCompleted, durationDelta);
+                anyModes = true;
+            }
+        }
+        if (anyModes) modes.executeBatch();
+    }
+
+    // ── Rebuild ───────────────────────────────────────────────────────────────
+
+    /** Regenerate every rollup from the raw tables. */
+    static void rebuild(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM rollup_room_interactions");
+            stmt.execute("INSERT INTO rollup_room_interactions (room, no_room, hints, wrongs) " +
+                    "SELECT COALESCE(room, ''), room IS NULL, " +
+                    "SUM(CASE WHEN event_type = 'HINT_USED' THEN 1 ELSE 0 END), " +
+                    "SUM(CASE WHEN event_type = 'WRONG_ANSWER' THEN 1 ELSE 0 END) " +
+                    "FROM study_interactions GROUP BY room");
+
+            stmt.execute("DELETE FROM rollup_achievements");
+            stmt.execute("INSERT INTO rollup_achievements (achievement_name, unlocks) " +
+                    "SELECT achievement_name, COUNT(*) FROM study_achievements GROUP BY achievement_name");
+
+            stmt.execute("DELETE FROM rollup_session_modes");
+            stmt.execute("INSERT INTO rollup_session_modes (mode, started, completed, total_duration_seconds) " +
+                    "SELECT mode, COUNT(*), " +
+                    "SUM(CASE WHEN end_time IS NOT NULL THEN 1 ELSE 0 END), " +
+                    "COALESCE(SUM(CASE WHEN end_time IS NOT NULL THEN duration_seconds ELSE 0 END), 0) " +
+                    "FROM sessions GROUP BY mode");
+
+            stmt.execute("DELETE FROM rollup_counters");
+            stmt.execute("INSERT INTO rollup_counters (name, value) " +
+                    "SELECT '" + SESSIONS_WITH_ACHIEVEMENTS + "', COUNT(DISTINCT session_id) FROM study_achievements");
+        }
+    }
+
+    /** Empty every rollup (used when the raw tables are cleared). */
+    static void clear(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM rollup_room_interactions");
+            stmt.execute("DELETE FROM rollup_achievements");
+            stmt.execute("DELETE FROM rollup_session_modes");
+            stmt.execute("DELETE FROM rollup_counters");
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static boolean exists(PreparedStatement ps, String sessionId) throws SQLException {
+        ps.setString(1, sessionId);
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    private static long[] readEndState(PreparedStatement ps, String sessionId) throws SQLException {
+        ps.setString(1, sessionId);
+        try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) return new long[] { 0, 0 };
+            boolean ended = rs.getString("end_time") != null;
+            return new long[] { ended ? 1 : 0, ended ? rs.getLong("duration_seconds") : 0 };
+        }
+    }
+
+    private static void setModeDelta(PreparedStatement ps, String mode, int started, int completed,
+                                     long durationSeconds) throws SQLException {
+        ps.setString(1, mode);
+        ps.setInt(2, started);
+        ps.setInt(3, completed);
+        ps.setLong(4, durationSeconds);
+        ps.addBatch();
+    }
+
+    private static void addCounter(StudyConnectionManager db, String name, long delta) throws SQLException {
+        PreparedStatement ps = db.prepare(
+                "INSERT INTO rollup_counters (name, value) VALUES (?, ?) " +
+                "ON CONFLICT(name) DO UPDATE SET value = value + excluded.value");
+        ps.setString(1, name);
+        ps.setLong(2, delta);
+        ps.executeUpdate();
+    }
+}
@@ -0,0 +1,124 @@
+package com.oscity.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory read model of per-session achievement, hint and wrong-answer
+ * counts, so session summaries never have to touch the database.
+ *
+ * It is fed by the same calls that log events (SQLiteStudyDatabase and
+ * StudyDataLogger), and warmed once at startup from the database for
+ * sessions that are still open. Session IDs are generated fresh every
+ * server run, so a session the model has never seen starts from zero.
+ *
+ * One model per database URL, shared by everything logging to that database.
+ */
+public class StudySessionCounters {
+
+    private static final Map<String, StudySessionCounters> INSTANCES = new ConcurrentHashMap<>();
+
+    private static class Counts {
+        final AtomicInteger achievements = new AtomicInteger();
+        final AtomicInteger hints        = new AtomicInteger();
+        final AtomicInteger wrongAnswers = new AtomicInteger();
+    }
+
+    private final Map<String, Counts> sessions = new ConcurrentHashMap<>();
+
+    private StudySessionCounters() { }
+
+    /** The read model for a database URL. */
+    public static StudySessionCounters forDatabase(String url) {
+        return INSTANCES.computeIfAbsent(url, k -> new StudySessionCounters());
+    }
+
+    // ── Feed (called from the logging front doors) ───────────────────────────
+
+    public void onSessionStart(String sessionId) {
+        counts(sessionId);
+    }
+
+    public void onAchievement(String sessionId) {
+        counts(sessionId).achievements.incrementAndGet();
+    }
+
+    public void onHintUsed(String sessionId) {
+        counts(sessionId).hints.incrementAndGet();
+    }
+
+    public void onWrongAnswer(String sessionId) {
+        counts(sessionId).wrongAnswers.incrementAndGet();
+    }
+
+    /** Forget everything (the underlying tables were cleared). */
+    public void clear() {
+        sessions.clear();
+    }
+
+    // ── Read ──────────────────────────────────────────────────────────────────
+
+    /** True if this session's counts are known in memory. */
+    public boolean isTracked(String sessionId) {
+        return sessions.containsKey(sessionId);
+    }
+
+    /**
+     * Summary for a tracked session, or null if the model has never seen it
+     * (e.g. a session that ended before the last restart).
+     */
+    public StudyDataLogger.SessionSummary getSummary(String sessionId) {
+        Counts c = sessions.get(sessionId);
+        if (c == null) return null;
+        StudyDataLogger.SessionSummary summary = new StudyDataLogger.SessionSummary();
+        summary.achievementsUnlocked = c.achievements.get();
+        summary.hintsUsed            = c.hints.get();
+        summary.wrongAnswers         = c.wrongAnswers.get();
+        return summary;
+    }
+
+    public int getTrackedSessionCount() {
+        return sessions.size();
+    }
+
+    // ── Warm-up ───────────────────────────────────────────────────────────────
+
+    /**
+     * Load counts for every session that has no end_time yet.
+     * Does nothing if the database has no sessions table.
+     */
+    public void warm(Connection conn) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getTables(null, null, "sessions", null)) {
+            if (!rs.next()) return;
+        }
+
+        String sql = "SELECT s.session_id, " +
+                "(SELECT COUNT(*) FROM study_achievements a WHERE a.session_id = s.session_id) as achievements, " +
+                "(SELECT COUNT(*) FROM study_interactions i WHERE i.session_id = s.session_id " +
+                "AND i.event_type = 'HINT_USED') as hints, " +
+                "(SELECT COUNT(*) FROM study_interactions i WHERE i.session_id = s.session_id " +
+                "AND i.event_type = 'WRONG_ANSWER') as wrongs " +
+                "FROM sessions s WHERE s.end_time IS NULL";
+        int warmed = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Counts c = counts(rs.getString("session_id"));
+                c.achievements.set(rs.getInt("achievements"));
+                c.hints.set(rs.getInt("hints"));
+                c.wrongAnswers.set(rs.getInt("wrongs"));
+                warmed++;
+            }
+        }
+        System.out.println("[StudyDB] Session counters warmed for " + warmed + " open sessions");
+    }
+
+    private Counts counts(String sessionId) {
+        return sessions.computeIfAbsent(sessionId, k -> new Counts());
+    }
+}
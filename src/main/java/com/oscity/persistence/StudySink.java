@@ -0,0 +1,46 @@
+package com.oscity.persistence;
+
+import java.time.LocalDateTime;
+
+/**
+ * Destination for user study telemetry: sessions, interactions (hints and
+ * wrong answers), achievement unlocks and phase transitions.
+ *
+ * Game code logs through a sink instead of calling a database class
+ * directly, so the backend can be chosen in config.yml (studyData.backend)
+ * and backends can be compared under the same load:
+ *
+ *   sqlite  SQLiteStudySink  batched writes to study_data.db (default)
+ *   h2      H2StudySink      batched writes to an embedded H2 database
+ *   memory  MemoryStudySink  counts only, no I/O (benchmarks)
+ *
+ * Every logging method is called on the main thread and must not block.
+ */
+public interface StudySink {
+
+    /** Backend name as used in config.yml. */
+    String getName();
+
+    void startSession(String sessionId, String mode, LocalDateTime startTime);
+
+    void endSession(String sessionId, LocalDateTime endTime);
+
+    void logAchievement(String sessionId, String achievementName);
+
+    void logHintUsed(String sessionId, String room);
+
+    void logWrongAnswer(String sessionId, String room);
+
+    /** A player left {@code fromPhase} for {@code toPhase} at {@code at} (epoch millis). */
+    void logPhaseTransition(String sessionId, String fromPhase, String toPhase, String room,
+                            long at, long dwellMillis);
+
+    /** Achievement, hint and wrong-answer counts for a session. */
+    StudyDataLogger.SessionSummary getSessionSummary(String sessionId);
+
+    /** One-line throughput summary for logs and /oscity sink. */
+    String describe();
+
+    /** Flush anything pending and release resources. Called from onDisable. */
+    void shutdown();
+}
@@ -0,0 +1,330 @@
+package com.oscity.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-writer queue for study events.
+ *
+ * Game code only ever calls {@link #offer}, which is a non-blocking array
+ * insert. A dedicated daemon thread drains the queue and hands batches to a
+ * {@link BatchWriter}, which commits each batch in one transaction.
+ *
+ * A batch is flushed when either {@code maxBatch} events are waiting or
+ * {@code flushIntervalMs} has passed since the first event of the batch
+ * arrived — whichever comes first.
+ *
+ * If the queue is full, the event is dropped and counted rather than
+ * stalling the server tick.
+ *
+ * When constructed with a {@link StudyJournal}, the in-memory queue is
+ * replaced by the journal: {@link #offer} appends a record to the mapped
+ * segment and the writer thread acts as the compactor, reading pending
+ * records back and committing them. A failed batch stays in the journal and
+ * is retried with a growing pause (up to {@link #MAX_BACKOFF_MS}). Only after
+ * {@link #MAX_ATTEMPTS} failures in a row is it copied to the journal's
+ * quarantine, the stored cursor moved past it and the batch released, so
+ * one bad event cannot block the journal; the quarantined events are
+ * appended again on the next startup. Nothing is
+ * dropped, and the depth is the journal's backlog.
+ */
+public class StudyWriteQueue {
+
+    /** Writes one batch of events. Called only from the writer thread. */
+    public interface BatchWriter {
+        void write(List<StudyEvent> batch) throws Exception;
+    }
+
+    /** Stores the journal's drained position without a batch (one was quarantined). Writer thread only. */
+    public interface CursorWriter {
+        void write(long position) throws Exception;
+    }
+
+    private final String name;
+    private final BlockingQueue<StudyEvent> queue;
+    private final StudyJournal journal;
+    private final BatchWriter writer;
+    private final CursorWriter cursor;
+    private final long flushIntervalMs;
+    private final int maxBatch;
+
+    /** Attempts at a failing journal batch before it is quarantined. */
+    private static final int MAX_ATTEMPTS = 12;
+    /** Longest pause between attempts at a failing journal batch. */
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private volatile boolean running = false;
+    private Thread thread;
+    private int consecutiveFailures = 0;
+
+    // ── Metrics (written by the writer thread, read from anywhere) ───────────
+    private final AtomicLong dropped      = new AtomicLong();
+    private final AtomicLong written      = new AtomicLong();
+    private final AtomicLong failed       = new AtomicLong();
+    private final AtomicLong batches      = new AtomicLong();
+    private volatile long lastFlushNanos  = 0;
+    private volatile long maxFlushNanos   = 0;
+    private volatile int  lastBatchSize   = 0;
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+
+    public StudyWriteQueue(String name, BatchWriter writer, int capacity, long flushIntervalMs, int maxBatch) {
+        this.name            = name;
+        this.writer          = writer;
+        this.queue           = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.journal         = null;
+        this.cursor          = null;
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.maxBatch        = Math.max(1, maxBatch);
+    }
+
+    /** Journal-backed queue: events are appended to the journal and compacted into the writer. */
+    public StudyWriteQueue(String name, BatchWriter writer, StudyJournal journal, CursorWriter cursor,
+                           long flushIntervalMs, int maxBatch) {
+        this.name            = name;
+        this.writer          = writer;
+        this.queue           = null;
+        this.journal         = journal;
+        this.cursor          = cursor;
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.maxBatch        = Math.max(1, maxBatch);
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────────
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(journal != null ? this::compactLoop : this::runLoop, "OSCity-" + name + "-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop accepting new work, flush everything still queued and wait for the
+     * writer thread to exit (at most {@code timeoutMs}).
+     */
+    public synchronized void shutdown(long timeoutMs) {
+        if (!running) return;
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            journal.close();
+            if (journal.getPending() > 0) {
+                System.err.println("[" + name + "] " + journal.getPending()
+                        + " events left in the journal; they will be replayed on next startup");
+            }
+        } else if (!queue.isEmpty()) {
+            System.err.println("[" + name + "] " + queue.size() + " events still queued at shutdown");
+        }
+    }
+
+    /**
+     * Commit everything already in the journal on the calling thread.
+     * Used at startup, before {@link #start}, so replayed events are in the
+     * database before anything reads it. Returns the number of events replayed.
+     */
+    public long replay() {
+        if (journal == null || running) return 0;
+        long replayed = 0;
+        while (journal.getPending() > 0) {
+            int n = compactOnce();
+            if (n < 0) break;
+            replayed += n;
+        }
+        return replayed;
+    }
+
+    // ── Front door ────────────────────────────────────────────────────────────
+
+    /** Enqueue an event. Never blocks; returns false if the queue was full. */
+    public boolean offer(StudyEvent event) {
+        if (journal != null) {
+            try {
+                journal.append(event);
+            } catch (IOException e) {
+                dropped.incrementAndGet();
+                System.err.println("[" + name + "] Journal append failed, dropped " + event + ": " + e.getMessage());
+                return false;
+            }
+            if (journal.getPending() >= maxBatch) LockSupport.unpark(thread);
+            return true;
+        }
+        if (queue.offer(event)) return true;
+        long n = dropped.incrementAndGet();
+        if (n == 1 || n % 1000 == 0) {
+            System.err.println("[" + name + "] Write queue full, dropped " + n + " events so far");
+        }
+        return false;
+    }
+
+    // ── Writer thread ─────────────────────────────────────────────────────────
+
+    private void runLoop() {
+        List<StudyEvent> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                StudyEvent first = running
+                        ? queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS)
+                        : queue.poll();
+                if (first == null) continue;
+                batch.add(first);
+
+                // Keep collecting until the batch is full or the interval has elapsed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (running && batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    StudyEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // shutdown() interrupts us; fall through and drain without waiting
+            }
+            queue.drainTo(batch, maxBatch - batch.size());
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Compactor loop for the journal-backed queue. Wakes every flush interval
+     * (or when a full batch is waiting), syncs the journal to disk and
+     * commits what is pending. On shutdown it drains until the journal is
+     * empty or a batch fails.
+     */
+    private void compactLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running) {
+            if (journal.getPending() < maxBatch) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+            journal.force();
+            if (compactOnce() < 0) {
+                // Leave the batch in the journal and back off before retrying: 2, 4, 8... intervals
+                long backoffMs = Math.min(MAX_BACKOFF_MS, flushIntervalMs << Math.min(consecutiveFailures, 16));
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(backoffMs));
+            }
+        }
+        while (journal.getPending() > 0 && compactOnce() >= 0) { }
+    }
+
+    /** Commit one batch from the journal. Returns its size, or -1 if it failed and was kept (or could not be quarantined). */
+    private int compactOnce() {
+        List<StudyEvent> batch;
+        try {
+            batch = journal.read(maxBatch);
+        } catch (StudyJournal.CorruptRecordException e) {
+            // Unreadable record: skip its slot so the rest of the journal can drain
+            failed.incrementAndGet();
+            System.err.println("[" + name + "] Skipping journal record " + e.position + ": " + e.getMessage());
+            journal.release(e.position + 1);
+            return 0;
+        } catch (IOException e) {
+            System.err.println("[" + name + "] Could not read the journal: " + e.getMessage());
+            return -1;
+        }
+        if (batch.isEmpty()) return 0;
+
+        if (!flush(batch)) {
+            if (++consecutiveFailures < MAX_ATTEMPTS) return -1;
+            // Set the batch aside so one bad event cannot block the journal forever
+            long end = batch.get(batch.size() - 1).journalEnd;
+            File file;
+            try {
+                file = journal.quarantine(batch);
+            } catch (IOException e) {
+                System.err.println("[" + name + "] Could not quarantine " + batch.size()
+                        + " journal events, keeping them in the journal: " + e.getMessage());
+                return -1;
+            }
+            try {
+                // Otherwise a restart would replay the batch from the journal and requeue it too
+                cursor.write(end);
+            } catch (Exception e) {
+                if (!file.delete()) {
+                    System.err.println("[" + name + "] Could not delete " + file + "; its events may be written twice");
+                }
+                System.err.println("[" + name + "] Could not move the journal cursor past a quarantined batch, "
+                        + "keeping it in the journal: " + e.getMessage());
+                return -1;
+            }
+            failed.addAndGet(batch.size());
+            System.err.println("[" + name + "] Quarantined " + batch.size() + " journal events after "
+                    + MAX_ATTEMPTS + " failed attempts; they will be retried on next startup");
+        }
+        consecutiveFailures = 0;
+        journal.release(batch.get(batch.size() - 1).journalEnd);
+        return batch.size();
+    }
+
+    /** Write one batch and record timings. Returns false if the writer failed. */
+    private boolean flush(List<StudyEvent> batch) {
+        if (batch.isEmpty()) return true;
+        long start = System.nanoTime();
+        boolean ok = true;
+        try {
+            writer.write(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            ok = false;
+            if (journal == null) failed.addAndGet(batch.size());
+            System.err.println("[" + name + "] Failed to write batch of " + batch.size() + ": " + e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        lastFlushNanos = elapsed;
+        lastBatchSize  = batch.size();
+        if (elapsed > maxFlushNanos) maxFlushNanos = elapsed;
+        totalFlushNanos.addAndGet(elapsed);
+        batches.incrementAndGet();
+        return ok;
+    }
+
+    // ── Metrics ───────────────────────────────────────────────────────────────
+
+    /** Number of events waiting to be written (for a journal, its undrained backlog). */
+    public int getDepth() {
+        return journal != null ? (int) Math.min(Integer.MAX_VALUE, journal.getPending()) : queue.size();
+    }
+
+    /** Queue capacity; a journal is bounded by disk, reported as Integer.MAX_VALUE. */
+    public int getCapacity() {
+        return journal != null ? Integer.MAX_VALUE : queue.size() + queue.remainingCapacity();
+    }
+
+    /** The backing journal, or null for an in-memory queue. */
+    public StudyJournal getJournal()  { return journal; }
+    public long getDroppedCount()     { return dropped.get(); }
+    public long getWrittenCount()     { return written.get(); }
+    public long getFailedCount()      { return failed.get(); }
+    public long getBatchCount()       { return batches.get(); }
+    public int getLastBatchSize()     { return lastBatchSize; }
+    public double getLastFlushMillis() { return lastFlushNanos / 1_000_000.0; }
+    public double getMaxFlushMillis()  { return maxFlushNanos / 1_000_000.0; }
+
+    public double getAverageFlushMillis() {
+        long n = batches.get();
+        return n == 0 ? 0 : totalFlushNanos.get() / 1_000_000.0 / n;
+    }
+
+    /** One-line summary for logs and admin commands. */
+    public String describe() {
+        return String.format("depth=%d/%d written=%d dropped=%d failed=%d batches=%d "
+                        + "lastFlush=%.2fms (%d rows) avgFlush=%.2fms maxFlush=%.2fms",
+                getDepth(), getCapacity(), getWrittenCount(), getDroppedCount(), getFailedCount(),
+                getBatchCount(), getLastFlushMillis(), getLastBatchSize(),
+                getAverageFlushMillis(), getMaxFlushMillis());
+    }
+}
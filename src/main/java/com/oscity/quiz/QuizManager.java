@@ -3,7 +3,7 @@ package com.oscity.quiz;
 import com.oscity.config.ConfigManager;
 import com.oscity.content.QuestionBank;
 import com.oscity.journey.Journey;
-import com.oscity.persistence.SQLiteStudyDatabase;
+import com.oscity.persistence.StudySink;
 import com.oscity.session.JourneyTracker;
 import com.oscity.session.SessionManager;
 import com.oscity.world.RoomRegistry;
@@ -55,6 +55,7 @@ public class QuizManager implements Listener {
     private final RoomRegistry roomRegistry;
     private final QuestionBank questionBank;
     private final JourneyTracker journeyTracker;
+    private final StudySink studySink;
 
     // ── Active assessment quiz sessions ───────────────────────────────────────
 
@@ -92,13 +93,14 @@ public class QuizManager implements Listener {
     public QuizManager(JavaPlugin plugin, ConfigManager configManager,
                        SessionManager sessionManager,
                        RoomRegistry roomRegistry, QuestionBank questionBank,
-                       JourneyTracker journeyTracker) {
+                       JourneyTracker journeyTracker, StudySink studySink) {
         this.plugin         = plugin;
         this.configManager  = configManager;
         this.sessionManager = sessionManager;
         this.roomRegistry   = roomRegistry;
         this.questionBank   = questionBank;
         this.journeyTracker = journeyTracker;
+        this.studySink      = studySink;
     }
 
     public void register() {
@@ -123,7 +125,7 @@ public class QuizManager implements Listener {
         } else {
             player.sendMessage("§c" + question.wrongFeedback);
             sessionManager.recordWrongAnswer();
-            SQLiteStudyDatabase.logWrongAnswer(
+            studySink.logWrongAnswer(
                 sessionManager.getSessionId(),
                 getCurrentRoom(player)
             );
@@ -2,6 +2,7 @@ package com.oscity.session;
 
 import com.oscity.journey.Journey;
 import com.oscity.mode.PlayerMode;
+import com.oscity.persistence.PlayerDAO;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
@@ -9,6 +10,7 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -19,6 +21,10 @@ import java.util.UUID;
  *
  * Default phase "terminal_spawn" means the player just arrived
  * at the terminal and has not yet chosen a journey.
+ *
+ * Every change to a persisted field sets a bit in the state's dirty mask
+ * (PlayerDAO field bits); PlayerStateStore periodically collects the
+ * changed fields as deltas and hands them to PlayerDAO.
  */
 public class JourneyTracker {
 
@@ -44,7 +50,7 @@ public class JourneyTracker {
         public Journey journey;
         public String phase = "terminal_spawn";
         public PlayerMode mode = null;
-        public final Map<String, String> vars = new HashMap<>();
+        public final Map<String, String> vars = new TrackedVars();
 
         // ── Assessment quiz state ────────────────────────────────────────────
         /** Wrong-answer count per journey (reset when quiz is retaken). */
@@ -56,6 +62,53 @@ public class JourneyTracker {
         /** Tracks position in the "all journeys in order" path (1–7, 0 = not started). */
         public int allInOrderIndex = 0;
 
+        // ── Phase timing (see PhaseTimeline) ─────────────────────────────────
+        /** Recent phase transitions, drained periodically by PhaseTelemetry. */
+        public final PhaseTimeline timeline = new PhaseTimeline(PHASE_RING_SIZE);
+        int phaseId = PhaseTimeline.intern("terminal_spawn");
+        int roomId = 0;
+        long phaseEnteredNanos = System.nanoTime();
+
+        /** PlayerDAO field bits changed since the last snapshot. */
+        int dirty = 0;
+
+        /** Vars map that marks VARS dirty whenever a value actually changes. */
+        private class TrackedVars extends HashMap<String, String> {
+            @Override
+            public String put(String key, String value) {
+                String old = super.put(key, value);
+                if (!Objects.equals(old, value)) dirty |= PlayerDAO.VARS;
+                return old;
+            }
+
+            @Override
+            public void putAll(Map<? extends String, ? extends String> m) {
+                for (Map.Entry<? extends String, ? extends String> e : m.entrySet()) {
+                    put(e.getKey(), e.getValue());
+                }
+            }
+
+            @Override
+            public String putIfAbsent(String key, String value) {
+                String old = super.putIfAbsent(key, value);
+                if (old == null) dirty |= PlayerDAO.VARS;
+                return old;
+            }
+
+            @Override
+            public String remove(Object key) {
+                if (!containsKey(key)) return null;
+                dirty |= PlayerDAO.VARS;
+                return super.remove(key);
+            }
+
+            @Override
+            public void clear() {
+                if (!isEmpty()) dirty |= PlayerDAO.VARS;
+                super.clear();
+            }
+        }
+
         /** Convenience: set a var and return self for chaining. */
         public PlayerState setVar(String key, String value) {
             vars.put(key, value);
@@ -66,10 +119,16 @@ public class JourneyTracker {
         public void resetQuiz() {
             quizWrongCounts.clear();
             quizResults.clear();
+            dirty |= PlayerDAO.QUIZ;
         }
     }
 
+    /** Transitions buffered per player between flushes. */
+    private static final int PHASE_RING_SIZE = 64;
+
     private final Map<UUID, PlayerState> states = new HashMap<>();
+    /** Transitions of states replaced by restore(), kept until the next drain. */
+    private final Map<String, List<PhaseTimeline.Transition>> replacedTransitions = new HashMap<>();
 
     // ── State accessors ──────────────────────────────────────────────────────
 
@@ -82,6 +141,7 @@ public class JourneyTracker {
     public void setJourney(Player player, Journey journey) {
         PlayerState state = getState(player);
         state.journey = journey;
+        state.dirty |= PlayerDAO.JOURNEY;
         if (journey != null) {
             state.vars.put("journey", journey.displayName);
             journey.initVars(state.vars);
@@ -94,8 +154,44 @@ public class JourneyTracker {
         return getState(player).journey;
     }
 
+    /**
+     * Change the player's phase and record the transition with the time spent
+     * in the previous phase. Allocation-free once the phase name has been seen.
+     */
     public void setPhase(Player player, String phase) {
-        getState(player).phase = phase;
+        PlayerState state = getState(player);
+        int newId = PhaseTimeline.intern(phase);
+        if (newId != state.phaseId) {
+            long now = System.nanoTime();
+            state.timeline.record(state.phaseId, newId, state.roomId,
+                    System.currentTimeMillis(), now - state.phaseEnteredNanos);
+            state.phaseId = newId;
+            state.phaseEnteredNanos = now;
+        }
+        if (!Objects.equals(state.phase, phase)) state.dirty |= PlayerDAO.PHASE;
+        state.phase = phase;
+    }
+
+    /** Room the player is currently in (room key, or null between rooms); tags phase transitions. */
+    public void setRoom(Player player, String roomKey) {
+        getState(player).roomId = PhaseTimeline.intern(roomKey);
+    }
+
+    /** Drain every player's buffered phase transitions into {@code out}, tagged with their session ID. */
+    public void drainPhaseTransitions(Map<String, List<PhaseTimeline.Transition>> out) {
+        for (Map.Entry<String, List<PhaseTimeline.Transition>> e : replacedTransitions.entrySet()) {
+            out.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).addAll(e.getValue());
+        }
+        replacedTransitions.clear();
+        for (PlayerState state : states.values()) {
+            drainState(state, out);
+        }
+    }
+
+    private static void drainState(PlayerState state, Map<String, List<PhaseTimeline.Transition>> out) {
+        if (state.timeline.size() == 0) return;
+        String sessionId = state.vars.getOrDefault("sessionId", "?");
+        state.timeline.drainTo(out.computeIfAbsent(sessionId, k -> new ArrayList<>()));
     }
 
     public String getPhase(Player player) {
@@ -115,7 +211,9 @@ public class JourneyTracker {
     }
 
     public void setMode(Player player, PlayerMode mode) {
-        getState(player).mode = mode;
+        PlayerState state = getState(player);
+        state.mode = mode;
+        state.dirty |= PlayerDAO.MODE;
     }
 
     public PlayerMode getMode(Player player) {
@@ -131,11 +229,6 @@ public class JourneyTracker {
         state.vars.clear();
     }
 
-    /** Clear all state for this player (e.g. on journey restart). */
-    public void reset(Player player) {
-        states.remove(player.getUniqueId());
-    }
-
     // ── Assessment quiz accessors ─────────────────────────────────────────────
 
     /**
@@ -147,6 +240,7 @@ public class JourneyTracker {
         PlayerState state = getState(player);
         QuizResult result = new QuizResult(journey, question, chosen, correct);
         state.quizResults.add(result);
+        state.dirty |= PlayerDAO.QUIZ;
         if (!result.correct) {
             state.quizWrongCounts.merge(journey, 1, Integer::sum);
         }
@@ -205,6 +299,103 @@ public class JourneyTracker {
 
     /** Sets the "all in order" journey index directly. */
     public void setAllInOrderIndex(Player player, int index) {
-        getState(player).allInOrderIndex = index;
+        PlayerState state = getState(player);
+        state.allInOrderIndex = index;
+        state.dirty |= PlayerDAO.ALL_IN_ORDER;
+    }
+
+    // ── Persistence (see PlayerStateStore) ────────────────────────────────────
+
+    /** True if this player has state in memory (i.e. joined since the last restart). */
+    public boolean hasState(UUID uuid) {
+        return states.containsKey(uuid);
+    }
+
+    /** True if the player is partway through a journey rather than at the terminal. */
+    public boolean isMidJourney(Player player) {
+        PlayerState state = states.get(player.getUniqueId());
+        return state != null && state.journey != null && !"terminal_spawn".equals(state.phase);
+    }
+
+    /**
+     * Delta of this player's fields changed since the last call (mask 0 if
+     * nothing changed), and clear the dirty mask.
+     */
+    public PlayerDAO.Snapshot takeDelta(UUID uuid) {
+        PlayerState state = states.get(uuid);
+        PlayerDAO.Snapshot delta = new PlayerDAO.Snapshot();
+        if (state == null || state.dirty == 0) return delta;
+
+        int mask = state.dirty;
+        delta.mask = mask;
+        if ((mask & PlayerDAO.JOURNEY) != 0)      delta.journey = state.journey != null ? state.journey.number : 0;
+        if ((mask & PlayerDAO.PHASE) != 0)        delta.phase = state.phase;
+        if ((mask & PlayerDAO.MODE) != 0)         delta.mode = state.mode != null ? state.mode.name() : null;
+        if ((mask & PlayerDAO.VARS) != 0)         delta.vars = encodeVars(state.vars);
+        if ((mask & PlayerDAO.QUIZ) != 0)         delta.quiz = encodeQuiz(state.quizResults);
+        if ((mask & PlayerDAO.ALL_IN_ORDER) != 0) delta.allInOrderIndex = state.allInOrderIndex;
+        state.dirty = 0;
+        return delta;
+    }
+
+    /** UUIDs of every player with unsaved changes. */
+    public List<UUID> getDirtyPlayers() {
+        List<UUID> dirty = new ArrayList<>();
+        for (Map.Entry<UUID, PlayerState> e : states.entrySet()) {
+            if (e.getValue().dirty != 0) dirty.add(e.getKey());
+        }
+        return dirty;
+    }
+
+    /** Replace this player's state with a saved snapshot. The restored state starts clean. */
+    public void restore(Player player, PlayerDAO.Snapshot snapshot) {
+        PlayerState state = new PlayerState();
+        state.journey = Journey.fromNumber(snapshot.journey);
+        if (snapshot.phase != null) state.phase = snapshot.phase;
+        state.mode = parseMode(snapshot.mode);
+        for (String[] row : PlayerDAO.decodeRows(snapshot.vars)) {
+            if (row.length == 2) state.vars.put(row[0], row[1]);
+        }
+        for (String[] row : PlayerDAO.decodeRows(snapshot.quiz)) {
+            if (row.length != 4 || row[2] == null || row[3] == null) continue;
+            Journey journey = row[0] != null ? Journey.fromNumber(Integer.parseInt(row[0])) : null;
+            QuizResult result = new QuizResult(journey, row[1], row[2], row[3]);
+            state.quizResults.add(result);
+            if (!result.correct && journey != null) state.quizWrongCounts.merge(journey, 1, Integer::sum);
+        }
+        state.allInOrderIndex = snapshot.allInOrderIndex;
+        state.phaseId = PhaseTimeline.intern(state.phase);
+        state.dirty = 0;
+        // Keep what the old state recorded; its transitions belong to its own session
+        PlayerState replaced = states.put(player.getUniqueId(), state);
+        if (replaced != null) drainState(replaced, replacedTransitions);
+    }
+
+    private static String encodeVars(Map<String, String> vars) {
+        List<String[]> rows = new ArrayList<>(vars.size());
+        for (Map.Entry<String, String> e : vars.entrySet()) {
+            rows.add(new String[] { e.getKey(), e.getValue() });
+        }
+        return PlayerDAO.encodeRows(rows);
+    }
+
+    private static String encodeQuiz(List<QuizResult> results) {
+        List<String[]> rows = new ArrayList<>(results.size());
+        for (QuizResult r : results) {
+            rows.add(new String[] {
+                r.journey != null ? String.valueOf(r.journey.number) : null,
+                r.question, r.chosenAnswer, r.correctAnswer
+            });
+        }
+        return PlayerDAO.encodeRows(rows);
+    }
+
+    private static PlayerMode parseMode(String name) {
+        if (name == null) return null;
+        try {
+            return PlayerMode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 }
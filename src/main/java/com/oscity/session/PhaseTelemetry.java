@@ -0,0 +1,55 @@
+package com.oscity.session;
+
+import com.oscity.persistence.StudySink;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically moves buffered phase transitions from every player's
+ * PhaseTimeline into the configured StudySink.
+ *
+ * The rings are drained on the main thread (where they are written); every
+ * sink queues the transitions for its own writer, so nothing here blocks on
+ * the database.
+ */
+public class PhaseTelemetry {
+    private final JavaPlugin plugin;
+    private final JourneyTracker journeyTracker;
+    private final StudySink studySink;
+    private BukkitTask task;
+
+    public PhaseTelemetry(JavaPlugin plugin, JourneyTracker journeyTracker, StudySink studySink) {
+        this.plugin = plugin;
+        this.journeyTracker = journeyTracker;
+        this.studySink = studySink;
+    }
+
+    /** Start flushing every {@code intervalTicks}. */
+    public void start(long intervalTicks) {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, intervalTicks, intervalTicks);
+    }
+
+    /** Stop the timer and hand over whatever is still buffered (call from onDisable, before the sink shuts down). */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        flush();
+    }
+
+    private void flush() {
+        Map<String, List<PhaseTimeline.Transition>> batch = new HashMap<>();
+        journeyTracker.drainPhaseTransitions(batch);
+        for (Map.Entry<String, List<PhaseTimeline.Transition>> e : batch.entrySet()) {
+            for (PhaseTimeline.Transition t : e.getValue()) {
+                studySink.logPhaseTransition(e.getKey(), t.fromPhase, t.toPhase, t.room, t.at, t.dwellMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.oscity.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-size ring of one player's phase transitions.
+ *
+ * Each slot holds the phase being left, the phase entered, the room the
+ * player was in, the wall-clock time of the transition and how long the
+ * previous phase lasted (measured with System.nanoTime, so it is immune to
+ * clock changes). Phases and rooms are stored as interned ints, so
+ * recording a transition writes five array slots and allocates nothing.
+ *
+ * Main thread only: written by JourneyTracker.setPhase, drained by
+ * PhaseTelemetry's flush task. If the ring fills before a flush, the oldest
+ * transitions are overwritten and counted as dropped.
+ */
+public class PhaseTimeline {
+
+    /** One drained transition, ready to be written. */
+    public static class Transition {
+        public final String fromPhase;
+        public final String toPhase;
+        public final String room;
+        public final long at;          // epoch millis
+        public final long dwellMillis;  // time spent in fromPhase
+
+        Transition(String fromPhase, String toPhase, String room, long at, long dwellMillis) {
+            this.fromPhase   = fromPhase;
+            this.toPhase     = toPhase;
+            this.room        = room;
+            this.at          = at;
+            this.dwellMillis = dwellMillis;
+        }
+    }
+
+    // ── Interning (phase/room name ↔ id), shared by every timeline ───────────
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final List<String> NAMES = new ArrayList<>();
+
+    /** Id for a phase or room name; 0 is reserved for null. */
+    public static int intern(String name) {
+        if (name == null) return 0;
+        Integer id = IDS.get(name);
+        if (id != null) return id;
+        synchronized (NAMES) {
+            return IDS.computeIfAbsent(name, k -> {
+                NAMES.add(k);
+                return NAMES.size();
+            });
+        }
+    }
+
+    public static String name(int id) {
+        if (id == 0) return null;
+        synchronized (NAMES) {
+            return NAMES.get(id - 1);
+        }
+    }
+
+    // ── Ring ─────────────────────────────────────────────────────────────────
+
+    private final int[] fromPhase;
+    private final int[] toPhase;
+    private final int[] room;
+    private final long[] at;
+    private final long[] dwellNanos;
+    private long head = 0;   // total transitions recorded
+    private long tail = 0;   // total transitions drained or dropped
+    private long dropped = 0;
+
+    public PhaseTimeline(int capacity) {
+        fromPhase  = new int[capacity];
+        toPhase    = new int[capacity];
+        room       = new int[capacity];
+        at         = new long[capacity];
+        dwellNanos = new long[capacity];
+    }
+
+    /** Record a transition. Allocation-free. */
+    public void record(int fromPhaseId, int toPhaseId, int roomId, long atMillis, long dwell) {
+        int capacity = at.length;
+        if (head - tail == capacity) {
+            tail++;
+            dropped++;
+        }
+        int slot = (int) (head % capacity);
+        fromPhase[slot]  = fromPhaseId;
+        toPhase[slot]    = toPhaseId;
+        room[slot]       = roomId;
+        at[slot]         = atMillis;
+        dwellNanos[slot] = dwell;
+        head++;
+    }
+
+    /** Move every recorded transition into {@code out}, oldest first. */
+    public void drainTo(List<Transition> out) {
+        int capacity = at.length;
+        for (; tail < head; tail++) {
+            int slot = (int) (tail % capacity);
+            out.add(new Transition(name(fromPhase[slot]), name(toPhase[slot]), name(room[slot]),
+                    at[slot], dwellNanos[slot] / 1_000_000L));
+        }
+    }
+
+    public int size()           { return (int) (head - tail); }
+    public long getDroppedCount() { return dropped; }
+}
@@ -0,0 +1,122 @@
+package com.oscity.session;
+
+import com.oscity.persistence.PlayerDAO;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Saves and restores JourneyTracker state through PlayerDAO.
+ *
+ *   - Saved state is read during AsyncPlayerPreLoginEvent (off the main
+ *     thread) and applied on join, the same way ProgressTracker preloads
+ *     journey completions.
+ *   - A timer collects the fields each player changed since the last tick
+ *     and queues them as deltas; PlayerDAO's writer thread coalesces and
+ *     writes them. A player's delta is also queued when they quit.
+ *
+ * State already in memory (the player rejoined without a restart) always
+ * wins over what is on disk.
+ */
+public class PlayerStateStore {
+
+    /** Preloaded data older than this is assumed to belong to a login that never completed. */
+    private static final long STAGED_TTL_MS = 60_000;
+
+    private static class Staged {
+        final PlayerDAO.Snapshot snapshot;   // null = nothing saved
+        final long loadedAt = System.currentTimeMillis();
+
+        Staged(PlayerDAO.Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final JourneyTracker journeyTracker;
+    private final Map<UUID, Staged> staged = new ConcurrentHashMap<>();
+    private BukkitTask task;
+
+    public PlayerStateStore(JavaPlugin plugin, JourneyTracker journeyTracker) {
+        this.plugin = plugin;
+        this.journeyTracker = journeyTracker;
+    }
+
+    /** Start collecting dirty state every {@code intervalTicks}. */
+    public void start(long intervalTicks) {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::saveDirty, intervalTicks, intervalTicks);
+    }
+
+    /** Queue every unsaved change and stop the timer (call from onDisable, before PlayerDAO.shutdown). */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        saveDirty();
+    }
+
+    // ── Login / join / quit ───────────────────────────────────────────────────
+
+    /** Read this player's saved state. Runs on the AsyncPlayerPreLoginEvent thread. */
+    public void preload(UUID uuid) {
+        staged.put(uuid, new Staged(PlayerDAO.load(uuid)));
+    }
+
+    public void discardPreload(UUID uuid) {
+        staged.remove(uuid);
+    }
+
+    /**
+     * Apply saved state on join, if the player has none in memory, then call
+     * {@code then} with true if the player is now mid-journey and should
+     * resume rather than start over at the terminal. If the preload is
+     * missing, the state is loaded asynchronously and {@code then} runs on
+     * the main thread once it has been applied (not at all if the player
+     * left meanwhile), so the join flow never sees half-restored state.
+     */
+    public void restore(Player player, Consumer<Boolean> then) {
+        UUID uuid = player.getUniqueId();
+        long now = System.currentTimeMillis();
+        staged.values().removeIf(s -> now - s.loadedAt > STAGED_TTL_MS);
+        Staged preloaded = staged.remove(uuid);
+
+        if (journeyTracker.hasState(uuid)) {
+            then.accept(journeyTracker.isMidJourney(player));
+            return;
+        }
+        if (preloaded != null) {
+            if (preloaded.snapshot != null) journeyTracker.restore(player, preloaded.snapshot);
+            then.accept(journeyTracker.isMidJourney(player));
+            return;
+        }
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            PlayerDAO.Snapshot snapshot = PlayerDAO.load(uuid);
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (!player.isOnline()) return;
+                if (snapshot != null && !journeyTracker.isMidJourney(player)) {
+                    journeyTracker.restore(player, snapshot);
+                }
+                then.accept(journeyTracker.isMidJourney(player));
+            });
+        });
+    }
+
+    /** Queue this player's unsaved changes. Call from PlayerQuitEvent. */
+    public void save(Player player) {
+        PlayerDAO.save(player.getUniqueId(), journeyTracker.takeDelta(player.getUniqueId()));
+    }
+
+    private void saveDirty() {
+        for (UUID uuid : journeyTracker.getDirtyPlayers()) {
+            PlayerDAO.save(uuid, journeyTracker.takeDelta(uuid));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.oscity.world;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from a block position to an int handler id,
+ * used to dispatch button and lever presses without scanning every
+ * configured button.
+ *
+ * A position is packed into one long: world index (6 bits), y (12 bits)
+ * and x, z (23 bits each, about ±4 million blocks). Worlds are numbered in
+ * the order they are first registered. Lookups box nothing and allocate
+ * nothing; a position outside the packable range or in an unregistered
+ * world is simply not found.
+ *
+ * Built at load time, read on the main thread.
+ */
+public final class BlockPosIndex {
+
+    /** Returned by {@link #get} when nothing is registered at that block. */
+    public static final int NONE = -1;
+
+    private static final int MAX_WORLDS = 1 << 6;
+    private static final int Y_BITS = 12, XZ_BITS = 23;
+    private static final int Y_MIN = -(1 << (Y_BITS - 1)), Y_MAX = (1 << (Y_BITS - 1)) - 1;
+    private static final int XZ_MIN = -(1 << (XZ_BITS - 1)), XZ_MAX = (1 << (XZ_BITS - 1)) - 1;
+
+    private World[] worlds = new World[4];
+    private int worldCount;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public BlockPosIndex() {
+        this(16);
+    }
+
+    public BlockPosIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NONE);
+        mask = capacity - 1;
+    }
+
+    // ── Worlds ────────────────────────────────────────────────────────────────
+
+    /** Index for this world, registering it if new. */
+    public int worldId(World world) {
+        int id = findWorld(world);
+        if (id >= 0) return id;
+        if (worldCount == MAX_WORLDS) {
+            throw new IllegalStateException("BlockPosIndex supports at most " + MAX_WORLDS + " worlds");
+        }
+        if (worldCount == worlds.length) worlds = Arrays.copyOf(worlds, worlds.length * 2);
+        worlds[worldCount] = world;
+        return worldCount++;
+    }
+
+    private int findWorld(World world) {
+        for (int i = 0; i < worldCount; i++) {
+            if (worlds[i] == world) return i;
+        }
+        // Same world, different wrapper instance
+        for (int i = 0; i < worldCount; i++) {
+            if (worlds[i].equals(world)) return i;
+        }
+        return -1;
+    }
+
+    // ── Write ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Map this block to {@code id} (which must be ≥ 0), replacing any earlier
+     * mapping. Returns the previous id, or {@link #NONE}.
+     */
+    public int put(World world, int x, int y, int z, int id) {
+        return put(worldId(world), x, y, z, id);
+    }
+
+    public int put(int worldId, int x, int y, int z, int id) {
+        if (id < 0) throw new IllegalArgumentException("Handler id must be >= 0: " + id);
+        if (!inRange(worldId, x, y, z)) {
+            throw new IllegalArgumentException("Block position out of range: " + x + "," + y + "," + z);
+        }
+        long key = pack(worldId, x, y, z);
+        int i = slot(key);
+        while (values[i] != NONE) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                values[i] = id;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = id;
+        if (++size * 2 > keys.length) rehash();
+        return NONE;
+    }
+
+    public void clear() {
+        Arrays.fill(values, NONE);
+        size = 0;
+    }
+
+    // ── Read ──────────────────────────────────────────────────────────────────
+
+    /** Handler id registered at this block, or {@link #NONE}. */
+    public int get(Block block) {
+        int worldId = findWorld(block.getWorld());
+        if (worldId < 0) return NONE;
+        return get(worldId, block.getX(), block.getY(), block.getZ());
+    }
+
+    public int get(World world, int x, int y, int z) {
+        int worldId = findWorld(world);
+        if (worldId < 0) return NONE;
+        return get(worldId, x, y, z);
+    }
+
+    public int get(int worldId, int x, int y, int z) {
+        if (!inRange(worldId, x, y, z)) return NONE;
+        long key = pack(worldId, x, y, z);
+        int i = slot(key);
+        int id;
+        while ((id = values[i]) != NONE) {
+            if (keys[i] == key) return id;
+            i = (i + 1) & mask;
+        }
+        return NONE;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ── Internal ──────────────────────────────────────────────────────────────
+
+    private static boolean inRange(int worldId, int x, int y, int z) {
+        return worldId >= 0 && worldId < MAX_WORLDS
+            && y >= Y_MIN && y <= Y_MAX
+            && x >= XZ_MIN && x <= XZ_MAX
+            && z >= XZ_MIN && z <= XZ_MAX;
+    }
+
+    static long pack(int worldId, int x, int y, int z) {
+        return ((long) worldId << 58)
+            | ((long) (y & 0xFFF) << 46)
+            | ((long) (x & 0x7FFFFF) << 23)
+            | (z & 0x7FFFFFL);
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(values, NONE);
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] == NONE) continue;
+            int i = slot(oldKeys[j]);
+            while (values[i] != NONE) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,94 @@
+package com.oscity.world;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from a packed chunk key to the rooms that
+ * overlap that chunk, for one world.
+ *
+ * Built once when rooms are loaded and read-only afterwards. Lookups are
+ * a hash, a short linear probe and an array read — no boxing, no
+ * allocation. Candidates keep config order, so overlapping rooms resolve
+ * exactly as the old linear scan did (first match wins).
+ */
+final class ChunkRoomIndex {
+
+    private static final RoomRegistry.Room[] NONE = new RoomRegistry.Room[0];
+
+    private long[] keys;
+    private RoomRegistry.Room[][] values;
+    private int size;
+    private int mask;
+
+    ChunkRoomIndex() {
+        keys = new long[16];
+        values = new RoomRegistry.Room[16][];
+        mask = 15;
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /** Register a room in every chunk its bounds touch. */
+    void add(RoomRegistry.Room room) {
+        for (int cx = room.minX >> 4; cx <= room.maxX >> 4; cx++) {
+            for (int cz = room.minZ >> 4; cz <= room.maxZ >> 4; cz++) {
+                append(chunkKey(cx, cz), room);
+            }
+        }
+    }
+
+    /** Rooms overlapping this chunk, in config order (empty array if none). */
+    RoomRegistry.Room[] get(long key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) return values[i];
+            i = (i + 1) & mask;
+        }
+        return NONE;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // ── Build ─────────────────────────────────────────────────────────────────
+
+    private void append(long key, RoomRegistry.Room room) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                RoomRegistry.Room[] existing = values[i];
+                RoomRegistry.Room[] grown = Arrays.copyOf(existing, existing.length + 1);
+                grown[existing.length] = room;
+                values[i] = grown;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = new RoomRegistry.Room[] { room };
+        if (++size * 2 > keys.length) rehash();
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        RoomRegistry.Room[][] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new RoomRegistry.Room[oldKeys.length * 2][];
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] == null) continue;
+            int i = slot(oldKeys[j]);
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,153 @@
+package com.oscity.world;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Openable;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opens and closes the doors listed under {@code doors.<key>} in config.yml.
+ *
+ * Each door has at most one auto-close timer: opening a door that is
+ * already counting down restarts its countdown instead of stacking another
+ * task, and closing a door cancels it. Halves that are already in the
+ * requested state are left alone, so repeated presses cause no block
+ * updates.
+ *
+ * Doors are rebased into the world passed in (the acting player's), so
+ * each instance of the city has its own doors and timers.
+ *
+ * Main thread only.
+ */
+public class DoorController {
+
+    /** Ticks an opened door stays open before it closes itself. */
+    public static final long AUTO_CLOSE_TICKS = 200L;
+
+    private static final class Door {
+        final String doorKey;
+        final World world;
+        boolean open;
+        BukkitTask closeTask;
+
+        Door(String doorKey, World world) {
+            this.doorKey = doorKey;
+            this.world = world;
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final FixtureRegistry fixtures;
+    /** "doorKey@world" → state. */
+    private final Map<String, Door> doors = new HashMap<>();
+
+    public DoorController(JavaPlugin plugin, FixtureRegistry fixtures) {
+        this.plugin = plugin;
+        this.fixtures = fixtures;
+    }
+
+    /** Open a door in {@code world} and (re)start its auto-close countdown. */
+    public void open(String doorKey, World world) {
+        FixtureRegistry.Fixture fixture = fixtures.get("doors." + doorKey, world);
+        if (fixture == null) {
+            plugin.getLogger().warning("[DoorOpen] No config for doors." + doorKey);
+            return;
+        }
+
+        Block bottom = fixture.getBlock();
+        if (!(bottom.getBlockData() instanceof Openable)) {
+            plugin.getLogger().warning("[DoorOpen] Block at doors." + doorKey + " is not a door (" + bottom.getType() + ")");
+            return;
+        }
+
+        Door door = doors.computeIfAbsent(doorKey + "@" + fixture.world.getName(), k -> new Door(doorKey, fixture.world));
+        if (setOpen(fixture, true)) {
+            plugin.getLogger().info("[DoorOpen] Opened door: " + doorKey);
+        }
+        door.open = true;
+
+        if (door.closeTask != null) door.closeTask.cancel();
+        door.closeTask = plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            door.closeTask = null;
+            close(doorKey, door.world);
+        }, AUTO_CLOSE_TICKS);
+    }
+
+    /** Close a door in {@code world} now, cancelling its auto-close countdown. */
+    public void close(String doorKey, World world) {
+        FixtureRegistry.Fixture fixture = fixtures.get("doors." + doorKey, world);
+        if (fixture == null) return;
+
+        Door door = doors.get(doorKey + "@" + fixture.world.getName());
+        if (door != null) {
+            if (door.closeTask != null) {
+                door.closeTask.cancel();
+                door.closeTask = null;
+            }
+            door.open = false;
+        }
+        setOpen(fixture, false);
+    }
+
+    /** Cancel every countdown and close every door this controller opened (call from onDisable). */
+    public void closeAll() {
+        for (Door door : doors.values().toArray(new Door[0])) {
+            close(door.doorKey, door.world);
+        }
+    }
+
+    /** Drop the state of every door in a world that is being unloaded. */
+    public void forgetWorld(World world) {
+        doors.values().removeIf(door -> {
+            if (!door.world.equals(world)) return false;
+            if (door.closeTask != null) door.closeTask.cancel();
+            return true;
+        });
+    }
+
+    /**
+     * Set both halves of the door to {@code open}, skipping any half already
+     * in that state. Returns true if a block was changed.
+     */
+    private boolean setOpen(FixtureRegistry.Fixture fixture, boolean open) {
+        boolean changed = setHalfOpen(fixture.getBlock(), open);
+        // Top half of the door
+        changed |= setHalfOpen(fixture.world.getBlockAt(fixture.x, fixture.y + 1, fixture.z), open);
+        return changed;
+    }
+
+    private static boolean setHalfOpen(Block block, boolean open) {
+        BlockData data = block.getBlockData();
+        if (!(data instanceof Openable openable) || openable.isOpen() == open) return false;
+        openable.setOpen(open);
+        block.setBlockData(openable);
+        return true;
+    }
+
+    // ── Diagnostics ───────────────────────────────────────────────────────────
+
+    public int getOpenDoorCount() {
+        int count = 0;
+        for (Door door : doors.values()) {
+            if (door.open) count++;
+        }
+        return count;
+    }
+
+    public int getPendingTimerCount() {
+        int count = 0;
+        for (Door door : doors.values()) {
+            if (door.closeTask != null) count++;
+        }
+        return count;
+    }
+
+    public String describe() {
+        return "doors: " + getOpenDoorCount() + " open, " + getPendingTimerCount() + " close timers pending";
+    }
+}
@@ -0,0 +1,204 @@
+package com.oscity.world;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every sign, chest, door and redstone block listed under signs.*,
+ * chests.*, doors.* and redstone.* in config.yml, resolved once.
+ *
+ * Entries nest to any depth (signs.tlb.vpn1, chests.pageTable2.chest0...);
+ * any section with a world key is a fixture. Each becomes an immutable
+ * {@link Fixture} holding its World and block coordinates, so room managers
+ * no longer walk config sections, call Bukkit.getWorld or build Locations
+ * on every update.
+ *
+ * Entries with no world, an unknown world or missing coordinates are
+ * reported once at load and left out. {@link #reload} builds a complete new
+ * table and swaps it in with one write, so readers see either the old
+ * fixtures or the new ones, never a mix.
+ *
+ * Fixtures are configured against the template world. The lookups that
+ * take a World rebase them into that world when it is an instance cloned
+ * from the template (see {@link WorldAliases}), so each instance gets its
+ * own signs, chests and doors.
+ */
+public class FixtureRegistry {
+
+    /** Config root sections that hold fixtures. */
+    private static final String[] ROOTS = { "signs", "chests", "doors", "redstone" };
+
+    public static final class Fixture {
+        /** Full config path, e.g. "signs.tlb.vpn1". */
+        public final String path;
+        public final World world;
+        public final int x, y, z;
+
+        Fixture(String path, World world, int x, int y, int z) {
+            this.path = path;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        /** This fixture at the same coordinates in {@code other}. */
+        Fixture in(World other) {
+            return other == world ? this : new Fixture(path, other, x, y, z);
+        }
+
+        public Block getBlock() {
+            return world.getBlockAt(x, y, z);
+        }
+
+        /** A fresh Location (callers may mutate it). */
+        public Location toLocation() {
+            return new Location(world, x, y, z);
+        }
+
+        public boolean isAt(Block block) {
+            return block.getX() == x && block.getY() == y && block.getZ() == z
+                && block.getWorld().equals(world);
+        }
+
+        public boolean isAt(Location loc) {
+            return loc.getBlockX() == x && loc.getBlockY() == y && loc.getBlockZ() == z
+                && world.equals(loc.getWorld());
+        }
+
+        @Override
+        public String toString() {
+            return path + " (" + x + "," + y + "," + z + ")";
+        }
+    }
+
+    /** One loaded config, never modified after construction. */
+    private static final class Table {
+        final Map<String, Fixture> byPath;
+        /** Group path (e.g. "chests.ramRoom") → the fixtures directly under it, in config order. */
+        final Map<String, List<Fixture>> children;
+
+        Table(Map<String, Fixture> byPath, Map<String, List<Fixture>> children) {
+            this.byPath = byPath;
+            this.children = children;
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final WorldAliases aliases;
+    private volatile Table table = new Table(Collections.emptyMap(), Collections.emptyMap());
+
+    public FixtureRegistry(JavaPlugin plugin, WorldAliases aliases) {
+        this.plugin = plugin;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Resolve every fixture from the current config and swap the table in.
+     * Returns the number of entries that were skipped as invalid.
+     */
+    public int reload() {
+        Map<String, Fixture> byPath = new HashMap<>();
+        Map<String, List<Fixture>> children = new HashMap<>();
+        List<String> problems = new ArrayList<>();
+
+        for (String root : ROOTS) {
+            ConfigurationSection sec = plugin.getConfig().getConfigurationSection(root);
+            if (sec == null) {
+                problems.add(root + ": section missing");
+                continue;
+            }
+            collect(sec, byPath, children, problems);
+        }
+
+        Map<String, List<Fixture>> frozen = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Fixture>> e : children.entrySet()) {
+            frozen.put(e.getKey(), Collections.unmodifiableList(e.getValue()));
+        }
+        table = new Table(Collections.unmodifiableMap(byPath), Collections.unmodifiableMap(frozen));
+
+        for (String problem : problems) {
+            plugin.getLogger().warning("[Fixtures] " + problem);
+        }
+        plugin.getLogger().info("Loaded " + byPath.size() + " fixtures (signs, chests, doors, redstone) from config.yml"
+            + (problems.isEmpty() ? "" : ", " + problems.size() + " skipped"));
+        return problems.size();
+    }
+
+    private void collect(ConfigurationSection sec, Map<String, Fixture> byPath,
+                         Map<String, List<Fixture>> children, List<String> problems) {
+        for (String key : sec.getKeys(false)) {
+            ConfigurationSection child = sec.getConfigurationSection(key);
+            if (child == null) continue;
+            if (!child.contains("world")) {
+                collect(child, byPath, children, problems);
+                continue;
+            }
+
+            String path = child.getCurrentPath();
+            String worldName = child.getString("world");
+            World world = worldName != null ? Bukkit.getWorld(worldName) : null;
+            if (world == null) {
+                problems.add(path + ": unknown world '" + worldName + "'");
+                continue;
+            }
+            if (!child.isInt("x") || !child.isInt("y") || !child.isInt("z")) {
+                problems.add(path + ": missing x, y or z");
+                continue;
+            }
+
+            Fixture fixture = new Fixture(path, world, child.getInt("x"), child.getInt("y"), child.getInt("z"));
+            byPath.put(path, fixture);
+            children.computeIfAbsent(sec.getCurrentPath(), k -> new ArrayList<>()).add(fixture);
+        }
+    }
+
+    // ── Lookup ────────────────────────────────────────────────────────────────
+
+    /** Fixture at a full config path (e.g. "signs.tlb.vpn1"), or null. */
+    public Fixture get(String path) {
+        return table.byPath.get(path);
+    }
+
+    /** Fixtures directly under a group path (e.g. "chests.ramRoom"), in config order. */
+    public List<Fixture> children(String groupPath) {
+        return table.children.getOrDefault(groupPath, Collections.emptyList());
+    }
+
+    /**
+     * Fixture at a full config path, rebased into {@code world} if that world
+     * is an instance of the fixture's world; or null. Pass the world of the
+     * player the fixture is being updated for.
+     */
+    public Fixture get(String path, World world) {
+        Fixture fixture = get(path);
+        if (fixture == null || world == null || world == fixture.world) return fixture;
+        return aliases.isCopyOf(world, fixture.world) ? fixture.in(world) : fixture;
+    }
+
+    /** {@link #children(String)}, rebased into {@code world} as in {@link #get(String, World)}. */
+    public List<Fixture> children(String groupPath, World world) {
+        List<Fixture> fixtures = children(groupPath);
+        if (fixtures.isEmpty() || world == null || world == fixtures.get(0).world) return fixtures;
+        List<Fixture> rebased = new ArrayList<>(fixtures.size());
+        for (Fixture fixture : fixtures) {
+            rebased.add(aliases.isCopyOf(world, fixture.world) ? fixture.in(world) : fixture);
+        }
+        return rebased;
+    }
+
+    public int size() {
+        return table.byPath.size();
+    }
+}
@@ -0,0 +1,469 @@
+package com.oscity.world;
+
+import com.oscity.core.KernelGuardian;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Private copies of the OSCity world, one per player or group, so several
+ * students can work through the city at once without overwriting each
+ * other's signs, chests, torches and doors.
+ *
+ * Each instance is a folder copy of the template world (worldName in
+ * config.yml), loaded as its own World and registered in
+ * {@link WorldAliases} and {@link RoomRegistry} so that rooms, fixtures,
+ * locations and buttons configured for the template resolve inside it.
+ *
+ * Instances are pre-warmed into a pool. A joining player is bound to their
+ * group's instance (their own, unless an admin grouped them), taking one
+ * from the pool or waiting in the template until one is ready. When the
+ * last member of a group has been gone for instances.releaseDelayTicks, or
+ * a player ends a journey with nobody else left in the instance, the
+ * instance is unloaded without saving, re-copied from the template and put
+ * back in the pool.
+ *
+ * Disabled unless instances.enabled is true. Folder copies run on a
+ * background thread; everything else is main thread only. While enabled,
+ * autosave is turned off for the template so it is never copied half
+ * written.
+ */
+public class InstanceManager implements Listener {
+
+    public enum State { WARMING, READY, IN_USE, RECYCLING }
+
+    public static final class Instance {
+        public final int id;
+        public final String worldName;
+        private World world;
+        private State state;
+        private String group;
+        private final Set<UUID> members = new HashSet<>();
+        private BukkitTask releaseTask;
+
+        Instance(int id, String worldName) {
+            this.id = id;
+            this.worldName = worldName;
+        }
+
+        public World getWorld()        { return world; }
+        public State getState()        { return state; }
+        public String getGroup()       { return group; }
+        public Set<UUID> getMembers()  { return Collections.unmodifiableSet(members); }
+    }
+
+    /** Files and folders of the template that are never copied. */
+    private static final Set<String> SKIPPED = Set.of("uid.dat", "session.lock", "playerdata", "stats", "advancements");
+    /** Wait before replacing a copy that failed, so a full disk does not spin the copier. */
+    private static final long RETRY_DELAY_TICKS = 100;
+
+    private final JavaPlugin plugin;
+    private final WorldManager worldManager;
+    private final WorldAliases aliases;
+    private final RoomRegistry roomRegistry;
+    private final SignWriter signWriter;
+    private final DoorController doorController;
+    private final StructureManager structureManager;
+    private final KernelGuardian guardian;
+
+    private boolean enabled;
+    private int prewarm;
+    private int maxInstances;
+    private long releaseDelayTicks;
+    private String namePrefix;
+    private World template;
+
+    private final List<Instance> instances = new ArrayList<>();
+    private int nextId;
+    private final ArrayDeque<Instance> ready = new ArrayDeque<>();
+    private final Map<String, Instance> byGroup = new HashMap<>();
+    private final Map<UUID, String> groupOf = new HashMap<>();
+    /** Groups with online members but no instance yet, in arrival order. */
+    private final Set<String> waiting = new LinkedHashSet<>();
+
+    public InstanceManager(JavaPlugin plugin, WorldManager worldManager, WorldAliases aliases,
+                           RoomRegistry roomRegistry, SignWriter signWriter, DoorController doorController,
+                           StructureManager structureManager, KernelGuardian guardian) {
+        this.plugin = plugin;
+        this.worldManager = worldManager;
+        this.aliases = aliases;
+        this.roomRegistry = roomRegistry;
+        this.signWriter = signWriter;
+        this.doorController = doorController;
+        this.structureManager = structureManager;
+        this.guardian = guardian;
+    }
+
+    /** Read instances.* from config and, if enabled, start warming the pool. */
+    public void start() {
+        enabled = plugin.getConfig().getBoolean("instances.enabled", false);
+        if (!enabled) return;
+
+        prewarm = Math.max(0, plugin.getConfig().getInt("instances.prewarm", 4));
+        maxInstances = Math.max(1, plugin.getConfig().getInt("instances.max", 40));
+        releaseDelayTicks = Math.max(0L, plugin.getConfig().getLong("instances.releaseDelayTicks", 1200L));
+        namePrefix = plugin.getConfig().getString("instances.namePrefix", "OSCityInstance_");
+
+        template = worldManager.getGameWorld();
+        if (template == null) {
+            plugin.getLogger().severe("[Instances] Template world is not loaded, instancing disabled.");
+            enabled = false;
+            return;
+        }
+        template.save();
+        template.setAutoSave(false);
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        topUp();
+        plugin.getLogger().info("[Instances] Enabled: pre-warming " + prewarm + " copies of "
+            + template.getName() + " (max " + maxInstances + ")");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ── Players ───────────────────────────────────────────────────────────────
+
+    @EventHandler(priority = EventPriority.LOW)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        assign(player, groupOf.get(player.getUniqueId()));
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        leave(event.getPlayer().getUniqueId(), releaseDelayTicks);
+    }
+
+    /**
+     * Put a player in a group's instance, creating the binding if needed.
+     * A null group means the player's own instance.
+     */
+    public void assign(Player player, String group) {
+        if (!enabled) return;
+        UUID uuid = player.getUniqueId();
+        if (group == null) group = uuid.toString();
+
+        String previous = groupOf.get(uuid);
+        if (previous != null && !previous.equals(group)) leave(uuid, releaseDelayTicks);
+        groupOf.put(uuid, group);
+
+        Instance instance = byGroup.get(group);
+        if (instance == null) {
+            instance = ready.poll();
+            if (instance == null) {
+                waiting.add(group);
+                topUp();
+                player.sendMessage("§7Preparing your copy of OSCity, one moment...");
+                return;
+            }
+            bind(instance, group);
+            topUp();
+            return;
+        }
+        join(instance, player);
+    }
+
+    /** The instance this player is bound to, or null (not assigned, still waiting, or disabled). */
+    public Instance instanceOf(Player player) {
+        String group = groupOf.get(player.getUniqueId());
+        return group != null ? byGroup.get(group) : null;
+    }
+
+    private void bind(Instance instance, String group) {
+        instance.state = State.IN_USE;
+        instance.group = group;
+        byGroup.put(group, instance);
+        waiting.remove(group);
+        for (Map.Entry<UUID, String> e : groupOf.entrySet()) {
+            if (!e.getValue().equals(group)) continue;
+            Player player = Bukkit.getPlayer(e.getKey());
+            if (player != null) join(instance, player);
+        }
+        plugin.getLogger().info("[Instances] " + instance.worldName + " bound to group " + group);
+    }
+
+    private void join(Instance instance, Player player) {
+        instance.members.add(player.getUniqueId());
+        if (instance.releaseTask != null) {
+            instance.releaseTask.cancel();
+            instance.releaseTask = null;
+        }
+        if (player.getWorld().equals(instance.world)) return;
+
+        // Same spot in the instance if they are somewhere in the city, otherwise its spawn
+        Location from = player.getLocation();
+        Location to = aliases.isCopyOf(player.getWorld(), template)
+            ? new Location(instance.world, from.getX(), from.getY(), from.getZ(), from.getYaw(), from.getPitch())
+            : aliases.rebase(template.getSpawnLocation(), instance.world);
+        player.teleport(to);
+    }
+
+    /** Remove a player from their instance; recycle it after {@code delayTicks} once nobody is left. */
+    private void leave(UUID uuid, long delayTicks) {
+        String group = groupOf.get(uuid);
+        if (group == null) return;
+        Instance instance = byGroup.get(group);
+        if (instance == null) {
+            if (!hasOnlineMember(group)) waiting.remove(group);
+            return;
+        }
+        instance.members.remove(uuid);
+        if (!instance.members.isEmpty() || instance.releaseTask != null) return;
+
+        instance.releaseTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            instance.releaseTask = null;
+            if (instance.members.isEmpty()) recycle(instance);
+        }, delayTicks);
+    }
+
+    /**
+     * A player ended their journey. If nobody else is in their instance, move
+     * the group onto a fresh copy from the pool and recycle the used one.
+     * Returns false if nothing was swapped (disabled, other members still
+     * playing, or no copy ready); the caller should then reset in place.
+     */
+    public boolean journeyEnded(Player player) {
+        if (!enabled) return false;
+        String group = groupOf.get(player.getUniqueId());
+        Instance used = group != null ? byGroup.get(group) : null;
+        if (used == null || used.members.size() > 1) return false;
+        Instance fresh = ready.poll();
+        if (fresh == null) return false;
+
+        if (used.releaseTask != null) {
+            used.releaseTask.cancel();
+            used.releaseTask = null;
+        }
+        byGroup.remove(group);
+        used.group = null;
+        bind(fresh, group);
+        recycle(used);
+        topUp();
+        return true;
+    }
+
+    private boolean hasOnlineMember(String group) {
+        for (Map.Entry<UUID, String> e : groupOf.entrySet()) {
+            if (e.getValue().equals(group) && Bukkit.getPlayer(e.getKey()) != null) return true;
+        }
+        return false;
+    }
+
+    // ── Pool ──────────────────────────────────────────────────────────────────
+
+    /** Start warming copies until the pool (plus copies in flight) covers prewarm and every waiting group. */
+    private void topUp() {
+        int inFlight = 0;
+        for (Instance instance : instances) {
+            if (instance.state == State.WARMING || instance.state == State.RECYCLING) inFlight++;
+        }
+        int wanted = prewarm + waiting.size() - ready.size() - inFlight;
+        while (wanted-- > 0 && instances.size() < maxInstances) {
+            int id = nextId++;
+            Instance instance = new Instance(id, namePrefix + id);
+            instances.add(instance);
+            instance.state = State.WARMING;
+            copyAndLoad(instance);
+        }
+    }
+
+    /** Unload an instance without saving, re-copy it from the template and return it to the pool. */
+    private void recycle(Instance instance) {
+        byGroup.remove(instance.group);
+        groupOf.values().removeIf(g -> g.equals(instance.group));
+        instance.group = null;
+        instance.members.clear();
+        instance.state = State.RECYCLING;
+
+        World world = instance.world;
+        instance.world = null;
+        if (world != null) {
+            Location fallback = template.getSpawnLocation();
+            for (Player player : world.getPlayers()) {
+                player.teleport(fallback);
+            }
+            aliases.remove(world);
+            roomRegistry.removeAlias(world);
+            signWriter.forgetWorld(world);
+            doorController.forgetWorld(world);
+            structureManager.forgetWorld(world);
+            guardian.forgetWorld(world);
+            if (!Bukkit.unloadWorld(world, false)) {
+                plugin.getLogger().warning("[Instances] Could not unload " + instance.worldName + "; dropping it from the pool");
+                discard(instance);
+                return;
+            }
+        }
+        copyAndLoad(instance);
+    }
+
+    /** Drop a broken instance and warm a replacement for the pool and any groups still waiting. */
+    private void discard(Instance instance) {
+        instances.remove(instance);
+        if (enabled) topUp();
+    }
+
+    /** Copy the template folder off-thread, then load the copy and make it ready on the main thread. */
+    private void copyAndLoad(Instance instance) {
+        Path source = template.getWorldFolder().toPath();
+        Path target = Bukkit.getWorldContainer().toPath().resolve(instance.worldName);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                deleteTree(target);
+                copyTree(source, target);
+            } catch (IOException e) {
+                plugin.getLogger().severe("[Instances] Failed to copy " + template.getName() + " to "
+                    + instance.worldName + ": " + e.getMessage());
+                Bukkit.getScheduler().runTaskLater(plugin, () -> discard(instance), RETRY_DELAY_TICKS);
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> load(instance));
+        });
+    }
+
+    private void load(Instance instance) {
+        if (!enabled) return;
+        World world = new WorldCreator(instance.worldName).copy(template).createWorld();
+        if (world == null) {
+            plugin.getLogger().severe("[Instances] Failed to load " + instance.worldName);
+            Bukkit.getScheduler().runTaskLater(plugin, () -> discard(instance), RETRY_DELAY_TICKS);
+            return;
+        }
+        world.setAutoSave(false);
+        worldManager.applyStudySettings(world);
+        aliases.add(world, template);
+        roomRegistry.addAlias(world, template);
+
+        instance.world = world;
+        instance.state = State.READY;
+
+        // Hand it straight to the longest-waiting group that still has someone online
+        Iterator<String> it = waiting.iterator();
+        while (it.hasNext()) {
+            String group = it.next();
+            it.remove();
+            if (hasOnlineMember(group)) {
+                bind(instance, group);
+                return;
+            }
+        }
+        ready.add(instance);
+    }
+
+    // ── Shutdown ──────────────────────────────────────────────────────────────
+
+    /** Move everyone back to the template and unload every instance without saving (call from onDisable). */
+    public void shutdown() {
+        if (!enabled) return;
+        enabled = false;
+        for (Instance instance : instances) {
+            if (instance.releaseTask != null) instance.releaseTask.cancel();
+            World world = instance.world;
+            if (world == null) continue;
+            for (Player player : world.getPlayers()) {
+                Location loc = player.getLocation();
+                player.teleport(new Location(template, loc.getX(), loc.getY(), loc.getZ(), loc.getYaw(), loc.getPitch()));
+            }
+            aliases.remove(world);
+            roomRegistry.removeAlias(world);
+            signWriter.forgetWorld(world);
+            doorController.forgetWorld(world);
+            structureManager.forgetWorld(world);
+            guardian.forgetWorld(world);
+            Bukkit.unloadWorld(world, false);
+        }
+        instances.clear();
+        ready.clear();
+        byGroup.clear();
+        waiting.clear();
+        template.setAutoSave(true);
+    }
+
+    // ── Diagnostics ───────────────────────────────────────────────────────────
+
+    public List<Instance> getInstances() {
+        return Collections.unmodifiableList(instances);
+    }
+
+    public String describe() {
+        if (!enabled) return "instancing disabled";
+        int inUse = 0, warming = 0;
+        for (Instance instance : instances) {
+            if (instance.state == State.IN_USE) inUse++;
+            else if (instance.state == State.WARMING || instance.state == State.RECYCLING) warming++;
+        }
+        return instances.size() + "/" + maxInstances + " instances: " + inUse + " in use, "
+            + ready.size() + " ready, " + warming + " warming, " + waiting.size() + " groups waiting";
+    }
+
+    // ── Folder copy ───────────────────────────────────────────────────────────
+
+    private static void copyTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(source) && SKIPPED.contains(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!SKIPPED.contains(file.getFileName().toString())) {
+                    Files.copy(file, target.resolve(source.relativize(file)), StandardCopyOption.REPLACE_EXISTING);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) return;
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (e != null) throw e;
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -12,10 +12,12 @@ import java.util.Map;
 public class LocationRegistry {
 
     private final JavaPlugin plugin;
+    private final WorldAliases aliases;
     private final Map<String, Location> locations = new HashMap<>();
 
-    public LocationRegistry(JavaPlugin plugin) {
+    public LocationRegistry(JavaPlugin plugin, WorldAliases aliases) {
         this.plugin = plugin;
+        this.aliases = aliases;
     }
 
     public void loadFromConfig() {
@@ -58,4 +60,16 @@ public class LocationRegistry {
         if (loc == null) plugin.getLogger().warning("Unknown location key: " + key);
         return loc;
     }
+
+    /**
+     * A location rebased into {@code world} when that world is an instance of
+     * the configured one, so a player teleported by key stays in their own
+     * instance. Always a fresh Location (callers may mutate it).
+     */
+    public Location get(String key, World world) {
+        Location loc = get(key);
+        if (loc == null) return null;
+        Location rebased = aliases.rebase(loc, world);
+        return rebased == loc ? loc.clone() : rebased;
+    }
 }
@@ -0,0 +1,61 @@
+package com.oscity.world;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Fired on the main thread when a player moves from one room to another,
+ * into a room from outside, or out of every room. Either side may be null.
+ *
+ * Several config rooms can share a title (the TLB Room is four of them);
+ * use {@link #isTitleChange()} for logic that is about the room the player
+ * sees rather than the exact config region.
+ */
+public class PlayerRoomChangeEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final RoomRegistry.Room from;
+    private final RoomRegistry.Room to;
+
+    public PlayerRoomChangeEvent(Player player, RoomRegistry.Room from, RoomRegistry.Room to) {
+        super(player);
+        this.from = from;
+        this.to = to;
+    }
+
+    /** Room the player was in, or null. */
+    public RoomRegistry.Room getFrom() {
+        return from;
+    }
+
+    /** Room the player is now in, or null if they left every room. */
+    public RoomRegistry.Room getTo() {
+        return to;
+    }
+
+    public String getFromTitle() {
+        return from != null ? from.title : null;
+    }
+
+    public String getToTitle() {
+        return to != null ? to.title : null;
+    }
+
+    /** True unless both rooms have the same title. */
+    public boolean isTitleChange() {
+        String fromTitle = getFromTitle();
+        String toTitle = getToTitle();
+        return fromTitle == null ? toTitle != null : !fromTitle.equals(toTitle);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,116 @@
+package com.oscity.world;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Which room each player is in, and the bounds that answer is good for.
+ *
+ * While a player stays inside their current room's box, or inside a chunk
+ * no room touches, a move costs a couple of integer compares and no room
+ * lookup. Only when they cross out of those cached bounds does the
+ * registry get asked again, and a {@link PlayerRoomChangeEvent} is fired
+ * if the answer changed. A room that an earlier room overlaps is looked
+ * up on every move, so the first configured match still wins as it does
+ * in the registry.
+ *
+ * Main thread only.
+ */
+public class PlayerRoomTracker {
+
+    private static final class Presence {
+        World world;
+        RoomRegistry.Room room;
+        /** No earlier room overlaps room, so its box alone decides that the player is still in it. */
+        boolean roomIsFirstMatch;
+        /** When room is null: the room-free chunk the player is in, valid if hasEmptyChunk. */
+        int emptyChunkX, emptyChunkZ;
+        boolean hasEmptyChunk;
+    }
+
+    private final RoomRegistry roomRegistry;
+    private final Map<UUID, Presence> players = new HashMap<>();
+
+    public PlayerRoomTracker(RoomRegistry roomRegistry) {
+        this.roomRegistry = roomRegistry;
+    }
+
+    /** The room this player was last seen in, or null. */
+    public RoomRegistry.Room getRoom(Player player) {
+        Presence p = players.get(player.getUniqueId());
+        return p != null ? p.room : null;
+    }
+
+    /**
+     * Update the player's room for a move to {@code to}, firing
+     * {@link PlayerRoomChangeEvent} if it changed. Returns true if it did.
+     */
+    public boolean update(Player player, Location to) {
+        Presence p = presence(player);
+        World world = to.getWorld();
+        int x = to.getBlockX(), y = to.getBlockY(), z = to.getBlockZ();
+        if (isStillValid(p, world, x, y, z)) return false;
+
+        RoomRegistry.Room previous = p.room;
+        RoomRegistry.Room current = world != null ? roomRegistry.getRoomAt(world, x, y, z) : null;
+        cache(p, world, current, x >> 4, z >> 4);
+        if (current == previous) return false;
+
+        Bukkit.getPluginManager().callEvent(new PlayerRoomChangeEvent(player, previous, current));
+        return true;
+    }
+
+    /**
+     * Record where the player is without firing an event, e.g. on join when
+     * room-entry logic should not run for the room they spawned in.
+     */
+    public RoomRegistry.Room set(Player player, Location at) {
+        Presence p = presence(player);
+        World world = at.getWorld();
+        int x = at.getBlockX(), y = at.getBlockY(), z = at.getBlockZ();
+        RoomRegistry.Room room = world != null ? roomRegistry.getRoomAt(world, x, y, z) : null;
+        cache(p, world, room, x >> 4, z >> 4);
+        return room;
+    }
+
+    public void remove(Player player) {
+        players.remove(player.getUniqueId());
+    }
+
+    /** Forget every cached room (rooms were reloaded). */
+    public void clear() {
+        players.clear();
+    }
+
+    // ── Internal ──────────────────────────────────────────────────────────────
+
+    private Presence presence(Player player) {
+        Presence p = players.get(player.getUniqueId());
+        if (p == null) {
+            p = new Presence();
+            players.put(player.getUniqueId(), p);
+        }
+        return p;
+    }
+
+    private static boolean isStillValid(Presence p, World world, int x, int y, int z) {
+        if (p.world == null || p.world != world) return false;
+        if (p.room != null) return p.roomIsFirstMatch && p.room.contains(x, y, z);
+        return p.hasEmptyChunk && p.emptyChunkX == (x >> 4) && p.emptyChunkZ == (z >> 4);
+    }
+
+    private void cache(Presence p, World world, RoomRegistry.Room room, int chunkX, int chunkZ) {
+        p.world = world;
+        p.room = room;
+        p.roomIsFirstMatch = room != null && !roomRegistry.isShadowed(room);
+        p.hasEmptyChunk = room == null && world != null && roomRegistry.isChunkEmpty(world, chunkX, chunkZ);
+        p.emptyChunkX = chunkX;
+        p.emptyChunkZ = chunkZ;
+    }
+}
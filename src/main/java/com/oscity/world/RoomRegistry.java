@@ -7,8 +7,23 @@ import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Rooms loaded from config.yml, with a per-world chunk index so that
+ * "which room is this location in" is a hash lookup plus a few bounds
+ * checks instead of a scan over every room. Called on every block-crossing
+ * move and every room display update, so lookups do not allocate.
+ *
+ * A world registered with {@link #addAlias} (an instance cloned from the
+ * configured world) shares that world's index: lookups in it return the
+ * configured Room objects, whose coordinates are the same in both.
+ */
 public class RoomRegistry {
 
     public static class Room {
@@ -35,15 +50,36 @@ public class RoomRegistry {
 
         public boolean contains(Location loc) {
             if (loc.getWorld() == null || !loc.getWorld().equals(world)) return false;
-            int x = loc.getBlockX(), y = loc.getBlockY(), z = loc.getBlockZ();
+            return contains(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+        }
+
+        /** Bounds check only; the caller has already matched the world. */
+        public boolean contains(int x, int y, int z) {
             return x >= minX && x <= maxX
                 && y >= minY && y <= maxY
                 && z >= minZ && z <= maxZ;
         }
     }
 
+    /** Chunk index for one world. Worlds are compared by identity first (one instance per loaded world). */
+    private static final class WorldIndex {
+        final World world;
+        final ChunkRoomIndex chunks;
+
+        WorldIndex(World world, ChunkRoomIndex chunks) {
+            this.world = world;
+            this.chunks = chunks;
+        }
+    }
+
     private final JavaPlugin plugin;
     private final List<Room> rooms = new ArrayList<>();
+    private final Map<String, Room> roomsByTitle = new HashMap<>();
+    private WorldIndex[] worldIndexes = new WorldIndex[0];
+    /** Rooms overlapped by an earlier room in the same world, which wins getRoomAt() inside the overlap. */
+    private final Set<Room> shadowed = new HashSet<>();
+    /** Copy world → the configured world whose rooms it shares. Survives reloads. */
+    private final Map<World, World> aliases = new HashMap<>();
 
     public RoomRegistry(JavaPlugin plugin) {
         this.plugin = plugin;
@@ -51,6 +87,9 @@ public class RoomRegistry {
 
     public void loadFromConfig() {
         rooms.clear();
+        roomsByTitle.clear();
+        worldIndexes = new WorldIndex[0];
+        shadowed.clear();
 
         ConfigurationSection root = plugin.getConfig().getConfigurationSection("rooms");
         if (root == null) {
@@ -102,28 +141,125 @@ public class RoomRegistry {
             ));
         }
 
+        buildIndex();
         plugin.getLogger().info("Loaded " + rooms.size() + " rooms from config.yml");
     }
 
+    /** Rebuild the title map and per-world chunk indexes from {@link #rooms}. */
+    private void buildIndex() {
+        List<WorldIndex> indexes = new ArrayList<>();
+        shadowed.clear();
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            roomsByTitle.putIfAbsent(room.title, room);
+            for (int j = 0; j < i; j++) {
+                if (overlaps(rooms.get(j), room)) {
+                    shadowed.add(room);
+                    break;
+                }
+            }
+
+            WorldIndex index = null;
+            for (WorldIndex candidate : indexes) {
+                if (candidate.world.equals(room.world)) {
+                    index = candidate;
+                    break;
+                }
+            }
+            if (index == null) {
+                index = new WorldIndex(room.world, new ChunkRoomIndex());
+                indexes.add(index);
+            }
+            index.chunks.add(room);
+        }
+        for (Map.Entry<World, World> alias : aliases.entrySet()) {
+            for (WorldIndex candidate : indexes) {
+                if (candidate.world.equals(alias.getValue())) {
+                    indexes.add(new WorldIndex(alias.getKey(), candidate.chunks));
+                    break;
+                }
+            }
+        }
+        worldIndexes = indexes.toArray(new WorldIndex[0]);
+    }
+
+    /** Treat {@code copy} as having the same rooms, at the same coordinates, as {@code template}. */
+    public void addAlias(World copy, World template) {
+        aliases.put(copy, template);
+        buildIndex();
+    }
+
+    public void removeAlias(World copy) {
+        if (aliases.remove(copy) != null) buildIndex();
+    }
+
     public String getRoomTitleAt(Location loc) {
-        for (Room room : rooms) {
-            if (room.contains(loc)) return room.title;
+        Room room = getRoomAt(loc);
+        return room != null ? room.title : null;
+    }
+
+    /** First configured room containing this location, or null. */
+    public Room getRoomAt(Location loc) {
+        World world = loc.getWorld();
+        if (world == null) return null;
+        return getRoomAt(world, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+    }
+
+    /** Block-coordinate variant of {@link #getRoomAt(Location)}. */
+    public Room getRoomAt(World world, int x, int y, int z) {
+        ChunkRoomIndex chunks = indexFor(world);
+        if (chunks == null) return null;
+        for (Room room : chunks.get(ChunkRoomIndex.chunkKey(x >> 4, z >> 4))) {
+            if (room.contains(x, y, z)) return room;
         }
         return null;
     }
 
-    // ← NEW METHOD
-    public Room getRoomAt(Location loc) {
+    /** True if no room overlaps this chunk, so nothing inside it needs a lookup. */
+    public boolean isChunkEmpty(World world, int chunkX, int chunkZ) {
+        ChunkRoomIndex chunks = indexFor(world);
+        return chunks == null || chunks.get(ChunkRoomIndex.chunkKey(chunkX, chunkZ)).length == 0;
+    }
+
+    /**
+     * True if an earlier room overlaps {@code room}. Outside such rooms,
+     * being inside a room's box is enough to know getRoomAt() returns it.
+     */
+    public boolean isShadowed(Room room) {
+        return shadowed.contains(room);
+    }
+
+    /** Room by its config key, or null. */
+    public Room getRoom(String key) {
         for (Room room : rooms) {
-            if (room.contains(loc)) return room;
+            if (room.key.equals(key)) return room;
         }
         return null;
     }
 
-    // ← NEW METHOD
+    public List<Room> getRooms() {
+        return Collections.unmodifiableList(rooms);
+    }
+
     public Room getRoomByTitle(String title) {
-        for (Room room : rooms) {
-            if (room.title.equals(title)) return room;
+        return roomsByTitle.get(title);
+    }
+
+    private static boolean overlaps(Room a, Room b) {
+        return a.world.equals(b.world)
+            && a.minX <= b.maxX && b.minX <= a.maxX
+            && a.minY <= b.maxY && b.minY <= a.maxY
+            && a.minZ <= b.maxZ && b.minZ <= a.maxZ;
+    }
+
+    private ChunkRoomIndex indexFor(World world) {
+        WorldIndex[] indexes = worldIndexes;
+        for (WorldIndex index : indexes) {
+            if (index.world == world) return index.chunks;
+        }
+        // Same world, different wrapper instance (e.g. after a world reload)
+        for (WorldIndex index : indexes) {
+            if (index.world.equals(world)) return index.chunks;
         }
         return null;
     }
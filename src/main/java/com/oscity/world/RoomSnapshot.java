@@ -0,0 +1,207 @@
+package com.oscity.world;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Container;
+import org.bukkit.block.Sign;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.sign.Side;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The blocks of one room as they were when captured, for putting the room
+ * back later.
+ *
+ * Block data is palette-encoded: each distinct BlockData is stored once,
+ * and every block position holds an index into the palette, packed into
+ * longs at the fewest bits that fit the palette (a room of stone, air and a
+ * few dozen fixtures needs 5-6 bits per block). Positions are ordered
+ * y, then z, then x.
+ *
+ * Container contents and front sign text are kept separately for the few
+ * blocks that have them.
+ *
+ * A snapshot only holds coordinates, so it can be restored into any world
+ * that is a copy of the one it was captured in.
+ */
+public class RoomSnapshot {
+
+    public final String roomKey;
+    private final int minX, minY, minZ, sizeX, sizeY, sizeZ;
+
+    private final BlockData[] palette;
+    private final int bits;
+    private final int perLong;
+    private final long[] packed;
+
+    /** Block index → container contents / front sign lines. */
+    private final Map<Integer, ItemStack[]> inventories;
+    private final Map<Integer, List<Component>> signs;
+
+    private RoomSnapshot(String roomKey, int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ,
+                         BlockData[] palette, long[] packed,
+                         Map<Integer, ItemStack[]> inventories, Map<Integer, List<Component>> signs) {
+        this.roomKey = roomKey;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.palette = palette;
+        this.bits = bitsFor(palette.length);
+        this.perLong = 64 / bits;
+        this.packed = packed;
+        this.inventories = inventories;
+        this.signs = signs;
+    }
+
+    // ── Capture ───────────────────────────────────────────────────────────────
+
+    /** Read every block of {@code room} from its world. Loads chunks synchronously. */
+    public static RoomSnapshot capture(RoomRegistry.Room room) {
+        int sizeX = room.maxX - room.minX + 1;
+        int sizeY = room.maxY - room.minY + 1;
+        int sizeZ = room.maxZ - room.minZ + 1;
+        int volume = sizeX * sizeY * sizeZ;
+
+        Map<BlockData, Integer> paletteIds = new HashMap<>();
+        List<BlockData> palette = new ArrayList<>();
+        int[] ids = new int[volume];
+        Map<Integer, ItemStack[]> inventories = new HashMap<>();
+        Map<Integer, List<Component>> signs = new HashMap<>();
+
+        World world = room.world;
+        int i = 0;
+        for (int y = room.minY; y <= room.maxY; y++) {
+            for (int z = room.minZ; z <= room.maxZ; z++) {
+                for (int x = room.minX; x <= room.maxX; x++, i++) {
+                    Block block = world.getBlockAt(x, y, z);
+                    BlockData data = block.getBlockData();
+                    Integer id = paletteIds.get(data);
+                    if (id == null) {
+                        id = palette.size();
+                        paletteIds.put(data, id);
+                        palette.add(data);
+                    }
+                    ids[i] = id;
+
+                    if (block.getType().isAir()) continue;
+                    BlockState state = block.getState(false);
+                    if (state instanceof Container container) {
+                        inventories.put(i, copy(container.getInventory().getContents()));
+                    } else if (state instanceof Sign sign) {
+                        signs.put(i, new ArrayList<>(sign.getSide(Side.FRONT).lines()));
+                    }
+                }
+            }
+        }
+
+        int bits = bitsFor(palette.size());
+        int perLong = 64 / bits;
+        long[] packed = new long[(volume + perLong - 1) / perLong];
+        for (int j = 0; j < volume; j++) {
+            packed[j / perLong] |= (long) ids[j] << ((j % perLong) * bits);
+        }
+
+        return new RoomSnapshot(room.key, room.minX, room.minY, room.minZ, sizeX, sizeY, sizeZ,
+            palette.toArray(new BlockData[0]), packed, inventories, signs);
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+    }
+
+    private static ItemStack[] copy(ItemStack[] items) {
+        ItemStack[] out = new ItemStack[items.length];
+        for (int i = 0; i < items.length; i++) {
+            out[i] = items[i] != null ? items[i].clone() : null;
+        }
+        return out;
+    }
+
+    // ── Restore ───────────────────────────────────────────────────────────────
+
+    public int volume() {
+        return sizeX * sizeY * sizeZ;
+    }
+
+    private BlockData dataAt(int index) {
+        long word = packed[index / perLong];
+        int id = (int) ((word >>> ((index % perLong) * bits)) & ((1L << bits) - 1));
+        return palette[id];
+    }
+
+    /** True if any player in {@code world} is standing inside this room. */
+    public boolean isOccupied(World world) {
+        for (Player player : world.getPlayers()) {
+            int x = player.getLocation().getBlockX() - minX;
+            int y = player.getLocation().getBlockY() - minY;
+            int z = player.getLocation().getBlockZ() - minZ;
+            if (x >= 0 && x < sizeX && y >= 0 && y < sizeY && z >= 0 && z < sizeZ) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Put block {@code index} back the way it was captured, in {@code world}.
+     * Returns true if anything had to change. Physics is not applied, so
+     * doors, torches and redstone come back exactly as captured.
+     */
+    boolean restore(World world, int index, SignWriter signWriter) {
+        int x = minX + index % sizeX;
+        int z = minZ + (index / sizeX) % sizeZ;
+        int y = minY + index / (sizeX * sizeZ);
+        Block block = world.getBlockAt(x, y, z);
+
+        boolean changed = false;
+        BlockData want = dataAt(index);
+        if (!block.getBlockData().equals(want)) {
+            block.setBlockData(want, false);
+            changed = true;
+        }
+
+        ItemStack[] items = inventories.get(index);
+        List<Component> lines = signs.get(index);
+        if (items == null && lines == null) return changed;
+
+        BlockState state = block.getState();
+        if (items != null && state instanceof Container container) {
+            Inventory inventory = container.getInventory();
+            if (!Arrays.equals(inventory.getContents(), items)) {
+                inventory.setContents(copy(items));
+                changed = true;
+            }
+        } else if (lines != null && state instanceof Sign sign) {
+            if (!sign.getSide(Side.FRONT).lines().equals(lines)) {
+                for (int i = 0; i < lines.size(); i++) {
+                    sign.getSide(Side.FRONT).line(i, lines.get(i));
+                }
+                sign.update(true, false);
+                changed = true;
+            }
+            // The writer's cache no longer matches what the sign shows
+            signWriter.forget(block);
+        }
+        return changed;
+    }
+
+    /** Approximate heap size of the packed blocks, for diagnostics. */
+    public int packedBytes() {
+        return packed.length * 8;
+    }
+
+    public int paletteSize() {
+        return palette.length;
+    }
+}
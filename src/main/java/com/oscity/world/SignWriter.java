@@ -0,0 +1,148 @@
+package com.oscity.world;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.Sign;
+import org.bukkit.block.sign.Side;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes the front text of wall signs for the room managers.
+ *
+ * Remembers the last text written to each sign and drops writes that would
+ * not change it. Writes are queued rather than applied: several writes to
+ * the same sign in one tick collapse into the last one, and everything
+ * queued is applied once, at the end of the tick, with one block update per
+ * sign that actually changed.
+ *
+ * Main thread only. Signs edited by anything other than this writer (a
+ * region reset, a player with a sign editor) should be passed to
+ * {@link #forget} so the next write is not skipped.
+ */
+public class SignWriter implements Listener {
+
+    /** Four lines plus an optional colour; compared by value. */
+    private static final class Text {
+        final String[] lines;
+        final TextColor color;
+
+        Text(String[] lines, TextColor color) {
+            this.lines = lines;
+            this.color = color;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Text other)) return false;
+            return Arrays.equals(lines, other.lines) && Objects.equals(color, other.color);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(lines) + Objects.hashCode(color);
+        }
+    }
+
+    private final JavaPlugin plugin;
+    /** Text each sign was last set to by this writer. */
+    private final Map<Block, Text> written = new HashMap<>();
+    /** Writes waiting for the end of the tick, in the order they were first queued. */
+    private final Map<Block, Text> pending = new LinkedHashMap<>();
+
+    private long applied, unchanged, coalesced;
+
+    public SignWriter(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void register() {
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    // ── Write ─────────────────────────────────────────────────────────────────
+
+    /** Queue four lines of plain text for this sign. */
+    public void write(Block block, String l1, String l2, String l3, String l4) {
+        write(block, null, l1, l2, l3, l4);
+    }
+
+    /** Queue four lines for this sign, all in {@code color} (null for the sign's default). */
+    public void write(Block block, TextColor color, String l1, String l2, String l3, String l4) {
+        Text text = new Text(new String[] { nz(l1), nz(l2), nz(l3), nz(l4) }, color);
+
+        if (text.equals(written.get(block))) {
+            // Back to what the sign already shows: cancel anything queued
+            if (pending.remove(block) != null) coalesced++;
+            else unchanged++;
+            return;
+        }
+        if (pending.put(block, text) != null) coalesced++;
+    }
+
+    /** Forget what this sign shows, so the next write is always applied. */
+    public void forget(Block block) {
+        written.remove(block);
+    }
+
+    /** Forget every sign in a world, and drop its pending writes (the world is being unloaded). */
+    public void forgetWorld(World world) {
+        written.keySet().removeIf(block -> block.getWorld().equals(world));
+        pending.keySet().removeIf(block -> block.getWorld().equals(world));
+    }
+
+    /** Forget every sign (e.g. after the world was reset). */
+    public void forgetAll() {
+        written.clear();
+    }
+
+    // ── Flush ─────────────────────────────────────────────────────────────────
+
+    @EventHandler
+    public void onTickEnd(ServerTickEndEvent event) {
+        if (!pending.isEmpty()) flush();
+    }
+
+    /** Apply every queued write now. */
+    public void flush() {
+        for (Map.Entry<Block, Text> e : pending.entrySet()) {
+            Block block = e.getKey();
+            Text text = e.getValue();
+            if (!(block.getState() instanceof Sign sign)) {
+                plugin.getLogger().warning("[Signs] No sign block at " + block.getX() + "," + block.getY()
+                    + "," + block.getZ() + " (" + block.getType() + ")");
+                written.remove(block);
+                continue;
+            }
+            for (int i = 0; i < 4; i++) {
+                sign.getSide(Side.FRONT).line(i, text.color != null
+                    ? Component.text(text.lines[i], text.color)
+                    : Component.text(text.lines[i]));
+            }
+            sign.update(true);
+            written.put(block, text);
+            applied++;
+        }
+        pending.clear();
+    }
+
+    /** Applied / skipped-as-unchanged / merged-within-a-tick counts, for diagnostics. */
+    public String describe() {
+        return "signs: " + applied + " applied, " + unchanged + " unchanged, " + coalesced + " coalesced, "
+            + written.size() + " tracked";
+    }
+
+    private static String nz(String s) {
+        return s != null ? s : "";
+    }
+}
@@ -1,24 +1,62 @@
 package com.oscity.world;
 
+import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Holds references to all major structures in OSCityWorld.
  * Structures are pre-built manually in the world — this class provides
  * a central access point for structure-level operations (e.g. resetting
  * interactive elements, querying which structure a location belongs to).
+ *
+ * Every registered room is captured as a {@link RoomSnapshot} at startup.
+ * {@link #reset} puts a room back the way it was then: only blocks that
+ * differ are written, and the work is spread over ticks, at most
+ * {@code snapshots.blocksPerTick} writes and {@code snapshots.checksPerTick}
+ * comparisons per tick, so resetting a whole room never stalls the server.
+ * Resets are queued and run one room at a time.
  */
 public class StructureManager {
 
     private final JavaPlugin plugin;
     private final WorldManager worldManager;
     private final RoomRegistry roomRegistry;
+    private final SignWriter signWriter;
+
+    /** Room key → snapshot taken at startup, in config order. */
+    private final Map<String, RoomSnapshot> snapshots = new LinkedHashMap<>();
+    private final ArrayDeque<Reset> resets = new ArrayDeque<>();
+    private BukkitTask resetTask;
+    private int blocksPerTick;
+    private int checksPerTick;
+
+    /** One queued room reset; {@code next} is the first block not yet checked. */
+    private static final class Reset {
+        final RoomSnapshot snapshot;
+        final World world;
+        final boolean skipIfOccupied;
+        int next;
+        int changed;
 
-    public StructureManager(JavaPlugin plugin, WorldManager worldManager, RoomRegistry roomRegistry) {
+        Reset(RoomSnapshot snapshot, World world, boolean skipIfOccupied) {
+            this.snapshot = snapshot;
+            this.world = world;
+            this.skipIfOccupied = skipIfOccupied;
+        }
+    }
+
+    public StructureManager(JavaPlugin plugin, WorldManager worldManager, RoomRegistry roomRegistry,
+                            SignWriter signWriter) {
         this.plugin = plugin;
         this.worldManager = worldManager;
         this.roomRegistry = roomRegistry;
+        this.signWriter = signWriter;
     }
 
     /**
@@ -31,9 +69,105 @@ public class StructureManager {
             plugin.getLogger().severe("StructureManager: game world is not loaded, skipping init.");
             return;
         }
+        blocksPerTick = Math.max(1, plugin.getConfig().getInt("snapshots.blocksPerTick", 256));
+        checksPerTick = Math.max(blocksPerTick, plugin.getConfig().getInt("snapshots.checksPerTick", 8192));
+        captureAll();
         plugin.getLogger().info("StructureManager initialized. Structures ready in world: " + world.getName());
     }
 
+    /** Snapshot every registered room as it is now. */
+    private void captureAll() {
+        snapshots.clear();
+        long start = System.nanoTime();
+        long blocks = 0, bytes = 0;
+        for (RoomRegistry.Room room : roomRegistry.getRooms()) {
+            RoomSnapshot snapshot = RoomSnapshot.capture(room);
+            snapshots.put(room.key, snapshot);
+            blocks += snapshot.volume();
+            bytes += snapshot.packedBytes();
+        }
+        plugin.getLogger().info("[Snapshots] Captured " + snapshots.size() + " rooms (" + blocks + " blocks, "
+            + (bytes / 1024) + " KiB packed) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    // ── Reset ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Queue a reset of one room in {@code world} (the configured world or a
+     * copy of it). Returns false if there is no snapshot for that room.
+     */
+    public boolean reset(String roomKey, World world) {
+        RoomSnapshot snapshot = snapshots.get(roomKey);
+        if (snapshot == null) return false;
+        enqueue(new Reset(snapshot, world, false));
+        return true;
+    }
+
+    /**
+     * Queue a reset of every room in {@code world} that nobody is standing in
+     * when its turn comes (end-of-journey cleanup).
+     */
+    public void resetUnoccupied(World world) {
+        for (RoomSnapshot snapshot : snapshots.values()) {
+            enqueue(new Reset(snapshot, world, true));
+        }
+    }
+
+    private void enqueue(Reset reset) {
+        // A reset already waiting for the same room and world covers this one
+        for (Reset queued : resets) {
+            if (queued.snapshot == reset.snapshot && queued.world.equals(reset.world) && queued.next == 0) return;
+        }
+        resets.add(reset);
+        if (resetTask == null) {
+            resetTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    /** Spend this tick's budget on the queued resets. */
+    private void tick() {
+        int writes = 0, checks = 0;
+        while (!resets.isEmpty() && writes < blocksPerTick && checks < checksPerTick) {
+            Reset reset = resets.peek();
+            if (reset.next == 0 && reset.skipIfOccupied && reset.snapshot.isOccupied(reset.world)) {
+                resets.poll();
+                continue;
+            }
+            int volume = reset.snapshot.volume();
+            while (reset.next < volume && writes < blocksPerTick && checks < checksPerTick) {
+                if (reset.snapshot.restore(reset.world, reset.next++, signWriter)) {
+                    reset.changed++;
+                    writes++;
+                }
+                checks++;
+            }
+            if (reset.next >= volume) {
+                resets.poll();
+                if (reset.changed > 0) {
+                    plugin.getLogger().info("[Snapshots] Reset " + reset.snapshot.roomKey + " in "
+                        + reset.world.getName() + " (" + reset.changed + " blocks changed)");
+                }
+            }
+        }
+        if (resets.isEmpty()) {
+            resetTask.cancel();
+            resetTask = null;
+        }
+    }
+
+    /** Drop queued resets for a world that is being unloaded. */
+    public void forgetWorld(World world) {
+        resets.removeIf(reset -> reset.world.equals(world));
+    }
+
+    public boolean hasSnapshot(String roomKey) {
+        return snapshots.containsKey(roomKey);
+    }
+
+    public int getPendingResetCount() {
+        return resets.size();
+    }
+
     /**
      * Returns the name of the structure (room title) at the given location,
      * or null if the location is not inside any registered room.
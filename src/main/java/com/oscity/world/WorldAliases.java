@@ -0,0 +1,59 @@
+package com.oscity.world;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Which loaded worlds are block-for-block copies of another world.
+ *
+ * Rooms, fixtures, locations and buttons are configured once, against the
+ * template world named in config.yml. A world registered here as a copy of
+ * that template has everything at the same coordinates, so anything
+ * configured for the template can be rebased into the copy by swapping the
+ * World and keeping x, y, z.
+ *
+ * Maintained by {@link InstanceManager}. Main thread only.
+ */
+public class WorldAliases {
+
+    /** Copy world name → the template it was cloned from. */
+    private final Map<String, World> templates = new HashMap<>();
+
+    public void add(World copy, World template) {
+        templates.put(copy.getName(), template);
+    }
+
+    public void remove(World copy) {
+        templates.remove(copy.getName());
+    }
+
+    /** The template {@code world} was cloned from, or {@code world} itself if it is not a copy. */
+    public World templateOf(World world) {
+        if (world == null || templates.isEmpty()) return world;
+        World template = templates.get(world.getName());
+        return template != null ? template : world;
+    }
+
+    /** True if {@code world} is {@code template} or a copy of it. */
+    public boolean isCopyOf(World world, World template) {
+        if (world == null) return false;
+        return world == template || world.equals(template) || template.equals(templates.get(world.getName()));
+    }
+
+    /**
+     * The same position as {@code loc} in {@code target}, if {@code target} is
+     * a copy of loc's world; otherwise {@code loc} unchanged. Never modifies loc.
+     */
+    public Location rebase(Location loc, World target) {
+        if (loc == null || target == null || target.equals(loc.getWorld())) return loc;
+        if (!isCopyOf(target, loc.getWorld())) return loc;
+        return new Location(target, loc.getX(), loc.getY(), loc.getZ(), loc.getYaw(), loc.getPitch());
+    }
+
+    public int size() {
+        return templates.size();
+    }
+}
@@ -32,22 +32,27 @@ public class WorldManager {
             return;
         }
 
+        applyStudySettings(gameWorld);
+
+        plugin.getLogger().info("World '" + worldName + "' initialized with study settings.");
+    }
+
+    /** Lock a world's properties for the study (also applied to every instance copy). */
+    public void applyStudySettings(World world) {
         // Lock time to midday so lighting is consistent
-        gameWorld.setTime(6000);
-        gameWorld.setStorm(false);
-        gameWorld.setThundering(false);
-        gameWorld.setDifficulty(Difficulty.PEACEFUL);
+        world.setTime(6000);
+        world.setStorm(false);
+        world.setThundering(false);
+        world.setDifficulty(Difficulty.PEACEFUL);
 
         // Game rules for controlled study environment
-        gameWorld.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
-        gameWorld.setGameRule(GameRule.DO_WEATHER_CYCLE, false);
-        gameWorld.setGameRule(GameRule.DO_MOB_SPAWNING, false);
-        gameWorld.setGameRule(GameRule.KEEP_INVENTORY, true);
-        gameWorld.setGameRule(GameRule.ANNOUNCE_ADVANCEMENTS, false);
-        gameWorld.setGameRule(GameRule.DO_IMMEDIATE_RESPAWN, true);
-        gameWorld.setGameRule(GameRule.FALL_DAMAGE, false);
-
-        plugin.getLogger().info("World '" + worldName + "' initialized with study settings.");
+        world.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
+        world.setGameRule(GameRule.DO_WEATHER_CYCLE, false);
+        world.setGameRule(GameRule.DO_MOB_SPAWNING, false);
+        world.setGameRule(GameRule.KEEP_INVENTORY, true);
+        world.setGameRule(GameRule.ANNOUNCE_ADVANCEMENTS, false);
+        world.setGameRule(GameRule.DO_IMMEDIATE_RESPAWN, true);
+        world.setGameRule(GameRule.FALL_DAMAGE, false);
     }
 
     public World getGameWorld() {